@@ -0,0 +1,239 @@
+package io.github.viepovsky.polishutils.pesel.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * The {@code BatchProcessor} class streams lines from an input channel to an output channel, processing
+ * batches of lines on multiple threads while keeping the output in the order of the input.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel.cli package.
+ *
+ * @author Oskar Rajzner
+ */
+final class BatchProcessor implements AutoCloseable {
+
+    /**
+     * The size of the input and output buffers in bytes.
+     */
+    static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The number of lines processed by a single task.
+     */
+    static final int BATCH_SIZE = 16_384;
+
+    /**
+     * The executor processing the batches.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The maximal number of batches processed or waiting to be written at once.
+     */
+    private final int maxPendingBatches;
+
+    /**
+     * Creates a new {@code BatchProcessor} object using the given number of threads.
+     *
+     * @param threads the number of processing threads
+     */
+    BatchProcessor(int threads) {
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pesel-cli-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maxPendingBatches = threads * 2;
+    }
+
+    /**
+     * Reads all lines from the input, processes them in batches and writes the results to the output.
+     *
+     * @param input     the input channel
+     * @param output    the output channel
+     * @param processor the function appending the results of a batch of lines to the given builder
+     */
+    void process(ReadableByteChannel input, WritableByteChannel output,
+                 BiConsumer<List<String>, StringBuilder> processor) {
+        Deque<Future<StringBuilder>> pending = new ArrayDeque<>();
+        try (BufferedReader reader = createReader(input)) {
+            ChannelWriter writer = new ChannelWriter(output);
+            List<String> batch;
+            while (!(batch = readBatch(reader)).isEmpty()) {
+                List<String> lines = batch;
+                pending.add(executor.submit(() -> {
+                    StringBuilder result = new StringBuilder(lines.size() * 32);
+                    processor.accept(lines, result);
+                    return result;
+                }));
+                if (pending.size() >= maxPendingBatches) {
+                    writer.write(await(pending.poll()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                writer.write(await(pending.poll()));
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the results produced by the given number of batch tasks to the output, keeping their order.
+     *
+     * @param output    the output channel
+     * @param batches   the number of batches
+     * @param processor the function appending the results of the batch with the given index to the given builder
+     */
+    void produce(WritableByteChannel output, long batches, BiConsumer<Long, StringBuilder> processor) {
+        Deque<Future<StringBuilder>> pending = new ArrayDeque<>();
+        ChannelWriter writer = new ChannelWriter(output);
+        for (long i = 0; i < batches; i++) {
+            long index = i;
+            pending.add(executor.submit(() -> {
+                StringBuilder result = new StringBuilder(BATCH_SIZE * 12);
+                processor.accept(index, result);
+                return result;
+            }));
+            if (pending.size() >= maxPendingBatches) {
+                writer.write(await(pending.poll()));
+            }
+        }
+        while (!pending.isEmpty()) {
+            writer.write(await(pending.poll()));
+        }
+        writer.flush();
+    }
+
+    /**
+     * Creates a buffered reader of ASCII lines from the given channel.
+     *
+     * @param input the input channel
+     * @return the buffered reader
+     */
+    static BufferedReader createReader(ReadableByteChannel input) {
+        return new BufferedReader(Channels.newReader(input, StandardCharsets.US_ASCII), BUFFER_SIZE);
+    }
+
+    /**
+     * Reads the next batch of lines.
+     *
+     * @param reader the reader of lines
+     * @return the batch of lines, empty if there are no more lines
+     * @throws IOException if the input can't be read
+     */
+    private static List<String> readBatch(BufferedReader reader) throws IOException {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        String line;
+        while (batch.size() < BATCH_SIZE && (line = reader.readLine()) != null) {
+            batch.add(line);
+        }
+        return batch;
+    }
+
+    /**
+     * Waits for the result of the given batch.
+     *
+     * @param future the future result of a batch
+     * @return the result of the batch
+     */
+    private static StringBuilder await(Future<StringBuilder> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Processing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Shuts the processing threads down.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Writer of ASCII text to a channel through a large byte buffer.
+     */
+    static final class ChannelWriter {
+
+        /**
+         * The output channel.
+         */
+        private final WritableByteChannel output;
+
+        /**
+         * The buffer of bytes not yet written to the channel.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        /**
+         * Creates a new {@code ChannelWriter} object writing to the given channel.
+         *
+         * @param output the output channel
+         */
+        ChannelWriter(WritableByteChannel output) {
+            this.output = output;
+        }
+
+        /**
+         * Writes the given ASCII text.
+         *
+         * @param text the text to write
+         */
+        void write(CharSequence text) {
+            for (int i = 0; i < text.length(); i++) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                buffer.put((byte) text.charAt(i));
+            }
+        }
+
+        /**
+         * Writes all buffered bytes to the channel.
+         */
+        void flush() {
+            drain();
+        }
+
+        /**
+         * Writes all buffered bytes to the channel and clears the buffer.
+         */
+        private void drain() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    output.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
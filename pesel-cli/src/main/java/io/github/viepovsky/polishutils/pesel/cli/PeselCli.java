@@ -0,0 +1,368 @@
+package io.github.viepovsky.polishutils.pesel.cli;
+
+import io.github.viepovsky.polishutils.pesel.InvalidPeselReason;
+import io.github.viepovsky.polishutils.pesel.Pesel;
+import io.github.viepovsky.polishutils.pesel.PeselDecodingStrategy;
+import io.github.viepovsky.polishutils.pesel.PeselDuplicateFinder;
+import io.github.viepovsky.polishutils.pesel.PeselGenerator;
+import io.github.viepovsky.polishutils.pesel.PeselGeneratorParams;
+import io.github.viepovsky.polishutils.pesel.PeselValidationLevel;
+import io.github.viepovsky.polishutils.pesel.PeselValidationStrategy;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code PeselCli} class is the entry point of the command-line tool for bulk processing of PESEL numbers.
+ * <p>
+ * The tool reads one PESEL per line from the standard input and writes tab separated results to the standard
+ * output. The following commands are available:
+ * <ul>
+ *     <li>{@code validate} - prints every PESEL followed by {@code VALID} or the reason why it is invalid
+ *     <li>{@code decode} - prints every PESEL followed by the date of birth and gender, or the reason why it is invalid
+ *     <li>{@code generate <count>} - prints the given number of random PESEL numbers, optionally with
+ *     {@code --gender}, {@code --min-date} and {@code --max-date}
+ *     <li>{@code dedupe} - prints the pairs of PESEL numbers that differ by a single digit or two swapped digits
+ *     <li>{@code stats} - prints the summary of validity, reasons, genders and centuries of birth
+ * </ul>
+ * Lines are processed in batches on the number of threads given by {@code --threads}, which defaults to the number
+ * of available processors, and the output keeps the order of the input.
+ *
+ * @author Oskar Rajzner
+ */
+public final class PeselCli {
+
+    /**
+     * The exit status of a successful run.
+     */
+    private static final int EXIT_SUCCESS = 0;
+
+    /**
+     * The exit status of a run with invalid arguments.
+     */
+    private static final int EXIT_USAGE = 2;
+
+    /**
+     * The greatest number of processing threads.
+     */
+    private static final int MAX_THREADS = 10_000;
+
+    /**
+     * The usage message.
+     */
+    private static final String USAGE = """
+            Usage: pesel <command> [options]
+            Commands:
+              validate                          validates PESEL numbers read from the standard input
+              decode                            decodes birth dates and genders of PESEL numbers
+              generate <count>                  generates random PESEL numbers
+                [--gender MALE|FEMALE] [--min-date yyyy-MM-dd] [--max-date yyyy-MM-dd]
+              dedupe                            finds PESEL numbers differing by a single typo
+              stats                             summarizes validity, genders and centuries of birth
+            Options:
+              --threads <count>                 number of processing threads""";
+
+    /**
+     * The validation strategy shared by all processing threads.
+     */
+    private static final PeselValidationStrategy VALIDATION = PeselValidationStrategy.standard();
+
+    /**
+     * The decoding strategy of PESEL numbers already validated with {@link #VALIDATION}, checking only their format.
+     */
+    private static final PeselDecodingStrategy DECODING =
+            PeselDecodingStrategy.of(PeselValidationStrategy.of(PeselValidationLevel.FORMAT));
+
+    private PeselCli() {
+    }
+
+    /**
+     * Runs the command-line tool with the standard input and output.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int status;
+        try (FileInputStream input = new FileInputStream(FileDescriptor.in);
+             FileOutputStream output = new FileOutputStream(FileDescriptor.out)) {
+            status = run(args, input.getChannel(), output.getChannel(), System.err);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Runs the command-line tool with the given input and output.
+     *
+     * @param args   the command-line arguments
+     * @param input  the channel the PESEL numbers are read from
+     * @param output the channel the results are written to
+     * @param errors the stream the errors are printed to
+     * @return the exit status
+     */
+    static int run(String[] args, ReadableByteChannel input, WritableByteChannel output, PrintStream errors) {
+        Arguments arguments;
+        try {
+            arguments = Arguments.parse(args);
+        } catch (IllegalArgumentException e) {
+            errors.println(e.getMessage());
+            errors.println(USAGE);
+            return EXIT_USAGE;
+        }
+        try (BatchProcessor processor = new BatchProcessor(arguments.threads)) {
+            switch (arguments.command) {
+                case "validate" -> processor.process(input, output, PeselCli::validate);
+                case "decode" -> processor.process(input, output, PeselCli::decode);
+                case "generate" -> generate(processor, arguments, output);
+                case "dedupe" -> dedupe(input, output);
+                case "stats" -> stats(processor, input, output);
+                default -> {
+                    errors.println("Unknown command: " + arguments.command);
+                    errors.println(USAGE);
+                    return EXIT_USAGE;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            errors.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+        return EXIT_SUCCESS;
+    }
+
+    /**
+     * Appends the validation results of the given lines.
+     *
+     * @param lines  the lines with PESEL numbers
+     * @param result the builder the results are appended to
+     */
+    private static void validate(List<String> lines, StringBuilder result) {
+        InvalidPeselReason[] reasons = new InvalidPeselReason[lines.size()];
+        VALIDATION.checkAll(lines, reasons);
+        for (int i = 0; i < reasons.length; i++) {
+            InvalidPeselReason reason = reasons[i];
+            result.append(lines.get(i)).append('\t').append(reason == null ? "VALID" : reason.name()).append('\n');
+        }
+    }
+
+    /**
+     * Appends the decoded birth dates and genders of the given lines.
+     *
+     * @param lines  the lines with PESEL numbers
+     * @param result the builder the results are appended to
+     */
+    private static void decode(List<String> lines, StringBuilder result) {
+        InvalidPeselReason[] reasons = new InvalidPeselReason[lines.size()];
+        VALIDATION.checkAll(lines, reasons);
+        for (int i = 0; i < reasons.length; i++) {
+            InvalidPeselReason reason = reasons[i];
+            String line = lines.get(i);
+            result.append(line).append('\t');
+            if (reason == null) {
+                Pesel pesel = DECODING.decode(line);
+                result.append(pesel.getBirthDate()).append('\t').append(pesel.getGender());
+            } else {
+                result.append("INVALID\t").append(reason.name());
+            }
+            result.append('\n');
+        }
+    }
+
+    /**
+     * Writes the requested number of random PESEL numbers, generating batches of them in parallel.
+     *
+     * @param processor the batch processor
+     * @param arguments the command-line arguments
+     * @param output    the channel the PESEL numbers are written to
+     */
+    private static void generate(BatchProcessor processor, Arguments arguments, WritableByteChannel output) {
+        PeselGenerator generator = new PeselGenerator(arguments.generatorParams);
+        long batches = (arguments.count + BatchProcessor.BATCH_SIZE - 1) / BatchProcessor.BATCH_SIZE;
+        processor.produce(output, batches, (index, result) -> {
+            long count = Math.min(BatchProcessor.BATCH_SIZE, arguments.count - index * BatchProcessor.BATCH_SIZE);
+            for (long i = 0; i < count; i++) {
+                result.append(generator.generatePesel()).append('\n');
+            }
+        });
+    }
+
+    /**
+     * Reads all PESEL numbers and writes the pairs that differ by a single digit or two swapped adjacent digits.
+     *
+     * @param input  the channel the PESEL numbers are read from
+     * @param output the channel the pairs are written to
+     */
+    private static void dedupe(ReadableByteChannel input, WritableByteChannel output) {
+        List<String> pesels = new ArrayList<>();
+        try (BufferedReader reader = BatchProcessor.createReader(input)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                pesels.add(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        BatchProcessor.ChannelWriter writer = new BatchProcessor.ChannelWriter(output);
+        StringBuilder result = new StringBuilder(64);
+        PeselDuplicateFinder.find(pesels, pair -> {
+            result.setLength(0);
+            result.append(pair.getFirstPesel()).append('\t')
+                    .append(pair.getSecondPesel()).append('\t')
+                    .append(pair.getType()).append('\t')
+                    .append(pair.getPosition()).append('\t')
+                    .append(pair.getValidity()).append('\n');
+            writer.write(result);
+        });
+        writer.flush();
+    }
+
+    /**
+     * Reads all PESEL numbers and writes the summary of their validity, genders and centuries of birth.
+     *
+     * @param processor the batch processor
+     * @param input     the channel the PESEL numbers are read from
+     * @param output    the channel the summary is written to
+     */
+    private static void stats(BatchProcessor processor, ReadableByteChannel input, WritableByteChannel output) {
+        Statistics total = new Statistics();
+        processor.process(input, output, (lines, result) -> {
+            InvalidPeselReason[] reasons = new InvalidPeselReason[lines.size()];
+            VALIDATION.checkAll(lines, reasons);
+            Statistics statistics = new Statistics();
+            for (int i = 0; i < reasons.length; i++) {
+                InvalidPeselReason reason = reasons[i];
+                if (reason == null) {
+                    statistics.addValid(DECODING.decode(lines.get(i)));
+                } else {
+                    statistics.addInvalid(reason);
+                }
+            }
+            total.merge(statistics);
+        });
+        BatchProcessor.ChannelWriter writer = new BatchProcessor.ChannelWriter(output);
+        writer.write(total.toString());
+        writer.flush();
+    }
+
+    /**
+     * The parsed command-line arguments.
+     */
+    private static final class Arguments {
+
+        /**
+         * The command to run.
+         */
+        private String command;
+
+        /**
+         * The number of processing threads.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * The number of PESEL numbers to generate.
+         */
+        private long count;
+
+        /**
+         * The parameters of the generated PESEL numbers.
+         */
+        private PeselGeneratorParams generatorParams;
+
+        /**
+         * Parses the given command-line arguments.
+         *
+         * @param args the command-line arguments
+         * @return the parsed arguments
+         * @throws IllegalArgumentException if the arguments are invalid
+         */
+        static Arguments parse(String[] args) {
+            if (args.length == 0) {
+                throw new IllegalArgumentException("Missing command");
+            }
+            Arguments arguments = new Arguments();
+            arguments.command = args[0];
+            PeselGeneratorParams.Builder params = PeselGeneratorParams.builder();
+            int i = 1;
+            if (arguments.command.equals("generate")) {
+                if (args.length < 2) {
+                    throw new IllegalArgumentException("Missing number of PESEL numbers to generate");
+                }
+                arguments.count = parseNumber(args[i++]);
+            }
+            while (i < args.length) {
+                String option = args[i++];
+                if (i == args.length) {
+                    throw new IllegalArgumentException("Missing value of option " + option);
+                }
+                String value = args[i++];
+                switch (option) {
+                    case "--threads" -> arguments.threads = parseThreads(value);
+                    case "--gender" -> params.gender(PeselGeneratorParams.Gender.valueOf(value.toUpperCase()));
+                    case "--min-date" -> params.minDate(parseDate(value));
+                    case "--max-date" -> params.maxDate(parseDate(value));
+                    default -> throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            arguments.generatorParams = params.build();
+            return arguments;
+        }
+
+        /**
+         * Parses a non-negative number.
+         *
+         * @param value the value to parse
+         * @return the parsed number
+         * @throws IllegalArgumentException if the value is not a non-negative number
+         */
+        private static long parseNumber(String value) {
+            long number = Long.parseLong(value);
+            if (number < 0) {
+                throw new IllegalArgumentException("Number should not be negative: " + value);
+            }
+            return number;
+        }
+
+        /**
+         * Parses the number of processing threads.
+         *
+         * @param value the value to parse
+         * @return the parsed number of threads
+         * @throws IllegalArgumentException if the value is not a number between 1 and {@link #MAX_THREADS}
+         */
+        private static int parseThreads(String value) {
+            long threads = parseNumber(value);
+            if (threads < 1 || threads > MAX_THREADS) {
+                throw new IllegalArgumentException("Number of threads should be between: 1 and " + MAX_THREADS
+                        + ", but was " + value);
+            }
+            return (int) threads;
+        }
+
+        /**
+         * Parses a date in ISO format.
+         *
+         * @param value the value to parse
+         * @return the parsed date
+         * @throws IllegalArgumentException if the value is not a date in ISO format
+         */
+        private static LocalDate parseDate(String value) {
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date, should be yyyy-MM-dd: " + value);
+            }
+        }
+    }
+}
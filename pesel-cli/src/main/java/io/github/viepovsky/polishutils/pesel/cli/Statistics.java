@@ -0,0 +1,112 @@
+package io.github.viepovsky.polishutils.pesel.cli;
+
+import io.github.viepovsky.polishutils.pesel.InvalidPeselReason;
+import io.github.viepovsky.polishutils.pesel.Pesel;
+
+/**
+ * The {@code Statistics} class counts the validity, invalidity reasons, genders and centuries of birth
+ * of processed PESEL numbers.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel.cli package.
+ *
+ * @author Oskar Rajzner
+ */
+final class Statistics {
+
+    /**
+     * The first year of the earliest century of birth encoded in PESEL.
+     */
+    private static final int FIRST_CENTURY = 1800;
+
+    /**
+     * The number of valid PESEL numbers.
+     */
+    private long valid;
+
+    /**
+     * The number of invalid PESEL numbers by reason, indexed by the reason ordinal.
+     */
+    private final long[] invalid = new long[InvalidPeselReason.values().length];
+
+    /**
+     * The number of valid PESEL numbers of males.
+     */
+    private long males;
+
+    /**
+     * The number of valid PESEL numbers of females.
+     */
+    private long females;
+
+    /**
+     * The number of valid PESEL numbers by century of birth, starting from 1800.
+     */
+    private final long[] centuries = new long[5];
+
+    /**
+     * Counts a valid PESEL.
+     *
+     * @param pesel the valid PESEL
+     */
+    void addValid(Pesel pesel) {
+        valid++;
+        if (pesel.getGender().equals("MALE")) {
+            males++;
+        } else {
+            females++;
+        }
+        centuries[(pesel.getBirthDate().getYear() - FIRST_CENTURY) / 100]++;
+    }
+
+    /**
+     * Counts an invalid PESEL.
+     *
+     * @param reason the reason why the PESEL is invalid
+     */
+    void addInvalid(InvalidPeselReason reason) {
+        invalid[reason.ordinal()]++;
+    }
+
+    /**
+     * Adds the counts of the given statistics to these statistics.
+     *
+     * @param other the statistics to add
+     */
+    synchronized void merge(Statistics other) {
+        valid += other.valid;
+        males += other.males;
+        females += other.females;
+        for (int i = 0; i < invalid.length; i++) {
+            invalid[i] += other.invalid[i];
+        }
+        for (int i = 0; i < centuries.length; i++) {
+            centuries[i] += other.centuries[i];
+        }
+    }
+
+    /**
+     * Returns the summary of the counts, one tab separated name and count per line.
+     *
+     * @return the summary as a String
+     */
+    @Override
+    public synchronized String toString() {
+        long invalidTotal = 0;
+        for (long count : invalid) {
+            invalidTotal += count;
+        }
+        StringBuilder summary = new StringBuilder();
+        summary.append("TOTAL\t").append(valid + invalidTotal).append('\n')
+                .append("VALID\t").append(valid).append('\n')
+                .append("INVALID\t").append(invalidTotal).append('\n');
+        for (InvalidPeselReason reason : InvalidPeselReason.values()) {
+            summary.append(reason.name()).append('\t').append(invalid[reason.ordinal()]).append('\n');
+        }
+        summary.append("MALE\t").append(males).append('\n')
+                .append("FEMALE\t").append(females).append('\n');
+        for (int i = 0; i < centuries.length; i++) {
+            summary.append("BORN_").append(FIRST_CENTURY + i * 100).append("S\t").append(centuries[i]).append('\n');
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.viepovsky.polishutils.pesel.cli;
+
+import io.github.viepovsky.polishutils.pesel.Pesel;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselCliTest {
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+
+    @Test
+    void should_validate_every_line() {
+        var status = run("92082683499\n92082683498\n9208268349\n", "validate");
+
+        assertEquals(0, status);
+        assertEquals("92082683499\tVALID\n92082683498\tINVALID_CONTROL_DIGIT\n9208268349\tINVALID_LENGTH\n", output());
+        assertEquals("", errors());
+    }
+
+    @Test
+    void should_keep_order_of_lines_processed_on_several_threads() {
+        var input = new StringBuilder();
+        var expected = new StringBuilder();
+        for (int i = 0; i < 3 * BatchProcessor.BATCH_SIZE + 7; i++) {
+            var pesel = i % 2 == 0 ? "92082683499" : "78010469227";
+            input.append(pesel).append('\n');
+            expected.append(pesel).append("\tVALID\n");
+        }
+
+        var status = run(input.toString(), "validate", "--threads", "4");
+
+        assertEquals(0, status);
+        assertEquals(expected.toString(), output());
+    }
+
+    @Test
+    void should_decode_valid_lines_and_give_reasons_of_invalid_ones() {
+        var status = run("92082683499\n78010469227\n92023012344\nabc\n", "decode");
+
+        assertEquals(0, status);
+        assertEquals("92082683499\t1992-08-26\tMALE\n"
+                + "78010469227\t1978-01-04\tFEMALE\n"
+                + "92023012344\tINVALID\tINVALID_BIRTH_DATE\n"
+                + "abc\tINVALID\tINVALID_LENGTH\n", output());
+    }
+
+    @Test
+    void should_generate_requested_number_of_valid_pesels() {
+        var status = run("", "generate", "2500", "--gender", "female",
+                "--min-date", "2001-01-01", "--max-date", "2001-12-31");
+
+        assertEquals(0, status);
+        var lines = output().lines().toList();
+        assertEquals(2500, lines.size());
+        for (String line : lines) {
+            var pesel = new Pesel(line);
+            assertEquals("FEMALE", pesel.getGender());
+            assertEquals(2001, pesel.getBirthDate().getYear());
+        }
+    }
+
+    @Test
+    void should_generate_nothing_when_count_is_zero() {
+        var status = run("", "generate", "0");
+
+        assertEquals(0, status);
+        assertEquals("", output());
+    }
+
+    @Test
+    void should_print_pairs_of_pesels_differing_by_single_typo() {
+        var status = run("78010469227\n92082683499\n78010469225\n", "dedupe");
+
+        assertEquals(0, status);
+        assertEquals("78010469227\t78010469225\tSUBSTITUTION\t10\tONE\n", output());
+    }
+
+    @Test
+    void should_summarize_validity_genders_and_centuries() {
+        var status = run("92082683499\n78010469227\n92082683498\n92023012344\n", "stats");
+
+        assertEquals(0, status);
+        var lines = output().lines().toList();
+        assertTrue(lines.containsAll(List.of("TOTAL\t4", "VALID\t2", "INVALID\t2", "INVALID_CONTROL_DIGIT\t1",
+                "INVALID_BIRTH_DATE\t1", "MALE\t1", "FEMALE\t1", "BORN_1900S\t2", "BORN_2000S\t0")), lines.toString());
+    }
+
+    @Test
+    void should_summarize_empty_input() {
+        var status = run("", "stats");
+
+        assertEquals(0, status);
+        assertTrue(output().startsWith("TOTAL\t0\nVALID\t0\nINVALID\t0\n"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidArguments")
+    void should_print_usage_and_exit_with_status_2_for_invalid_arguments(List<String> args) {
+        var status = run("92082683499\n", args.toArray(String[]::new));
+
+        assertEquals(2, status);
+        assertEquals("", output());
+        assertFalse(errors().isEmpty());
+    }
+
+    @Test
+    void should_name_unknown_command() {
+        var status = run("", "check");
+
+        assertEquals(2, status);
+        assertTrue(errors().startsWith("Unknown command: check"));
+        assertTrue(errors().contains("Usage: pesel <command> [options]"));
+    }
+
+    @Test
+    void should_name_option_without_value() {
+        var status = run("", "validate", "--threads");
+
+        assertEquals(2, status);
+        assertTrue(errors().startsWith("Missing value of option --threads"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "10001", "2147483648", "4294967296"})
+    void should_reject_number_of_threads_out_of_range(String threads) {
+        var status = run("92082683499\n", "validate", "--threads", threads);
+
+        assertEquals(2, status);
+        assertEquals("", output());
+        assertTrue(errors().startsWith("Number of threads should be between: 1 and 10000, but was " + threads));
+    }
+
+    @Test
+    void should_accept_greatest_number_of_threads() {
+        var status = run("92082683499\n", "validate", "--threads", "10000");
+
+        assertEquals(0, status);
+        assertEquals("92082683499\tVALID\n", output());
+    }
+
+    private static Stream<List<String>> invalidArguments() {
+        return Stream.of(
+                List.of(),
+                List.of("check"),
+                List.of("generate"),
+                List.of("generate", "-5"),
+                List.of("generate", "ten"),
+                List.of("generate", "10", "--gender", "OTHER"),
+                List.of("generate", "10", "--min-date", "01.01.2000"),
+                List.of("validate", "--threads", "many"),
+                List.of("validate", "--verbose", "true"),
+                List.of("validate", "--threads"));
+    }
+
+    private int run(String input, String... args) {
+        var in = Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)));
+        var out = Channels.newChannel(output);
+        return PeselCli.run(args, in, out, new PrintStream(errors, true, StandardCharsets.UTF_8));
+    }
+
+    private String output() {
+        return output.toString(StandardCharsets.US_ASCII);
+    }
+
+    private String errors() {
+        return errors.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,248 @@
+package io.github.viepovsky.polishutils.pesel.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import io.github.viepovsky.polishutils.pesel.InvalidPeselException;
+import io.github.viepovsky.polishutils.pesel.InvalidPeselReason;
+import io.github.viepovsky.polishutils.pesel.Pesel;
+import io.github.viepovsky.polishutils.pesel.PeselDecodingStrategy;
+import io.github.viepovsky.polishutils.pesel.PeselValidationLevel;
+import io.github.viepovsky.polishutils.pesel.PeselValidationStrategy;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code BatchHandler} class handles the batch endpoint, validating and decoding the PESEL numbers
+ * of the request body and streaming one JSON object per PESEL as soon as it is processed.
+ * <p>
+ * The request body is either a JSON array of strings, when the {@code Content-Type} is {@code application/json},
+ * or one PESEL per line otherwise. Every line of the response is one of:
+ * <blockquote><pre>
+ *     {"pesel":"92082683499","valid":true,"birthDate":"1992-08-26","gender":"MALE"}
+ *     {"pesel":"92082683498","valid":false,"reason":"INVALID_CONTROL_DIGIT"}
+ * </pre></blockquote>
+ * Request bodies with a {@code Content-Length} over {@code MAX_BODY_LENGTH} are rejected with 413 before being read,
+ * and bodies without it, e.g. chunked ones, are read through a {@link LimitedInputStream} that stops at the same
+ * limit. Error responses sent before streaming close the connection instead of reading the rest of the body.
+ * Only the first {@code MAX_ITEM_LENGTH} characters of every PESEL are kept, so a longer one is reported
+ * as {@code INVALID_LENGTH} with its value cut short. Once the response is streaming its status cannot change
+ * anymore, so a malformed body, a body exceeding {@code MAX_BODY_LENGTH} or a batch exceeding {@code MAX_BATCH_SIZE}
+ * ends the response with a line like {@code {"error":"..."}}.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel.service package.
+ *
+ * @author Oskar Rajzner
+ */
+final class BatchHandler implements HttpHandler {
+
+    /**
+     * The maximal number of PESEL numbers of a single request.
+     */
+    static final int MAX_BATCH_SIZE = 1 << 20;
+
+    /**
+     * The maximal length of a request body in bytes, rejected before reading it.
+     */
+    static final long MAX_BODY_LENGTH = MAX_BATCH_SIZE * 16L;
+
+    /**
+     * The maximal number of characters kept of a single PESEL of the request body.
+     */
+    static final int MAX_ITEM_LENGTH = 64;
+
+    /**
+     * The size of the request and response buffers in characters.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The validation strategy of the PESEL numbers.
+     */
+    private final PeselValidationStrategy validation;
+
+    /**
+     * The decoding strategy of the PESEL numbers already validated with the validation strategy,
+     * so it checks only the format before decoding.
+     */
+    private final PeselDecodingStrategy decoding;
+
+    /**
+     * Creates a new {@code BatchHandler} object validating PESEL numbers with the given strategy.
+     *
+     * @param validation the validation strategy
+     */
+    BatchHandler(PeselValidationStrategy validation) {
+        this.validation = validation;
+        this.decoding = PeselDecodingStrategy.of(PeselValidationStrategy.of(PeselValidationLevel.FORMAT));
+    }
+
+    /**
+     * Handles a single request of the batch endpoint.
+     *
+     * @param exchange the request and response
+     * @throws IOException if the request cannot be read or the response cannot be written
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, "Only POST is supported");
+                return;
+            }
+            String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (contentLength != null) {
+                long length;
+                try {
+                    length = Long.parseLong(contentLength);
+                } catch (NumberFormatException e) {
+                    length = -1;
+                }
+                if (length < 0) {
+                    sendError(exchange, 400, "Invalid Content-Length: " + contentLength);
+                    return;
+                }
+                if (length > MAX_BODY_LENGTH) {
+                    sendError(exchange, 413, "Request body exceeds the limit of " + MAX_BODY_LENGTH + " bytes");
+                    return;
+                }
+            }
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            boolean isJson = contentType != null && contentType.startsWith("application/json");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new LimitedInputStream(exchange.getRequestBody(), MAX_BODY_LENGTH), StandardCharsets.UTF_8), BUFFER_SIZE);
+            PeselSource source = isJson
+                    ? new JsonStringArrayReader(reader, MAX_ITEM_LENGTH)::next
+                    : new LineReader(reader, MAX_ITEM_LENGTH)::next;
+            String pesel;
+            try {
+                pesel = source.next();
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            } catch (LimitedInputStream.LimitExceededException e) {
+                sendError(exchange, 413, e.getMessage());
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), BUFFER_SIZE);
+            int count = 0;
+            try {
+                while (pesel != null) {
+                    if (++count > MAX_BATCH_SIZE) {
+                        throw new IllegalArgumentException("Batch size exceeds the limit of " + MAX_BATCH_SIZE);
+                    }
+                    writeResult(writer, pesel);
+                    pesel = source.next();
+                }
+            } catch (IllegalArgumentException | LimitedInputStream.LimitExceededException e) {
+                writer.write("{\"error\":");
+                writeString(writer, e.getMessage());
+                writer.write("}\n");
+            }
+            writer.flush();
+        }
+    }
+
+    /**
+     * Validates and decodes the given PESEL and writes the result as a line of JSON. The birth date is always
+     * checked when decoding, so a validation strategy skipping it still reports invalid birth dates.
+     *
+     * @param writer the writer of the response
+     * @param pesel  the PESEL number
+     * @throws IOException if the response cannot be written
+     */
+    private void writeResult(Writer writer, String pesel) throws IOException {
+        writer.write("{\"pesel\":");
+        writeString(writer, pesel);
+        InvalidPeselReason reason = validation.check(pesel);
+        Pesel decoded = null;
+        if (reason == null) {
+            try {
+                decoded = decoding.decode(pesel);
+            } catch (InvalidPeselException e) {
+                reason = InvalidPeselReason.INVALID_BIRTH_DATE;
+            }
+        }
+        if (decoded != null) {
+            writer.write(",\"valid\":true,\"birthDate\":\"");
+            writer.write(decoded.getBirthDate().toString());
+            writer.write("\",\"gender\":\"");
+            writer.write(decoded.getGender());
+            writer.write("\"}\n");
+        } else {
+            writer.write(",\"valid\":false,\"reason\":\"");
+            writer.write(reason.name());
+            writer.write("\"}\n");
+        }
+    }
+
+    /**
+     * Writes the given string as a JSON string, escaping the quotes, backslashes and control characters.
+     *
+     * @param writer the writer of the response
+     * @param value  the string
+     * @throws IOException if the response cannot be written
+     */
+    private static void writeString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Sends a plain text error response with the given status code and closes the connection afterwards.
+     * The rest of the request body is not read, as it may be chunked and of any length, so the server reads at most
+     * a small bounded part of it when the exchange is closed and then drops the connection instead of reusing it.
+     *
+     * @param exchange the request and response
+     * @param status   the status code
+     * @param message  the error message
+     * @throws IOException if the response cannot be written
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.getResponseHeaders().set("Connection", "close");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * The source of the PESEL numbers of the request body.
+     */
+    @FunctionalInterface
+    private interface PeselSource {
+
+        /**
+         * Reads the next PESEL of the request body.
+         *
+         * @return the next PESEL, or null at the end of the request body
+         * @throws IOException              if the request body cannot be read
+         * @throws IllegalArgumentException if the request body is malformed
+         */
+        String next() throws IOException;
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.viepovsky.polishutils.pesel.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The {@code JsonStringArrayReader} class reads the strings of a JSON array one by one, without reading the whole
+ * array into memory. Only arrays of strings are supported, which is all the batch endpoint accepts. A string longer
+ * than the limit is returned cut to the limit and followed by {@code ...}, like the lines of {@link LineReader},
+ * and the rest of it is skipped without keeping it.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel.service package.
+ *
+ * @author Oskar Rajzner
+ */
+final class JsonStringArrayReader {
+
+    /**
+     * The reader of the JSON text.
+     */
+    private final Reader reader;
+
+    /**
+     * The maximal number of characters kept of a string.
+     */
+    private final int maxLength;
+
+    /**
+     * The buffer of the current string.
+     */
+    private final StringBuilder string = new StringBuilder(16);
+
+    /**
+     * The state of the reader: 0 before the array, 1 inside the array, 2 after the array.
+     */
+    private int state;
+
+    /**
+     * Creates a new {@code JsonStringArrayReader} object reading the given JSON text.
+     *
+     * @param reader    the reader of the JSON text, preferably buffered
+     * @param maxLength the maximal number of characters kept of a string
+     */
+    JsonStringArrayReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Reads the next string of the array.
+     *
+     * @return the next string, or null if the end of the array was reached
+     * @throws IOException              if the JSON text cannot be read
+     * @throws IllegalArgumentException if the JSON text is not an array of strings
+     */
+    String next() throws IOException {
+        if (state == 2) {
+            return null;
+        }
+        int c = skipWhitespace();
+        if (state == 0) {
+            if (c != '[') {
+                throw new IllegalArgumentException("Request body should be a JSON array of strings");
+            }
+            state = 1;
+            c = skipWhitespace();
+            if (c == ']') {
+                return end();
+            }
+        } else if (c == ',') {
+            c = skipWhitespace();
+        } else if (c == ']') {
+            return end();
+        } else {
+            throw new IllegalArgumentException("Expected ',' or ']' in JSON array");
+        }
+        if (c != '"') {
+            throw new IllegalArgumentException("JSON array should contain only strings");
+        }
+        return readString();
+    }
+
+    /**
+     * Marks the end of the array and checks that nothing but whitespace follows it.
+     *
+     * @return always null
+     * @throws IOException              if the JSON text cannot be read
+     * @throws IllegalArgumentException if anything but whitespace follows the array
+     */
+    private String end() throws IOException {
+        state = 2;
+        if (skipWhitespace() != -1) {
+            throw new IllegalArgumentException("Unexpected content after JSON array");
+        }
+        return null;
+    }
+
+    /**
+     * Reads the rest of a string after its opening quote, resolving escape sequences. Characters after the limit
+     * are still read to find the end of the string, but are not kept.
+     *
+     * @return the string, cut to the limit
+     * @throws IOException              if the JSON text cannot be read
+     * @throws IllegalArgumentException if the string is not terminated or has an invalid escape sequence
+     */
+    private String readString() throws IOException {
+        string.setLength(0);
+        boolean isTruncated = false;
+        while (true) {
+            int c = reader.read();
+            if (c == '"') {
+                if (isTruncated) {
+                    string.append(LineReader.TRUNCATION_MARK);
+                }
+                return string.toString();
+            }
+            if (c == -1 || c < 0x20) {
+                throw new IllegalArgumentException("Unterminated string in JSON array");
+            }
+            char character;
+            if (c == '\\') {
+                c = reader.read();
+                character = switch (c) {
+                    case '"', '\\', '/' -> (char) c;
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    case 'u' -> readUnicodeEscape();
+                    default -> throw new IllegalArgumentException("Invalid escape sequence in JSON string");
+                };
+            } else {
+                character = (char) c;
+            }
+            if (string.length() < maxLength) {
+                string.append(character);
+            } else {
+                isTruncated = true;
+            }
+        }
+    }
+
+    /**
+     * Reads the four hexadecimal digits of a {@code \}{@code u} escape sequence.
+     *
+     * @return the escaped character
+     * @throws IOException              if the JSON text cannot be read
+     * @throws IllegalArgumentException if any of the digits is not hexadecimal
+     */
+    private char readUnicodeEscape() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(reader.read(), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid escape sequence in JSON string");
+            }
+            value = value << 4 | digit;
+        }
+        return (char) value;
+    }
+
+    /**
+     * Skips whitespace and returns the first character after it.
+     *
+     * @return the first character that is not whitespace, or -1 at the end of the text
+     * @throws IOException if the JSON text cannot be read
+     */
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = reader.read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+}
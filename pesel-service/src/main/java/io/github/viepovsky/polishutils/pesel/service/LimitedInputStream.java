@@ -0,0 +1,132 @@
+package io.github.viepovsky.polishutils.pesel.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The {@code LimitedInputStream} class counts the bytes read from a request body and fails as soon as there are more
+ * of them than the limit, so bodies without a {@code Content-Length}, e.g. chunked ones, are limited as well.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel.service package.
+ *
+ * @author Oskar Rajzner
+ */
+final class LimitedInputStream extends FilterInputStream {
+
+    /**
+     * The maximal number of bytes that can be read.
+     */
+    private final long limit;
+
+    /**
+     * The number of bytes read so far.
+     */
+    private long count;
+
+    /**
+     * Creates a new {@code LimitedInputStream} object reading at most the given number of bytes of the given stream.
+     *
+     * @param input the stream to read
+     * @param limit the maximal number of bytes that can be read
+     */
+    LimitedInputStream(InputStream input, long limit) {
+        super(input);
+        this.limit = limit;
+    }
+
+    /**
+     * Reads the next byte.
+     *
+     * @return the next byte, or -1 at the end of the stream
+     * @throws LimitExceededException if more bytes than the limit were read
+     * @throws IOException            if the stream cannot be read
+     */
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    /**
+     * Reads bytes into the given range of the array.
+     *
+     * @param bytes  the array
+     * @param offset the index of the first byte to write
+     * @param length the maximal number of bytes to read
+     * @return the number of bytes read, or -1 at the end of the stream
+     * @throws LimitExceededException if more bytes than the limit were read
+     * @throws IOException            if the stream cannot be read
+     */
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        int read = super.read(bytes, offset, length);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    /**
+     * Skips the given number of bytes, counting them as read.
+     *
+     * @param n the number of bytes to skip
+     * @return the number of bytes skipped
+     * @throws LimitExceededException if more bytes than the limit were read
+     * @throws IOException            if the stream cannot be read
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            count(skipped);
+        }
+        return skipped;
+    }
+
+    /**
+     * Marking is not supported, as reset bytes would be counted twice.
+     *
+     * @return always false
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Adds the given number of bytes to the count of bytes read.
+     *
+     * @param read the number of bytes read
+     * @throws LimitExceededException if more bytes than the limit were read
+     */
+    private void count(long read) throws LimitExceededException {
+        count += read;
+        if (count > limit) {
+            throw new LimitExceededException("Request body exceeds the limit of " + limit + " bytes");
+        }
+    }
+
+    /**
+     * Thrown when a request body is longer than the limit.
+     */
+    static final class LimitExceededException extends IOException {
+
+        /**
+         * The version of the serialized form.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructs a new {@code LimitExceededException} with the given message.
+         *
+         * @param message the message
+         */
+        LimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
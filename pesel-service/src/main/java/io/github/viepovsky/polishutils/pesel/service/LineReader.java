@@ -0,0 +1,87 @@
+package io.github.viepovsky.polishutils.pesel.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The {@code LineReader} class reads the lines of a text one by one, like {@link java.io.BufferedReader#readLine()},
+ * but never keeps more than a fixed number of characters of a line, so a single line can't take up the memory
+ * of the whole request body. Lines end with {@code \n}, {@code \r} or {@code \r\n}. A line longer than the limit
+ * is returned cut to the limit and followed by {@code ...}, and the rest of it is skipped.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel.service package.
+ *
+ * @author Oskar Rajzner
+ */
+final class LineReader {
+
+    /**
+     * The mark appended to lines cut to the limit.
+     */
+    static final String TRUNCATION_MARK = "...";
+
+    /**
+     * The reader of the text.
+     */
+    private final Reader reader;
+
+    /**
+     * The maximal number of characters kept of a line.
+     */
+    private final int maxLength;
+
+    /**
+     * The buffer of the current line.
+     */
+    private final StringBuilder line = new StringBuilder(16);
+
+    /**
+     * Whether the previous line ended with {@code \r}, so a {@code \n} right after it is skipped.
+     */
+    private boolean skipLineFeed;
+
+    /**
+     * Creates a new {@code LineReader} object reading the given text.
+     *
+     * @param reader    the reader of the text, preferably buffered
+     * @param maxLength the maximal number of characters kept of a line
+     */
+    LineReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @return the next line without the line terminator, or null at the end of the text
+     * @throws IOException if the text cannot be read
+     */
+    String next() throws IOException {
+        int c = reader.read();
+        if (skipLineFeed) {
+            skipLineFeed = false;
+            if (c == '\n') {
+                c = reader.read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        line.setLength(0);
+        boolean isTruncated = false;
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (line.length() < maxLength) {
+                line.append((char) c);
+            } else {
+                isTruncated = true;
+            }
+            c = reader.read();
+        }
+        skipLineFeed = c == '\r';
+        if (isTruncated) {
+            line.append(TRUNCATION_MARK);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,331 @@
+package io.github.viepovsky.polishutils.pesel.service;
+
+import io.github.viepovsky.polishutils.pesel.PeselGenerator;
+import io.github.viepovsky.polishutils.pesel.PeselGeneratorParams;
+import io.github.viepovsky.polishutils.pesel.PeselValidationStrategy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@code PeselLoadGenerator} class measures the throughput and tail latency of the batch endpoint
+ * of {@link PeselService} on a single machine. Every connection sends batches of generated PESEL numbers,
+ * a tenth of them with a corrupted control digit, and waits for the whole streamed response before sending
+ * the next batch. The latency of every request is recorded and the percentiles are printed at the end.
+ * <p>
+ * Example usage of the {@code PeselLoadGenerator} class:
+ * <blockquote><pre>
+ *     java PeselLoadGenerator --embedded --connections 32 --duration 30 --batch 1000
+ *     java PeselLoadGenerator --url http://localhost:8080/v1/pesels
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ */
+public final class PeselLoadGenerator {
+
+    /**
+     * The number of distinct request bodies of every connection, sent in turns.
+     */
+    private static final int BODIES_PER_CONNECTION = 16;
+
+    /**
+     * The usage message.
+     */
+    private static final String USAGE = """
+            Usage: PeselLoadGenerator [options]
+            Options:
+              --url <url>                       URL of the batch endpoint of a running service
+              --embedded                        starts the service in this JVM on a free port instead
+              --connections <count>             number of concurrent connections, 16 by default
+              --duration <seconds>              duration of the measurement, 10 by default
+              --warmup <seconds>                duration of the warmup before the measurement, 5 by default
+              --batch <count>                   number of PESEL numbers of every request, 1000 by default""";
+
+    private PeselLoadGenerator() {
+    }
+
+    /**
+     * Runs the load test with the options given in the command-line arguments and prints its results.
+     *
+     * @param args the command-line arguments
+     * @throws InterruptedException if interrupted while waiting for the connections
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String url = null;
+        boolean embedded = false;
+        int connections = 16;
+        int durationSeconds = 10;
+        int warmupSeconds = 5;
+        int batchSize = 1000;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--url" -> url = args[++i];
+                    case "--embedded" -> embedded = true;
+                    case "--connections" -> connections = Integer.parseInt(args[++i]);
+                    case "--duration" -> durationSeconds = Integer.parseInt(args[++i]);
+                    case "--warmup" -> warmupSeconds = Integer.parseInt(args[++i]);
+                    case "--batch" -> batchSize = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (embedded == (url != null)) {
+                throw new IllegalArgumentException("Exactly one of --url and --embedded should be given");
+            }
+            if (connections < 1 || durationSeconds < 1 || warmupSeconds < 0 || batchSize < 1) {
+                throw new IllegalArgumentException("Connections, duration and batch size should be positive");
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        PeselService service = null;
+        if (embedded) {
+            service = PeselService.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                    PeselValidationStrategy.standard());
+            url = "http://localhost:" + service.getPort() + PeselService.BATCH_PATH;
+        }
+        try {
+            URI uri = URI.create(url);
+            if (warmupSeconds > 0) {
+                System.err.println("Warming up for " + warmupSeconds + " s");
+                run(uri, connections, warmupSeconds, batchSize);
+            }
+            System.err.println("Measuring for " + durationSeconds + " s with " + connections + " connections");
+            Result result = run(uri, connections, durationSeconds, batchSize);
+            result.print(batchSize);
+        } finally {
+            if (service != null) {
+                service.close();
+            }
+        }
+    }
+
+    /**
+     * Sends batches over the given number of connections for the given time.
+     *
+     * @param uri             the URI of the batch endpoint
+     * @param connections     the number of concurrent connections
+     * @param durationSeconds the duration in seconds
+     * @param batchSize       the number of PESEL numbers of every request
+     * @return the merged result of all connections
+     * @throws InterruptedException if interrupted while waiting for the connections
+     */
+    private static Result run(URI uri, int connections, int durationSeconds, int batchSize) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + durationSeconds * 1_000_000_000L;
+        Connection[] workers = new Connection[connections];
+        Thread[] threads = new Thread[connections];
+        for (int i = 0; i < connections; i++) {
+            workers[i] = new Connection(client, uri, createBodies(batchSize), deadline);
+            threads[i] = new Thread(workers[i], "pesel-load-" + i);
+            threads[i].start();
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return Result.merge(workers, System.nanoTime() - start);
+    }
+
+    /**
+     * Creates the request bodies of a single connection, one PESEL per line.
+     *
+     * @param batchSize the number of PESEL numbers of every request
+     * @return the request bodies
+     */
+    private static byte[][] createBodies(int batchSize) {
+        PeselGenerator generator = new PeselGenerator(PeselGeneratorParams.builder().build());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte[][] bodies = new byte[BODIES_PER_CONNECTION][];
+        for (int i = 0; i < bodies.length; i++) {
+            StringBuilder body = new StringBuilder(batchSize * 12);
+            for (String pesel : generator.generatePesels(batchSize)) {
+                if (random.nextInt(10) == 0) {
+                    int controlDigit = pesel.charAt(10) - '0';
+                    pesel = pesel.substring(0, 10) + (char) ('0' + (controlDigit + 1) % 10);
+                }
+                body.append(pesel).append('\n');
+            }
+            bodies[i] = body.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+        return bodies;
+    }
+
+    /**
+     * A single connection sending batches one after another and recording their latencies.
+     */
+    private static final class Connection implements Runnable {
+
+        /**
+         * The HTTP client.
+         */
+        private final HttpClient client;
+
+        /**
+         * The URI of the batch endpoint.
+         */
+        private final URI uri;
+
+        /**
+         * The request bodies, sent in turns.
+         */
+        private final byte[][] bodies;
+
+        /**
+         * The {@code System.nanoTime()} after which no more requests are sent.
+         */
+        private final long deadline;
+
+        /**
+         * The latencies of the successful requests in nanoseconds.
+         */
+        private long[] latencies = new long[1024];
+
+        /**
+         * The number of successful requests.
+         */
+        private int count;
+
+        /**
+         * The number of failed requests.
+         */
+        private int errors;
+
+        /**
+         * Creates a new {@code Connection} object.
+         *
+         * @param client   the HTTP client
+         * @param uri      the URI of the batch endpoint
+         * @param bodies   the request bodies, sent in turns
+         * @param deadline the {@code System.nanoTime()} after which no more requests are sent
+         */
+        Connection(HttpClient client, URI uri, byte[][] bodies, long deadline) {
+            this.client = client;
+            this.uri = uri;
+            this.bodies = bodies;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Sends batches until the deadline, reading every streamed response to the end.
+         */
+        @Override
+        public void run() {
+            byte[] buffer = new byte[1 << 16];
+            for (int i = 0; System.nanoTime() < deadline; i++) {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "text/plain")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(bodies[i % bodies.length]))
+                        .build();
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    try (InputStream body = response.body()) {
+                        while (body.read(buffer) != -1) {
+                            // the whole response is read to measure the latency of the last result
+                        }
+                    }
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        continue;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * The merged result of all connections.
+     *
+     * @param latencies    the sorted latencies of the successful requests in nanoseconds
+     * @param errors       the number of failed requests
+     * @param elapsedNanos the duration of the run in nanoseconds
+     */
+    private record Result(long[] latencies, int errors, long elapsedNanos) {
+
+        /**
+         * Merges the latencies of the given connections and sorts them.
+         *
+         * @param connections  the finished connections
+         * @param elapsedNanos the duration of the run in nanoseconds
+         * @return the merged result
+         */
+        static Result merge(Connection[] connections, long elapsedNanos) {
+            List<long[]> parts = new ArrayList<>(connections.length);
+            int total = 0;
+            int errors = 0;
+            for (Connection connection : connections) {
+                parts.add(Arrays.copyOf(connection.latencies, connection.count));
+                total += connection.count;
+                errors += connection.errors;
+            }
+            long[] latencies = new long[total];
+            int offset = 0;
+            for (long[] part : parts) {
+                System.arraycopy(part, 0, latencies, offset, part.length);
+                offset += part.length;
+            }
+            Arrays.sort(latencies);
+            return new Result(latencies, errors, elapsedNanos);
+        }
+
+        /**
+         * Prints the throughput and the latency percentiles.
+         *
+         * @param batchSize the number of PESEL numbers of every request
+         */
+        void print(int batchSize) {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("requests:     %d (%d failed)%n", latencies.length, errors);
+            System.out.printf("requests/s:   %.1f%n", latencies.length / seconds);
+            System.out.printf("PESELs/s:     %.0f%n", (double) latencies.length * batchSize / seconds);
+            if (latencies.length == 0) {
+                return;
+            }
+            System.out.printf("latency p50:  %.3f ms%n", percentile(0.50));
+            System.out.printf("latency p90:  %.3f ms%n", percentile(0.90));
+            System.out.printf("latency p99:  %.3f ms%n", percentile(0.99));
+            System.out.printf("latency p999: %.3f ms%n", percentile(0.999));
+            System.out.printf("latency max:  %.3f ms%n", latencies[latencies.length - 1] / 1e6);
+        }
+
+        /**
+         * Returns the given percentile of the sorted latencies, using the nearest-rank method.
+         *
+         * @param fraction the percentile as a fraction between 0 and 1
+         * @return the latency in milliseconds
+         */
+        private double percentile(double fraction) {
+            int rank = (int) Math.ceil(fraction * latencies.length);
+            return latencies[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
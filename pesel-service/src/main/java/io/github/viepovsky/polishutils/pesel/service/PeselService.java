@@ -0,0 +1,216 @@
+package io.github.viepovsky.polishutils.pesel.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.viepovsky.polishutils.pesel.PeselValidationStrategy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code PeselService} class is an embedded HTTP service validating and decoding batches of PESEL numbers.
+ * <p>
+ * The service has the following endpoints:
+ * <ul>
+ *     <li>{@code POST /v1/pesels} - validates and decodes the PESEL numbers of the request body, given either as
+ *     a JSON array of strings ({@code Content-Type: application/json}) or as one PESEL per line, and streams one
+ *     JSON object per PESEL in the order of the request ({@code application/x-ndjson})
+ *     <li>{@code GET /v1/health} - returns {@code OK} when the service is running
+ * </ul>
+ * Requests are handled on virtual threads when the JVM supports them (Java 21 and later), or on a fixed pool of
+ * platform threads otherwise. Both the request and the response are streamed, so a batch is never held in memory
+ * as a whole.
+ * <p>
+ * Example usage of the {@code PeselService} class:
+ * <blockquote><pre>
+ *     try (PeselService service = PeselService.start(new InetSocketAddress(8080), PeselValidationStrategy.standard())) {
+ *         // POST ["92082683499","92082683498"] to http://localhost:8080/v1/pesels
+ *     }
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ */
+public final class PeselService implements AutoCloseable {
+
+    /**
+     * The path of the batch endpoint.
+     */
+    static final String BATCH_PATH = "/v1/pesels";
+
+    /**
+     * The path of the health endpoint.
+     */
+    static final String HEALTH_PATH = "/v1/health";
+
+    /**
+     * The usage message.
+     */
+    private static final String USAGE = """
+            Usage: pesel-service [options]
+            Options:
+              --port <port>                     port to listen on, 8080 by default
+              --threads <count>                 number of platform threads when virtual threads are not available
+              --strict                          rejects birth dates in the future""";
+
+    /**
+     * The HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * The executor handling the requests.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new {@code PeselService} object around the given server and executor.
+     *
+     * @param server   the started HTTP server
+     * @param executor the executor handling the requests
+     */
+    private PeselService(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts the service with the options given in the command-line arguments and runs it until the JVM exits.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors() * 4;
+        PeselValidationStrategy validation = PeselValidationStrategy.standard();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--strict" -> validation = PeselValidationStrategy.strict(Clock.systemDefaultZone());
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        PeselService service = start(new InetSocketAddress(port), validation, threads);
+        Runtime.getRuntime().addShutdownHook(new Thread(service::close, "pesel-service-shutdown"));
+        System.err.println("PESEL service listening on port " + service.getPort()
+                + (isVirtualThreadsAvailable() ? " with virtual threads" : " with " + threads + " threads"));
+    }
+
+    /**
+     * Starts the service on the given address, validating PESEL numbers with the given strategy.
+     *
+     * @param address    the address to listen on, with port 0 for any free port
+     * @param validation the validation strategy
+     * @return the started service
+     * @throws UncheckedIOException if the server cannot be started
+     */
+    public static PeselService start(InetSocketAddress address, PeselValidationStrategy validation) {
+        return start(address, validation, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Starts the service on the given address, validating PESEL numbers with the given strategy.
+     *
+     * @param address    the address to listen on, with port 0 for any free port
+     * @param validation the validation strategy
+     * @param threads    the number of platform threads used when virtual threads are not available
+     * @return the started service
+     * @throws UncheckedIOException if the server cannot be started
+     */
+    public static PeselService start(InetSocketAddress address, PeselValidationStrategy validation, int threads) {
+        HttpServer server;
+        try {
+            server = HttpServer.create(address, 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ExecutorService executor = createExecutor(threads);
+        server.setExecutor(executor);
+        server.createContext(BATCH_PATH, new BatchHandler(validation));
+        server.createContext(HEALTH_PATH, exchange -> {
+            byte[] body = "OK".getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+        return new PeselService(server, executor);
+    }
+
+    /**
+     * Returns the port the service listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the service, letting the requests in progress finish for up to a second.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks if the JVM supports virtual threads.
+     *
+     * @return true if virtual threads are available, false otherwise
+     */
+    static boolean isVirtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates the executor handling the requests, with a virtual thread per request if the JVM supports them.
+     * The module is compiled for Java 17, so the virtual thread executor is looked up at runtime.
+     *
+     * @param threads the number of platform threads used when virtual threads are not available
+     * @return the executor
+     */
+    private static ExecutorService createExecutor(int threads) {
+        if (isVirtualThreadsAvailable()) {
+            try {
+                return (ExecutorService) MethodHandles.publicLookup()
+                        .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                        .invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Virtual threads are available but cannot be created", e);
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "pesel-service-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,331 @@
+package io.github.viepovsky.polishutils.pesel.service;
+
+import io.github.viepovsky.polishutils.pesel.PeselValidationStrategy;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselServiceTest {
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    @Test
+    void should_validate_and_decode_json_array() throws Exception {
+        try (var service = start()) {
+            var response = post(service, "application/json", " [\"92082683499\", \"92082683498\",\"9208268349\"] ");
+
+            assertEquals(200, response.statusCode());
+            assertEquals("application/x-ndjson", response.headers().firstValue("Content-Type").orElseThrow());
+            assertEquals(List.of(
+                    "{\"pesel\":\"92082683499\",\"valid\":true,\"birthDate\":\"1992-08-26\",\"gender\":\"MALE\"}",
+                    "{\"pesel\":\"92082683498\",\"valid\":false,\"reason\":\"INVALID_CONTROL_DIGIT\"}",
+                    "{\"pesel\":\"9208268349\",\"valid\":false,\"reason\":\"INVALID_LENGTH\"}"), response.body().lines().toList());
+        }
+    }
+
+    @Test
+    void should_validate_one_pesel_per_line() throws Exception {
+        try (var service = start()) {
+            var response = post(service, "text/plain", "92082683499\r\n78010469227\n\n92023012344");
+
+            assertEquals(200, response.statusCode());
+            assertEquals(List.of(
+                    "{\"pesel\":\"92082683499\",\"valid\":true,\"birthDate\":\"1992-08-26\",\"gender\":\"MALE\"}",
+                    "{\"pesel\":\"78010469227\",\"valid\":true,\"birthDate\":\"1978-01-04\",\"gender\":\"FEMALE\"}",
+                    "{\"pesel\":\"\",\"valid\":false,\"reason\":\"INVALID_LENGTH\"}",
+                    "{\"pesel\":\"92023012344\",\"valid\":false,\"reason\":\"INVALID_BIRTH_DATE\"}"), response.body().lines().toList());
+        }
+    }
+
+    @Test
+    void should_resolve_escape_sequences_and_escape_output() throws Exception {
+        try (var service = start()) {
+            var response = post(service, "application/json", "[\"\\u0039\\u0032082683499\",\"a\\\"b\\\\c\\n\"]");
+
+            assertEquals(List.of(
+                    "{\"pesel\":\"92082683499\",\"valid\":true,\"birthDate\":\"1992-08-26\",\"gender\":\"MALE\"}",
+                    "{\"pesel\":\"a\\\"b\\\\c\\u000a\",\"valid\":false,\"reason\":\"INVALID_LENGTH\"}"), response.body().lines().toList());
+        }
+    }
+
+    @Test
+    void should_return_empty_response_for_empty_array() throws Exception {
+        try (var service = start()) {
+            var response = post(service, "application/json", "[]");
+
+            assertEquals(200, response.statusCode());
+            assertEquals("", response.body());
+        }
+    }
+
+    @Test
+    void should_cut_long_items_and_report_invalid_length() throws Exception {
+        var item = "9".repeat(100_000);
+        var cut = "9".repeat(BatchHandler.MAX_ITEM_LENGTH) + "...";
+        try (var service = start()) {
+            var json = post(service, "application/json", "[\"" + item + "\",\"92082683499\"]");
+            var lines = post(service, "text/plain", item + "\n92082683499\n");
+
+            for (var response : List.of(json, lines)) {
+                assertEquals(200, response.statusCode());
+                var results = response.body().lines().toList();
+                assertEquals(2, results.size());
+                assertEquals("{\"pesel\":\"" + cut + "\",\"valid\":false,\"reason\":\"INVALID_LENGTH\"}", results.get(0));
+                assertTrue(results.get(1).contains("\"valid\":true"));
+            }
+        }
+    }
+
+    @Test
+    void should_reject_other_methods_with_405() throws Exception {
+        try (var service = start()) {
+            var request = HttpRequest.newBuilder(uri(service, PeselService.BATCH_PATH)).GET().build();
+            var response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(405, response.statusCode());
+            assertEquals("POST", response.headers().firstValue("Allow").orElseThrow());
+        }
+    }
+
+    @Test
+    void should_answer_rejected_chunked_request_without_reading_whole_body() throws Exception {
+        for (var method : List.of("PUT", "POST")) {
+            try (var service = start(); var socket = new Socket(InetAddress.getLoopbackAddress(), service.getPort())) {
+                socket.setSoTimeout(10_000);
+                OutputStream output = socket.getOutputStream();
+                output.write((method + " " + PeselService.BATCH_PATH + " HTTP/1.1\r\nHost: localhost\r\n"
+                        + "Content-Type: application/json\r\nTransfer-Encoding: chunked\r\n\r\n"
+                        + Integer.toHexString(1 << 20) + "\r\n{").getBytes(StandardCharsets.US_ASCII));
+                output.write(new byte[1 << 17]);
+                output.flush();
+
+                var response = new StringBuilder();
+                InputStream input = socket.getInputStream();
+                try {
+                    int c;
+                    while ((c = input.read()) != -1) {
+                        response.append((char) c);
+                    }
+                } catch (SocketException e) {
+                    // the server drops the connection with the rest of the body unread
+                }
+
+                assertTrue(response.toString().startsWith(method.equals("PUT") ? "HTTP/1.1 405" : "HTTP/1.1 400"), method);
+                assertTrue(response.toString().toLowerCase().contains("connection: close"), method);
+            }
+        }
+    }
+
+    @Test
+    void should_reject_malformed_json_with_400() throws Exception {
+        try (var service = start()) {
+            for (var body : List.of("{\"pesel\":\"92082683499\"}", "[92082683499]", "[\"92082683499", "[\"\\x\"]")) {
+                var response = post(service, "application/json", body);
+
+                assertEquals(400, response.statusCode(), body);
+            }
+        }
+    }
+
+    @Test
+    void should_end_response_with_error_when_json_breaks_after_first_item() throws Exception {
+        try (var service = start()) {
+            var response = post(service, "application/json", "[\"92082683499\" \"92082683498\"]");
+
+            assertEquals(200, response.statusCode());
+            var lines = response.body().lines().toList();
+            assertEquals(2, lines.size());
+            assertEquals("{\"error\":\"Expected ',' or ']' in JSON array\"}", lines.get(1));
+        }
+    }
+
+    @Test
+    void should_reject_declared_body_over_limit_with_413() throws Exception {
+        try (var service = start()) {
+            var status = sendRawHeaders(service, "Content-Length: " + (BatchHandler.MAX_BODY_LENGTH + 1));
+
+            assertTrue(status.startsWith("HTTP/1.1 413"), status);
+        }
+    }
+
+    @Test
+    void should_reject_malformed_content_length_with_400() throws Exception {
+        try (var service = start()) {
+            for (var contentLength : List.of("abc", "-5", "99999999999999999999")) {
+                var status = sendRawHeaders(service, "Content-Length: " + contentLength);
+
+                assertTrue(status.startsWith("HTTP/1.1 400"), contentLength + ": " + status);
+            }
+        }
+    }
+
+    @Test
+    void should_reject_chunked_body_over_limit_with_413() throws Exception {
+        try (var service = start()) {
+            var response = postChunked(service, new RepeatedInputStream((byte) '9', BatchHandler.MAX_BODY_LENGTH + 1));
+
+            assertTrue(response.startsWith("HTTP/1.1 413"), response);
+        }
+    }
+
+    @Test
+    void should_end_response_with_error_when_chunked_body_exceeds_limit_while_streaming() throws Exception {
+        var line = "9".repeat(63) + "\n";
+        var linesWithinLimit = BatchHandler.MAX_BODY_LENGTH / line.length();
+        try (var service = start()) {
+            var body = new SequenceInputStream(new ByteArrayInputStream("92082683499\n".getBytes(StandardCharsets.US_ASCII)),
+                    new RepeatedInputStream(line.getBytes(StandardCharsets.US_ASCII), linesWithinLimit + 100));
+            var response = postChunked(service, body);
+
+            assertTrue(response.startsWith("HTTP/1.1 200"));
+            var lines = readChunkedBody(response).lines().toList();
+            assertTrue(lines.get(0).contains("\"valid\":true"));
+            assertEquals("{\"error\":\"Request body exceeds the limit of " + BatchHandler.MAX_BODY_LENGTH + " bytes\"}",
+                    lines.get(lines.size() - 1));
+            assertTrue(lines.size() <= linesWithinLimit + 2);
+        }
+    }
+
+    @Test
+    void should_report_health() throws Exception {
+        try (var service = start()) {
+            var request = HttpRequest.newBuilder(uri(service, PeselService.HEALTH_PATH)).GET().build();
+            var response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertEquals("OK", response.body());
+        }
+    }
+
+    @Test
+    void should_listen_on_free_port() {
+        try (var first = start(); var second = start()) {
+            assertTrue(first.getPort() > 0);
+            assertNotEquals(first.getPort(), second.getPort());
+        }
+    }
+
+    private static PeselService start() {
+        return PeselService.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), PeselValidationStrategy.standard(), 2);
+    }
+
+    private static URI uri(PeselService service, String path) {
+        return URI.create("http://localhost:" + service.getPort() + path);
+    }
+
+    private static HttpResponse<String> post(PeselService service, String contentType, String body) throws Exception {
+        var request = HttpRequest.newBuilder(uri(service, PeselService.BATCH_PATH))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String postChunked(PeselService service, InputStream body) throws Exception {
+        try (var socket = new Socket(InetAddress.getLoopbackAddress(), service.getPort())) {
+            var sender = new Thread(() -> {
+                try {
+                    OutputStream output = socket.getOutputStream();
+                    output.write(("POST " + PeselService.BATCH_PATH + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n"
+                            + "Content-Type: text/plain\r\nTransfer-Encoding: chunked\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                    var chunk = new byte[1 << 16];
+                    int length;
+                    while ((length = body.readNBytes(chunk, 0, chunk.length)) > 0) {
+                        output.write((Integer.toHexString(length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                        output.write(chunk, 0, length);
+                        output.write(CRLF);
+                    }
+                    output.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                    output.flush();
+                } catch (IOException e) {
+                    // the server stops reading a body over the limit
+                }
+            });
+            sender.start();
+            var response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+            sender.join();
+            return response;
+        }
+    }
+
+    private static String readChunkedBody(String response) {
+        var body = new StringBuilder();
+        int position = response.indexOf("\r\n\r\n") + 4;
+        while (true) {
+            int lineEnd = response.indexOf("\r\n", position);
+            int length = Integer.parseInt(response.substring(position, lineEnd).trim(), 16);
+            if (length == 0) {
+                return body.toString();
+            }
+            body.append(response, lineEnd + 2, lineEnd + 2 + length);
+            position = lineEnd + 2 + length + 2;
+        }
+    }
+
+    private static String sendRawHeaders(PeselService service, String header) throws IOException {
+        try (var socket = new Socket(InetAddress.getLoopbackAddress(), service.getPort())) {
+            OutputStream output = socket.getOutputStream();
+            output.write(("POST " + PeselService.BATCH_PATH + " HTTP/1.1\r\nHost: localhost\r\n" + header + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            var status = new StringBuilder();
+            InputStream input = socket.getInputStream();
+            int c;
+            while ((c = input.read()) != -1 && c != '\r') {
+                status.append((char) c);
+            }
+            return status.toString();
+        }
+    }
+
+    private static final class RepeatedInputStream extends InputStream {
+        private final byte[] pattern;
+        private final long length;
+        private long read;
+
+        private RepeatedInputStream(byte value, long length) {
+            this(new byte[]{value}, length);
+        }
+
+        private RepeatedInputStream(byte[] pattern, long count) {
+            this.pattern = pattern;
+            this.length = pattern.length * count;
+        }
+
+        @Override
+        public int read() {
+            return read < length ? pattern[(int) (read++ % pattern.length)] : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int count) {
+            if (read == length) {
+                return -1;
+            }
+            int n = (int) Math.min(count, length - read);
+            for (int i = 0; i < n; i++) {
+                bytes[offset + i] = pattern[(int) (read++ % pattern.length)];
+            }
+            return n;
+        }
+    }
+}
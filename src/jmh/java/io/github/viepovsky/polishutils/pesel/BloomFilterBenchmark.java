@@ -0,0 +1,97 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a membership check of the Bloom filter with a {@code HashSet<String>} of the same blacklist. Half of the
+ * checked PESEL numbers are in the blacklist. With millions of PESEL numbers the set no longer fits in the caches,
+ * so every check of the set follows several pointers, while the filter reads a single cache line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BloomFilterBenchmark {
+
+    private static final int QUERIES = 4096;
+
+    @Param({"10000", "1000000", "10000000"})
+    private int size;
+
+    private PeselBloomFilter filter;
+
+    private Set<String> set;
+
+    private String[] queries;
+
+    private long[] packedQueries;
+
+    @Setup
+    public void setUp() {
+        PeselGenerator generator = new PeselGenerator(PeselGeneratorParams.builder().build());
+        set = new HashSet<>(generator.generatePesels(size));
+        filter = PeselBloomFilter.of(set.stream(), 0.01);
+        String[] blacklisted = set.toArray(new String[0]);
+        Random random = new Random(42);
+        queries = new String[QUERIES];
+        packedQueries = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = i % 2 == 0 ? blacklisted[random.nextInt(blacklisted.length)] : generator.generatePesel();
+            packedQueries[i] = PackedPesel.pack(queries[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int filterMightContain() {
+        int found = 0;
+        for (String pesel : queries) {
+            if (filter.mightContain(pesel)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int filterMightContainPacked() {
+        int found = 0;
+        for (long packed : packedQueries) {
+            if (filter.mightContain(packed)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int hashSetContains() {
+        int found = 0;
+        for (String pesel : queries) {
+            if (set.contains(pesel)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the first call of the library in a fresh JVM, as done by a serverless validator function on cold start.
+ * Every fork loads and initializes the library classes once, so the result includes class loading, static
+ * initialization and interpreted execution. Run with {@code -XX:SharedArchiveFile} in the fork JVM arguments to
+ * compare against a CDS archive.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(50)
+public class ColdStartBenchmark {
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        blackhole.consume(PeselValidator.isPeselValid("92082683499"));
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        Pesel pesel = new Pesel("92082683499");
+        blackhole.consume(pesel.getBirthDate());
+        blackhole.consume(pesel.getGender());
+    }
+
+    @Benchmark
+    public void generate(Blackhole blackhole) {
+        blackhole.consume(PeselGenerator.generatePeselStatic());
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a single PESEL check at every validation level, so a pipeline can choose the cheapest level
+ * that is good enough as its pre-filter. The input mixes valid PESEL numbers with typical mistakes: a wrong control
+ * digit, a non-existing birth date, a letter and a missing digit. The legacy static API is measured for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ValidationLevelBenchmark {
+
+    private static final int SIZE = 4096;
+
+    @Param({"FORMAT", "CHECKSUM", "FULL"})
+    private PeselValidationLevel level;
+
+    private PeselValidationStrategy validation;
+
+    private List<String> pesels;
+
+    private InvalidPeselReason[] reasons;
+
+    @Setup
+    public void setUp() {
+        validation = PeselValidationStrategy.of(level);
+        Random random = new Random(42);
+        PeselGenerator generator = new PeselGenerator(PeselGeneratorParams.builder().build());
+        pesels = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            String pesel = generator.generatePesel();
+            pesels.add(switch (random.nextInt(8)) {
+                case 0 -> pesel.substring(0, 10) + (char) ('0' + (pesel.charAt(10) - '0' + 1) % 10);
+                case 1 -> pesel.substring(0, 4) + "32" + pesel.substring(6);
+                case 2 -> pesel.substring(0, 10) + 'x';
+                case 3 -> pesel.substring(0, 10);
+                default -> pesel;
+            });
+        }
+        reasons = new InvalidPeselReason[SIZE];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int checkAll() {
+        return validation.checkAll(pesels, reasons);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int countValid() {
+        return validation.countValid(pesels);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int legacyIsPeselValid() {
+        int valid = 0;
+        for (String pesel : pesels) {
+            if (PeselValidator.isPeselValid(pesel)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
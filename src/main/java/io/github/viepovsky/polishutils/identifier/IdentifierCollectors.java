@@ -0,0 +1,113 @@
+package io.github.viepovsky.polishutils.identifier;
+
+import io.github.viepovsky.polishutils.validation.ValidationSummary;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Collector;
+
+/**
+ * The {@code IdentifierCollectors} class provides collectors and mapping steps validating identifiers in streams,
+ * the same for every {@link PolishIdentifier}.
+ * <p>
+ * Every identifier is validated once in a single pass, which also computes its numeric value, so valid identifiers
+ * are passed down the stream in the packed form without parsing them again. The collectors count valid identifiers
+ * and invalid ones by reason in a {@code long} array, so no counter objects are created per element, and their
+ * combiners add the partial results of parallel streams.
+ * <p>
+ * Example usage of the {@code IdentifierCollectors} class:
+ * <blockquote><pre>
+ *     IdentifierCollectors.Summary summary = nips.parallelStream().collect(IdentifierCollectors.summarizing(PolishIdentifier.NIP));
+ *     long invalidControlDigits = summary.getInvalidCount(InvalidIdentifierReason.INVALID_CONTROL_DIGIT);
+ *
+ *     long[] packed = nips.stream().mapMultiToLong(IdentifierCollectors.packingValid(PolishIdentifier.NIP)).toArray();
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PolishIdentifier
+ */
+public final class IdentifierCollectors {
+
+    /**
+     * The reasons of invalid identifiers, indexed by their ordinals.
+     */
+    private static final InvalidIdentifierReason[] REASONS = InvalidIdentifierReason.values();
+
+    private IdentifierCollectors() {
+    }
+
+    /**
+     * Returns a collector counting valid and invalid identifiers of the given type.
+     *
+     * @param identifier the type of the identifiers
+     * @return the collector of the summary
+     * @throws NullPointerException if the given type is null
+     */
+    public static Collector<CharSequence, ?, Summary> summarizing(PolishIdentifier identifier) {
+        Objects.requireNonNull(identifier, "Identifier type cannot be null");
+        return Collector.of(
+                () -> new long[REASONS.length + 1],
+                (counts, value) -> counts[countIndex(identifier.check(value))]++,
+                IdentifierCollectors::addCounts,
+                Summary::new,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Returns a mapping step passing valid identifiers of the given type in the packed form, see
+     * {@link PolishIdentifier#packValid(CharSequence)}.
+     *
+     * @param identifier the type of the identifiers
+     * @return the mapping step for {@link java.util.stream.Stream#mapMultiToLong}
+     * @throws NullPointerException if the given type is null
+     */
+    public static BiConsumer<CharSequence, LongConsumer> packingValid(PolishIdentifier identifier) {
+        Objects.requireNonNull(identifier, "Identifier type cannot be null");
+        return (value, downstream) -> {
+            long packed = identifier.packValid(value);
+            if (packed != PolishIdentifier.INVALID) {
+                downstream.accept(packed);
+            }
+        };
+    }
+
+    /**
+     * Returns the index of the counter of the given validation result.
+     *
+     * @param reason the reason the identifier is invalid, or null if it is valid
+     * @return 0 for valid identifiers, or the ordinal of the reason increased by one
+     */
+    private static int countIndex(InvalidIdentifierReason reason) {
+        return reason == null ? 0 : reason.ordinal() + 1;
+    }
+
+    /**
+     * Adds the second counts to the first ones.
+     *
+     * @param counts      the first counts
+     * @param otherCounts the second counts
+     * @return the first counts
+     */
+    private static long[] addCounts(long[] counts, long[] otherCounts) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += otherCounts[i];
+        }
+        return counts;
+    }
+
+    /**
+     * The counts of valid and invalid identifiers.
+     */
+    public static final class Summary extends ValidationSummary<InvalidIdentifierReason> {
+
+        /**
+         * Constructs a new {@code Summary} object.
+         *
+         * @param counts the number of valid values, followed by the numbers of invalid ones by reason
+         */
+        private Summary(long[] counts) {
+            super(REASONS, counts);
+        }
+    }
+}
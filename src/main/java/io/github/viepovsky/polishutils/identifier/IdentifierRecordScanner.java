@@ -0,0 +1,305 @@
+package io.github.viepovsky.polishutils.identifier;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The {@code IdentifierRecordScanner} class validates several identifiers in a delimited record, e.g. a line
+ * of a CSV file holding the PESEL of a person and the NIP and REGON of their company, in a single pass.
+ * <p>
+ * The scanner goes over the characters of the record once, counting the delimiters, and computes the weighted sum
+ * and the numeric value of every configured column while passing it, without splitting the record or creating any
+ * objects. Columns that are not configured are skipped. The result is a mask of valid columns, where the bit
+ * {@code 1 << column} is set if the identifier in that column is valid, so it can be compared with
+ * {@link #getColumnsMask()} to check if all identifiers of the record are valid. Columns can't be quoted.
+ * <p>
+ * Instances are immutable and thread-safe, so they should be built once and shared.
+ * Example usage of the {@code IdentifierRecordScanner} class:
+ * <blockquote><pre>
+ *     IdentifierRecordScanner scanner = IdentifierRecordScanner.builder()
+ *              .delimiter(';')
+ *              .column(0, PolishIdentifier.PESEL)
+ *              .column(2, PolishIdentifier.NIP)
+ *              .column(3, PolishIdentifier.REGON9)
+ *              .build();
+ *     int validColumns = scanner.scan("92082683499;Jan Kowalski;5260250274;123456785");
+ *     boolean isNipValid = (validColumns &amp; 1 &lt;&lt; 2) != 0;
+ *     boolean isValid = scanner.isValid(record);
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PolishIdentifier
+ */
+public final class IdentifierRecordScanner {
+
+    /**
+     * The greatest index of a column that can be configured, as the result is a mask in an {@code int}.
+     */
+    public static final int MAX_COLUMN = 31;
+
+    /**
+     * The delimiter of the columns.
+     */
+    private final char delimiter;
+
+    /**
+     * The identifiers of the columns, indexed by the column indexes up to the last configured column,
+     * with null for the columns that are skipped.
+     */
+    private final PolishIdentifier[] columns;
+
+    /**
+     * The mask of the configured columns.
+     */
+    private final int columnsMask;
+
+    /**
+     * Creates a new {@code IdentifierRecordScanner} object with the given configuration.
+     *
+     * @param delimiter the delimiter of the columns
+     * @param columns   the identifiers of the columns
+     */
+    private IdentifierRecordScanner(char delimiter, PolishIdentifier[] columns) {
+        this.delimiter = delimiter;
+        this.columns = columns;
+        int mask = 0;
+        for (int column = 0; column < columns.length; column++) {
+            if (columns[column] != null) {
+                mask |= 1 << column;
+            }
+        }
+        this.columnsMask = mask;
+    }
+
+    /**
+     * Returns a new instance of the Builder class, which can be used to configure the columns of the records.
+     *
+     * @return a new instance of {@code IdentifierRecordScanner} Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the mask of the configured columns, which is the result of scanning a record with all identifiers valid.
+     *
+     * @return the mask of the configured columns
+     */
+    public int getColumnsMask() {
+        return columnsMask;
+    }
+
+    /**
+     * Validates the identifiers of the given record.
+     *
+     * @param record the delimited record
+     * @return the mask of the columns with valid identifiers
+     * @throws NullPointerException if the given record is null
+     */
+    public int scan(CharSequence record) {
+        Objects.requireNonNull(record, "Record cannot be null");
+        int mask = 0;
+        int column = 0;
+        PolishIdentifier identifier = columns[0];
+        int position = 0;
+        long value = 0;
+        int sum = 0;
+        for (int i = 0, length = record.length(); i <= length; i++) {
+            int character = i < length ? record.charAt(i) : delimiter;
+            if (character == delimiter) {
+                if (identifier != null && position == identifier.length && identifier.verify(value, sum) >= 0) {
+                    mask |= 1 << column;
+                }
+                if (++column == columns.length) {
+                    break;
+                }
+                identifier = columns[column];
+                position = 0;
+                value = 0;
+                sum = 0;
+            } else if (identifier != null && position >= 0) {
+                int digit = character - '0';
+                if (digit < 0 || digit > 9 || position == identifier.length) {
+                    position = -1;
+                } else {
+                    value = value * 10 + digit;
+                    sum += identifier.checksum.getWeight(position++) * digit;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Validates the identifiers of the delimited record of ASCII characters in the given range of the byte array,
+     * e.g. a line of a file read into a buffer.
+     *
+     * @param bytes the byte array
+     * @param from  the index of the first byte of the record
+     * @param to    the index after the last byte of the record
+     * @return the mask of the columns with valid identifiers
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array
+     */
+    public int scan(byte[] bytes, int from, int to) {
+        Objects.checkFromToIndex(from, to, bytes.length);
+        int mask = 0;
+        int column = 0;
+        PolishIdentifier identifier = columns[0];
+        int position = 0;
+        long value = 0;
+        int sum = 0;
+        for (int i = from; i <= to; i++) {
+            int character = i < to ? bytes[i] & 0xFF : delimiter;
+            if (character == delimiter) {
+                if (identifier != null && position == identifier.length && identifier.verify(value, sum) >= 0) {
+                    mask |= 1 << column;
+                }
+                if (++column == columns.length) {
+                    break;
+                }
+                identifier = columns[column];
+                position = 0;
+                value = 0;
+                sum = 0;
+            } else if (identifier != null && position >= 0) {
+                int digit = character - '0';
+                if (digit < 0 || digit > 9 || position == identifier.length) {
+                    position = -1;
+                } else {
+                    value = value * 10 + digit;
+                    sum += identifier.checksum.getWeight(position++) * digit;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if all identifiers of the given record are valid.
+     *
+     * @param record the delimited record
+     * @return true if all identifiers are valid, false otherwise
+     * @throws NullPointerException if the given record is null
+     */
+    public boolean isValid(CharSequence record) {
+        return scan(record) == columnsMask;
+    }
+
+    /**
+     * Validates the identifiers of all given records and writes the masks of the columns with valid identifiers
+     * to the given array.
+     *
+     * @param records the delimited records
+     * @param masks   the array the masks are written to, at the indexes of the records
+     * @return the number of records with all identifiers valid
+     * @throws NullPointerException     if any of the records is null
+     * @throws IllegalArgumentException if the array of masks is shorter than the list of records
+     */
+    public int scanAll(List<? extends CharSequence> records, int[] masks) {
+        int size = records.size();
+        if (masks.length < size) {
+            throw new IllegalArgumentException("Array of masks should have at least " + size + " elements");
+        }
+        int valid = 0;
+        for (int i = 0; i < size; i++) {
+            int mask = scan(records.get(i));
+            masks[i] = mask;
+            if (mask == columnsMask) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Counts the records with all identifiers valid.
+     *
+     * @param records the delimited records
+     * @return the number of records with all identifiers valid
+     * @throws NullPointerException if any of the records is null
+     */
+    public int countValid(List<? extends CharSequence> records) {
+        int valid = 0;
+        for (int i = 0, size = records.size(); i < size; i++) {
+            if (scan(records.get(i)) == columnsMask) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Builder class for configuring the delimiter and the identifiers of the columns of the records.
+     */
+    public static final class Builder {
+        /**
+         * The delimiter of the columns.
+         */
+        private char delimiter = ',';
+        /**
+         * The identifiers of the columns, indexed by the column indexes.
+         */
+        private final PolishIdentifier[] columns = new PolishIdentifier[MAX_COLUMN + 1];
+
+        /**
+         * Creates a new {@code Builder} object without columns.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the delimiter of the columns. By default, the columns are delimited by commas.
+         *
+         * @param delimiter the delimiter
+         * @return this builder with the delimiter set
+         * @throws IllegalArgumentException if the given delimiter is a digit
+         */
+        public Builder delimiter(char delimiter) {
+            if (delimiter >= '0' && delimiter <= '9') {
+                throw new IllegalArgumentException("Delimiter should not be a digit");
+            }
+            this.delimiter = delimiter;
+            return (this);
+        }
+
+        /**
+         * Validates the given identifier in the column of the given index.
+         *
+         * @param column     the index of the column, counting from 0
+         * @param identifier the identifier in the column
+         * @return this builder with the column set
+         * @throws NullPointerException     if the given identifier is null
+         * @throws IllegalArgumentException if the index is negative or greater than 31, or the column is already set
+         */
+        public Builder column(int column, PolishIdentifier identifier) {
+            Objects.requireNonNull(identifier, "Identifier cannot be null");
+            if (column < 0 || column > MAX_COLUMN) {
+                throw new IllegalArgumentException("Column should be between: 0 and " + MAX_COLUMN);
+            }
+            if (columns[column] != null) {
+                throw new IllegalArgumentException("Column " + column + " is already set to " + columns[column]);
+            }
+            columns[column] = identifier;
+            return (this);
+        }
+
+        /**
+         * Builds a new scanner with the set delimiter and columns.
+         *
+         * @return a new scanner
+         * @throws IllegalArgumentException if no column was set
+         */
+        public IdentifierRecordScanner build() {
+            int lastColumn = MAX_COLUMN;
+            while (lastColumn >= 0 && columns[lastColumn] == null) {
+                lastColumn--;
+            }
+            if (lastColumn < 0) {
+                throw new IllegalArgumentException("At least one column should be set");
+            }
+            PolishIdentifier[] scannedColumns = new PolishIdentifier[lastColumn + 1];
+            System.arraycopy(columns, 0, scannedColumns, 0, scannedColumns.length);
+            return new IdentifierRecordScanner(delimiter, scannedColumns);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.viepovsky.polishutils.identifier;
+
+/**
+ * The {@code InvalidIdentifierReason} enumeration describes why a given identifier was rejected.
+ *
+ * @author Oskar Rajzner
+ */
+public enum InvalidIdentifierReason {
+
+    /**
+     * Identifier has an invalid length (e.g. 9 digits of a NIP, which has 10).
+     */
+    INVALID_LENGTH("Identifier length is invalid"),
+
+    /**
+     * Identifier has invalid characters (characters other than digits).
+     */
+    INVALID_CHARACTERS("Identifier contains invalid characters, should contain only digits 0-9"),
+
+    /**
+     * Identifier has an invalid control digit, or a weighted sum for which no control digit exists.
+     */
+    INVALID_CONTROL_DIGIT("Identifier control sum number is invalid"),
+
+    /**
+     * Identifier has a valid control digit, but its content is invalid (e.g. the birth date of a PESEL).
+     */
+    INVALID_CONTENT("Identifier content is invalid");
+
+    /**
+     * The detail message describing the reason.
+     */
+    private final String message;
+
+    /**
+     * Constructs a reason with the given detail message.
+     *
+     * @param message the detail message
+     */
+    InvalidIdentifierReason(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Returns the detail message describing the reason.
+     *
+     * @return the detail message as a String
+     */
+    public String getMessage() {
+        return message;
+    }
+}
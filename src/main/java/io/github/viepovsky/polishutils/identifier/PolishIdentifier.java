@@ -0,0 +1,300 @@
+package io.github.viepovsky.polishutils.identifier;
+
+import io.github.viepovsky.polishutils.pesel.PackedPesel;
+import io.github.viepovsky.polishutils.validation.WeightedChecksum;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The {@code PolishIdentifier} enumeration validates Polish identifiers protected by a weighted control digit.
+ * <p>
+ * Every identifier is checked by its {@link WeightedChecksum}, the same engine the PESEL validation strategies use,
+ * in a single pass over the digits, which computes the weighted sum and the numeric value of the identifier at once
+ * and creates no objects. Identifiers with further rules check them on the numeric value after the control digit:
+ * the birth date of a {@code PESEL} has to exist, the same as with
+ * {@link io.github.viepovsky.polishutils.pesel.PeselValidationStrategy#standard()}.
+ * The numeric value of an identifier, returned by {@link #packValid(CharSequence)}, fits in a {@code long} and can be
+ * processed without allocation, like {@link PackedPesel}. Many records holding several identifiers can be checked
+ * in a single pass with {@link IdentifierRecordScanner}, and streams of identifiers with {@link IdentifierCollectors}.
+ * <p>
+ * Example usage of the {@code PolishIdentifier} enumeration:
+ * <blockquote><pre>
+ *     boolean isValid = PolishIdentifier.NIP.isValid("5260250274"); //returns true or false
+ *     InvalidIdentifierReason reason = PolishIdentifier.REGON9.check("123456786"); //returns INVALID_CONTROL_DIGIT
+ * </pre></blockquote>
+ * Passing a {@code null} argument will cause a {@link NullPointerException} to be thrown.
+ *
+ * @author Oskar Rajzner
+ * @see io.github.viepovsky.polishutils.pesel.PeselValidationStrategy
+ */
+public enum PolishIdentifier {
+
+    /**
+     * Polish Personal Identification Number.
+     */
+    PESEL(WeightedChecksum.PESEL) {
+        /**
+         * Checks if the birth date of the PESEL exists.
+         *
+         * @param value the numeric value of the PESEL
+         * @return true if the birth date exists, false otherwise
+         */
+        @Override
+        boolean isContentValid(long value) {
+            return PackedPesel.isBirthDateValid(value);
+        }
+    },
+
+    /**
+     * Polish Tax Identification Number.
+     */
+    NIP(WeightedChecksum.NIP),
+
+    /**
+     * Polish Business Registry Number of 9 digits, given to legal entities.
+     */
+    REGON9(WeightedChecksum.REGON9),
+
+    /**
+     * Polish Business Registry Number of 14 digits, given to local units of legal entities.
+     */
+    REGON14(WeightedChecksum.REGON14);
+
+    /**
+     * The value returned by {@link #packValid(CharSequence)} when the given identifier is invalid.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * The reasons of invalid identifiers, indexed by their ordinals.
+     */
+    private static final InvalidIdentifierReason[] REASONS = InvalidIdentifierReason.values();
+
+    /**
+     * Powers of ten, indexed by the exponent, up to the length of the longest identifier.
+     */
+    private static final long[] POWERS_OF_TEN = new long[]{
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L
+    };
+
+    /**
+     * The checksum of the identifier.
+     */
+    final WeightedChecksum checksum;
+
+    /**
+     * The number of digits of the identifier.
+     */
+    final int length;
+
+    /**
+     * Constructs an identifier with the given checksum.
+     *
+     * @param checksum the checksum of the identifier
+     */
+    PolishIdentifier(WeightedChecksum checksum) {
+        this.checksum = checksum;
+        this.length = checksum.getLength();
+    }
+
+    /**
+     * Returns the number of digits of the identifier.
+     *
+     * @return the number of digits
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the checksum of the identifier.
+     *
+     * @return the checksum
+     */
+    public WeightedChecksum getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Checks the given identifier and returns the reason why it is invalid.
+     *
+     * @param identifier the identifier
+     * @return the reason why the identifier is invalid, or null if it is valid
+     * @throws NullPointerException if the given identifier is null
+     */
+    public InvalidIdentifierReason check(CharSequence identifier) {
+        return reasonOf(scan(identifier));
+    }
+
+    /**
+     * Checks the identifier of ASCII digits at the given offset of the byte array and returns the reason why
+     * it is invalid.
+     *
+     * @param bytes  the byte array
+     * @param offset the index of the first digit of the identifier
+     * @return the reason why the identifier is invalid, or null if it is valid
+     * @throws IndexOutOfBoundsException if the array has fewer bytes after the offset than the length of the identifier
+     */
+    public InvalidIdentifierReason check(byte[] bytes, int offset) {
+        return reasonOf(verifyContent(checksum.scan(bytes, offset)));
+    }
+
+    /**
+     * Checks if the given identifier is valid.
+     *
+     * @param identifier the identifier
+     * @return true if the given identifier is valid, false otherwise
+     * @throws NullPointerException if the given identifier is null
+     */
+    public boolean isValid(CharSequence identifier) {
+        return scan(identifier) >= 0;
+    }
+
+    /**
+     * Returns the numeric value of the given identifier if it is valid, e.g. {@code 5260250274L} for NIP
+     * {@code "5260250274"}.
+     *
+     * @param identifier the identifier
+     * @return the numeric value of the identifier, or {@link #INVALID} if it is invalid
+     * @throws NullPointerException if the given identifier is null
+     */
+    public long packValid(CharSequence identifier) {
+        long result = scan(identifier);
+        return result >= 0 ? result : INVALID;
+    }
+
+    /**
+     * Returns the identifier of the given numeric value as a String of digits, with leading zeros.
+     *
+     * @param value the numeric value of the identifier
+     * @return the identifier as a String
+     * @throws IllegalArgumentException if the value has more digits than the identifier or is negative
+     */
+    public String unpack(long value) {
+        if (value < 0 || value >= POWERS_OF_TEN[length]) {
+            throw new IllegalArgumentException("Value of " + this + " should have at most " + length + " digits, but was " + value);
+        }
+        char[] characters = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            characters[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(characters);
+    }
+
+    /**
+     * Checks all given identifiers and writes the reason why every one of them is invalid to the given array,
+     * or null if it is valid.
+     *
+     * @param identifiers the identifiers
+     * @param reasons     the array the reasons are written to, at the indexes of the identifiers
+     * @return the number of valid identifiers
+     * @throws NullPointerException     if any of the identifiers is null
+     * @throws IllegalArgumentException if the array of reasons is shorter than the list of identifiers
+     */
+    public int checkAll(List<? extends CharSequence> identifiers, InvalidIdentifierReason[] reasons) {
+        int size = identifiers.size();
+        if (reasons.length < size) {
+            throw new IllegalArgumentException("Array of reasons should have at least " + size + " elements");
+        }
+        int valid = 0;
+        for (int i = 0; i < size; i++) {
+            InvalidIdentifierReason reason = check(identifiers.get(i));
+            reasons[i] = reason;
+            if (reason == null) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Counts the valid identifiers.
+     *
+     * @param identifiers the identifiers
+     * @return the number of valid identifiers
+     * @throws NullPointerException if any of the identifiers is null
+     */
+    public int countValid(List<? extends CharSequence> identifiers) {
+        int valid = 0;
+        for (int i = 0, size = identifiers.size(); i < size; i++) {
+            if (scan(identifiers.get(i)) >= 0) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Checks the content of the identifier beyond its control digit.
+     *
+     * @param value the numeric value of the identifier
+     * @return true if the content is valid, false otherwise
+     */
+    boolean isContentValid(long value) {
+        return true;
+    }
+
+    /**
+     * Checks the control digit and the content of the identifier of the given numeric value and weighted sum.
+     *
+     * @param value the numeric value of the identifier
+     * @param sum   the weighted sum of the digits of the identifier
+     * @return the numeric value if the identifier is valid, or the negated ordinal of the reason decreased by one
+     */
+    long verify(long value, int sum) {
+        return verifyContent(checksum.isControlDigitValid(value, sum) ? value : WeightedChecksum.INVALID_CONTROL_DIGIT);
+    }
+
+    /**
+     * Checks the given identifier in a single pass over its digits.
+     *
+     * @param identifier the identifier
+     * @return the numeric value if the identifier is valid, or the negated ordinal of the reason decreased by one
+     */
+    private long scan(CharSequence identifier) {
+        Objects.requireNonNull(identifier, "Identifier cannot be null");
+        return verifyContent(checksum.scan(identifier));
+    }
+
+    /**
+     * Checks the content of the identifier of the given result of a scan by its checksum.
+     *
+     * @param result the numeric value of the identifier, or the result of a scan of an invalid identifier
+     * @return the numeric value if the identifier is valid, or the negated ordinal of the reason decreased by one
+     */
+    private long verifyContent(long result) {
+        if (result == WeightedChecksum.INVALID_LENGTH) {
+            return invalid(InvalidIdentifierReason.INVALID_LENGTH);
+        }
+        if (result == WeightedChecksum.INVALID_CHARACTERS) {
+            return invalid(InvalidIdentifierReason.INVALID_CHARACTERS);
+        }
+        if (result == WeightedChecksum.INVALID_CONTROL_DIGIT) {
+            return invalid(InvalidIdentifierReason.INVALID_CONTROL_DIGIT);
+        }
+        return isContentValid(result) ? result : invalid(InvalidIdentifierReason.INVALID_CONTENT);
+    }
+
+    /**
+     * Returns the result of a scan of an identifier invalid for the given reason.
+     *
+     * @param reason the reason
+     * @return the negated ordinal of the reason decreased by one
+     */
+    private static long invalid(InvalidIdentifierReason reason) {
+        return -1L - reason.ordinal();
+    }
+
+    /**
+     * Returns the reason of the given result of a scan.
+     *
+     * @param result the result of a scan
+     * @return the reason why the identifier is invalid, or null if it is valid
+     */
+    static InvalidIdentifierReason reasonOf(long result) {
+        return result >= 0 ? null : REASONS[(int) (-1L - result)];
+    }
+}
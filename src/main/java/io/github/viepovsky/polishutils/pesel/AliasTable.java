@@ -0,0 +1,82 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.util.Random;
+
+/**
+ * The {@code AliasTable} class samples indexes of a histogram with probabilities proportional to its weights
+ * in constant time, using the alias method of Walker and Vose. The table is built once in linear time and
+ * every sample needs a single random index and a single random number, no matter how many weights there are.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel package.
+ *
+ * @author Oskar Rajzner
+ */
+final class AliasTable {
+
+    /**
+     * The probability of keeping the drawn index instead of using its alias, for every index.
+     */
+    private final double[] probabilities;
+
+    /**
+     * The index used instead of the drawn index, for every index.
+     */
+    private final int[] aliases;
+
+    /**
+     * Builds a new {@code AliasTable} object from the given weights.
+     *
+     * @param weights the non-negative weights of the indexes, with a positive sum
+     */
+    AliasTable(double[] weights) {
+        int size = weights.length;
+        probabilities = new double[size];
+        aliases = new int[size];
+        double sum = 0;
+        for (double weight : weights) {
+            sum += weight;
+        }
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = weights[i] * size / sum;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        while (largeCount > 0) {
+            probabilities[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probabilities[small[--smallCount]] = 1;
+        }
+    }
+
+    /**
+     * Draws a random index with the probability proportional to its weight.
+     *
+     * @param random the random number generator
+     * @return the drawn index
+     */
+    int sample(Random random) {
+        int index = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[index] ? index : aliases[index];
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.viepovsky.polishutils.pesel;
+
+/**
+ * The {@code ConfiguredPeselDecoder} class is the only implementation of {@link PeselDecodingStrategy}.
+ * The strategies differ only by the configuration of an instance, so all calls of the strategy methods
+ * stay monomorphic.
+ * <p>
+ * The cache is a direct-mapped table indexed by the hash code of the PESEL. Its entries are immutable and are
+ * published through a final field, so the table can be read and overwritten by many threads without locks;
+ * a lost update only costs decoding the same PESEL again. If the validation strategy has rules relative to the current
+ * date, an entry is reused only on the day of the clock it was validated on.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel package.
+ *
+ * @author Oskar Rajzner
+ */
+final class ConfiguredPeselDecoder implements PeselDecodingStrategy {
+
+    /**
+     * The standard decoding strategy.
+     */
+    static final ConfiguredPeselDecoder STANDARD = new ConfiguredPeselDecoder(PeselValidationStrategy.standard(), 0);
+
+    /**
+     * The validation strategy.
+     */
+    private final PeselValidationStrategy validation;
+
+    /**
+     * The validation strategy if its rules are relative to the current date, or null.
+     */
+    private final ConfiguredPeselValidator clockDependentValidation;
+
+    /**
+     * The table of recently decoded PESEL numbers, or null if they are not cached.
+     */
+    private final CacheEntry[] cache;
+
+    /**
+     * Creates a new {@code ConfiguredPeselDecoder} object with the given configuration.
+     *
+     * @param validation the validation strategy
+     * @param cacheSize  the number of cached PESEL numbers, or 0 if they are not cached
+     */
+    ConfiguredPeselDecoder(PeselValidationStrategy validation, int cacheSize) {
+        this.validation = validation;
+        this.clockDependentValidation = validation instanceof ConfiguredPeselValidator configured
+                && configured.getCompiledDay() != null ? configured : null;
+        this.cache = cacheSize == 0 ? null : new CacheEntry[getTableSize(cacheSize)];
+    }
+
+    /**
+     * Validates and decodes the given PESEL, reusing the cached result if there is one.
+     *
+     * @param pesel the PESEL number
+     * @return the decoded PESEL
+     * @throws NullPointerException  if the given PESEL is null
+     * @throws InvalidPeselException if the given PESEL is invalid
+     */
+    @Override
+    public Pesel decode(String pesel) {
+        if (cache == null) {
+            return new Pesel(pesel, validation);
+        }
+        if (pesel == null) {
+            throw new NullPointerException("PESEL cannot be null");
+        }
+        Object day = clockDependentValidation == null ? null : clockDependentValidation.getCompiledDay();
+        int index = mix(pesel.hashCode()) & (cache.length - 1);
+        CacheEntry entry = cache[index];
+        if (entry != null && entry.day == day && entry.pesel.equals(pesel)) {
+            return entry.decoded;
+        }
+        Pesel decoded = new Pesel(pesel, validation);
+        cache[index] = new CacheEntry(pesel, day, decoded);
+        return decoded;
+    }
+
+    /**
+     * Returns the smallest power of two not less than the given cache size.
+     *
+     * @param cacheSize the number of cached PESEL numbers
+     * @return the size of the table
+     */
+    private static int getTableSize(int cacheSize) {
+        int size = 1;
+        while (size < cacheSize) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Spreads the bits of the given hash code, so similar PESEL numbers fall into different slots.
+     *
+     * @param hash the hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * An immutable entry of the cache.
+     */
+    private static final class CacheEntry {
+
+        /**
+         * The decoded PESEL number.
+         */
+        private final String pesel;
+
+        /**
+         * The rules of the day the PESEL was validated on, or null if the validation does not depend on the day.
+         */
+        private final Object day;
+
+        /**
+         * The result of decoding.
+         */
+        private final Pesel decoded;
+
+        /**
+         * Creates a new {@code CacheEntry} object.
+         *
+         * @param pesel   the decoded PESEL number
+         * @param day     the rules of the day the PESEL was validated on, or null
+         * @param decoded the result of decoding
+         */
+        CacheEntry(String pesel, Object day, Pesel decoded) {
+            this.pesel = pesel;
+            this.day = day;
+            this.decoded = decoded;
+        }
+    }
+}
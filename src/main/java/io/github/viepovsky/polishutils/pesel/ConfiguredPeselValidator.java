@@ -0,0 +1,287 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import io.github.viepovsky.polishutils.validation.WeightedChecksum;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The {@code ConfiguredPeselValidator} class is the only implementation of {@link PeselValidationStrategy}.
+ * The strategies differ only by the configuration of an instance, so all calls of the strategy methods
+ * stay monomorphic. Every PESEL is checked in a single pass over its characters by {@link WeightedChecksum#PESEL},
+ * without creating any objects, and the birth date is then read from its numeric value.
+ * <p>
+ * The birth date rules are compiled into the earliest and the latest allowed birth date, both as {@code yyyyMMdd}
+ * numbers which compare like the dates, so the rules add only two int comparisons to a check. Rules relative to
+ * the current date are compiled again once per day of the clock.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel package.
+ *
+ * @author Oskar Rajzner
+ */
+final class ConfiguredPeselValidator implements PeselValidationStrategy {
+
+    /**
+     * The standard validation strategy.
+     */
+    static final ConfiguredPeselValidator STANDARD = new ConfiguredPeselValidator(PeselValidationLevel.FULL);
+
+    /**
+     * The lenient validation strategy.
+     */
+    static final ConfiguredPeselValidator LENIENT = new ConfiguredPeselValidator(PeselValidationLevel.CHECKSUM);
+
+    /**
+     * The validation strategy checking only the format.
+     */
+    static final ConfiguredPeselValidator FORMAT = new ConfiguredPeselValidator(PeselValidationLevel.FORMAT);
+
+    /**
+     * Whether the control digit is checked.
+     */
+    private final boolean checkControlDigit;
+
+    /**
+     * Whether the birth date is checked.
+     */
+    private final boolean checkBirthDate;
+
+    /**
+     * Whether the birth date is checked against the birth date rules.
+     */
+    private final boolean checkBirthDateRange;
+
+    /**
+     * The clock of the current date for the rules relative to it, or null if there are no such rules.
+     */
+    private final Clock clock;
+
+    /**
+     * Whether birth dates after the current date are rejected.
+     */
+    private final boolean notInFuture;
+
+    /**
+     * The minimal age as of the current date, or -1 if there is no age rule.
+     */
+    private final int minAge;
+
+    /**
+     * The maximal age as of the current date, or -1 if there is no age rule.
+     */
+    private final int maxAge;
+
+    /**
+     * The earliest allowed birth date regardless of the current date.
+     */
+    private final LocalDate minDate;
+
+    /**
+     * The latest allowed birth date regardless of the current date.
+     */
+    private final LocalDate maxDate;
+
+    /**
+     * The allowed birth dates, compiled once per day of the clock.
+     */
+    private volatile DateRange dateRange;
+
+    /**
+     * Creates a new {@code ConfiguredPeselValidator} object of the given level without birth date rules.
+     *
+     * @param level the validation level
+     */
+    ConfiguredPeselValidator(PeselValidationLevel level) {
+        this(level, null, false, -1, -1, null, null);
+    }
+
+    /**
+     * Creates a new {@code ConfiguredPeselValidator} object with the given configuration.
+     *
+     * @param level       the validation level
+     * @param clock       the clock of the current date
+     * @param notInFuture whether birth dates after the current date are rejected
+     * @param minAge      the minimal age as of the current date, or -1 if there is no age rule
+     * @param maxAge      the maximal age as of the current date, or -1 if there is no age rule
+     * @param minDate     the earliest allowed birth date, or null
+     * @param maxDate     the latest allowed birth date, or null
+     */
+    ConfiguredPeselValidator(PeselValidationLevel level, Clock clock, boolean notInFuture, int minAge, int maxAge,
+                             LocalDate minDate, LocalDate maxDate) {
+        this.checkControlDigit = level != PeselValidationLevel.FORMAT;
+        this.checkBirthDate = level == PeselValidationLevel.FULL;
+        this.notInFuture = notInFuture;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.minDate = minDate;
+        this.maxDate = maxDate;
+        this.clock = notInFuture || minAge >= 0 ? clock : null;
+        this.checkBirthDateRange = this.clock != null || minDate != null || maxDate != null;
+        if (checkBirthDateRange) {
+            dateRange = compileDateRange(this.clock == null ? 0 : this.clock.millis());
+        }
+    }
+
+    /**
+     * Tells whether the existence of the birth date is checked.
+     *
+     * @return true if PESEL numbers with a birth date that does not exist are rejected, false otherwise
+     */
+    boolean checksBirthDate() {
+        return checkBirthDate;
+    }
+
+    /**
+     * Checks the given PESEL and returns the reason why it is invalid.
+     *
+     * @param pesel the PESEL number
+     * @return the reason why the PESEL is invalid, or null if it is valid
+     * @throws NullPointerException if the given PESEL is null
+     */
+    @Override
+    public InvalidPeselReason check(CharSequence pesel) {
+        if (pesel == null) {
+            throw new NullPointerException("PESEL cannot be null");
+        }
+        long packed = WeightedChecksum.PESEL.scan(pesel);
+        if (packed == WeightedChecksum.INVALID_LENGTH) {
+            return InvalidPeselReason.INVALID_LENGTH;
+        }
+        if (packed == WeightedChecksum.INVALID_CHARACTERS) {
+            return InvalidPeselReason.INVALID_CHARACTERS;
+        }
+        if (!checkControlDigit) {
+            return null;
+        }
+        if (packed == WeightedChecksum.INVALID_CONTROL_DIGIT) {
+            return InvalidPeselReason.INVALID_CONTROL_DIGIT;
+        }
+        if (!checkBirthDate) {
+            return null;
+        }
+        int birthDateDigits = (int) (packed / 100_000);
+        int yearDigits = birthDateDigits / 10_000;
+        int encodedMonth = birthDateDigits / 100 % 100;
+        int day = birthDateDigits % 100;
+        if (!PeselCalendar.isBirthDateValid(yearDigits, encodedMonth, day)) {
+            return InvalidPeselReason.INVALID_BIRTH_DATE;
+        }
+        if (checkBirthDateRange) {
+            int year = PeselCalendar.decodeCentury(encodedMonth / 10) + yearDigits;
+            int birthDate = year * 10_000 + PeselCalendar.decodeMonth(encodedMonth) * 100 + day;
+            DateRange range = getDateRange();
+            if (birthDate < range.minDate || birthDate > range.maxDate) {
+                return InvalidPeselReason.BIRTH_DATE_OUT_OF_RANGE;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the birth date rules of the current day of the clock. The same object is returned for as long as
+     * the rules apply, so it can be used as the key of results valid only on that day.
+     *
+     * @return the rules of the current day, or null if no rule is relative to the current date
+     */
+    Object getCompiledDay() {
+        return clock == null ? null : getDateRange();
+    }
+
+    /**
+     * Returns the allowed birth dates, compiling them again when the day of the clock changes.
+     *
+     * @return the allowed birth dates
+     */
+    private DateRange getDateRange() {
+        DateRange range = dateRange;
+        if (clock == null) {
+            return range;
+        }
+        long millis = clock.millis();
+        if (millis < range.validFromMillis || millis >= range.validUntilMillis) {
+            range = compileDateRange(millis);
+            dateRange = range;
+        }
+        return range;
+    }
+
+    /**
+     * Compiles the birth date rules into the earliest and the latest allowed birth date at the given millisecond
+     * of the clock.
+     *
+     * @param millis the current millisecond of the clock, ignored if there are no rules relative to the current date
+     * @return the allowed birth dates
+     */
+    private DateRange compileDateRange(long millis) {
+        int min = minDate == null ? 0 : toDateNumber(minDate);
+        int max = maxDate == null ? Integer.MAX_VALUE : toDateNumber(maxDate);
+        if (clock == null) {
+            return new DateRange(min, max, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        ZoneId zone = clock.getZone();
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone);
+        if (notInFuture) {
+            max = Math.min(max, toDateNumber(today));
+        }
+        if (minAge >= 0) {
+            min = Math.max(min, toDateNumber(today.minusYears(maxAge + 1L).plusDays(1)));
+            max = Math.min(max, toDateNumber(today.minusYears(minAge)));
+        }
+        long validFrom = today.atStartOfDay(zone).toInstant().toEpochMilli();
+        long validUntil = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new DateRange(min, max, validFrom, validUntil);
+    }
+
+    /**
+     * Converts the given date to a number which compares like the date.
+     *
+     * @param date the date
+     * @return the date as the number {@code yyyyMMdd}
+     */
+    private static int toDateNumber(LocalDate date) {
+        return date.getYear() * 10_000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    /**
+     * The earliest and the latest allowed birth date together with the period of time in which they apply.
+     */
+    private static final class DateRange {
+
+        /**
+         * The earliest allowed birth date as the number {@code yyyyMMdd}.
+         */
+        private final int minDate;
+
+        /**
+         * The latest allowed birth date as the number {@code yyyyMMdd}.
+         */
+        private final int maxDate;
+
+        /**
+         * The first millisecond of the clock in which the dates apply.
+         */
+        private final long validFromMillis;
+
+        /**
+         * The first millisecond of the clock in which the dates no longer apply.
+         */
+        private final long validUntilMillis;
+
+        /**
+         * Creates a new {@code DateRange} object.
+         *
+         * @param minDate          the earliest allowed birth date as the number {@code yyyyMMdd}
+         * @param maxDate          the latest allowed birth date as the number {@code yyyyMMdd}
+         * @param validFromMillis  the first millisecond of the clock in which the dates apply
+         * @param validUntilMillis the first millisecond of the clock in which the dates no longer apply
+         */
+        DateRange(int minDate, int maxDate, long validFromMillis, long validUntilMillis) {
+            this.minDate = minDate;
+            this.maxDate = maxDate;
+            this.validFromMillis = validFromMillis;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+}
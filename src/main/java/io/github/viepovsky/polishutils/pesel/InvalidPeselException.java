@@ -8,6 +8,7 @@ package io.github.viepovsky.polishutils.pesel;
  *     <li>has invalid characters (characters other than digits)
  *     <li>has an invalid control number (e.g. is 5 but should be 7)
  *     <li>has an invalid birth date (e.g. the 32nd of any month)
+ *     <li>has a birth date rejected by the rules of a validation strategy (e.g. a date in the future)
  * </ul>
  */
 public class InvalidPeselException extends RuntimeException {
@@ -0,0 +1,58 @@
+package io.github.viepovsky.polishutils.pesel;
+
+/**
+ * The {@code InvalidPeselReason} enumeration describes why a given PESEL was rejected.
+ * Every constant holds the message that is used by {@link InvalidPeselException} thrown for that reason.
+ *
+ * @author Oskar Rajzner
+ */
+public enum InvalidPeselReason {
+
+    /**
+     * PESEL has an invalid length (other than 11).
+     */
+    INVALID_LENGTH("PESEL length is invalid, should be 11 numbers"),
+
+    /**
+     * PESEL has invalid characters (characters other than digits).
+     */
+    INVALID_CHARACTERS("PESEL contains invalid characters, should contain only digits 0-9"),
+
+    /**
+     * PESEL has an invalid control number (e.g. is 5 but should be 7).
+     */
+    INVALID_CONTROL_DIGIT("PESEL control sum number is invalid"),
+
+    /**
+     * PESEL has an invalid birth date (e.g. the 32nd of any month).
+     */
+    INVALID_BIRTH_DATE("PESEL birth date is invalid"),
+
+    /**
+     * PESEL has an existing birth date rejected by the rules of a validation strategy (e.g. a date in the future).
+     */
+    BIRTH_DATE_OUT_OF_RANGE("PESEL birth date is out of the allowed range");
+
+    /**
+     * The detail message describing the reason.
+     */
+    private final String message;
+
+    /**
+     * Constructs a reason with the given detail message.
+     *
+     * @param message the detail message
+     */
+    InvalidPeselReason(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Returns the detail message describing the reason.
+     *
+     * @return the detail message as a String
+     */
+    public String getMessage() {
+        return message;
+    }
+}
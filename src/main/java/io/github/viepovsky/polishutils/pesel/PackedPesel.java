@@ -0,0 +1,117 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.util.Objects;
+
+/**
+ * The {@code PackedPesel} class converts PESEL numbers to and from their packed form, which is the numeric value
+ * of all 11 digits stored in a {@code long}, e.g. {@code 92082683499L} for PESEL {@code "92082683499"}.
+ * <p>
+ * The packed form takes 8 bytes instead of a String object and can be compared, hashed and sorted without
+ * allocation, so it is used by the bulk processing classes of this library. Packing only checks that the given
+ * value consists of 11 digits, use {@link PeselValidator} to check the control sum and the birth date.
+ * <p>
+ * Example usage of the {@code PackedPesel} class:
+ * <blockquote><pre>
+ *     long packed = PackedPesel.pack("04242625931"); // returns 4242625931L
+ *     String pesel = PackedPesel.unpack(packed); // returns "04242625931"
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ */
+public final class PackedPesel {
+
+    /**
+     * The value returned by pack methods when the given value is not a sequence of 11 digits.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * The greatest possible packed value.
+     */
+    public static final long MAX_VALUE = 99_999_999_999L;
+
+    /**
+     * Powers of ten, indexed by the PESEL digit position, e.g. 10^10 for the first digit.
+     */
+    static final long[] POSITION_WEIGHTS = new long[]{
+            10_000_000_000L, 1_000_000_000L, 100_000_000L, 10_000_000L, 1_000_000L, 100_000L, 10_000L, 1_000L, 100L, 10L, 1L
+    };
+
+    private PackedPesel() {
+    }
+
+    /**
+     * Packs the given PESEL into a {@code long}.
+     *
+     * @param pesel the PESEL number
+     * @return the packed PESEL, or {@link #INVALID} if the given value is not a sequence of 11 digits
+     */
+    public static long pack(CharSequence pesel) {
+        Objects.requireNonNull(pesel, "PESEL cannot be null");
+        if (pesel.length() != 11) {
+            return INVALID;
+        }
+        long packed = 0;
+        for (int i = 0; i < 11; i++) {
+            int digit = pesel.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            packed = packed * 10 + digit;
+        }
+        return packed;
+    }
+
+    /**
+     * Unpacks the given packed PESEL into a String of 11 digits.
+     *
+     * @param packed the packed PESEL
+     * @return the PESEL number as a String
+     * @throws IllegalArgumentException if the given value is not a packed PESEL
+     */
+    public static String unpack(long packed) {
+        assertIsPacked(packed);
+        char[] characters = new char[11];
+        for (int i = 10; i >= 0; i--) {
+            characters[i] = (char) ('0' + packed % 10);
+            packed /= 10;
+        }
+        return new String(characters);
+    }
+
+    /**
+     * Returns the digit at the given position of the packed PESEL.
+     *
+     * @param packed the packed PESEL
+     * @param index  the position of the digit, counting from 0
+     * @return the digit at the given position
+     */
+    public static int digitAt(long packed, int index) {
+        return (int) (packed / POSITION_WEIGHTS[index] % 10);
+    }
+
+    /**
+     * Checks if the birth date encoded in the given packed PESEL exists, without checking the control sum.
+     *
+     * @param packed the packed PESEL
+     * @return true if the birth date exists, false otherwise
+     * @throws IllegalArgumentException if the given value is not a packed PESEL
+     */
+    public static boolean isBirthDateValid(long packed) {
+        assertIsPacked(packed);
+        int birthDateDigits = (int) (packed / 100_000);
+        return PeselCalendar.isBirthDateValid(birthDateDigits / 10_000, birthDateDigits / 100 % 100, birthDateDigits % 100);
+    }
+
+    /**
+     * Checks if the given value is in the range of packed PESEL numbers.
+     *
+     * @param packed the packed PESEL
+     * @throws IllegalArgumentException if the given value is not a packed PESEL
+     */
+    static void assertIsPacked(long packed) {
+        if (packed < 0 || packed > MAX_VALUE) {
+            throw new IllegalArgumentException("Packed PESEL should be between 0 and " + MAX_VALUE + ", but was " + packed);
+        }
+    }
+}
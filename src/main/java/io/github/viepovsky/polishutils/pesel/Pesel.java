@@ -1,6 +1,10 @@
 package io.github.viepovsky.polishutils.pesel;
 
+import jdk.jfr.FlightRecorder;
+
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.Comparator;
 
 /**
  * The {@code Pesel} class holds information of a Polish Personal Identification Number (PESEL).
@@ -24,13 +28,25 @@ import java.time.LocalDate;
  *     LocalDate birthDate = pesel.getBirthDate();
  *     int serialDigits = pesel.getSerialDigits();
  * </pre></blockquote>
+ * Two {@code Pesel} objects are equal if they have the same 11 digits. The natural ordering compares the PESEL
+ * numbers numerically, which is not the order of the dates of birth, because the month digits also encode
+ * the century of birth. Use the {@link #BY_BIRTH_DATE} comparator to order PESEL numbers chronologically,
+ * and the {@link PeselSorter} class to sort large arrays.
+ * <p>
  * Remember to catch exceptions upon construction. Passing a {@code null} argument to a constructor will
  * cause a {@link NullPointerException} to be thrown. Passing an invalid PESEL to a constructor will
  * cause an unchecked {@link InvalidPeselException} to be thrown.
  *
  * @author Oskar Rajzner
  */
-public class Pesel extends PeselDigits {
+public class Pesel extends PeselDigits implements Comparable<Pesel> {
+
+    /**
+     * Compares PESEL numbers by the date of birth, and then numerically if the dates of birth are equal.
+     * The comparator is consistent with {@link #equals(Object)} and does not create {@code LocalDate} objects.
+     */
+    public static final Comparator<Pesel> BY_BIRTH_DATE =
+            Comparator.comparingLong(pesel -> PeselCalendar.birthDateOrderKey(pesel.toPacked()));
 
     /**
      * The date of birth decoded from the given PESEL.
@@ -50,7 +66,19 @@ public class Pesel extends PeselDigits {
      * @throws InvalidPeselException if the given PESEL is invalid
      */
     public Pesel(String pesel) {
-        this(new PeselDecoder(), pesel);
+        this(new PeselDecoder(), pesel, PeselValidationStrategy.standard());
+    }
+
+    /**
+     * Creates a new {@code Pesel} object from the specified PESEL number, validating it with the given strategy.
+     * The birth date is always checked, even if the validation strategy skips it.
+     *
+     * @param pesel      the PESEL number
+     * @param validation the validation strategy
+     * @throws InvalidPeselException if the given PESEL is invalid
+     */
+    Pesel(String pesel, PeselValidationStrategy validation) {
+        this(new PeselDecoder(), pesel, validation);
     }
 
     /**
@@ -59,14 +87,22 @@ public class Pesel extends PeselDigits {
      *
      * @param peselDecoder an instance of the {@code PeselDecoder} class
      * @param pesel        the PESEL number
+     * @param validation   the validation strategy
      * @throws InvalidPeselException if the given PESEL is invalid
      */
-    private Pesel(PeselDecoder peselDecoder, String pesel) {
+    private Pesel(PeselDecoder peselDecoder, String pesel, PeselValidationStrategy validation) {
         super();
 
-        PeselValidator.assertIsPeselValid(pesel);
+        validation.assertValid(pesel);
 
-        this.birthDate = peselDecoder.decodeBirthDate(pesel);
+        try {
+            this.birthDate = peselDecoder.decodeBirthDate(pesel);
+        } catch (DateTimeException e) {
+            if (FlightRecorder.isInitialized()) {
+                PeselInvalidEvent.commitSampled(InvalidPeselReason.INVALID_BIRTH_DATE);
+            }
+            throw new InvalidPeselException(InvalidPeselReason.INVALID_BIRTH_DATE.getMessage());
+        }
         this.gender = peselDecoder.decodeGender(pesel);
 
         setBirthDateDigits(pesel);
@@ -93,6 +129,56 @@ public class Pesel extends PeselDigits {
         return birthDate;
     }
 
+    /**
+     * Returns the PESEL number in the packed form, see {@link PackedPesel}.
+     *
+     * @return the packed PESEL
+     */
+    long toPacked() {
+        return getBirthDateDigits() * 100_000L + getSerialDigits() * 100 + getGenderDigit() * 10 + getControlDigit();
+    }
+
+    /**
+     * Compares this PESEL with the given one numerically, e.g. {@code "92082683499"} is greater than
+     * {@code "04242625931"} even though it belongs to an older person.
+     *
+     * @param other the PESEL to compare with
+     * @return a negative integer, zero, or a positive integer as this PESEL is less than, equal to, or greater
+     * than the given one
+     * @throws NullPointerException if the given PESEL is null
+     */
+    @Override
+    public int compareTo(Pesel other) {
+        return Long.compare(toPacked(), other.toPacked());
+    }
+
+    /**
+     * Checks if the given object is a {@code Pesel} with the same 11 digits.
+     *
+     * @param o the object to compare with
+     * @return true if the object is an equal PESEL, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return toPacked() == ((Pesel) o).toPacked();
+    }
+
+    /**
+     * Returns the hash code of the 11 digits of this PESEL.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(toPacked());
+    }
+
     /**
      * Gender of the person's PESEL
      */
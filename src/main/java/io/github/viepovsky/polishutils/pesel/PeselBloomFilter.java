@@ -0,0 +1,428 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * The {@code PeselBloomFilter} class is an immutable probabilistic set of PESEL numbers, e.g. of blocked or deceased
+ * persons, checked before a more expensive lookup. It answers whether a PESEL is definitely not in the set, or
+ * might be in it with the configured false positive rate. PESEL numbers of the set are always found.
+ * <p>
+ * It is a blocked Bloom filter keyed on the packed PESEL: every PESEL sets and checks its bits in a single
+ * 512-bit block, the size of a cache line, so a check reads at most one cache line from memory. A blocked filter
+ * needs more memory than a classic one for the same false positive rate, about 12 bits per PESEL for 1%, and its
+ * memory grows quickly below the false positive rate of 0.01%, which is the smallest one supported.
+ * <p>
+ * The filter is built in parallel, can be written to a file and then memory-mapped from it by many processes
+ * without reading it into the heap. The file format is a 32-byte little-endian header followed by the bits.
+ * <p>
+ * Example usage of the {@code PeselBloomFilter} class:
+ * <blockquote><pre>
+ *     PeselBloomFilter filter = PeselBloomFilter.of(blockedPesels.stream(), 0.001);
+ *     filter.writeTo(Path.of("blocked.pbf"));
+ *
+ *     PeselBloomFilter mapped = PeselBloomFilter.map(Path.of("blocked.pbf"));
+ *     if (mapped.mightContain(pesel)) {
+ *         // look the PESEL up in the database
+ *     }
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PackedPesel
+ */
+public final class PeselBloomFilter {
+
+    /**
+     * The smallest supported false positive rate.
+     */
+    public static final double MIN_FALSE_POSITIVE_RATE = 1e-4;
+
+    /**
+     * The greatest supported false positive rate.
+     */
+    public static final double MAX_FALSE_POSITIVE_RATE = 0.5;
+
+    /**
+     * The first 4 bytes of a filter file, {@code "PBF1"} in ASCII.
+     */
+    private static final int MAGIC = 0x3146_4250;
+
+    /**
+     * The length of the header of a filter file in bytes.
+     */
+    private static final int HEADER_LENGTH = 32;
+
+    /**
+     * The number of longs of a single block.
+     */
+    private static final int LONGS_PER_BLOCK = 8;
+
+    /**
+     * The greatest number of blocks, so the whole file can be memory-mapped as a single buffer.
+     */
+    private static final long MAX_BLOCKS = (Integer.MAX_VALUE - HEADER_LENGTH) / (LONGS_PER_BLOCK * Long.BYTES);
+
+    /**
+     * The extra bits per PESEL making up for the uneven load of the blocks, per bit of the false positive rate.
+     */
+    private static final double BLOCKING_OVERHEAD = 0.03;
+
+    /**
+     * The greatest number of bits set by every PESEL, which is used for the smallest false positive rate.
+     */
+    private static final int MAX_HASH_COUNT = hashCountOf(MIN_FALSE_POSITIVE_RATE);
+
+    /**
+     * The view of a long array setting bits atomically when building in parallel.
+     */
+    private static final VarHandle LONG_ARRAY = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * The bits of the filter, either on the heap or memory-mapped.
+     */
+    private final LongBuffer bits;
+
+    /**
+     * The number of blocks.
+     */
+    private final int blockCount;
+
+    /**
+     * The number of bits set by every PESEL.
+     */
+    private final int hashCount;
+
+    /**
+     * The number of PESEL numbers the filter was built from.
+     */
+    private final long count;
+
+    /**
+     * The false positive rate the filter was sized for.
+     */
+    private final double falsePositiveRate;
+
+    /**
+     * Creates a new {@code PeselBloomFilter} object over the given bits.
+     *
+     * @param bits              the bits of the filter
+     * @param blockCount        the number of blocks
+     * @param hashCount         the number of bits set by every PESEL
+     * @param count             the number of PESEL numbers the filter was built from
+     * @param falsePositiveRate the false positive rate the filter was sized for
+     */
+    private PeselBloomFilter(LongBuffer bits, int blockCount, int hashCount, long count, double falsePositiveRate) {
+        this.bits = bits;
+        this.blockCount = blockCount;
+        this.hashCount = hashCount;
+        this.count = count;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Builds the filter of the given PESEL numbers, skipping the ones rejected by {@link PeselValidator}.
+     *
+     * @param pesels            the PESEL numbers
+     * @param falsePositiveRate the probability that a PESEL not in the set is reported as possibly in it
+     * @return the filter
+     * @throws NullPointerException     if the stream or any of its PESEL numbers is null
+     * @throws IllegalArgumentException if the false positive rate is not between
+     *                                  {@code MIN_FALSE_POSITIVE_RATE} and {@code MAX_FALSE_POSITIVE_RATE}
+     */
+    public static PeselBloomFilter of(Stream<String> pesels, double falsePositiveRate) {
+        checkFalsePositiveRate(falsePositiveRate);
+        long[] packedPesels = pesels.parallel()
+                .filter(PeselValidator::isPeselValid)
+                .mapToLong(PackedPesel::pack)
+                .toArray();
+        return build(packedPesels, falsePositiveRate);
+    }
+
+    /**
+     * Builds the filter of the given packed PESEL numbers.
+     *
+     * @param packedPesels      the packed PESEL numbers
+     * @param falsePositiveRate the probability that a PESEL not in the set is reported as possibly in it
+     * @return the filter
+     * @throws IllegalArgumentException if the false positive rate is not between {@code MIN_FALSE_POSITIVE_RATE}
+     *                                  and {@code MAX_FALSE_POSITIVE_RATE}, or any value is not a packed PESEL
+     */
+    public static PeselBloomFilter ofPacked(LongStream packedPesels, double falsePositiveRate) {
+        checkFalsePositiveRate(falsePositiveRate);
+        long[] values = packedPesels.parallel().peek(PackedPesel::assertIsPacked).toArray();
+        return build(values, falsePositiveRate);
+    }
+
+    /**
+     * Memory-maps the filter written to the given file by {@link #writeTo(Path)}. The file should not be modified
+     * while the filter is in use.
+     *
+     * @param path the path of the file
+     * @return the memory-mapped filter
+     * @throws IOException if the file cannot be read or is not a filter file
+     */
+    public static PeselBloomFilter map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return fromBuffer(buffer, channel.size(), path);
+        }
+    }
+
+    /**
+     * Reads the filter written by {@link #writeTo(OutputStream)} from the given stream into the heap.
+     *
+     * @param input the input stream, which is not closed
+     * @return the filter
+     * @throws IOException if the stream cannot be read or does not contain a filter
+     */
+    public static PeselBloomFilter readFrom(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(input);
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        data.readFully(buffer.array(), 0, HEADER_LENGTH);
+        long blocks = buffer.getLong(8);
+        if (buffer.getInt(0) != MAGIC || blocks < 1 || blocks > MAX_BLOCKS) {
+            throw new IOException("Stream does not contain a PESEL Bloom filter");
+        }
+        int hashCount = buffer.getInt(4);
+        long count = buffer.getLong(16);
+        double falsePositiveRate = buffer.getDouble(24);
+        if (!isHeaderValid(hashCount, count, falsePositiveRate)) {
+            throw new IOException("Stream contains a corrupted PESEL Bloom filter");
+        }
+        long[] words = new long[(int) blocks * LONGS_PER_BLOCK];
+        LongBuffer longs = buffer.asLongBuffer();
+        for (int offset = 0; offset < words.length; ) {
+            int length = Math.min(longs.capacity(), words.length - offset);
+            data.readFully(buffer.array(), 0, length * Long.BYTES);
+            longs.get(0, words, offset, length);
+            offset += length;
+        }
+        return new PeselBloomFilter(LongBuffer.wrap(words), (int) blocks, hashCount, count, falsePositiveRate);
+    }
+
+    /**
+     * Checks if the given PESEL might be in the set.
+     *
+     * @param pesel the PESEL number
+     * @return false if the PESEL is definitely not in the set, true if it might be
+     * @throws NullPointerException if the given PESEL is null
+     */
+    public boolean mightContain(CharSequence pesel) {
+        long packed = PackedPesel.pack(pesel);
+        return packed != PackedPesel.INVALID && mightContain(packed);
+    }
+
+    /**
+     * Checks if the given packed PESEL might be in the set.
+     *
+     * @param packed the packed PESEL
+     * @return false if the PESEL is definitely not in the set, true if it might be
+     */
+    public boolean mightContain(long packed) {
+        long hash = PeselPartitioner.hash(packed);
+        int base = getBlock(hash, blockCount) * LONGS_PER_BLOCK;
+        long bitHash = PeselPartitioner.hash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) (bitHash >>> 55);
+            if ((bits.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+            bitHash = nextBitHash(bitHash, i);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the filter to the given file, so it can be memory-mapped with {@link #map(Path)}.
+     *
+     * @param path the path of the file, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path path) throws IOException {
+        try (OutputStream output = Files.newOutputStream(path)) {
+            writeTo(output);
+        }
+    }
+
+    /**
+     * Writes the filter to the given stream, so it can be read with {@link #readFrom(InputStream)}.
+     *
+     * @param output the output stream, which is not closed
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(hashCount).putLong(blockCount).putLong(count).putDouble(falsePositiveRate);
+        int longs = blockCount * LONGS_PER_BLOCK;
+        for (int i = 0; i < longs; i++) {
+            if (!buffer.hasRemaining()) {
+                output.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putLong(bits.get(i));
+        }
+        output.write(buffer.array(), 0, buffer.position());
+    }
+
+    /**
+     * Returns the number of PESEL numbers the filter was built from, including duplicates.
+     *
+     * @return the number of PESEL numbers
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the false positive rate the filter was sized for.
+     *
+     * @return the false positive rate
+     */
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Returns the size of the bits of the filter in bytes.
+     *
+     * @return the size in bytes
+     */
+    public long getSizeInBytes() {
+        return (long) blockCount * LONGS_PER_BLOCK * Long.BYTES;
+    }
+
+    /**
+     * Builds the filter of the given packed PESEL numbers, setting the bits in parallel.
+     *
+     * @param packedPesels      the packed PESEL numbers
+     * @param falsePositiveRate the false positive rate
+     * @return the filter
+     * @throws IllegalArgumentException if the filter would be too large
+     */
+    private static PeselBloomFilter build(long[] packedPesels, double falsePositiveRate) {
+        double log2 = -Math.log(falsePositiveRate) / Math.log(2);
+        int hashCount = hashCountOf(falsePositiveRate);
+        double bitsPerPesel = log2 / Math.log(2) * (1 + BLOCKING_OVERHEAD * log2);
+        long blocks = Math.max(1, (long) Math.ceil(packedPesels.length * bitsPerPesel / (LONGS_PER_BLOCK * Long.SIZE)));
+        if (blocks > MAX_BLOCKS) {
+            throw new IllegalArgumentException("Filter of " + packedPesels.length + " PESEL numbers would be too large");
+        }
+        int blockCount = (int) blocks;
+        long[] words = new long[blockCount * LONGS_PER_BLOCK];
+        IntStream.range(0, packedPesels.length).parallel().forEach(i -> {
+            long hash = PeselPartitioner.hash(packedPesels[i]);
+            int base = getBlock(hash, blockCount) * LONGS_PER_BLOCK;
+            long bitHash = PeselPartitioner.hash(hash);
+            for (int j = 0; j < hashCount; j++) {
+                int bit = (int) (bitHash >>> 55);
+                LONG_ARRAY.getAndBitwiseOr(words, base + (bit >>> 6), 1L << bit);
+                bitHash = nextBitHash(bitHash, j);
+            }
+        });
+        return new PeselBloomFilter(LongBuffer.wrap(words), blockCount, hashCount, packedPesels.length, falsePositiveRate);
+    }
+
+    /**
+     * Returns the number of bits set by every PESEL in a filter sized for the given false positive rate.
+     *
+     * @param falsePositiveRate the false positive rate
+     * @return the number of bits set by every PESEL
+     */
+    private static int hashCountOf(double falsePositiveRate) {
+        double log2 = -Math.log(falsePositiveRate) / Math.log(2);
+        // the bits of a block fill up unevenly, so fewer hash functions than in a classic filter are optimal
+        return Math.max(1, (int) Math.round(log2 * 0.85));
+    }
+
+    /**
+     * Checks if the given fields of a filter header could have been written by a built filter, so a corrupted
+     * header can't make the filter report every PESEL as possibly in the set.
+     *
+     * @param hashCount         the number of bits set by every PESEL
+     * @param count             the number of PESEL numbers the filter was built from
+     * @param falsePositiveRate the false positive rate the filter was sized for
+     * @return true if the fields are valid, false otherwise
+     */
+    private static boolean isHeaderValid(int hashCount, long count, double falsePositiveRate) {
+        return hashCount >= 1 && hashCount <= MAX_HASH_COUNT && count >= 0
+                && falsePositiveRate >= MIN_FALSE_POSITIVE_RATE && falsePositiveRate <= MAX_FALSE_POSITIVE_RATE;
+    }
+
+    /**
+     * Creates the filter over the given buffer holding a header and the bits.
+     *
+     * @param buffer the little-endian buffer of the header and the bits
+     * @param length the length of the buffer in bytes
+     * @param path   the path of the mapped file, used in the error message
+     * @return the filter
+     * @throws IOException if the buffer does not contain a filter
+     */
+    private static PeselBloomFilter fromBuffer(ByteBuffer buffer, long length, Path path) throws IOException {
+        long blocks = length < HEADER_LENGTH ? 0 : buffer.getLong(8);
+        if (blocks < 1 || blocks > MAX_BLOCKS || buffer.getInt(0) != MAGIC
+                || length != HEADER_LENGTH + blocks * LONGS_PER_BLOCK * Long.BYTES) {
+            throw new IOException("File " + path + " does not contain a PESEL Bloom filter");
+        }
+        int hashCount = buffer.getInt(4);
+        long count = buffer.getLong(16);
+        double falsePositiveRate = buffer.getDouble(24);
+        if (!isHeaderValid(hashCount, count, falsePositiveRate)) {
+            throw new IOException("File " + path + " contains a corrupted PESEL Bloom filter");
+        }
+        LongBuffer bits = buffer.position(HEADER_LENGTH).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        return new PeselBloomFilter(bits, (int) blocks, hashCount, count, falsePositiveRate);
+    }
+
+    /**
+     * Returns the block of the given hash, from its upper 32 bits.
+     *
+     * @param hash       the hash of the packed PESEL
+     * @param blockCount the number of blocks
+     * @return the block
+     */
+    private static int getBlock(long hash, int blockCount) {
+        return (int) (((hash >>> 32) * blockCount) >>> 32);
+    }
+
+    /**
+     * Moves to the bits of the next hash function: shifts the used 9 bits out, or mixes the hash again when
+     * all 7 slices of 9 bits were used.
+     *
+     * @param bitHash the hash of the bits of the current hash function in its upper 9 bits
+     * @param index   the index of the current hash function
+     * @return the hash of the bits of the next hash function in its upper 9 bits
+     */
+    private static long nextBitHash(long bitHash, int index) {
+        return index % 7 == 6 ? PeselPartitioner.hash(bitHash) : bitHash << 9;
+    }
+
+    /**
+     * Checks if the given false positive rate is supported.
+     *
+     * @param falsePositiveRate the false positive rate
+     * @throws IllegalArgumentException if the false positive rate is not between {@code MIN_FALSE_POSITIVE_RATE}
+     *                                  and {@code MAX_FALSE_POSITIVE_RATE}
+     */
+    private static void checkFalsePositiveRate(double falsePositiveRate) {
+        if (!(falsePositiveRate >= MIN_FALSE_POSITIVE_RATE && falsePositiveRate <= MAX_FALSE_POSITIVE_RATE)) {
+            throw new IllegalArgumentException("False positive rate should be between: "
+                    + MIN_FALSE_POSITIVE_RATE + " and " + MAX_FALSE_POSITIVE_RATE);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.viepovsky.polishutils.pesel;
+
+/**
+ * The {@code PeselCalendar} class holds the calendar rules of the PESEL birth date part computed
+ * on plain ints, so they can be shared by the validators without creating {@code LocalDate} objects.
+ * <p>
+ * The month digits of a PESEL encode the century of birth: months 81-92 are used for 1800-1899,
+ * 01-12 for 1900-1999, 21-32 for 2000-2099, 41-52 for 2100-2199 and 61-72 for 2200-2299.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel package.
+ *
+ * @author Oskar Rajzner
+ */
+final class PeselCalendar {
+
+    /**
+     * Days in every month of a non-leap year, indexed from 1.
+     */
+    private static final int[] DAYS_IN_MONTH = new int[]{0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private PeselCalendar() {
+    }
+
+    /**
+     * Decodes the century of birth from the first digit of the encoded month.
+     *
+     * @param monthFirstDigit the first digit of the encoded month (0-9)
+     * @return the first year of the century, e.g. 1900
+     */
+    static int decodeCentury(int monthFirstDigit) {
+        return switch (monthFirstDigit) {
+            case 8, 9 -> 1800;
+            case 2, 3 -> 2000;
+            case 4, 5 -> 2100;
+            case 6, 7 -> 2200;
+            default -> 1900;
+        };
+    }
+
+    /**
+     * Decodes the month of birth from the encoded month digits.
+     *
+     * @param encodedMonth the encoded month as in PESEL (e.g. 32 for December 20xx)
+     * @return the month of birth, which is valid only when in range 1-12
+     */
+    static int decodeMonth(int encodedMonth) {
+        return encodedMonth % 20;
+    }
+
+    /**
+     * Checks if the encoded birth date part of a PESEL represents an existing date.
+     *
+     * @param yearDigits   the YY digits of the PESEL
+     * @param encodedMonth the MM digits of the PESEL
+     * @param day          the DD digits of the PESEL
+     * @return true if the date exists in the calendar, false otherwise
+     */
+    static boolean isBirthDateValid(int yearDigits, int encodedMonth, int day) {
+        int month = decodeMonth(encodedMonth);
+        if (month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        return day <= daysInMonth(decodeCentury(encodedMonth / 10) + yearDigits, month);
+    }
+
+    /**
+     * Returns the number of days in the given month.
+     *
+     * @param year  the year
+     * @param month the month (1-12)
+     * @return the number of days in the month
+     */
+    static int daysInMonth(int year, int month) {
+        if (month == 2 && isLeapYear(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month];
+    }
+
+    /**
+     * Checks if the given year is a leap year in the ISO calendar.
+     *
+     * @param year the year
+     * @return true if the year is a leap year, false otherwise
+     */
+    static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Converts the given epoch day to the date in the ISO calendar, using only int arithmetic.
+     *
+     * @param epochDay the epoch day, not earlier than March 1, 0000
+     * @return the date as the number {@code yyyyMMdd}, e.g. 19920826
+     */
+    static int dateOfEpochDay(long epochDay) {
+        int shiftedDay = (int) epochDay + 719_468;
+        int era = shiftedDay / 146_097;
+        int dayOfEra = shiftedDay - era * 146_097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10_000 + month * 100 + day;
+    }
+
+    /**
+     * Converts the given date in the ISO calendar to the epoch day, using only int arithmetic.
+     *
+     * @param year  the year, not earlier than 0000
+     * @param month the month (1-12)
+     * @param day   the day of the month
+     * @return the epoch day, equal to {@code LocalDate.of(year, month, day).toEpochDay()}
+     */
+    static long epochDayOf(int year, int month, int day) {
+        int shiftedYear = month <= 2 ? year - 1 : year;
+        int era = shiftedYear / 400;
+        int yearOfEra = shiftedYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    /**
+     * Returns the key of the given packed PESEL that orders PESEL numbers by the date of birth, and then
+     * numerically. The century of birth, decoded from the month digits, is put before all 11 digits, because
+     * within one century the encoded month differs from the month by a constant.
+     *
+     * @param packed the packed PESEL
+     * @return the non-negative key, less than {@code 5 * 10^11}
+     * @see #packedOfBirthDateOrderKey(long)
+     */
+    static long birthDateOrderKey(long packed) {
+        int century = decodeCentury((int) (packed / 100_000_000L % 10));
+        return (century - 1800) / 100 * 100_000_000_000L + packed;
+    }
+
+    /**
+     * Returns the packed PESEL of the given key computed by {@link #birthDateOrderKey(long)}.
+     *
+     * @param key the key
+     * @return the packed PESEL
+     */
+    static long packedOfBirthDateOrderKey(long key) {
+        return key % 100_000_000_000L;
+    }
+}
@@ -0,0 +1,357 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import io.github.viepovsky.polishutils.validation.ValidationSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Collector;
+
+/**
+ * The {@code PeselCollectors} class provides collectors and mapping steps validating PESEL numbers in streams.
+ * <p>
+ * Every PESEL is validated once with {@link PeselValidationStrategy#check(CharSequence)}, and valid PESEL numbers
+ * are decoded without validating them again, unlike {@code filter(PeselValidator::isPeselValid).map(Pesel::new)}.
+ * All collectors and mapping steps apply the same rule: a PESEL is valid if the strategy accepts it and it can be
+ * decoded, so PESEL numbers with a birth date that does not exist are counted as {@code INVALID_BIRTH_DATE} even
+ * with a strategy skipping the birth date check, which checks it once more only for such strategies.
+ * The collectors count valid PESEL numbers and invalid ones by reason in a {@code long} array, so no counter
+ * objects are created per element, and their combiners add the partial results of parallel streams.
+ * <p>
+ * The mapping steps are meant for {@link java.util.stream.Stream#mapMulti} and
+ * {@link java.util.stream.Stream#mapMultiToLong}, which pass only valid PESEL numbers down the stream.
+ * <p>
+ * Example usage of the {@code PeselCollectors} class:
+ * <blockquote><pre>
+ *     PeselCollectors.Summary summary = pesels.parallelStream().collect(PeselCollectors.summarizing());
+ *     long invalidControlDigits = summary.getInvalidCount(InvalidPeselReason.INVALID_CONTROL_DIGIT);
+ *
+ *     PeselCollectors.Partition partition = pesels.parallelStream().collect(PeselCollectors.partitioning());
+ *     List&lt;Pesel&gt; valid = partition.getValid();
+ *
+ *     List&lt;Pesel&gt; decoded = pesels.stream().mapMulti(PeselCollectors.decodingValid()).toList();
+ *     long[] packed = pesels.stream().mapMultiToLong(PeselCollectors.packingValid()).toArray();
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PeselValidationStrategy
+ */
+public final class PeselCollectors {
+
+    /**
+     * The reasons of invalid PESEL numbers, indexed by their ordinals.
+     */
+    private static final InvalidPeselReason[] REASONS = InvalidPeselReason.values();
+
+    /**
+     * The validation strategy decoding PESEL numbers already validated, checking only their format.
+     */
+    private static final PeselValidationStrategy DECODING = PeselValidationStrategy.of(PeselValidationLevel.FORMAT);
+
+    private PeselCollectors() {
+    }
+
+    /**
+     * Returns a collector counting valid and invalid PESEL numbers with the standard validation strategy.
+     *
+     * @return the collector of the summary
+     */
+    public static Collector<CharSequence, ?, Summary> summarizing() {
+        return summarizing(PeselValidationStrategy.standard());
+    }
+
+    /**
+     * Returns a collector counting valid and invalid PESEL numbers with the given validation strategy.
+     *
+     * @param validation the validation strategy
+     * @return the collector of the summary
+     * @throws NullPointerException if the given strategy is null
+     */
+    public static Collector<CharSequence, ?, Summary> summarizing(PeselValidationStrategy validation) {
+        Objects.requireNonNull(validation, "Validation strategy cannot be null");
+        boolean checkBirthDate = !checksBirthDate(validation);
+        return Collector.of(
+                () -> new long[REASONS.length + 1],
+                (counts, pesel) -> counts[countIndex(check(validation, checkBirthDate, pesel))]++,
+                PeselCollectors::addCounts,
+                Summary::new,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Returns a collector decoding valid PESEL numbers and collecting invalid ones in encounter order, with
+     * the standard validation strategy.
+     *
+     * @return the collector of the partition
+     */
+    public static Collector<String, ?, Partition> partitioning() {
+        return partitioning(PeselValidationStrategy.standard());
+    }
+
+    /**
+     * Returns a collector decoding valid PESEL numbers and collecting invalid ones in encounter order, with
+     * the given validation strategy.
+     *
+     * @param validation the validation strategy
+     * @return the collector of the partition
+     * @throws NullPointerException if the given strategy is null
+     */
+    public static Collector<String, ?, Partition> partitioning(PeselValidationStrategy validation) {
+        Objects.requireNonNull(validation, "Validation strategy cannot be null");
+        boolean checkBirthDate = !checksBirthDate(validation);
+        return Collector.of(
+                PartitionBuilder::new,
+                (builder, pesel) -> builder.add(check(validation, checkBirthDate, pesel), pesel),
+                PartitionBuilder::addAll,
+                PartitionBuilder::build);
+    }
+
+    /**
+     * Returns a mapping step passing valid PESEL numbers decoded into {@code Pesel} objects, validated with
+     * the standard validation strategy.
+     *
+     * @return the mapping step for {@link java.util.stream.Stream#mapMulti}
+     */
+    public static BiConsumer<String, Consumer<Pesel>> decodingValid() {
+        return decodingValid(PeselValidationStrategy.standard());
+    }
+
+    /**
+     * Returns a mapping step passing valid PESEL numbers decoded into {@code Pesel} objects, validated with
+     * the given validation strategy.
+     *
+     * @param validation the validation strategy
+     * @return the mapping step for {@link java.util.stream.Stream#mapMulti}
+     * @throws NullPointerException if the given strategy is null
+     */
+    public static BiConsumer<String, Consumer<Pesel>> decodingValid(PeselValidationStrategy validation) {
+        Objects.requireNonNull(validation, "Validation strategy cannot be null");
+        boolean checkBirthDate = !checksBirthDate(validation);
+        return (pesel, downstream) -> {
+            if (check(validation, checkBirthDate, pesel) == null) {
+                downstream.accept(new Pesel(pesel, DECODING));
+            }
+        };
+    }
+
+    /**
+     * Returns a mapping step passing valid PESEL numbers in the packed form, validated with the standard
+     * validation strategy.
+     *
+     * @return the mapping step for {@link java.util.stream.Stream#mapMultiToLong}
+     */
+    public static BiConsumer<CharSequence, LongConsumer> packingValid() {
+        return packingValid(PeselValidationStrategy.standard());
+    }
+
+    /**
+     * Returns a mapping step passing valid PESEL numbers in the packed form, validated with the given
+     * validation strategy.
+     *
+     * @param validation the validation strategy
+     * @return the mapping step for {@link java.util.stream.Stream#mapMultiToLong}
+     * @throws NullPointerException if the given strategy is null
+     */
+    public static BiConsumer<CharSequence, LongConsumer> packingValid(PeselValidationStrategy validation) {
+        Objects.requireNonNull(validation, "Validation strategy cannot be null");
+        boolean checkBirthDate = !checksBirthDate(validation);
+        return (pesel, downstream) -> {
+            if (check(validation, checkBirthDate, pesel) == null) {
+                downstream.accept(PackedPesel.pack(pesel));
+            }
+        };
+    }
+
+    /**
+     * Tells whether the given strategy rejects PESEL numbers with a birth date that does not exist.
+     *
+     * @param validation the validation strategy
+     * @return true if the strategy is known to check the birth date, false otherwise
+     */
+    private static boolean checksBirthDate(PeselValidationStrategy validation) {
+        return validation instanceof ConfiguredPeselValidator configured && configured.checksBirthDate();
+    }
+
+    /**
+     * Checks the given PESEL with the given strategy and, if the strategy does not check it, the existence
+     * of the birth date, so that every PESEL accepted can be decoded.
+     *
+     * @param validation     the validation strategy
+     * @param checkBirthDate whether the birth date has to be checked after the strategy
+     * @param pesel          the PESEL number
+     * @return the reason why the PESEL is invalid, or null if it is valid
+     */
+    private static InvalidPeselReason check(PeselValidationStrategy validation, boolean checkBirthDate, CharSequence pesel) {
+        InvalidPeselReason reason = validation.check(pesel);
+        if (reason != null || !checkBirthDate) {
+            return reason;
+        }
+        long packed = PackedPesel.pack(pesel);
+        if (packed == PackedPesel.INVALID) {
+            return pesel.length() != 11 ? InvalidPeselReason.INVALID_LENGTH : InvalidPeselReason.INVALID_CHARACTERS;
+        }
+        return PackedPesel.isBirthDateValid(packed) ? null : InvalidPeselReason.INVALID_BIRTH_DATE;
+    }
+
+    /**
+     * Returns the index of the counter of the given validation result.
+     *
+     * @param reason the reason the PESEL is invalid, or null if it is valid
+     * @return 0 for valid PESEL numbers, or the ordinal of the reason increased by one
+     */
+    private static int countIndex(InvalidPeselReason reason) {
+        return reason == null ? 0 : reason.ordinal() + 1;
+    }
+
+    /**
+     * Adds the second counts to the first ones.
+     *
+     * @param counts      the first counts
+     * @param otherCounts the second counts
+     * @return the first counts
+     */
+    private static long[] addCounts(long[] counts, long[] otherCounts) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += otherCounts[i];
+        }
+        return counts;
+    }
+
+    /**
+     * The counts of valid and invalid PESEL numbers.
+     */
+    public static final class Summary extends ValidationSummary<InvalidPeselReason> {
+
+        /**
+         * Constructs a new {@code Summary} object.
+         *
+         * @param counts the number of valid values, followed by the numbers of invalid ones by reason
+         */
+        private Summary(long[] counts) {
+            super(REASONS, counts);
+        }
+    }
+
+    /**
+     * The decoded valid PESEL numbers and the invalid ones.
+     */
+    public static final class Partition {
+
+        /**
+         * The decoded valid PESEL numbers.
+         */
+        private final List<Pesel> valid;
+
+        /**
+         * The invalid PESEL numbers.
+         */
+        private final List<String> invalid;
+
+        /**
+         * The counts of valid and invalid PESEL numbers.
+         */
+        private final Summary summary;
+
+        /**
+         * Constructs a new {@code Partition} object.
+         *
+         * @param valid   the decoded valid PESEL numbers
+         * @param invalid the invalid PESEL numbers
+         * @param summary the counts of valid and invalid PESEL numbers
+         */
+        private Partition(List<Pesel> valid, List<String> invalid, Summary summary) {
+            this.valid = valid;
+            this.invalid = invalid;
+            this.summary = summary;
+        }
+
+        /**
+         * Returns the decoded valid PESEL numbers in encounter order.
+         *
+         * @return the unmodifiable list of the valid PESEL numbers
+         */
+        public List<Pesel> getValid() {
+            return valid;
+        }
+
+        /**
+         * Returns the invalid PESEL numbers in encounter order.
+         *
+         * @return the unmodifiable list of the invalid PESEL numbers
+         */
+        public List<String> getInvalid() {
+            return invalid;
+        }
+
+        /**
+         * Returns the counts of valid and invalid PESEL numbers.
+         *
+         * @return the summary
+         */
+        public Summary getSummary() {
+            return summary;
+        }
+    }
+
+    /**
+     * The mutable accumulator of a partition.
+     */
+    private static final class PartitionBuilder {
+
+        /**
+         * The decoded valid PESEL numbers.
+         */
+        private final List<Pesel> valid = new ArrayList<>();
+
+        /**
+         * The invalid PESEL numbers.
+         */
+        private final List<String> invalid = new ArrayList<>();
+
+        /**
+         * The counts of valid and invalid PESEL numbers.
+         */
+        private final long[] counts = new long[REASONS.length + 1];
+
+        /**
+         * Adds the given checked PESEL to the valid or the invalid ones.
+         *
+         * @param reason the reason why the PESEL is invalid, or null if it is valid
+         * @param pesel  the PESEL number
+         */
+        private void add(InvalidPeselReason reason, String pesel) {
+            if (reason == null) {
+                valid.add(new Pesel(pesel, DECODING));
+            } else {
+                invalid.add(pesel);
+            }
+            counts[countIndex(reason)]++;
+        }
+
+        /**
+         * Adds the PESEL numbers of the given accumulator, which follow the PESEL numbers of this one.
+         *
+         * @param other the other accumulator
+         * @return this accumulator
+         */
+        private PartitionBuilder addAll(PartitionBuilder other) {
+            valid.addAll(other.valid);
+            invalid.addAll(other.invalid);
+            addCounts(counts, other.counts);
+            return this;
+        }
+
+        /**
+         * Builds the partition.
+         *
+         * @return the partition
+         */
+        private Partition build() {
+            return new Partition(Collections.unmodifiableList(valid), Collections.unmodifiableList(invalid), new Summary(counts));
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The {@code PeselCorrector} class suggests valid PESEL numbers for an invalid one that was most likely mistyped,
+ * either by a single wrong digit or by two swapped adjacent digits.
+ * <p>
+ * Instead of validating all 99 single digit substitutions and 10 adjacent transpositions of the given PESEL,
+ * the corrector uses the control sum algebra. The control weights 1, 3, 7 and 9 are all invertible modulo 10,
+ * so for every position there is exactly one digit that fixes the control sum, and a transposition of digits
+ * {@code a} and {@code b} at positions {@code i} and {@code i + 1} changes the control sum by
+ * {@code (w[i] - w[i + 1]) * (b - a)}. Only the candidates with a correct control sum are then checked
+ * for a valid birth date.
+ * <p>
+ * Candidates are ranked so that the ones present in the optionally supplied set of known PESEL numbers come first,
+ * followed by transpositions and then substitutions, each ordered by position.
+ * <p>
+ * Example usage of the {@code PeselCorrector} class:
+ * <blockquote><pre>
+ *     PeselCorrector corrector = new PeselCorrector();
+ *     List&lt;PeselCorrector.Candidate&gt; candidates = corrector.suggest("78010469225");
+ *     //or with known PESEL numbers that are ranked first
+ *     PeselCorrector corrector = new PeselCorrector(knownPesels::contains);
+ * </pre></blockquote>
+ * Passing a {@code null} argument will cause a {@link NullPointerException} to be thrown.
+ * Instances of this class are immutable and are safe for use by multiple threads, as long as
+ * the given predicate is.
+ *
+ * @author Oskar Rajzner
+ * @see PeselValidator
+ */
+public final class PeselCorrector {
+
+    /**
+     * The inverses of the control weights modulo 10, indexed by the weight.
+     */
+    private static final int[] WEIGHT_INVERSES = new int[]{0, 1, 0, 7, 0, 0, 0, 3, 0, 9};
+
+    /**
+     * The ranking order of the suggested candidates.
+     */
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparing((Candidate candidate) -> !candidate.isKnown())
+            .thenComparing(Candidate::getType)
+            .thenComparingInt(Candidate::getPosition);
+
+    /**
+     * The predicate that tells if a candidate is a known PESEL number.
+     */
+    private final Predicate<String> knownPesels;
+
+    /**
+     * Creates a new {@code PeselCorrector} object without any known PESEL numbers.
+     */
+    public PeselCorrector() {
+        this(pesel -> false);
+    }
+
+    /**
+     * Creates a new {@code PeselCorrector} object that ranks the known PESEL numbers first.
+     *
+     * @param knownPesels the predicate that tells if a PESEL is known, e.g. {@code Set::contains}
+     */
+    public PeselCorrector(Predicate<String> knownPesels) {
+        this.knownPesels = Objects.requireNonNull(knownPesels, "Known PESEL predicate cannot be null");
+    }
+
+    /**
+     * Suggests valid PESEL numbers that differ from the given one by a single digit or by two swapped
+     * adjacent digits.
+     * <p>
+     * Nothing is suggested if the given PESEL is already valid, or if it can't be corrected this way because
+     * it doesn't have 11 digits.
+     *
+     * @param pesel the mistyped PESEL number
+     * @return the ranked list of candidates, empty if there are none
+     */
+    public List<Candidate> suggest(String pesel) {
+        PeselValidator.assertIsNotNull(pesel);
+        if (pesel.length() != 11) {
+            return List.of();
+        }
+        int[] digits = new int[11];
+        int controlSum = 0;
+        for (int i = 0; i < 11; i++) {
+            char character = pesel.charAt(i);
+            if (character < '0' || character > '9') {
+                return List.of();
+            }
+            digits[i] = character - '0';
+            controlSum += PeselValidator.CONTROL_WEIGHTS[i] * digits[i];
+        }
+        controlSum %= 10;
+        boolean birthDateValid = isBirthDateValid(digits);
+        if (controlSum == 0 && birthDateValid) {
+            return List.of();
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        if (controlSum != 0) {
+            addSubstitutions(digits, controlSum, birthDateValid, candidates);
+        }
+        addTranspositions(digits, controlSum, birthDateValid, candidates);
+        candidates.sort(RANKING);
+        return candidates;
+    }
+
+    /**
+     * Adds the single digit substitutions that fix the control sum and have a valid birth date.
+     *
+     * @param digits         the digits of the mistyped PESEL
+     * @param controlSum     the control sum of the mistyped PESEL modulo 10, other than 0
+     * @param birthDateValid true if the birth date of the mistyped PESEL is valid
+     * @param candidates     the list the candidates are added to
+     */
+    private void addSubstitutions(int[] digits, int controlSum, boolean birthDateValid, List<Candidate> candidates) {
+        for (int i = 0; i < 11; i++) {
+            if (!birthDateValid && i >= 6) {
+                break;
+            }
+            int weight = PeselValidator.CONTROL_WEIGHTS[i];
+            int digit = digits[i];
+            int replacement = Math.floorMod(digit - controlSum * WEIGHT_INVERSES[weight], 10);
+            digits[i] = replacement;
+            if (i >= 6 || isBirthDateValid(digits)) {
+                candidates.add(createCandidate(digits, CorrectionType.SUBSTITUTION, i));
+            }
+            digits[i] = digit;
+        }
+    }
+
+    /**
+     * Adds the adjacent digit transpositions that fix the control sum and have a valid birth date.
+     *
+     * @param digits         the digits of the mistyped PESEL
+     * @param controlSum     the control sum of the mistyped PESEL modulo 10
+     * @param birthDateValid true if the birth date of the mistyped PESEL is valid
+     * @param candidates     the list the candidates are added to
+     */
+    private void addTranspositions(int[] digits, int controlSum, boolean birthDateValid, List<Candidate> candidates) {
+        for (int i = 0; i < 10; i++) {
+            if (!birthDateValid && i >= 6) {
+                break;
+            }
+            int first = digits[i];
+            int second = digits[i + 1];
+            int weightDifference = PeselValidator.CONTROL_WEIGHTS[i] - PeselValidator.CONTROL_WEIGHTS[i + 1];
+            if (first == second || (controlSum + weightDifference * (second - first)) % 10 != 0) {
+                continue;
+            }
+            digits[i] = second;
+            digits[i + 1] = first;
+            if (i >= 6 || isBirthDateValid(digits)) {
+                candidates.add(createCandidate(digits, CorrectionType.TRANSPOSITION, i));
+            }
+            digits[i] = first;
+            digits[i + 1] = second;
+        }
+    }
+
+    /**
+     * Creates a candidate from the given digits.
+     *
+     * @param digits   the digits of the corrected PESEL
+     * @param type     the type of the correction
+     * @param position the index of the first changed digit
+     * @return the candidate
+     */
+    private Candidate createCandidate(int[] digits, CorrectionType type, int position) {
+        char[] characters = new char[11];
+        for (int i = 0; i < 11; i++) {
+            characters[i] = (char) ('0' + digits[i]);
+        }
+        String pesel = new String(characters);
+        return new Candidate(pesel, type, position, knownPesels.test(pesel));
+    }
+
+    /**
+     * Checks if the birth date part of the given digits is valid.
+     *
+     * @param digits the PESEL digits
+     * @return true if the birth date is valid, false otherwise
+     */
+    private static boolean isBirthDateValid(int[] digits) {
+        return PeselCalendar.isBirthDateValid(digits[0] * 10 + digits[1], digits[2] * 10 + digits[3],
+                digits[4] * 10 + digits[5]);
+    }
+
+    /**
+     * Type of the correction applied to the mistyped PESEL.
+     */
+    public enum CorrectionType {
+        /**
+         * Two adjacent digits were swapped.
+         */
+        TRANSPOSITION,
+        /**
+         * A single digit was replaced.
+         */
+        SUBSTITUTION
+    }
+
+    /**
+     * A valid PESEL suggested as the correction of a mistyped one.
+     */
+    public static final class Candidate {
+
+        /**
+         * The suggested PESEL number.
+         */
+        private final String pesel;
+
+        /**
+         * The type of the correction.
+         */
+        private final CorrectionType type;
+
+        /**
+         * The index of the first changed digit.
+         */
+        private final int position;
+
+        /**
+         * Whether the suggested PESEL is a known one.
+         */
+        private final boolean known;
+
+        /**
+         * Constructs a new {@code Candidate} object.
+         *
+         * @param pesel    the suggested PESEL number
+         * @param type     the type of the correction
+         * @param position the index of the first changed digit
+         * @param known    whether the suggested PESEL is a known one
+         */
+        private Candidate(String pesel, CorrectionType type, int position, boolean known) {
+            this.pesel = pesel;
+            this.type = type;
+            this.position = position;
+            this.known = known;
+        }
+
+        /**
+         * Returns the suggested PESEL number.
+         *
+         * @return the suggested PESEL as a String
+         */
+        public String getPesel() {
+            return pesel;
+        }
+
+        /**
+         * Returns the type of the correction.
+         *
+         * @return the type as {@code PeselCorrector.CorrectionType}
+         */
+        public CorrectionType getType() {
+            return type;
+        }
+
+        /**
+         * Returns the index of the first changed digit, counting from 0.
+         *
+         * @return the index of the first changed digit
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * Returns whether the suggested PESEL is one of the known PESEL numbers.
+         *
+         * @return true if the suggested PESEL is known, false otherwise
+         */
+        public boolean isKnown() {
+            return known;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.viepovsky.polishutils.pesel;
+
+/**
+ * The {@code PeselDateWindow} class holds the birth date range of generated PESEL numbers resolved for a single day,
+ * as epoch days, together with the period of time in which it is valid. It lets the generator resolve the date range
+ * once per day of the clock instead of once per generated PESEL. When the birth dates follow a histogram, the window
+ * also holds the date range of every bucket of the histogram.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel package.
+ *
+ * @author Oskar Rajzner
+ */
+final class PeselDateWindow {
+
+    /**
+     * The earliest birth date as an epoch day.
+     */
+    private final long minEpochDay;
+
+    /**
+     * The number of days in the range, including both the earliest and the latest birth date.
+     */
+    private final long days;
+
+    /**
+     * The first millisecond of the clock in which this window is valid.
+     */
+    private final long validFromMillis;
+
+    /**
+     * The first millisecond of the clock in which this window is no longer valid.
+     */
+    private final long validUntilMillis;
+
+    /**
+     * The earliest birth date of every bucket of the histogram as an epoch day, or null if there is no histogram.
+     */
+    private final long[] bucketStarts;
+
+    /**
+     * The number of days of every bucket of the histogram, or null if there is no histogram.
+     */
+    private final long[] bucketDays;
+
+    /**
+     * Constructs a new {@code PeselDateWindow} object without a histogram.
+     *
+     * @param minEpochDay      the earliest birth date as an epoch day
+     * @param maxEpochDay      the latest birth date as an epoch day
+     * @param validFromMillis  the first millisecond of the clock in which this window is valid
+     * @param validUntilMillis the first millisecond of the clock in which this window is no longer valid
+     */
+    PeselDateWindow(long minEpochDay, long maxEpochDay, long validFromMillis, long validUntilMillis) {
+        this(minEpochDay, maxEpochDay, validFromMillis, validUntilMillis, null, null);
+    }
+
+    /**
+     * Constructs a new {@code PeselDateWindow} object with the date ranges of the buckets of a histogram.
+     *
+     * @param minEpochDay      the earliest birth date as an epoch day
+     * @param maxEpochDay      the latest birth date as an epoch day
+     * @param validFromMillis  the first millisecond of the clock in which this window is valid
+     * @param validUntilMillis the first millisecond of the clock in which this window is no longer valid
+     * @param bucketStarts     the earliest birth date of every bucket as an epoch day, or null
+     * @param bucketDays       the positive number of days of every bucket, or null
+     */
+    PeselDateWindow(long minEpochDay, long maxEpochDay, long validFromMillis, long validUntilMillis,
+                    long[] bucketStarts, long[] bucketDays) {
+        this.minEpochDay = minEpochDay;
+        this.days = maxEpochDay - minEpochDay + 1;
+        this.validFromMillis = validFromMillis;
+        this.validUntilMillis = validUntilMillis;
+        this.bucketStarts = bucketStarts;
+        this.bucketDays = bucketDays;
+    }
+
+    /**
+     * Checks if this window is valid at the given millisecond of the clock.
+     *
+     * @param millis the current millisecond of the clock
+     * @return true if this window is valid, false if it has to be resolved again
+     */
+    boolean isValidAt(long millis) {
+        return millis >= validFromMillis && millis < validUntilMillis;
+    }
+
+    /**
+     * Returns the earliest birth date as an epoch day.
+     *
+     * @return the earliest birth date as an epoch day
+     */
+    long getMinEpochDay() {
+        return minEpochDay;
+    }
+
+    /**
+     * Returns the number of days in the range, including both the earliest and the latest birth date.
+     *
+     * @return the number of days in the range
+     */
+    long getDays() {
+        return days;
+    }
+
+    /**
+     * Returns the earliest birth date of the given bucket of the histogram as an epoch day.
+     *
+     * @param bucket the index of the bucket
+     * @return the earliest birth date of the bucket as an epoch day
+     */
+    long getBucketStart(int bucket) {
+        return bucketStarts[bucket];
+    }
+
+    /**
+     * Returns the number of days of the given bucket of the histogram.
+     *
+     * @param bucket the index of the bucket
+     * @return the positive number of days of the bucket
+     */
+    long getBucketDays(int bucket) {
+        return bucketDays[bucket];
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.util.Objects;
+
+/**
+ * The {@code PeselDecodingStrategy} interface validates Polish Personal Identification Numbers (PESEL) with
+ * a {@link PeselValidationStrategy} and decodes them into {@link Pesel} objects.
+ * <p>
+ * Instances are immutable from the caller's point of view and thread-safe, so they should be configured once and
+ * shared. All instances returned by the static factory methods are of the same final class, which keeps the calls
+ * of their methods monomorphic. The caching strategy keeps the recently decoded PESEL numbers in a fixed-size table
+ * without locks, which pays off when the same PESEL numbers are decoded many times.
+ * <p>
+ * Example usage of the {@code PeselDecodingStrategy} interface:
+ * <blockquote><pre>
+ *     PeselDecodingStrategy decoding = PeselDecodingStrategy.caching(PeselValidationStrategy.standard(), 4096);
+ *     Pesel pesel = decoding.decode("92082683499"); //if PESEL not valid it throws unchecked InvalidPeselException
+ * </pre></blockquote>
+ * Passing a {@code null} argument will cause a {@link NullPointerException} to be thrown.
+ *
+ * @author Oskar Rajzner
+ * @see PeselValidationStrategy
+ */
+public interface PeselDecodingStrategy {
+
+    /**
+     * Returns the standard decoding strategy, which validates PESEL numbers with the standard validation strategy,
+     * like the {@link Pesel} constructor.
+     *
+     * @return the standard decoding strategy
+     */
+    static PeselDecodingStrategy standard() {
+        return ConfiguredPeselDecoder.STANDARD;
+    }
+
+    /**
+     * Returns the decoding strategy validating PESEL numbers with the given validation strategy.
+     * The birth date is always checked when decoding, even if the validation strategy skips it.
+     *
+     * @param validation the validation strategy
+     * @return the decoding strategy
+     * @throws NullPointerException if the given validation strategy is null
+     */
+    static PeselDecodingStrategy of(PeselValidationStrategy validation) {
+        return new ConfiguredPeselDecoder(Objects.requireNonNull(validation, "Validation strategy cannot be null"), 0);
+    }
+
+    /**
+     * Returns the decoding strategy validating PESEL numbers with the given validation strategy and caching
+     * the given number of recently decoded PESEL numbers. Invalid PESEL numbers are not cached, and if the validation
+     * strategy has rules relative to the current date, a cached PESEL is reused only on the day it was validated on.
+     *
+     * @param validation the validation strategy
+     * @param cacheSize  the number of cached PESEL numbers, rounded up to a power of two
+     * @return the caching decoding strategy
+     * @throws NullPointerException     if the given validation strategy is null
+     * @throws IllegalArgumentException if the given cache size is not between 1 and 2^30
+     */
+    static PeselDecodingStrategy caching(PeselValidationStrategy validation, int cacheSize) {
+        if (cacheSize < 1 || cacheSize > 1 << 30) {
+            throw new IllegalArgumentException("Cache size should be between: 1 and " + (1 << 30));
+        }
+        return new ConfiguredPeselDecoder(Objects.requireNonNull(validation, "Validation strategy cannot be null"), cacheSize);
+    }
+
+    /**
+     * Validates and decodes the given PESEL.
+     *
+     * @param pesel the PESEL number
+     * @return the decoded PESEL
+     * @throws NullPointerException  if the given PESEL is null
+     * @throws InvalidPeselException if the given PESEL is invalid
+     */
+    Pesel decode(String pesel);
+}
@@ -0,0 +1,474 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * The {@code PeselDuplicateFinder} class finds pairs of PESEL numbers that differ by a single digit or by two
+ * swapped adjacent digits, which most likely belong to the same person mistyped in one of the records.
+ * <p>
+ * Comparing all pairs of records is not possible for large datasets, so the finder uses digit mask signatures.
+ * For every digit position it computes a signature of each PESEL with that digit masked out, and for every pair of
+ * adjacent positions a signature with both digits put in ascending order. Two PESEL numbers differing by a single
+ * digit share exactly one masked signature, and two PESEL numbers differing by a transposition share exactly one
+ * ordered signature, so every pair is found once by sorting the signatures and joining the equal ones.
+ * <p>
+ * Exact duplicates are collapsed into a single value before the signatures are computed, so a value repeated in many
+ * records costs as much as a single one, and the pairs found for it are then reported for every one of its records.
+ * Signatures are computed, sorted and joined in parallel, and about 24 bytes are kept per record.
+ * <p>
+ * Records that are not sequences of 11 digits and pairs of exact duplicates are skipped. Every reported pair tells whether
+ * both, one or neither of the PESEL numbers is valid according to {@link PeselValidator}.
+ * <p>
+ * Example usage of the {@code PeselDuplicateFinder} class:
+ * <blockquote><pre>
+ *     List&lt;PeselDuplicateFinder.Pair&gt; pairs = PeselDuplicateFinder.findAll(pesels);
+ *     //or for large datasets, to process pairs as they are found
+ *     PeselDuplicateFinder.find(pesels, pair -&gt; ...);
+ * </pre></blockquote>
+ * Passing a {@code null} argument will cause a {@link NullPointerException} to be thrown.
+ *
+ * @author Oskar Rajzner
+ * @see PeselCorrector
+ */
+public final class PeselDuplicateFinder {
+
+    /**
+     * The number of bits of a signature entry used for the index of the record.
+     */
+    private static final int INDEX_BITS = 27;
+
+    /**
+     * The mask of a signature entry selecting the index of the record.
+     */
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    /**
+     * The greatest number of records that can be searched at once. The greatest index is left unused,
+     * so that no signature entry is equal to the {@code Long.MAX_VALUE} marker of a missing signature.
+     */
+    public static final int MAX_RECORDS = (int) INDEX_MASK;
+
+    /**
+     * The minimum number of signature entries joined by a single task.
+     */
+    private static final int MIN_CHUNK_LENGTH = 1 << 16;
+
+    private PeselDuplicateFinder() {
+    }
+
+    /**
+     * Finds all pairs of PESEL numbers that differ by a single digit or by two swapped adjacent digits.
+     *
+     * @param pesels the PESEL numbers to search
+     * @return the list of found pairs
+     * @throws IllegalArgumentException if there are more than {@link #MAX_RECORDS} PESEL numbers
+     */
+    public static List<Pair> findAll(List<? extends CharSequence> pesels) {
+        List<Pair> pairs = new ArrayList<>();
+        find(pesels, pairs::add);
+        return pairs;
+    }
+
+    /**
+     * Finds all pairs of PESEL numbers that differ by a single digit or by two swapped adjacent digits,
+     * passing every pair to the given consumer as soon as it is found. The consumer is called from the calling
+     * thread only.
+     *
+     * @param pesels   the PESEL numbers to search
+     * @param consumer the consumer of the found pairs
+     * @throws IllegalArgumentException if there are more than {@link #MAX_RECORDS} PESEL numbers
+     */
+    public static void find(List<? extends CharSequence> pesels, Consumer<? super Pair> consumer) {
+        Objects.requireNonNull(pesels, "PESEL list cannot be null");
+        Objects.requireNonNull(consumer, "Consumer cannot be null");
+        if (pesels.size() > MAX_RECORDS) {
+            throw new IllegalArgumentException("Cannot search more than " + MAX_RECORDS + " PESEL numbers at once");
+        }
+        int size = pesels.size();
+        long[] entries = new long[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            CharSequence pesel = pesels.get(i);
+            long packed = pesel == null ? PackedPesel.INVALID : PackedPesel.pack(pesel);
+            entries[i] = packed == PackedPesel.INVALID ? Long.MAX_VALUE : packed << INDEX_BITS | i;
+        });
+        Arrays.parallelSort(entries);
+        DistinctPesels distinct = DistinctPesels.of(entries);
+
+        long[] signatures = entries;
+        for (int position = 0; position < 11; position++) {
+            int count = computeSignatures(distinct.values, signatures, position, false);
+            joinSignatures(distinct, signatures, count, PeselCorrector.CorrectionType.SUBSTITUTION, position, consumer);
+        }
+        for (int position = 0; position < 10; position++) {
+            int count = computeSignatures(distinct.values, signatures, position, true);
+            joinSignatures(distinct, signatures, count, PeselCorrector.CorrectionType.TRANSPOSITION, position, consumer);
+        }
+    }
+
+    /**
+     * Computes the signatures of all distinct PESEL numbers for the given position and sorts them. Every signature
+     * entry holds the signature in the upper bits and the index of the distinct PESEL in the lower
+     * {@link #INDEX_BITS} bits.
+     *
+     * @param packedPesels  the distinct packed PESEL numbers
+     * @param signatures    the array the signature entries are written to, at least as long as the PESEL numbers
+     * @param position      the position of the masked digit, or the first of the ordered digits
+     * @param transposition true to compute ordered signatures, false to compute masked signatures
+     * @return the number of computed signature entries
+     */
+    private static int computeSignatures(long[] packedPesels, long[] signatures, int position, boolean transposition) {
+        long firstWeight = PackedPesel.POSITION_WEIGHTS[position];
+        long secondWeight = transposition ? PackedPesel.POSITION_WEIGHTS[position + 1] : 0;
+        IntStream.range(0, packedPesels.length).parallel().forEach(i -> {
+            long packed = packedPesels[i];
+            long signature = -1;
+            if (packed != PackedPesel.INVALID) {
+                int first = (int) (packed / firstWeight % 10);
+                if (!transposition) {
+                    signature = packed - first * firstWeight;
+                } else {
+                    int second = (int) (packed / secondWeight % 10);
+                    if (first != second) {
+                        signature = packed - first * firstWeight - second * secondWeight
+                                + Math.min(first, second) * firstWeight + Math.max(first, second) * secondWeight;
+                    }
+                }
+            }
+            signatures[i] = signature < 0 ? Long.MAX_VALUE : signature << INDEX_BITS | i;
+        });
+        Arrays.parallelSort(signatures, 0, packedPesels.length);
+        int count = packedPesels.length;
+        while (count > 0 && signatures[count - 1] == Long.MAX_VALUE) {
+            count--;
+        }
+        return count;
+    }
+
+    /**
+     * Joins the sorted signature entries with equal signatures and passes the pairs of the records to the consumer.
+     * The entries are split into chunks at the boundaries of runs of equal signatures, which are joined in parallel
+     * into pairs of distinct PESEL numbers, and the pairs are then expanded to the records on the calling thread.
+     *
+     * @param distinct   the distinct PESEL numbers
+     * @param signatures the sorted signature entries
+     * @param count      the number of signature entries
+     * @param type       the type of the difference found by the signatures
+     * @param position   the position of the signatures
+     * @param consumer   the consumer of the found pairs
+     */
+    private static void joinSignatures(DistinctPesels distinct, long[] signatures, int count,
+                                       PeselCorrector.CorrectionType type, int position, Consumer<? super Pair> consumer) {
+        int chunks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, count / MIN_CHUNK_LENGTH));
+        int[] bounds = new int[chunks + 1];
+        for (int chunk = 1; chunk <= chunks; chunk++) {
+            int bound = (int) ((long) count * chunk / chunks);
+            while (bound > 0 && bound < count && signatures[bound] >>> INDEX_BITS == signatures[bound - 1] >>> INDEX_BITS) {
+                bound++;
+            }
+            bounds[chunk] = Math.max(bound, bounds[chunk - 1]);
+        }
+        long[][] chunkPairs = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> joinChunk(signatures, bounds[chunk], bounds[chunk + 1]))
+                .toArray(long[][]::new);
+        for (long[] pairs : chunkPairs) {
+            for (long pair : pairs) {
+                distinct.expand((int) (pair >>> 32), (int) pair, type, position, consumer);
+            }
+        }
+    }
+
+    /**
+     * Joins the sorted signature entries of the given range, which starts and ends at the boundaries of runs
+     * of equal signatures.
+     *
+     * @param signatures the sorted signature entries
+     * @param from       the index of the first entry of the range
+     * @param to         the index after the last entry of the range
+     * @return the pairs of indexes of the distinct PESEL numbers, the lower index in the upper 32 bits
+     */
+    private static long[] joinChunk(long[] signatures, int from, int to) {
+        LongStream.Builder pairs = LongStream.builder();
+        int runStart = from;
+        while (runStart < to) {
+            long signature = signatures[runStart] >>> INDEX_BITS;
+            int runEnd = runStart + 1;
+            while (runEnd < to && signatures[runEnd] >>> INDEX_BITS == signature) {
+                runEnd++;
+            }
+            for (int i = runStart; i < runEnd - 1; i++) {
+                long first = signatures[i] & INDEX_MASK;
+                for (int j = i + 1; j < runEnd; j++) {
+                    pairs.add(first << 32 | (signatures[j] & INDEX_MASK));
+                }
+            }
+            runStart = runEnd;
+        }
+        return pairs.build().toArray();
+    }
+
+    /**
+     * The distinct PESEL numbers of the searched records, with the indexes of the records holding every one of them.
+     */
+    private static final class DistinctPesels {
+
+        /**
+         * The distinct packed PESEL numbers in ascending order of their sort entries.
+         */
+        private final long[] values;
+
+        /**
+         * The validity of the distinct PESEL numbers.
+         */
+        private final boolean[] valid;
+
+        /**
+         * The positions in {@code recordIndexes} of the first record of every distinct PESEL, followed by the number
+         * of records.
+         */
+        private final int[] groupStarts;
+
+        /**
+         * The indexes of the records, grouped by their PESEL numbers and in ascending order within a group.
+         */
+        private final int[] recordIndexes;
+
+        /**
+         * Constructs a new {@code DistinctPesels} object.
+         *
+         * @param values        the distinct packed PESEL numbers
+         * @param valid         the validity of the distinct PESEL numbers
+         * @param groupStarts   the positions of the first record of every distinct PESEL
+         * @param recordIndexes the grouped indexes of the records
+         */
+        private DistinctPesels(long[] values, boolean[] valid, int[] groupStarts, int[] recordIndexes) {
+            this.values = values;
+            this.valid = valid;
+            this.groupStarts = groupStarts;
+            this.recordIndexes = recordIndexes;
+        }
+
+        /**
+         * Collapses the given sorted record entries, holding the packed PESEL in the upper bits and the index
+         * of the record in the lower {@link #INDEX_BITS} bits, into the distinct PESEL numbers.
+         *
+         * @param entries the sorted record entries, with {@code Long.MAX_VALUE} for malformed records at the end
+         * @return the distinct PESEL numbers
+         */
+        private static DistinctPesels of(long[] entries) {
+            int count = entries.length;
+            while (count > 0 && entries[count - 1] == Long.MAX_VALUE) {
+                count--;
+            }
+            int distinctCount = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || entries[i] >>> INDEX_BITS != entries[i - 1] >>> INDEX_BITS) {
+                    distinctCount++;
+                }
+            }
+            long[] values = new long[distinctCount];
+            int[] groupStarts = new int[distinctCount + 1];
+            int[] recordIndexes = new int[count];
+            int group = -1;
+            for (int i = 0; i < count; i++) {
+                long value = entries[i] >>> INDEX_BITS;
+                if (group < 0 || values[group] != value) {
+                    values[++group] = value;
+                    groupStarts[group] = i;
+                }
+                recordIndexes[i] = (int) (entries[i] & INDEX_MASK);
+            }
+            groupStarts[distinctCount] = count;
+            boolean[] valid = new boolean[distinctCount];
+            IntStream.range(0, distinctCount).parallel().forEach(i -> valid[i] = PeselView.forCurrentThread().pointTo(values[i]));
+            return new DistinctPesels(values, valid, groupStarts, recordIndexes);
+        }
+
+        /**
+         * Passes the pairs of every record of the first PESEL with every record of the second PESEL to the consumer.
+         *
+         * @param first    the index of the first distinct PESEL
+         * @param second   the index of the second distinct PESEL
+         * @param type     the type of the difference between the PESEL numbers
+         * @param position the index of the first differing digit
+         * @param consumer the consumer of the found pairs
+         */
+        private void expand(int first, int second, PeselCorrector.CorrectionType type, int position,
+                            Consumer<? super Pair> consumer) {
+            Validity validity = Validity.of(valid[first], valid[second]);
+            for (int i = groupStarts[first]; i < groupStarts[first + 1]; i++) {
+                int firstRecord = recordIndexes[i];
+                for (int j = groupStarts[second]; j < groupStarts[second + 1]; j++) {
+                    int secondRecord = recordIndexes[j];
+                    consumer.accept(firstRecord < secondRecord
+                            ? new Pair(firstRecord, secondRecord, values[first], values[second], type, position, validity)
+                            : new Pair(secondRecord, firstRecord, values[second], values[first], type, position, validity));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells how many PESEL numbers of a pair are valid.
+     */
+    public enum Validity {
+        /**
+         * Both PESEL numbers are valid.
+         */
+        BOTH,
+        /**
+         * Exactly one PESEL number is valid.
+         */
+        ONE,
+        /**
+         * None of the PESEL numbers is valid.
+         */
+        NEITHER;
+
+        /**
+         * Returns the validity of a pair from the validity of its PESEL numbers.
+         *
+         * @param first  true if the first PESEL is valid
+         * @param second true if the second PESEL is valid
+         * @return the validity of the pair
+         */
+        static Validity of(boolean first, boolean second) {
+            if (first && second) {
+                return BOTH;
+            }
+            return first || second ? ONE : NEITHER;
+        }
+    }
+
+    /**
+     * A pair of PESEL numbers that differ by a single digit or by two swapped adjacent digits.
+     */
+    public static final class Pair {
+
+        /**
+         * The index of the first PESEL in the searched list.
+         */
+        private final int firstIndex;
+
+        /**
+         * The index of the second PESEL in the searched list.
+         */
+        private final int secondIndex;
+
+        /**
+         * The first PESEL in packed form.
+         */
+        private final long firstPesel;
+
+        /**
+         * The second PESEL in packed form.
+         */
+        private final long secondPesel;
+
+        /**
+         * The type of the difference between the PESEL numbers.
+         */
+        private final PeselCorrector.CorrectionType type;
+
+        /**
+         * The index of the first differing digit.
+         */
+        private final int position;
+
+        /**
+         * The validity of the PESEL numbers.
+         */
+        private final Validity validity;
+
+        /**
+         * Constructs a new {@code Pair} object.
+         *
+         * @param firstIndex  the index of the first PESEL in the searched list
+         * @param secondIndex the index of the second PESEL in the searched list
+         * @param firstPesel  the first PESEL in packed form
+         * @param secondPesel the second PESEL in packed form
+         * @param type        the type of the difference between the PESEL numbers
+         * @param position    the index of the first differing digit
+         * @param validity    the validity of the PESEL numbers
+         */
+        private Pair(int firstIndex, int secondIndex, long firstPesel, long secondPesel,
+                     PeselCorrector.CorrectionType type, int position, Validity validity) {
+            this.firstIndex = firstIndex;
+            this.secondIndex = secondIndex;
+            this.firstPesel = firstPesel;
+            this.secondPesel = secondPesel;
+            this.type = type;
+            this.position = position;
+            this.validity = validity;
+        }
+
+        /**
+         * Returns the index of the first PESEL in the searched list, which is lower than the second index.
+         *
+         * @return the index of the first PESEL
+         */
+        public int getFirstIndex() {
+            return firstIndex;
+        }
+
+        /**
+         * Returns the index of the second PESEL in the searched list.
+         *
+         * @return the index of the second PESEL
+         */
+        public int getSecondIndex() {
+            return secondIndex;
+        }
+
+        /**
+         * Returns the first PESEL.
+         *
+         * @return the first PESEL as a String
+         */
+        public String getFirstPesel() {
+            return PackedPesel.unpack(firstPesel);
+        }
+
+        /**
+         * Returns the second PESEL.
+         *
+         * @return the second PESEL as a String
+         */
+        public String getSecondPesel() {
+            return PackedPesel.unpack(secondPesel);
+        }
+
+        /**
+         * Returns the type of the difference between the PESEL numbers.
+         *
+         * @return the type as {@code PeselCorrector.CorrectionType}
+         */
+        public PeselCorrector.CorrectionType getType() {
+            return type;
+        }
+
+        /**
+         * Returns the index of the first differing digit, counting from 0.
+         *
+         * @return the index of the first differing digit
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * Returns how many PESEL numbers of the pair are valid.
+         *
+         * @return the validity as {@code PeselDuplicateFinder.Validity}
+         */
+        public Validity getValidity() {
+            return validity;
+        }
+    }
+}
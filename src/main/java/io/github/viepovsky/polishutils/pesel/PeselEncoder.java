@@ -0,0 +1,365 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The {@code PeselEncoder} class builds PESEL numbers from known components: the date of birth, the serial number
+ * and the gender digit. It computes the control digit and encodes the century of birth in the month digits.
+ * <p>
+ * All digits are computed with int arithmetic into a single array of 11 bytes, and the only object created for
+ * an encoded PESEL is the resulting {@code String}, which makes it suitable both for deterministic test fixtures
+ * and for generating large numbers of PESEL numbers.
+ * <p>
+ * Example usage of the {@code PeselEncoder} class:
+ * <blockquote><pre>
+ *     String pesel = PeselEncoder.encode(LocalDate.of(1992, 8, 26), 834, 9); // returns 92082683499
+ * </pre></blockquote>
+ * or with usage of the builder, which validates every component as soon as it is set:
+ * <blockquote><pre>
+ *     String pesel = PeselEncoder.builder()
+ *              .birthDate(LocalDate.of(1992, 8, 26))
+ *              .serialDigits(834)
+ *              .genderDigit(9)
+ *              .build();
+ * </pre></blockquote>
+ * Large numbers of PESEL numbers, e.g. rebuilt from legacy records, can be encoded at once from primitive arrays
+ * with {@code encodeAll()}, which writes them in the packed form of {@link PackedPesel} without creating any objects.
+ *
+ * @author Oskar Rajzner
+ * @see PeselGenerator
+ */
+public final class PeselEncoder {
+
+    /**
+     * The earliest year of birth that can be encoded in PESEL.
+     */
+    private static final int MIN_YEAR = 1800;
+
+    /**
+     * The latest year of birth that can be encoded in PESEL.
+     */
+    private static final int MAX_YEAR = 2299;
+
+    /**
+     * The number added to the month of birth in every century, starting with 1800-1899.
+     */
+    private static final int[] MONTH_OFFSETS = new int[]{80, 0, 20, 40, 60};
+
+    /**
+     * The earliest date of birth that can be encoded in PESEL as an epoch day.
+     */
+    private static final long MIN_EPOCH_DAY = LocalDate.of(MIN_YEAR, 1, 1).toEpochDay();
+
+    /**
+     * The latest date of birth that can be encoded in PESEL as an epoch day.
+     */
+    private static final long MAX_EPOCH_DAY = LocalDate.of(MAX_YEAR, 12, 31).toEpochDay();
+
+    private PeselEncoder() {
+    }
+
+    /**
+     * Encodes a PESEL number from the given date of birth, serial number and gender digit.
+     *
+     * @param birthDate   the date of birth between January 1, 1800 and December 31, 2299
+     * @param serial      the serial number (0-999), encoded as the {@code ZZZ} digits
+     * @param genderDigit the gender digit (0-9), odd for males and even for females
+     * @return the PESEL number with the computed control digit
+     * @throws NullPointerException     if the given date of birth is null
+     * @throws IllegalArgumentException if any of the components is out of range
+     */
+    public static String encode(LocalDate birthDate, int serial, int genderDigit) {
+        Objects.requireNonNull(birthDate, "Birth date cannot be null");
+        checkBirthDate(birthDate);
+        checkSerial(serial);
+        checkGenderDigit(genderDigit);
+        return encode(birthDate.getYear(), birthDate.getMonthValue(), birthDate.getDayOfMonth(), serial, genderDigit);
+    }
+
+    /**
+     * Encodes PESEL numbers from the components given in primitive arrays, writing them in the packed form of
+     * {@link PackedPesel} to the given output array. The PESEL at every index is encoded from the components
+     * at the same index of the input arrays.
+     *
+     * @param birthEpochDays the dates of birth as epoch days, e.g. from {@code LocalDate.toEpochDay()}
+     * @param serials        the serial numbers (0-999)
+     * @param genderDigits   the gender digits (0-9)
+     * @param packedPesels   the array the packed PESEL numbers are written to
+     * @throws NullPointerException     if any of the arrays is null
+     * @throws IllegalArgumentException if the arrays have different lengths or any of the components is out of range
+     */
+    public static void encodeAll(long[] birthEpochDays, int[] serials, int[] genderDigits, long[] packedPesels) {
+        int length = birthEpochDays.length;
+        if (serials.length != length || genderDigits.length != length || packedPesels.length != length) {
+            throw new IllegalArgumentException("All arrays should have the same length");
+        }
+        for (int i = 0; i < length; i++) {
+            long epochDay = birthEpochDays[i];
+            int serial = serials[i];
+            int genderDigit = genderDigits[i];
+            if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY || serial < 0 || serial > 999
+                    || genderDigit < 0 || genderDigit > 9) {
+                throw new IllegalArgumentException("Components at index " + i + " are out of range");
+            }
+            int date = PeselCalendar.dateOfEpochDay(epochDay);
+            packedPesels[i] = encodePacked(date / 10_000, date / 100 % 100, date % 100, serial, genderDigit);
+        }
+    }
+
+    /**
+     * Returns a new instance of the Builder class, which can be used to set the components and build a PESEL.
+     *
+     * @return a new instance of {@code PeselEncoder} Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder class for encoding a PESEL from its components. Every component is validated when it is set,
+     * and all of them have to be set before the PESEL is built.
+     */
+    public static final class Builder {
+        /**
+         * The date of birth.
+         */
+        private LocalDate birthDate;
+        /**
+         * The serial number, or -1 if it was not set.
+         */
+        private int serial = -1;
+        /**
+         * The gender digit, or -1 if it was not set.
+         */
+        private int genderDigit = -1;
+
+        /**
+         * Sets the date of birth.
+         *
+         * @param birthDate the date of birth between January 1, 1800 and December 31, 2299
+         * @return this builder with the date of birth set
+         * @throws NullPointerException     if the given date of birth is null
+         * @throws IllegalArgumentException if the given date of birth cannot be encoded in PESEL
+         */
+        public Builder birthDate(LocalDate birthDate) {
+            Objects.requireNonNull(birthDate, "Birth date cannot be null");
+            checkBirthDate(birthDate);
+            this.birthDate = birthDate;
+            return (this);
+        }
+
+        /**
+         * Sets the serial number encoded as the {@code ZZZ} digits.
+         *
+         * @param serial the serial number (0-999)
+         * @return this builder with the serial number set
+         * @throws IllegalArgumentException if the given serial number is not between 0 and 999
+         */
+        public Builder serialDigits(int serial) {
+            checkSerial(serial);
+            this.serial = serial;
+            return (this);
+        }
+
+        /**
+         * Sets the gender digit, odd for males and even for females.
+         *
+         * @param genderDigit the gender digit (0-9)
+         * @return this builder with the gender digit set
+         * @throws IllegalArgumentException if the given gender digit is not between 0 and 9
+         */
+        public Builder genderDigit(int genderDigit) {
+            checkGenderDigit(genderDigit);
+            this.genderDigit = genderDigit;
+            return (this);
+        }
+
+        /**
+         * Builds the PESEL number from the set components.
+         *
+         * @return the PESEL number with the computed control digit
+         * @throws IllegalStateException if any of the components was not set
+         */
+        public String build() {
+            checkComplete();
+            return encode(birthDate.getYear(), birthDate.getMonthValue(), birthDate.getDayOfMonth(), serial, genderDigit);
+        }
+
+        /**
+         * Builds the PESEL number from the set components in the packed form of {@link PackedPesel}.
+         *
+         * @return the packed PESEL number with the computed control digit
+         * @throws IllegalStateException if any of the components was not set
+         */
+        public long buildPacked() {
+            checkComplete();
+            return encodePacked(birthDate.getYear(), birthDate.getMonthValue(), birthDate.getDayOfMonth(), serial, genderDigit);
+        }
+
+        /**
+         * Checks if all components were set.
+         *
+         * @throws IllegalStateException if any of the components was not set
+         */
+        private void checkComplete() {
+            if (birthDate == null || serial < 0 || genderDigit < 0) {
+                throw new IllegalStateException("Birth date, serial digits and gender digit have to be set");
+            }
+        }
+    }
+
+    /**
+     * Encodes a PESEL number from the given date of birth as an epoch day, without checking the components.
+     *
+     * @param epochDay    the date of birth as an epoch day between January 1, 1800 and December 31, 2299
+     * @param serial      the serial number (0-999)
+     * @param genderDigit the gender digit (0-9)
+     * @return the PESEL number with the computed control digit
+     */
+    static String encodeEpochDay(long epochDay, int serial, int genderDigit) {
+        int date = PeselCalendar.dateOfEpochDay(epochDay);
+        return encode(date / 10_000, date / 100 % 100, date % 100, serial, genderDigit);
+    }
+
+    /**
+     * Encodes a PESEL number in the packed form from the given date of birth as an epoch day, without checking
+     * the components.
+     *
+     * @param epochDay    the date of birth as an epoch day between January 1, 1800 and December 31, 2299
+     * @param serial      the serial number (0-999)
+     * @param genderDigit the gender digit (0-9)
+     * @return the packed PESEL number with the computed control digit
+     */
+    static long encodePackedEpochDay(long epochDay, int serial, int genderDigit) {
+        int date = PeselCalendar.dateOfEpochDay(epochDay);
+        return encodePacked(date / 10_000, date / 100 % 100, date % 100, serial, genderDigit);
+    }
+
+    /**
+     * Encodes the date of birth given as an epoch day as the {@code YYMMDD} digits of PESEL, without checking it.
+     *
+     * @param epochDay the date of birth as an epoch day between January 1, 1800 and December 31, 2299
+     * @return the {@code YYMMDD} digits as a number, e.g. 922826 for August 26, 2092
+     */
+    static int encodeBirthDateDigits(long epochDay) {
+        int date = PeselCalendar.dateOfEpochDay(epochDay);
+        int year = date / 10_000;
+        return ((year % 100) * 100 + encodeMonth(year, date / 100 % 100)) * 100 + date % 100;
+    }
+
+    /**
+     * Encodes a PESEL number from the given components, without checking them.
+     *
+     * @param year        the year of birth (1800-2299)
+     * @param month       the month of birth (1-12)
+     * @param day         the day of birth (1-31)
+     * @param serial      the serial number (0-999)
+     * @param genderDigit the gender digit (0-9)
+     * @return the PESEL number with the computed control digit
+     */
+    private static String encode(int year, int month, int day, int serial, int genderDigit) {
+        int yearDigits = year % 100;
+        int encodedMonth = encodeMonth(year, month);
+        byte[] digits = new byte[11];
+        digits[0] = (byte) ('0' + yearDigits / 10);
+        digits[1] = (byte) ('0' + yearDigits % 10);
+        digits[2] = (byte) ('0' + encodedMonth / 10);
+        digits[3] = (byte) ('0' + encodedMonth % 10);
+        digits[4] = (byte) ('0' + day / 10);
+        digits[5] = (byte) ('0' + day % 10);
+        digits[6] = (byte) ('0' + serial / 100);
+        digits[7] = (byte) ('0' + serial / 10 % 10);
+        digits[8] = (byte) ('0' + serial % 10);
+        digits[9] = (byte) ('0' + genderDigit);
+        digits[10] = (byte) ('0' + getControlDigit(yearDigits, encodedMonth, day, serial, genderDigit));
+        return new String(digits, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Encodes a PESEL number from the given components in the packed form, without checking them.
+     *
+     * @param year        the year of birth (1800-2299)
+     * @param month       the month of birth (1-12)
+     * @param day         the day of birth (1-31)
+     * @param serial      the serial number (0-999)
+     * @param genderDigit the gender digit (0-9)
+     * @return the packed PESEL number with the computed control digit
+     */
+    private static long encodePacked(int year, int month, int day, int serial, int genderDigit) {
+        int yearDigits = year % 100;
+        int encodedMonth = encodeMonth(year, month);
+        long birthDateDigits = (yearDigits * 100 + encodedMonth) * 100 + day;
+        long prefix = (birthDateDigits * 1000 + serial) * 10 + genderDigit;
+        return prefix * 10 + getControlDigit(yearDigits, encodedMonth, day, serial, genderDigit);
+    }
+
+    /**
+     * Encodes the century of birth in the month.
+     *
+     * @param year  the year of birth (1800-2299)
+     * @param month the month of birth (1-12)
+     * @return the encoded month as in PESEL
+     */
+    private static int encodeMonth(int year, int month) {
+        return month + MONTH_OFFSETS[(year - MIN_YEAR) / 100];
+    }
+
+    /**
+     * Computes the control digit of the PESEL with the given digits.
+     *
+     * @param yearDigits   the YY digits
+     * @param encodedMonth the MM digits
+     * @param day          the DD digits
+     * @param serial       the ZZZ digits
+     * @param genderDigit  the X digit
+     * @return the control digit
+     */
+    private static int getControlDigit(int yearDigits, int encodedMonth, int day, int serial, int genderDigit) {
+        int[] weights = PeselValidator.CONTROL_WEIGHTS;
+        int controlSum = weights[0] * (yearDigits / 10) + weights[1] * (yearDigits % 10)
+                + weights[2] * (encodedMonth / 10) + weights[3] * (encodedMonth % 10)
+                + weights[4] * (day / 10) + weights[5] * (day % 10)
+                + weights[6] * (serial / 100) + weights[7] * (serial / 10 % 10) + weights[8] * (serial % 10)
+                + weights[9] * genderDigit;
+        return (10 - controlSum % 10) % 10;
+    }
+
+    /**
+     * Checks if the given date of birth can be encoded in PESEL.
+     *
+     * @param birthDate the date of birth
+     * @throws IllegalArgumentException if the date of birth is not between 1800 and 2299
+     */
+    private static void checkBirthDate(LocalDate birthDate) {
+        if (birthDate.getYear() < MIN_YEAR || birthDate.getYear() > MAX_YEAR) {
+            throw new IllegalArgumentException("Birth date should be between: " + LocalDate.ofEpochDay(MIN_EPOCH_DAY)
+                    + " and " + LocalDate.ofEpochDay(MAX_EPOCH_DAY));
+        }
+    }
+
+    /**
+     * Checks if the given serial number has at most three digits.
+     *
+     * @param serial the serial number
+     * @throws IllegalArgumentException if the serial number is not between 0 and 999
+     */
+    private static void checkSerial(int serial) {
+        if (serial < 0 || serial > 999) {
+            throw new IllegalArgumentException("Serial digits should be between: 0 and 999");
+        }
+    }
+
+    /**
+     * Checks if the given gender digit is a single digit.
+     *
+     * @param genderDigit the gender digit
+     * @throws IllegalArgumentException if the gender digit is not between 0 and 9
+     */
+    private static void checkGenderDigit(int genderDigit) {
+        if (genderDigit < 0 || genderDigit > 9) {
+            throw new IllegalArgumentException("Gender digit should be between: 0 and 9");
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The {@code PeselEnumerator} class enumerates every valid PESEL number with a date of birth in the given date range,
+ * optionally only of the given gender. Every day of birth has 10,000 valid PESEL numbers, one for every serial number
+ * and gender digit, of which 5,000 belong to each gender.
+ * <p>
+ * The PESEL numbers are enumerated lazily, ordered by the date of birth, then by the serial number and the gender
+ * digit. The streams are sized and split evenly for parallel processing, and the control digit is updated
+ * incrementally as the serial number advances instead of being computed from all digits of every PESEL.
+ * <p>
+ * Example usage of the {@code PeselEnumerator} class:
+ * <blockquote><pre>
+ *     LocalDate date = LocalDate.of(1990, 1, 1);
+ *     Stream&lt;String&gt; pesels = PeselEnumerator.enumerate(date, date, PeselGeneratorParams.Gender.FEMALE);
+ *     // 5,000 PESEL numbers of females born on January 1, 1990
+ *
+ *     LongStream packedPesels = PeselEnumerator.enumeratePacked(minDate, maxDate, null).parallel();
+ *     // PESEL numbers of both genders in the packed form of PackedPesel
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PackedPesel
+ */
+public final class PeselEnumerator {
+
+    /**
+     * The earliest date of birth that can be encoded in PESEL.
+     */
+    private static final LocalDate MIN_DATE_POSSIBLE = LocalDate.of(1800, 1, 1);
+
+    /**
+     * The latest date of birth that can be encoded in PESEL.
+     */
+    private static final LocalDate MAX_DATE_POSSIBLE = LocalDate.of(2299, 12, 31);
+
+    /**
+     * The number of serial numbers of a single day of birth.
+     */
+    private static final int SERIALS_PER_DAY = 1000;
+
+    private PeselEnumerator() {
+    }
+
+    /**
+     * Enumerates every valid PESEL number with a date of birth in the given date range, including both dates.
+     *
+     * @param minDate the earliest date of birth
+     * @param maxDate the latest date of birth
+     * @param gender  the gender of the PESEL numbers, or null for both genders
+     * @return the lazy stream of PESEL numbers
+     * @throws NullPointerException     if any of the dates is null
+     * @throws IllegalArgumentException if any of the dates is not between 1800 and 2299
+     */
+    public static Stream<String> enumerate(LocalDate minDate, LocalDate maxDate, PeselGeneratorParams.Gender gender) {
+        return enumeratePacked(minDate, maxDate, gender).mapToObj(PackedPesel::unpack);
+    }
+
+    /**
+     * Enumerates every valid PESEL number with a date of birth in the given date range, including both dates,
+     * in the packed form of {@link PackedPesel}.
+     *
+     * @param minDate the earliest date of birth
+     * @param maxDate the latest date of birth
+     * @param gender  the gender of the PESEL numbers, or null for both genders
+     * @return the lazy stream of packed PESEL numbers
+     * @throws NullPointerException     if any of the dates is null
+     * @throws IllegalArgumentException if any of the dates is not between 1800 and 2299
+     */
+    public static LongStream enumeratePacked(LocalDate minDate, LocalDate maxDate, PeselGeneratorParams.Gender gender) {
+        checkDate(minDate);
+        checkDate(maxDate);
+        long minEpochDay = Math.min(minDate.toEpochDay(), maxDate.toEpochDay());
+        long maxEpochDay = Math.max(minDate.toEpochDay(), maxDate.toEpochDay());
+        PeselSpliterator spliterator = new PeselSpliterator(minEpochDay, gender, 0,
+                (maxEpochDay - minEpochDay + 1) * getPeselsPerDay(gender));
+        return StreamSupport.longStream(spliterator, false);
+    }
+
+    /**
+     * Counts the valid PESEL numbers with a date of birth in the given date range, including both dates.
+     *
+     * @param minDate the earliest date of birth
+     * @param maxDate the latest date of birth
+     * @param gender  the gender of the PESEL numbers, or null for both genders
+     * @return the number of PESEL numbers
+     * @throws NullPointerException     if any of the dates is null
+     * @throws IllegalArgumentException if any of the dates is not between 1800 and 2299
+     */
+    public static long count(LocalDate minDate, LocalDate maxDate, PeselGeneratorParams.Gender gender) {
+        checkDate(minDate);
+        checkDate(maxDate);
+        return (Math.abs(maxDate.toEpochDay() - minDate.toEpochDay()) + 1) * getPeselsPerDay(gender);
+    }
+
+    /**
+     * Returns the number of valid PESEL numbers of a single day of birth.
+     *
+     * @param gender the gender of the PESEL numbers, or null for both genders
+     * @return the number of PESEL numbers of a single day
+     */
+    private static int getPeselsPerDay(PeselGeneratorParams.Gender gender) {
+        return gender == null ? SERIALS_PER_DAY * 10 : SERIALS_PER_DAY * 5;
+    }
+
+    /**
+     * Checks if the given date of birth can be encoded in PESEL.
+     *
+     * @param date the date of birth
+     * @throws NullPointerException     if the date is null
+     * @throws IllegalArgumentException if the date is not between 1800 and 2299
+     */
+    private static void checkDate(LocalDate date) {
+        Objects.requireNonNull(date, "Date cannot be null");
+        if (date.isBefore(MIN_DATE_POSSIBLE) || date.isAfter(MAX_DATE_POSSIBLE)) {
+            throw new IllegalArgumentException("Min and max dates should be between: " + MIN_DATE_POSSIBLE + " and " + MAX_DATE_POSSIBLE);
+        }
+    }
+
+    /**
+     * Spliterator of packed PESEL numbers over a range of indexes, where every day of birth has a fixed
+     * number of consecutive indexes. It keeps the weighted sum of the digits of the current PESEL and updates
+     * it when advancing, so the control digit never has to be computed from all digits.
+     */
+    private static final class PeselSpliterator implements Spliterator.OfLong {
+
+        /**
+         * The smallest number of PESEL numbers left to a spliterator by splitting.
+         */
+        private static final long MIN_SPLIT_SIZE = 1 << 12;
+
+        /**
+         * The earliest date of birth as an epoch day, matching the index 0.
+         */
+        private final long minEpochDay;
+
+        /**
+         * The gender of the PESEL numbers, or null for both genders.
+         */
+        private final PeselGeneratorParams.Gender gender;
+
+        /**
+         * The difference between consecutive gender digits.
+         */
+        private final int genderStep;
+
+        /**
+         * The first gender digit of every serial number.
+         */
+        private final int firstGenderDigit;
+
+        /**
+         * The number of PESEL numbers of a single serial number.
+         */
+        private final int peselsPerSerial;
+
+        /**
+         * The index of the current PESEL.
+         */
+        private long index;
+
+        /**
+         * The index after the last PESEL of this spliterator.
+         */
+        private final long fence;
+
+        /**
+         * The date of birth of the current PESEL as an epoch day.
+         */
+        private long epochDay;
+
+        /**
+         * The {@code YYMMDD} digits of the current PESEL shifted to their position in the packed PESEL.
+         */
+        private long birthDatePart;
+
+        /**
+         * The weighted sum of the {@code YYMMDD} digits of the current PESEL.
+         */
+        private int birthDateSum;
+
+        /**
+         * The serial number of the current PESEL.
+         */
+        private int serial;
+
+        /**
+         * The weighted sum of the {@code ZZZ} digits of the current PESEL.
+         */
+        private int serialSum;
+
+        /**
+         * The gender digit of the current PESEL.
+         */
+        private int genderDigit;
+
+        /**
+         * Creates a new {@code PeselSpliterator} object over the given range of indexes.
+         *
+         * @param minEpochDay the earliest date of birth as an epoch day, matching the index 0
+         * @param gender      the gender of the PESEL numbers, or null for both genders
+         * @param origin      the index of the first PESEL
+         * @param fence       the index after the last PESEL
+         */
+        PeselSpliterator(long minEpochDay, PeselGeneratorParams.Gender gender, long origin, long fence) {
+            this.minEpochDay = minEpochDay;
+            this.gender = gender;
+            this.genderStep = gender == null ? 1 : 2;
+            this.firstGenderDigit = gender == PeselGeneratorParams.Gender.MALE ? 1 : 0;
+            this.peselsPerSerial = gender == null ? 10 : 5;
+            this.index = origin;
+            this.fence = fence;
+            if (origin < fence) {
+                seek(origin);
+            }
+        }
+
+        /**
+         * Passes the current PESEL to the given action and moves to the next one.
+         *
+         * @param action the action receiving the packed PESEL
+         * @return false if there were no PESEL numbers left, true otherwise
+         */
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(current());
+            if (++index < fence) {
+                advance();
+            }
+            return true;
+        }
+
+        /**
+         * Passes all remaining PESEL numbers to the given action.
+         *
+         * @param action the action receiving the packed PESEL numbers
+         */
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            while (index < fence) {
+                action.accept(current());
+                if (++index < fence) {
+                    advance();
+                }
+            }
+        }
+
+        /**
+         * Splits off the first half of the remaining PESEL numbers.
+         *
+         * @return the spliterator of the first half, or null if too few PESEL numbers are left
+         */
+        @Override
+        public OfLong trySplit() {
+            long size = fence - index;
+            if (size < MIN_SPLIT_SIZE * 2) {
+                return null;
+            }
+            long middle = index + size / 2;
+            PeselSpliterator prefix = new PeselSpliterator(minEpochDay, gender, index, middle);
+            index = middle;
+            seek(middle);
+            return prefix;
+        }
+
+        /**
+         * Returns the exact number of remaining PESEL numbers.
+         *
+         * @return the number of remaining PESEL numbers
+         */
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        /**
+         * Returns the characteristics of this spliterator.
+         *
+         * @return the characteristics of this spliterator
+         */
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        /**
+         * Returns the current PESEL in the packed form, computing its control digit from the weighted sums.
+         *
+         * @return the current packed PESEL
+         */
+        private long current() {
+            int controlSum = birthDateSum + serialSum + PeselValidator.CONTROL_WEIGHTS[9] * genderDigit;
+            int controlDigit = (10 - controlSum % 10) % 10;
+            return birthDatePart + serial * 100L + genderDigit * 10L + controlDigit;
+        }
+
+        /**
+         * Moves to the next PESEL, updating the weighted sums with the changed digits only.
+         */
+        private void advance() {
+            genderDigit += genderStep;
+            if (genderDigit <= 9) {
+                return;
+            }
+            genderDigit = firstGenderDigit;
+            serial++;
+            if (serial == SERIALS_PER_DAY) {
+                loadDay(epochDay + 1);
+                serial = 0;
+                serialSum = 0;
+                return;
+            }
+            int[] weights = PeselValidator.CONTROL_WEIGHTS;
+            serialSum += weights[8];
+            if (serial % 10 == 0) {
+                serialSum += weights[7] - 10 * weights[8];
+                if (serial % 100 == 0) {
+                    serialSum += weights[6] - 10 * weights[7];
+                }
+            }
+        }
+
+        /**
+         * Moves to the PESEL with the given index, computing all weighted sums.
+         *
+         * @param index the index of the PESEL
+         */
+        private void seek(long index) {
+            long peselsPerDay = (long) SERIALS_PER_DAY * peselsPerSerial;
+            loadDay(minEpochDay + index / peselsPerDay);
+            int indexOfDay = (int) (index % peselsPerDay);
+            serial = indexOfDay / peselsPerSerial;
+            genderDigit = firstGenderDigit + indexOfDay % peselsPerSerial * genderStep;
+            int[] weights = PeselValidator.CONTROL_WEIGHTS;
+            serialSum = weights[6] * (serial / 100) + weights[7] * (serial / 10 % 10) + weights[8] * (serial % 10);
+        }
+
+        /**
+         * Moves to the given day of birth, computing the weighted sum of its digits.
+         *
+         * @param epochDay the date of birth as an epoch day
+         */
+        private void loadDay(long epochDay) {
+            this.epochDay = epochDay;
+            int birthDateDigits = PeselEncoder.encodeBirthDateDigits(epochDay);
+            birthDatePart = birthDateDigits * 100_000L;
+            birthDateSum = 0;
+            for (int i = 5; i >= 0; i--) {
+                birthDateSum += PeselValidator.CONTROL_WEIGHTS[i] * (birthDateDigits % 10);
+                birthDateDigits /= 10;
+            }
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The {@code PeselEventMonitor} class records the JDK Flight Recorder (JFR) events of this library in the running
+ * JVM and aggregates them live, e.g. to expose them as metrics of a service. The following events are recorded:
+ * <ul>
+ *     <li>{@value #VALIDATION_BATCH_EVENT} - every bulk validation with {@link PeselValidationStrategy#checkAll}
+ *     and {@link PeselValidationStrategy#countValid}, with the counts of invalid PESEL numbers by reason,
+ *     the duration and the thread
+ *     <li>{@value #INVALID_PESEL_EVENT} - one in 64 rejections of an invalid PESEL with an {@link InvalidPeselException},
+ *     with the reason but never the PESEL itself
+ *     <li>{@value #GENERATION_EVENT} - every call of {@link PeselGenerator#generatePesels(int)} and one in 64 calls
+ *     of {@link PeselGenerator#generatePesel()}
+ * </ul>
+ * The events are disabled unless a monitor is started or a recording enables them, e.g. with
+ * {@code jcmd <pid> JFR.start settings=custom.jfc}. A disabled event costs a single check per call or batch,
+ * and the validated PESEL numbers are counted by reason only while the batch event is enabled.
+ * <p>
+ * JFR delivers the events to the monitor about once a second, so a snapshot lags behind the calls by that much.
+ * Example usage of the {@code PeselEventMonitor} class:
+ * <blockquote><pre>
+ *     try (PeselEventMonitor monitor = PeselEventMonitor.start(Duration.ofMillis(10))) {
+ *         ...
+ *         PeselEventMonitor.Snapshot snapshot = monitor.snapshot();
+ *         Duration slowest = snapshot.getMaxBatchDuration();
+ *     }
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ */
+public final class PeselEventMonitor implements AutoCloseable {
+
+    /**
+     * The name of the event of a bulk validation.
+     */
+    public static final String VALIDATION_BATCH_EVENT = "io.github.viepovsky.pesel.ValidationBatch";
+
+    /**
+     * The name of the sampled event of a rejected PESEL.
+     */
+    public static final String INVALID_PESEL_EVENT = "io.github.viepovsky.pesel.InvalidPesel";
+
+    /**
+     * The name of the event of generating PESEL numbers.
+     */
+    public static final String GENERATION_EVENT = "io.github.viepovsky.pesel.Generation";
+
+    /**
+     * The reasons of invalid PESEL numbers, indexed by their ordinals.
+     */
+    private static final InvalidPeselReason[] REASONS = InvalidPeselReason.values();
+
+    /**
+     * The stream of the recorded events.
+     */
+    private final RecordingStream stream;
+
+    /**
+     * The number of recorded bulk validations.
+     */
+    private long batchCount;
+
+    /**
+     * The number of PESEL numbers validated in bulk.
+     */
+    private long validatedCount;
+
+    /**
+     * The number of valid PESEL numbers validated in bulk.
+     */
+    private long validCount;
+
+    /**
+     * The numbers of invalid PESEL numbers validated in bulk, indexed by the ordinals of the reasons.
+     */
+    private final long[] invalidCounts = new long[REASONS.length];
+
+    /**
+     * The estimated numbers of rejected PESEL numbers, indexed by the ordinals of the reasons.
+     */
+    private final long[] rejectionCounts = new long[REASONS.length];
+
+    /**
+     * The estimated number of generated PESEL numbers.
+     */
+    private long generatedCount;
+
+    /**
+     * The total duration of the recorded bulk validations.
+     */
+    private Duration totalBatchDuration = Duration.ZERO;
+
+    /**
+     * The duration of the slowest recorded bulk validation.
+     */
+    private Duration maxBatchDuration = Duration.ZERO;
+
+    /**
+     * The name of the thread of the slowest recorded bulk validation, or null.
+     */
+    private String slowestBatchThread;
+
+    /**
+     * Creates a new {@code PeselEventMonitor} object recording the events to the given stream.
+     *
+     * @param stream the stream
+     */
+    private PeselEventMonitor(RecordingStream stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Starts a new monitor recording every bulk validation.
+     *
+     * @return the started monitor
+     * @throws IllegalStateException if JFR is not available in the running JVM
+     */
+    public static PeselEventMonitor start() {
+        return start(Duration.ZERO);
+    }
+
+    /**
+     * Starts a new monitor recording only the bulk validations lasting at least the given duration.
+     *
+     * @param slowBatchThreshold the minimal duration of a recorded bulk validation
+     * @return the started monitor
+     * @throws NullPointerException     if the given duration is null
+     * @throws IllegalArgumentException if the given duration is negative
+     * @throws IllegalStateException    if JFR is not available in the running JVM
+     */
+    public static PeselEventMonitor start(Duration slowBatchThreshold) {
+        Objects.requireNonNull(slowBatchThreshold, "Threshold cannot be null");
+        if (slowBatchThreshold.isNegative()) {
+            throw new IllegalArgumentException("Threshold should not be negative");
+        }
+        RecordingStream stream = new RecordingStream();
+        stream.enable(VALIDATION_BATCH_EVENT).withThreshold(slowBatchThreshold).withoutStackTrace();
+        stream.enable(INVALID_PESEL_EVENT).withoutStackTrace();
+        stream.enable(GENERATION_EVENT).withoutStackTrace();
+        PeselEventMonitor monitor = new PeselEventMonitor(stream);
+        stream.onEvent(VALIDATION_BATCH_EVENT, monitor::onValidationBatch);
+        stream.onEvent(INVALID_PESEL_EVENT, monitor::onInvalidPesel);
+        stream.onEvent(GENERATION_EVENT, monitor::onGeneration);
+        stream.startAsync();
+        return monitor;
+    }
+
+    /**
+     * Returns the aggregates of the events recorded so far.
+     *
+     * @return the snapshot of the aggregates
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Stops recording the events. The snapshots taken before remain valid.
+     */
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    /**
+     * Adds the given event of a bulk validation to the aggregates.
+     *
+     * @param event the event
+     */
+    private synchronized void onValidationBatch(RecordedEvent event) {
+        batchCount++;
+        validatedCount += event.getInt("count");
+        validCount += event.getInt("validCount");
+        invalidCounts[InvalidPeselReason.INVALID_LENGTH.ordinal()] += event.getInt("invalidLength");
+        invalidCounts[InvalidPeselReason.INVALID_CHARACTERS.ordinal()] += event.getInt("invalidCharacters");
+        invalidCounts[InvalidPeselReason.INVALID_CONTROL_DIGIT.ordinal()] += event.getInt("invalidControlDigit");
+        invalidCounts[InvalidPeselReason.INVALID_BIRTH_DATE.ordinal()] += event.getInt("invalidBirthDate");
+        invalidCounts[InvalidPeselReason.BIRTH_DATE_OUT_OF_RANGE.ordinal()] += event.getInt("birthDateOutOfRange");
+        Duration duration = event.getDuration();
+        totalBatchDuration = totalBatchDuration.plus(duration);
+        if (slowestBatchThread == null || duration.compareTo(maxBatchDuration) > 0) {
+            maxBatchDuration = duration;
+            RecordedThread thread = event.getThread();
+            slowestBatchThread = thread == null ? "" : thread.getJavaName();
+        }
+    }
+
+    /**
+     * Adds the given sampled event of a rejected PESEL to the aggregates.
+     *
+     * @param event the event
+     */
+    private synchronized void onInvalidPesel(RecordedEvent event) {
+        rejectionCounts[InvalidPeselReason.valueOf(event.getString("reason")).ordinal()] += event.getInt("sampleRate");
+    }
+
+    /**
+     * Adds the given event of generating PESEL numbers to the aggregates.
+     *
+     * @param event the event
+     */
+    private synchronized void onGeneration(RecordedEvent event) {
+        generatedCount += (long) event.getInt("count") * event.getInt("sampleRate");
+    }
+
+    /**
+     * The aggregates of the events recorded by a monitor at a point in time.
+     */
+    public static final class Snapshot {
+
+        /**
+         * The number of recorded bulk validations.
+         */
+        private final long batchCount;
+
+        /**
+         * The number of PESEL numbers validated in bulk.
+         */
+        private final long validatedCount;
+
+        /**
+         * The number of valid PESEL numbers validated in bulk.
+         */
+        private final long validCount;
+
+        /**
+         * The numbers of invalid PESEL numbers validated in bulk, indexed by the ordinals of the reasons.
+         */
+        private final long[] invalidCounts;
+
+        /**
+         * The estimated numbers of rejected PESEL numbers, indexed by the ordinals of the reasons.
+         */
+        private final long[] rejectionCounts;
+
+        /**
+         * The estimated number of generated PESEL numbers.
+         */
+        private final long generatedCount;
+
+        /**
+         * The total duration of the recorded bulk validations.
+         */
+        private final Duration totalBatchDuration;
+
+        /**
+         * The duration of the slowest recorded bulk validation.
+         */
+        private final Duration maxBatchDuration;
+
+        /**
+         * The name of the thread of the slowest recorded bulk validation, or null.
+         */
+        private final String slowestBatchThread;
+
+        /**
+         * Constructs a new {@code Snapshot} object of the current aggregates of the given monitor.
+         *
+         * @param monitor the monitor, locked by the caller
+         */
+        private Snapshot(PeselEventMonitor monitor) {
+            this.batchCount = monitor.batchCount;
+            this.validatedCount = monitor.validatedCount;
+            this.validCount = monitor.validCount;
+            this.invalidCounts = monitor.invalidCounts.clone();
+            this.rejectionCounts = monitor.rejectionCounts.clone();
+            this.generatedCount = monitor.generatedCount;
+            this.totalBatchDuration = monitor.totalBatchDuration;
+            this.maxBatchDuration = monitor.maxBatchDuration;
+            this.slowestBatchThread = monitor.slowestBatchThread;
+        }
+
+        /**
+         * Returns the number of recorded bulk validations.
+         *
+         * @return the number of bulk validations
+         */
+        public long getBatchCount() {
+            return batchCount;
+        }
+
+        /**
+         * Returns the number of PESEL numbers validated in the recorded bulk validations.
+         *
+         * @return the number of validated PESEL numbers
+         */
+        public long getValidatedCount() {
+            return validatedCount;
+        }
+
+        /**
+         * Returns the number of valid PESEL numbers in the recorded bulk validations.
+         *
+         * @return the number of valid PESEL numbers
+         */
+        public long getValidCount() {
+            return validCount;
+        }
+
+        /**
+         * Returns the number of invalid PESEL numbers in the recorded bulk validations.
+         *
+         * @return the number of invalid PESEL numbers
+         */
+        public long getInvalidCount() {
+            return validatedCount - validCount;
+        }
+
+        /**
+         * Returns the number of PESEL numbers invalid for the given reason in the recorded bulk validations.
+         *
+         * @param reason the reason
+         * @return the number of PESEL numbers invalid for the reason
+         * @throws NullPointerException if the given reason is null
+         */
+        public long getInvalidCount(InvalidPeselReason reason) {
+            return invalidCounts[reason.ordinal()];
+        }
+
+        /**
+         * Returns the estimated number of PESEL numbers rejected with an {@link InvalidPeselException},
+         * extrapolated from the sampled events.
+         *
+         * @return the estimated number of rejected PESEL numbers
+         */
+        public long getEstimatedRejectionCount() {
+            long count = 0;
+            for (long rejectionCount : rejectionCounts) {
+                count += rejectionCount;
+            }
+            return count;
+        }
+
+        /**
+         * Returns the estimated number of PESEL numbers rejected with an {@link InvalidPeselException} for the given
+         * reason, extrapolated from the sampled events.
+         *
+         * @param reason the reason
+         * @return the estimated number of PESEL numbers rejected for the reason
+         * @throws NullPointerException if the given reason is null
+         */
+        public long getEstimatedRejectionCount(InvalidPeselReason reason) {
+            return rejectionCounts[reason.ordinal()];
+        }
+
+        /**
+         * Returns the estimated number of generated PESEL numbers, extrapolated from the sampled events of single
+         * generations.
+         *
+         * @return the estimated number of generated PESEL numbers
+         */
+        public long getEstimatedGeneratedCount() {
+            return generatedCount;
+        }
+
+        /**
+         * Returns the total duration of the recorded bulk validations.
+         *
+         * @return the total duration
+         */
+        public Duration getTotalBatchDuration() {
+            return totalBatchDuration;
+        }
+
+        /**
+         * Returns the duration of the slowest recorded bulk validation.
+         *
+         * @return the duration of the slowest bulk validation, or zero if none was recorded
+         */
+        public Duration getMaxBatchDuration() {
+            return maxBatchDuration;
+        }
+
+        /**
+         * Returns the name of the thread of the slowest recorded bulk validation.
+         *
+         * @return the name of the thread, or null if no bulk validation was recorded
+         */
+        public String getSlowestBatchThread() {
+            return slowestBatchThread;
+        }
+
+        /**
+         * Returns the aggregates as a String, e.g. for logging.
+         *
+         * @return the aggregates as a String
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Snapshot{batches=").append(batchCount)
+                    .append(", validated=").append(validatedCount)
+                    .append(", valid=").append(validCount);
+            for (InvalidPeselReason reason : REASONS) {
+                builder.append(", ").append(reason).append('=').append(invalidCounts[reason.ordinal()]);
+            }
+            return builder.append(", rejected=").append(getEstimatedRejectionCount())
+                    .append(", generated=").append(generatedCount)
+                    .append(", totalBatchDuration=").append(totalBatchDuration)
+                    .append(", maxBatchDuration=").append(maxBatchDuration)
+                    .append(", slowestBatchThread=").append(slowestBatchThread)
+                    .append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@code PeselGenerationEvent} class is the JFR event of generating PESEL numbers with {@link PeselGenerator}.
+ * Every call generating many PESEL numbers is committed, while only one in {@link #SAMPLE_RATE} calls generating
+ * a single PESEL is committed. The duration and the thread are recorded by JFR.
+ * <p>
+ * As with {@link PeselValidationBatchEvent}, the generator uses this class only once the Flight Recorder
+ * is initialized.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel package.
+ *
+ * @author Oskar Rajzner
+ */
+@Name(PeselEventMonitor.GENERATION_EVENT)
+@Label("PESEL Generation")
+@Category("PESEL")
+@Description("Generation of random PESEL numbers")
+final class PeselGenerationEvent extends Event {
+
+    /**
+     * The number of single generations represented by a single event, a power of two.
+     */
+    static final int SAMPLE_RATE = 64;
+
+    /**
+     * The number of generated PESEL numbers.
+     */
+    @Label("Count")
+    int count;
+
+    /**
+     * The number of calls represented by this event.
+     */
+    @Label("Sample Rate")
+    int sampleRate;
+
+    /**
+     * Begins the event of a single generation, if the event is enabled and the call is sampled.
+     *
+     * @return the begun event, or null if the call is not recorded
+     */
+    static PeselGenerationEvent beginSampled() {
+        PeselGenerationEvent event = new PeselGenerationEvent();
+        if (!event.isEnabled() || (ThreadLocalRandom.current().nextInt() & (SAMPLE_RATE - 1)) != 0) {
+            return null;
+        }
+        event.sampleRate = SAMPLE_RATE;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits the given event with the number of generated PESEL numbers, if it is not null.
+     *
+     * @param event the event, or null
+     * @param count the number of generated PESEL numbers
+     */
+    static void end(PeselGenerationEvent event, int count) {
+        if (event != null) {
+            event.count = count;
+            event.commit();
+        }
+    }
+}
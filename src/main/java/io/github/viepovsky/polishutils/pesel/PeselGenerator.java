@@ -1,9 +1,12 @@
 package io.github.viepovsky.polishutils.pesel;
 
-import java.time.LocalDate;
-import java.util.Random;
+import jdk.jfr.FlightRecorder;
 
-import static java.time.temporal.ChronoUnit.DAYS;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The {@code PeselGenerator} class is used to generate random Polish Personal Identification Numbers (PESEL).
@@ -32,7 +35,12 @@ import static java.time.temporal.ChronoUnit.DAYS;
  *     String generatedPesel = peselGenerator.generatePesel();
  * //generates random PESEL for a female person born between January 1, 1990 and January 1, 2010
  * </pre></blockquote>
+ * When the parameters contain birth year or age weights, the birth dates and genders are drawn from alias tables
+ * built once by the constructor, so every PESEL is still generated in constant time.
+ * <p>
  * Passing a {@code null} argument to a constructor will cause a {@link NullPointerException} to be thrown.
+ * Instances of this class are safe for use by multiple threads. The only state they change is the cached date
+ * range of the current day of the clock, which is replaced atomically when the day changes.
  *
  * @author Oskar Rajzner
  * @see PeselGeneratorParams
@@ -40,29 +48,34 @@ import static java.time.temporal.ChronoUnit.DAYS;
 public class PeselGenerator {
 
     /**
-     * Digits weights for calculating the control digit of the PESEL.
+     * The gender that will be included in the generated PESEL numbers, or null for a random gender.
+     */
+    private final PeselGeneratorParams.Gender gender;
+
+    /**
+     * The parameters resolving the date range from which PESEL numbers will be generated.
      */
-    private static final int[] CONTROL_WEIGHTS = new int[]{1, 3, 7, 9, 1, 3, 7, 9, 1, 3};
+    private final PeselGeneratorParams params;
 
     /**
-     * A random number generator used for generating PESEL numbers.
+     * The clock the date range is resolved against.
      */
-    private static final Random RANDOM = new Random();
+    private final Clock clock;
 
     /**
-     * The gender that will be included in the generated PESEL numbers.
+     * The date range resolved for the current day of the clock.
      */
-    private static PeselGeneratorParams.Gender gender;
+    private volatile PeselDateWindow dateWindow;
 
     /**
-     * The minimum date range from which a PESEL number will be generated.
+     * The table drawing buckets of the birth date histogram, or null if birth dates are uniformly distributed.
      */
-    private final LocalDate minDate;
+    private final AliasTable birthDateTable;
 
     /**
-     * The maximum date range to which a PESEL number will be generated.
+     * The share of males in every bucket of the birth date histogram, or null if it was not set.
      */
-    private final LocalDate maxDate;
+    private final double[] maleShares;
 
     /**
      * Creates a new instance of the {@code PeselGenerator} class with the specified {@code PeselGeneratorParams}.
@@ -71,8 +84,11 @@ public class PeselGenerator {
      */
     public PeselGenerator(PeselGeneratorParams params) {
         gender = params.getGender();
-        minDate = params.getMinDate();
-        maxDate = params.getMaxDate();
+        clock = params.getClock();
+        this.params = params;
+        dateWindow = params.resolveDateWindow(clock.millis());
+        birthDateTable = params.getWeights() == null ? null : new AliasTable(params.getWeights());
+        maleShares = params.getMaleShares();
     }
 
     /**
@@ -87,9 +103,7 @@ public class PeselGenerator {
      * @return a randomly generated PESEL number as a string value
      */
     public static String generatePeselStatic() {
-        LocalDate minDate = PeselGeneratorParams.getDefaultMinDate();
-        LocalDate maxDate = PeselGeneratorParams.getDefaultMaxDate();
-        return generatePesel(minDate, maxDate);
+        return DefaultGenerator.INSTANCE.generatePesel();
     }
 
     /**
@@ -98,182 +112,129 @@ public class PeselGenerator {
      * @return a randomly generated PESEL number as a string value
      */
     public String generatePesel() {
-        return generatePesel(minDate, maxDate);
-    }
-
-    /**
-     * Main method to generate PESEL, it gathers all parts of PESEL and returns whole PESEL as result.
-     *
-     * @param minDate class field as LocalDate object
-     * @param maxDate class field as LocalDate object
-     * @return the PESEL number as String
-     */
-    private static String generatePesel(LocalDate minDate, LocalDate maxDate) {
-        String birthDateDigits = getBirthDateDigit(minDate, maxDate);
-        String randomSerialDigits = getRandomSerialDigits();
-        String genderDigit = getGenderRandomDigit();
-        String controlDigit = getControlDigit(birthDateDigits, randomSerialDigits, genderDigit);
-        return birthDateDigits + randomSerialDigits + genderDigit + controlDigit;
-    }
-
-    /**
-     * Method for getting a random birth date within the specified date range and encoding it to match as PESEL part.
-     *
-     * @param minDate the minimum date range as a LocalDate object
-     * @param maxDate the maximum date range as a LocalDate object
-     * @return the encoded PESEL birth date as a String
-     */
-    private static String getBirthDateDigit(LocalDate minDate, LocalDate maxDate) {
-        LocalDate birthDate = getRandomBirthDate(minDate, maxDate);
-        return encodeBirthDate(birthDate);
-    }
-
-    /**
-     * Returns a random birth date within the specified date range
-     *
-     * @param minDate the minimum date range as a LocalDate object
-     * @param maxDate the maximum date range as a LocalDate object
-     * @return a random birth date within the specified range as a LocalDate object
-     */
-    private static LocalDate getRandomBirthDate(LocalDate minDate, LocalDate maxDate) {
-        long days = DAYS.between(minDate, maxDate);
-        return minDate.plusDays(RANDOM.nextLong(days + 1));
+        if (!FlightRecorder.isInitialized()) {
+            return generatePesel(ThreadLocalRandom.current(), getDateWindow());
+        }
+        PeselGenerationEvent event = PeselGenerationEvent.beginSampled();
+        String pesel = generatePesel(ThreadLocalRandom.current(), getDateWindow());
+        PeselGenerationEvent.end(event, 1);
+        return pesel;
     }
 
     /**
-     * Encodes a birth date as a PESEL birth date part.
+     * Generates the given number of random PESEL numbers with given parameters passed in
+     * {@code PeselGeneratorParams} object. The date range is resolved once for all generated PESEL numbers.
      *
-     * @param birthDate the date of birth as a LocalDate object
-     * @return the encoded PESEL birth date as a String
+     * @param count the number of PESEL numbers to generate
+     * @return the list of randomly generated PESEL numbers
+     * @throws IllegalArgumentException if the given count is negative
      */
-    private static String encodeBirthDate(LocalDate birthDate) {
-        int year = birthDate.getYear();
-        int month = birthDate.getMonthValue();
-        int day = birthDate.getDayOfMonth();
-
-        switch (year / 100) {
-            case 18 -> month += 80;
-            case 20 -> month += 20;
-            case 21 -> month += 40;
-            case 22 -> month += 60;
+    public List<String> generatePesels(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count should not be negative");
         }
-
-        String encodedBirthDate = "";
-        if (String.valueOf(year % 100).length() == 1) {
-            encodedBirthDate += "0" + year % 100;
-        } else {
-            encodedBirthDate += year % 100;
+        PeselGenerationEvent event = FlightRecorder.isInitialized() ? new PeselGenerationEvent() : null;
+        if (event != null) {
+            event.begin();
         }
-        if (String.valueOf(month).length() == 1) {
-            encodedBirthDate += "0" + month;
-        } else {
-            encodedBirthDate += month;
+        Random random = ThreadLocalRandom.current();
+        PeselDateWindow window = getDateWindow();
+        List<String> pesels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pesels.add(generatePesel(random, window));
         }
-        if (String.valueOf(day).length() == 1) {
-            encodedBirthDate += "0" + day;
-        } else {
-            encodedBirthDate += day;
+        if (event != null && event.shouldCommit()) {
+            event.count = count;
+            event.sampleRate = 1;
+            event.commit();
         }
-        return encodedBirthDate;
-    }
-
-    /**
-     * Generates a random string of three digits to represent the serial number in the PESEL number.
-     *
-     * @return a randomly generated three-digit string
-     */
-    private static String getRandomSerialDigits() {
-        return String.valueOf(RANDOM.nextInt(10)) + RANDOM.nextInt(10) + RANDOM.nextInt(10);
+        return pesels;
     }
 
     /**
-     * Generates a random digit to represent the gender in the PESEL number. If a gender is specified,
-     * the PESEL will be generated with that gender. If no gender is specified, the generated gender will be random.
-     * Once a gender is generated, it is set to null so that it will be randomized on the next call to this method.
+     * Returns the date range resolved for the current day of the clock, resolving it again when the day changes.
      *
-     * @return the generated gender digit of the PESEL number as a string
-     */
-    private static String getGenderRandomDigit() {
-        if (!isGenderGiven()) {
-            setRandomGender();
-            String genderDigit = checkGenderAndEncodeDigit();
-            gender = null;
-            return genderDigit;
+     * @return the date range for the current day
+     */
+    private PeselDateWindow getDateWindow() {
+        PeselDateWindow window = dateWindow;
+        long millis = clock.millis();
+        if (!window.isValidAt(millis)) {
+            window = params.resolveDateWindow(millis);
+            dateWindow = window;
         }
-        return checkGenderAndEncodeDigit();
+        return window;
     }
 
     /**
-     * Checks if the gender was specified as a parameter.
+     * Main method to generate PESEL, it draws all parts of PESEL and encodes them with the {@code PeselEncoder}.
      *
-     * @return true if gender was specified, false otherwise
-     */
-    private static boolean isGenderGiven() {
-        return gender != null;
-    }
-
-    /**
-     * Sets a random gender to the gender field variable.
+     * @param random the random number generator
+     * @param window the date range of the birth date
+     * @return the PESEL number as String
      */
-    private static void setRandomGender() {
-        gender = RANDOM.nextInt(10) % 2 == 0 ? PeselGeneratorParams.Gender.FEMALE : PeselGeneratorParams.Gender.MALE;
+    private String generatePesel(Random random, PeselDateWindow window) {
+        int bucket = birthDateTable == null ? -1 : birthDateTable.sample(random);
+        long birthEpochDay = getRandomBirthEpochDay(random, window, bucket);
+        int serial = random.nextInt(1000);
+        int genderDigit = getGenderRandomDigit(random, getGender(random, bucket));
+        return PeselEncoder.encodeEpochDay(birthEpochDay, serial, genderDigit);
     }
 
     /**
-     * Checks the gender and calls the appropriate method to generate a random gender digit.
+     * Returns a random birth date within the specified date range, or within the given bucket of the histogram.
      *
-     * @return the generated gender digit of the PESEL number as a string
-     */
-    private static String checkGenderAndEncodeDigit() {
-        if (gender.equals(PeselGeneratorParams.Gender.FEMALE)) {
-            return encodeRandomFemaleDigit();
-        } else {
-            return encodeRandomMaleDigit();
+     * @param random the random number generator
+     * @param window the date range of the birth date
+     * @param bucket the drawn bucket of the birth date histogram, or -1 if there is no histogram
+     * @return a random birth date within the specified range as an epoch day
+     */
+    private static long getRandomBirthEpochDay(Random random, PeselDateWindow window, int bucket) {
+        if (bucket < 0) {
+            return window.getMinEpochDay() + random.nextLong(window.getDays());
         }
+        return window.getBucketStart(bucket) + random.nextLong(window.getBucketDays(bucket));
     }
 
     /**
-     * Encodes a random female digit.
+     * Returns the gender of the generated PESEL, drawing it with the share of males of the given bucket of
+     * the histogram if male shares were set.
      *
-     * @return the encoded random female digit as a String
+     * @param random the random number generator
+     * @param bucket the drawn bucket of the birth date histogram, or -1 if there is no histogram
+     * @return the gender of the PESEL, or null for a random gender
      */
-    private static String encodeRandomFemaleDigit() {
-        return String.valueOf(RANDOM.nextInt(5) * 2);
+    private PeselGeneratorParams.Gender getGender(Random random, int bucket) {
+        if (maleShares == null) {
+            return gender;
+        }
+        return random.nextDouble() < maleShares[bucket] ? PeselGeneratorParams.Gender.MALE : PeselGeneratorParams.Gender.FEMALE;
     }
 
     /**
-     * Encodes a random male digit.
+     * Generates a random digit to represent the gender in the PESEL number. If a gender is specified,
+     * the PESEL will be generated with that gender. If no gender is specified, the generated gender will be random.
      *
-     * @return the encoded random male digit as a String
+     * @param random the random number generator
+     * @param gender the gender of the PESEL, or null for a random gender
+     * @return the generated gender digit of the PESEL number
      */
-    private static String encodeRandomMaleDigit() {
-        return String.valueOf(RANDOM.nextInt(5) * 2 + 1);
+    private static int getGenderRandomDigit(Random random, PeselGeneratorParams.Gender gender) {
+        if (gender == null) {
+            return random.nextInt(10);
+        }
+        int digit = random.nextInt(5) * 2;
+        return gender == PeselGeneratorParams.Gender.FEMALE ? digit : digit + 1;
     }
 
     /**
-     * Calculates and returns the correct control digit for a generated PESEL number.
-     *
-     * @param birthDateDigits    the birth date digits of the PESEL as a string
-     * @param randomSerialDigits the random serial digits of the PESEL as a string
-     * @param genderDigit        the gender digit of the PESEL as a string
-     * @return the calculated control digit of the PESEL as a string
+     * Holder of the generator with default parameters, created on the first call of {@code generatePeselStatic()}.
      */
-    private static String getControlDigit(String birthDateDigits, String randomSerialDigits, String genderDigit) {
-        String pesel = birthDateDigits + randomSerialDigits + genderDigit;
-        int controlSum = 0;
-        for (int i = 0; i < 10; i++) {
-            int multipliedNumber = CONTROL_WEIGHTS[i] * Character.getNumericValue(pesel.charAt(i));
-            if (multipliedNumber >= 10) {
-                controlSum += Character.getNumericValue(String.valueOf(multipliedNumber).charAt(1));
-            } else {
-                controlSum += multipliedNumber;
-            }
-        }
-        controlSum %= 10;
-        if (controlSum == 0) {
-            return "0";
-        } else {
-            return String.valueOf(10 - controlSum);
-        }
+    private static final class DefaultGenerator {
+
+        /**
+         * The generator with default parameters.
+         */
+        private static final PeselGenerator INSTANCE = new PeselGenerator(PeselGeneratorParams.builder().build());
     }
 }
@@ -1,6 +1,10 @@
 package io.github.viepovsky.polishutils.pesel;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Objects;
 
 /**
  * The {@code PeselGeneratorParams} class provides options for generating more specific random PESEL numbers.
@@ -25,7 +29,26 @@ import java.time.LocalDate;
  *              .maxDate(maxDate)
  *              .build();
  * </pre></blockquote>
- * Passing invalid date range will cause a {@link IllegalArgumentException} to be thrown.
+ * Instead of dates, you can choose the age range of the persons as of the current date, e.g. 18 to 65 years old:
+ * <blockquote><pre>
+ *     PeselGeneratorParams params = PeselGeneratorParams.builder()
+ *              .ageRange(18, 65)
+ *              .build();
+ * </pre></blockquote>
+ * Birth dates and genders can also follow realistic distributions given as histograms, either of the numbers of
+ * births in consecutive years or of an age pyramid, optionally with the share of males in every bucket:
+ * <blockquote><pre>
+ *     PeselGeneratorParams params = PeselGeneratorParams.builder()
+ *              .birthYearWeights(1990, 547_700, 547_700, 515_200, 494_300)
+ *              .maleShares(0.514, 0.513, 0.514, 0.513)
+ *              .build();
+ * </pre></blockquote>
+ * When neither the minimum nor the maximum date is given, the default date range of the last 100 years or the
+ * given age range is resolved against the clock, so it never becomes stale. The generator resolves it once per
+ * day of the clock. The clock can be given with the {@code clock()} method of the builder, which makes the
+ * date range deterministic in tests.
+ * <p>
+ * Passing invalid date or age range, or invalid weights, will cause a {@link IllegalArgumentException} to be thrown.
  *
  * @author Oskar Rajzner
  * @see PeselGenerator
@@ -43,15 +66,15 @@ public class PeselGeneratorParams {
     private static final LocalDate MAX_DATE_POSSIBLE = LocalDate.of(2299, 12, 31);
 
     /**
-     * The default earliest date from which a PESEL number can be generated,
-     * which is 100 years before the current date.
+     * The number of years before the current date of the default earliest date from which
+     * a PESEL number can be generated.
      */
-    private static final LocalDate DEFAULT_MIN_DATE = LocalDate.now().minusYears(100);
+    private static final int DEFAULT_YEARS_RANGE = 100;
 
     /**
-     * The default latest date to which a PESEL number can be generated, which is the current date.
+     * The greatest age that can be set in the age range, as PESEL numbers cover 500 years of birth dates.
      */
-    private static final LocalDate DEFAULT_MAX_DATE = LocalDate.now();
+    private static final int MAX_AGE_POSSIBLE = 499;
 
     /**
      * The gender that will be included in the generated PESEL numbers.
@@ -59,32 +82,90 @@ public class PeselGeneratorParams {
     private final Gender gender;
 
     /**
-     * The earliest date from which a PESEL number will be generated.
+     * The clock used to resolve the default date range.
+     */
+    private final Clock clock;
+
+    /**
+     * The earliest date from which a PESEL number will be generated, or null to use the default date range.
      */
     private LocalDate minDate;
 
     /**
-     * The latest date to which a PESEL number will be generated.
+     * The latest date to which a PESEL number will be generated, or null to use the default date range.
      */
     private LocalDate maxDate;
 
+    /**
+     * The minimal age of the persons as of the current date, or -1 if no age range was set.
+     */
+    private final int minAge;
+
+    /**
+     * The maximal age of the persons as of the current date, or -1 if no age range was set.
+     */
+    private final int maxAge;
+
+    /**
+     * The weights of the buckets of the birth date histogram, or null if birth dates are uniformly distributed.
+     * The buckets are consecutive years starting at the year of the minimal date, or consecutive ages starting at 0.
+     */
+    private final double[] weights;
+
+    /**
+     * The share of males in every bucket of the birth date histogram, or null if it was not set.
+     */
+    private final double[] maleShares;
+
     /**
      * Constructs a new PeselGeneratorParams object using the Builder pattern.
      * It validates input dates values.
      *
      * @param builder The Builder object containing the parameters to be used for generating PESEL numbers.
+     * @throws IllegalArgumentException if both the age range and the dates were set, if the weights were combined
+     *                                  with the dates or the age range, or if the male shares do not match the weights
      */
     private PeselGeneratorParams(Builder builder) {
         gender = builder.gender;
-        if (builder.minDate != null && builder.maxDate != null) {
-            minDate = builder.minDate;
-            maxDate = builder.maxDate;
-        } else if (builder.minDate == null && builder.maxDate == null) {
-            minDate = DEFAULT_MIN_DATE;
-            maxDate = DEFAULT_MAX_DATE;
+        clock = builder.clock;
+        if (builder.minAge >= 0 && (builder.minDate != null || builder.maxDate != null)) {
+            throw new IllegalArgumentException("Age range cannot be combined with min and max dates");
+        }
+        if (builder.birthYearWeights != null && builder.ageWeights != null) {
+            throw new IllegalArgumentException("Birth year weights cannot be combined with age weights");
+        }
+        weights = builder.birthYearWeights != null ? builder.birthYearWeights : builder.ageWeights;
+        if (weights != null && (builder.minAge >= 0 || builder.minDate != null || builder.maxDate != null)) {
+            throw new IllegalArgumentException("Birth year and age weights cannot be combined with min and max dates or age range");
+        }
+        maleShares = builder.maleShares;
+        if (maleShares != null && (weights == null || maleShares.length != weights.length)) {
+            throw new IllegalArgumentException("Male shares should be given for every bucket of birth year or age weights");
+        }
+        if (maleShares != null && gender != null) {
+            throw new IllegalArgumentException("Male shares cannot be combined with gender");
+        }
+        LocalDate builderMinDate = builder.minDate;
+        LocalDate builderMaxDate = builder.maxDate;
+        if (builder.birthYearWeights != null) {
+            builderMinDate = LocalDate.of(builder.firstBirthYear, 1, 1);
+            builderMaxDate = LocalDate.of(builder.firstBirthYear + weights.length - 1, 12, 31);
+        }
+        if (builder.ageWeights != null) {
+            minAge = 0;
+            maxAge = weights.length - 1;
+        } else {
+            minAge = builder.minAge;
+            maxAge = builder.maxAge;
+        }
+        if (builderMinDate != null && builderMaxDate != null) {
+            minDate = builderMinDate;
+            maxDate = builderMaxDate;
+        } else if (builderMinDate == null && builderMaxDate == null) {
+            return;
         } else {
-            minDate = builder.minDate == null ? MIN_DATE_POSSIBLE : builder.minDate;
-            maxDate = builder.maxDate == null ? MAX_DATE_POSSIBLE : builder.maxDate;
+            minDate = builderMinDate == null ? MIN_DATE_POSSIBLE : builderMinDate;
+            maxDate = builderMaxDate == null ? MAX_DATE_POSSIBLE : builderMaxDate;
         }
         if (minDate.isAfter(maxDate)) {
             LocalDate tempDate = minDate;
@@ -120,6 +201,34 @@ public class PeselGeneratorParams {
          * The latest date to which a PESEL number will be generated.
          */
         private LocalDate maxDate;
+        /**
+         * The clock used to resolve the default date range.
+         */
+        private Clock clock = Clock.systemDefaultZone();
+        /**
+         * The minimal age of the persons as of the current date, or -1 if no age range was set.
+         */
+        private int minAge = -1;
+        /**
+         * The maximal age of the persons as of the current date, or -1 if no age range was set.
+         */
+        private int maxAge = -1;
+        /**
+         * The year of the first bucket of the birth year weights.
+         */
+        private int firstBirthYear;
+        /**
+         * The numbers of births in consecutive years, or null if they were not set.
+         */
+        private double[] birthYearWeights;
+        /**
+         * The numbers of persons of consecutive ages starting at 0, or null if they were not set.
+         */
+        private double[] ageWeights;
+        /**
+         * The share of males in every bucket of the weights, or null if it was not set.
+         */
+        private double[] maleShares;
 
         /**
          * Sets the gender to be included in the generated PESEL numbers.
@@ -166,6 +275,95 @@ public class PeselGeneratorParams {
             }
         }
 
+        /**
+         * Sets the age range of the persons as of the current date of the clock, including both ages. For example,
+         * the age range of 18 to 65 generates PESEL numbers of persons who are at least 18 and at most 65 years old.
+         * The age range cannot be combined with the earliest and the latest date.
+         *
+         * @param minAge the minimal age in years
+         * @param maxAge the maximal age in years
+         * @return this builder with the age range set
+         * @throws IllegalArgumentException if any of the ages is negative or greater than 499
+         */
+        public Builder ageRange(int minAge, int maxAge) {
+            if (minAge < 0 || maxAge < 0 || minAge > MAX_AGE_POSSIBLE || maxAge > MAX_AGE_POSSIBLE) {
+                throw new IllegalArgumentException("Min and max ages should be between: 0 and " + MAX_AGE_POSSIBLE);
+            }
+            this.minAge = Math.min(minAge, maxAge);
+            this.maxAge = Math.max(minAge, maxAge);
+            return (this);
+        }
+
+        /**
+         * Sets the histogram of births in consecutive years, starting at the given year. The birth year of every
+         * generated PESEL is drawn with the probability proportional to its weight, and the birth date is uniformly
+         * distributed within that year. The weights cannot be combined with the dates, the age range or the age weights.
+         *
+         * @param firstYear the year of the first weight
+         * @param weights   the non-negative weights of consecutive years, e.g. the numbers of births
+         * @return this builder with the birth year weights set
+         * @throws IllegalArgumentException if the years are not between 1800 and 2299, or if the weights are
+         *                                  empty, negative or all zero
+         */
+        public Builder birthYearWeights(int firstYear, double... weights) {
+            if (firstYear < MIN_DATE_POSSIBLE.getYear() || firstYear + (long) weights.length - 1 > MAX_DATE_POSSIBLE.getYear()) {
+                throw new IllegalArgumentException("Birth years should be between: " + MIN_DATE_POSSIBLE.getYear() + " and " + MAX_DATE_POSSIBLE.getYear());
+            }
+            this.firstBirthYear = firstYear;
+            this.birthYearWeights = checkWeights(weights);
+            return (this);
+        }
+
+        /**
+         * Sets the age pyramid as of the current date of the clock, where the first weight is of persons aged 0,
+         * the second of persons aged 1, and so on. The age of every generated PESEL is drawn with the probability
+         * proportional to its weight, and the birth date is uniformly distributed within that age. Birth dates
+         * before 1800 are limited to the earliest possible date. The weights cannot be combined with the dates,
+         * the age range or the birth year weights.
+         *
+         * @param weights the non-negative weights of consecutive ages, e.g. the numbers of persons
+         * @return this builder with the age weights set
+         * @throws IllegalArgumentException if there are more than 500 weights, or if the weights are empty,
+         *                                  negative or all zero
+         */
+        public Builder ageWeights(double... weights) {
+            if (weights.length > MAX_AGE_POSSIBLE + 1) {
+                throw new IllegalArgumentException("Ages should be between: 0 and " + MAX_AGE_POSSIBLE);
+            }
+            this.ageWeights = checkWeights(weights);
+            return (this);
+        }
+
+        /**
+         * Sets the share of males in every bucket of the birth year weights or the age weights, so the sex ratio
+         * can change with age. The shares cannot be combined with the gender.
+         *
+         * @param shares the shares of males between 0 and 1, one for every weight
+         * @return this builder with the male shares set
+         * @throws IllegalArgumentException if any of the shares is not between 0 and 1
+         */
+        public Builder maleShares(double... shares) {
+            for (double share : shares) {
+                if (!(share >= 0 && share <= 1)) {
+                    throw new IllegalArgumentException("Male shares should be between: 0 and 1");
+                }
+            }
+            this.maleShares = shares.clone();
+            return (this);
+        }
+
+        /**
+         * Sets the clock used to resolve the default date range or the age range, when neither the earliest
+         * nor the latest date is set. By default, the system clock in the default time-zone is used.
+         *
+         * @param clock the clock as a {@code Clock} object
+         * @return this builder with the clock set
+         */
+        public Builder clock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+            return (this);
+        }
+
         /**
          * Builds a new instance of {@code PeselGeneratorParams} with the specified parameters.
          *
@@ -186,39 +384,169 @@ public class PeselGeneratorParams {
     }
 
     /**
-     * Returns the minimal date range set to create PESEL.
+     * Returns the clock used to resolve the default date range.
+     *
+     * @return the clock as a {@code Clock} object
+     */
+    Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the weights of the buckets of the birth date histogram.
+     *
+     * @return the weights, or null if birth dates are uniformly distributed
+     */
+    double[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Returns the share of males in every bucket of the birth date histogram.
+     *
+     * @return the male shares, or null if they were not set
+     */
+    double[] getMaleShares() {
+        return maleShares;
+    }
+
+    /**
+     * Returns the minimal date range set to create PESEL, resolving the default date range or the age range
+     * if no dates were set.
      *
      * @return minimal date range set as LocalDate object
      */
     LocalDate getMinDate() {
-        return minDate;
+        return getMinDate(LocalDate.now(clock));
     }
 
     /**
-     * Returns the maximal date range set to create PESEL.
+     * Returns the maximal date range set to create PESEL, resolving the default date range or the age range
+     * if no dates were set.
      *
      * @return maximal date range set as LocalDate object
      */
     LocalDate getMaxDate() {
-        return maxDate;
+        return getMaxDate(LocalDate.now(clock));
+    }
+
+    /**
+     * Returns the minimal date range set to create PESEL as of the given current date.
+     *
+     * @param today the current date
+     * @return minimal date range set as LocalDate object
+     */
+    private LocalDate getMinDate(LocalDate today) {
+        if (minDate != null) {
+            return minDate;
+        }
+        if (minAge < 0) {
+            return today.minusYears(DEFAULT_YEARS_RANGE);
+        }
+        return clamp(today.minusYears(maxAge + 1L).plusDays(1));
+    }
+
+    /**
+     * Returns the maximal date range set to create PESEL as of the given current date.
+     *
+     * @param today the current date
+     * @return maximal date range set as LocalDate object
+     */
+    private LocalDate getMaxDate(LocalDate today) {
+        if (maxDate != null) {
+            return maxDate;
+        }
+        if (minAge < 0) {
+            return today;
+        }
+        return clamp(today.minusYears(minAge));
+    }
+
+    /**
+     * Resolves the date range of the generated PESEL numbers at the given millisecond of the clock.
+     * The date range given with dates is valid forever, the default date range and the age range are valid
+     * until the end of the current day in the time-zone of the clock. The date ranges of the buckets of
+     * the birth date histogram are resolved together with the date range.
+     *
+     * @param millis the current millisecond of the clock
+     * @return the resolved date range
+     */
+    PeselDateWindow resolveDateWindow(long millis) {
+        if (minDate != null) {
+            return createDateWindow(minDate.toEpochDay(), maxDate.toEpochDay(), Long.MIN_VALUE, Long.MAX_VALUE, null);
+        }
+        ZoneId zone = clock.getZone();
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone);
+        long validFrom = today.atStartOfDay(zone).toInstant().toEpochMilli();
+        long validUntil = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        long minEpochDay = getMinDate(today).toEpochDay();
+        long maxEpochDay = Math.max(minEpochDay, getMaxDate(today).toEpochDay());
+        return createDateWindow(minEpochDay, maxEpochDay, validFrom, validUntil, today);
+    }
+
+    /**
+     * Creates the date range, resolving the date ranges of the buckets of the birth date histogram if it was set.
+     * The buckets are consecutive years starting at the minimal date, or consecutive ages as of the given date.
+     *
+     * @param minEpochDay the earliest birth date as an epoch day
+     * @param maxEpochDay the latest birth date as an epoch day
+     * @param validFrom   the first millisecond of the clock in which the date range is valid
+     * @param validUntil  the first millisecond of the clock in which the date range is no longer valid
+     * @param today       the current date for the age buckets, or null for the year buckets
+     * @return the date range
+     */
+    private PeselDateWindow createDateWindow(long minEpochDay, long maxEpochDay, long validFrom, long validUntil,
+                                             LocalDate today) {
+        if (weights == null) {
+            return new PeselDateWindow(minEpochDay, maxEpochDay, validFrom, validUntil);
+        }
+        long minEpochDayPossible = MIN_DATE_POSSIBLE.toEpochDay();
+        long maxEpochDayPossible = MAX_DATE_POSSIBLE.toEpochDay();
+        long[] bucketStarts = new long[weights.length];
+        long[] bucketDays = new long[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            LocalDate start = today == null ? minDate.plusYears(i) : today.minusYears(i + 1L).plusDays(1);
+            LocalDate end = today == null ? start.plusYears(1) : today.minusYears(i).plusDays(1);
+            long startEpochDay = Math.min(Math.max(start.toEpochDay(), minEpochDayPossible), maxEpochDayPossible);
+            long endEpochDay = Math.min(end.toEpochDay(), maxEpochDayPossible + 1);
+            bucketStarts[i] = startEpochDay;
+            bucketDays[i] = Math.max(1, endEpochDay - startEpochDay);
+        }
+        return new PeselDateWindow(minEpochDay, maxEpochDay, validFrom, validUntil, bucketStarts, bucketDays);
     }
 
     /**
-     * Returns the default minimal date range to create PESEL.
+     * Checks that the given weights are non-negative numbers with a positive sum.
      *
-     * @return default minimal date range as LocalDate object
+     * @param weights the weights to check
+     * @return the copy of the weights
+     * @throws IllegalArgumentException if the weights are empty, negative, not finite or all zero
      */
-    static LocalDate getDefaultMinDate() {
-        return DEFAULT_MIN_DATE;
+    private static double[] checkWeights(double[] weights) {
+        double sum = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights should be non-negative numbers");
+            }
+            sum += weight;
+        }
+        if (!(sum > 0) || Double.isInfinite(sum)) {
+            throw new IllegalArgumentException("Weights should have a positive and finite sum");
+        }
+        return weights.clone();
     }
 
     /**
-     * Returns the default maximal date range to create PESEL.
+     * Limits the given date to the range of dates that can be encoded in PESEL.
      *
-     * @return default maximal date range as LocalDate object
+     * @param date the date to limit
+     * @return the limited date
      */
-    static LocalDate getDefaultMaxDate() {
-        return DEFAULT_MAX_DATE;
+    private static LocalDate clamp(LocalDate date) {
+        if (date.isBefore(MIN_DATE_POSSIBLE)) {
+            return MIN_DATE_POSSIBLE;
+        }
+        return date.isAfter(MAX_DATE_POSSIBLE) ? MAX_DATE_POSSIBLE : date;
     }
 
     /**
@@ -0,0 +1,238 @@
+package io.github.viepovsky.polishutils.pesel;
+
+/**
+ * The {@code PeselIncrementalValidator} class validates a PESEL typed one character at a time,
+ * e.g. in a form field that is checked after every keystroke.
+ * <p>
+ * After every accepted character it reports whether the input typed so far can still become a valid PESEL
+ * ({@link Status#INCOMPLETE}), already is a valid PESEL ({@link Status#VALID}) or can never become one
+ * ({@link Status#INVALID}), in which case {@link #getReason()} tells why. The validator keeps a running
+ * control sum and the partial birth date, so every call to {@link #accept(char)} and {@link #deleteLast()}
+ * takes constant time and does not allocate. It uses the same rules as {@link PeselValidator}.
+ * <p>
+ * Example usage of the {@code PeselIncrementalValidator} class:
+ * <blockquote><pre>
+ *     PeselIncrementalValidator validator = new PeselIncrementalValidator();
+ *     validator.accept('9'); // returns INCOMPLETE
+ *     validator.accept('2'); // returns INCOMPLETE
+ *     validator.accept('1'); // returns INCOMPLETE
+ *     validator.accept('3'); // returns INVALID, getReason() returns INVALID_BIRTH_DATE as there is no 13th month
+ *     validator.deleteLast(); // returns INCOMPLETE
+ * </pre></blockquote>
+ * Instances of this class are mutable and are not safe for use by multiple threads.
+ *
+ * @author Oskar Rajzner
+ * @see PeselValidator
+ */
+public final class PeselIncrementalValidator {
+
+    /**
+     * The number of characters of a correct PESEL.
+     */
+    private static final int PESEL_LENGTH = 11;
+
+    /**
+     * The digits typed so far, only the first 11 are stored.
+     */
+    private final int[] digits = new int[PESEL_LENGTH];
+
+    /**
+     * The running control sums, the element at index i holds the weighted sum of the first i digits.
+     */
+    private final int[] controlSums = new int[PESEL_LENGTH + 1];
+
+    /**
+     * The number of characters typed so far.
+     */
+    private int length;
+
+    /**
+     * The index of the first character that made the input invalid, or -1 if the input is not invalid.
+     */
+    private int invalidIndex = -1;
+
+    /**
+     * The reason of the first character that made the input invalid, or null if the input is not invalid.
+     */
+    private InvalidPeselReason reason;
+
+    /**
+     * Creates a new {@code PeselIncrementalValidator} object with no characters typed.
+     */
+    public PeselIncrementalValidator() {
+    }
+
+    /**
+     * Appends the given character to the input and validates it.
+     *
+     * @param character the typed character
+     * @return the status of the input after the character was appended
+     */
+    public Status accept(char character) {
+        int index = length++;
+        if (invalidIndex >= 0) {
+            return Status.INVALID;
+        }
+        if (index >= PESEL_LENGTH) {
+            markInvalid(index, InvalidPeselReason.INVALID_LENGTH);
+            return Status.INVALID;
+        }
+        if (character < '0' || character > '9') {
+            markInvalid(index, InvalidPeselReason.INVALID_CHARACTERS);
+            return Status.INVALID;
+        }
+        int digit = character - '0';
+        digits[index] = digit;
+        controlSums[index + 1] = controlSums[index] + PeselValidator.CONTROL_WEIGHTS[index] * digit;
+        if (!isBirthDatePrefixValid(index)) {
+            markInvalid(index, InvalidPeselReason.INVALID_BIRTH_DATE);
+            return Status.INVALID;
+        }
+        if (index == PESEL_LENGTH - 1 && controlSums[PESEL_LENGTH] % 10 != 0) {
+            markInvalid(index, InvalidPeselReason.INVALID_CONTROL_DIGIT);
+            return Status.INVALID;
+        }
+        return getStatus();
+    }
+
+    /**
+     * Appends all characters of the given sequence to the input and validates them.
+     *
+     * @param characters the typed characters
+     * @return the status of the input after all characters were appended
+     */
+    public Status acceptAll(CharSequence characters) {
+        for (int i = 0; i < characters.length(); i++) {
+            accept(characters.charAt(i));
+        }
+        return getStatus();
+    }
+
+    /**
+     * Removes the last typed character from the input, as if backspace was pressed.
+     * Does nothing if no characters were typed.
+     *
+     * @return the status of the input after the character was removed
+     */
+    public Status deleteLast() {
+        if (length > 0) {
+            length--;
+            if (length <= invalidIndex) {
+                invalidIndex = -1;
+                reason = null;
+            }
+        }
+        return getStatus();
+    }
+
+    /**
+     * Removes all typed characters from the input.
+     */
+    public void reset() {
+        length = 0;
+        invalidIndex = -1;
+        reason = null;
+    }
+
+    /**
+     * Returns the status of the input typed so far.
+     *
+     * @return the status of the input
+     */
+    public Status getStatus() {
+        if (invalidIndex >= 0) {
+            return Status.INVALID;
+        }
+        return length == PESEL_LENGTH ? Status.VALID : Status.INCOMPLETE;
+    }
+
+    /**
+     * Returns the reason why the input typed so far can never become a valid PESEL.
+     *
+     * @return the reason as {@code InvalidPeselReason}, or null if the status is not {@link Status#INVALID}
+     */
+    public InvalidPeselReason getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the number of characters typed so far.
+     *
+     * @return the number of typed characters
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Marks the input as invalid starting from the given character.
+     *
+     * @param index  the index of the character that made the input invalid
+     * @param reason the reason why the input is invalid
+     */
+    private void markInvalid(int index, InvalidPeselReason reason) {
+        invalidIndex = index;
+        this.reason = reason;
+    }
+
+    /**
+     * Checks if the birth date digits typed up to the given index can still form a valid birth date.
+     *
+     * @param index the index of the last typed digit
+     * @return true if a valid birth date can still be typed, false otherwise
+     */
+    private boolean isBirthDatePrefixValid(int index) {
+        switch (index) {
+            case 3 -> {
+                int month = PeselCalendar.decodeMonth(digits[2] * 10 + digits[3]);
+                return month >= 1 && month <= 12;
+            }
+            case 4 -> {
+                return digits[4] * 10 <= PeselCalendar.daysInMonth(getBirthYear(), getBirthMonth());
+            }
+            case 5 -> {
+                return PeselCalendar.isBirthDateValid(digits[0] * 10 + digits[1], digits[2] * 10 + digits[3],
+                        digits[4] * 10 + digits[5]);
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the year of birth decoded from the typed digits.
+     *
+     * @return the year of birth
+     */
+    private int getBirthYear() {
+        return PeselCalendar.decodeCentury(digits[2]) + digits[0] * 10 + digits[1];
+    }
+
+    /**
+     * Returns the month of birth decoded from the typed digits.
+     *
+     * @return the month of birth
+     */
+    private int getBirthMonth() {
+        return PeselCalendar.decodeMonth(digits[2] * 10 + digits[3]);
+    }
+
+    /**
+     * Status of the input typed so far.
+     */
+    public enum Status {
+        /**
+         * The input is not a valid PESEL yet, but it can become one when more digits are typed.
+         */
+        INCOMPLETE,
+        /**
+         * The input is a valid PESEL.
+         */
+        VALID,
+        /**
+         * The input can never become a valid PESEL, no matter what is typed next.
+         */
+        INVALID
+    }
+}
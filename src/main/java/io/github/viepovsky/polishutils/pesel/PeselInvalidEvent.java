@@ -0,0 +1,59 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@code PeselInvalidEvent} class is the JFR event of a PESEL rejected with an {@link InvalidPeselException}.
+ * Only one in {@link #SAMPLE_RATE} rejections is committed, so the event can stay enabled when invalid input is
+ * frequent, and the PESEL number itself is never recorded.
+ * <p>
+ * The rejecting code uses this class only once the Flight Recorder is initialized,
+ * see {@link PeselValidationBatchEvent}.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel package.
+ *
+ * @author Oskar Rajzner
+ */
+@Name(PeselEventMonitor.INVALID_PESEL_EVENT)
+@Label("Invalid PESEL")
+@Category("PESEL")
+@Description("Sampled rejection of an invalid PESEL number with an exception")
+final class PeselInvalidEvent extends Event {
+
+    /**
+     * The number of rejections represented by a single event, a power of two.
+     */
+    static final int SAMPLE_RATE = 64;
+
+    /**
+     * The reason why the PESEL is invalid.
+     */
+    @Label("Reason")
+    String reason;
+
+    /**
+     * The number of rejections represented by this event.
+     */
+    @Label("Sample Rate")
+    int sampleRate;
+
+    /**
+     * Commits the event of a rejection for the given reason, if the event is enabled and the rejection is sampled.
+     *
+     * @param reason the reason why the PESEL is invalid
+     */
+    static void commitSampled(InvalidPeselReason reason) {
+        PeselInvalidEvent event = new PeselInvalidEvent();
+        if (event.isEnabled() && (ThreadLocalRandom.current().nextInt() & (SAMPLE_RATE - 1)) == 0) {
+            event.reason = reason.name();
+            event.sampleRate = SAMPLE_RATE;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The {@code PeselMask} enumeration selects which digits of a PESEL stay visible when it is masked, e.g. before
+ * it is written to a log. The other digits are replaced with {@code '*'}.
+ * <p>
+ * Raw input that is not 11 characters long is masked entirely, so a malformed or truncated PESEL never leaks
+ * any digits. Masking {@code char[]} and {@code byte[]} arrays in place creates no objects.
+ * <p>
+ * Example usage of the {@code PeselMask} enumeration:
+ * <blockquote><pre>
+ *     String masked = PeselMask.BIRTH_YEAR.apply("92082683499"); // returns "92*********"
+ *     String maskedPesel = PeselMask.BIRTH_DATE.apply(new Pesel("92082683499")); // returns "920826*****"
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PeselRedactor
+ */
+public enum PeselMask {
+
+    /**
+     * Masks all digits, e.g. {@code "***********"}.
+     */
+    FULL(0),
+
+    /**
+     * Shows only the {@code YY} digits of the year of birth, e.g. {@code "92*********"}.
+     */
+    BIRTH_YEAR(2),
+
+    /**
+     * Shows only the {@code YYMMDD} digits of the date of birth, masking the serial number, the gender digit
+     * and the control digit, e.g. {@code "920826*****"}.
+     */
+    BIRTH_DATE(6);
+
+    /**
+     * The character replacing the masked digits.
+     */
+    public static final char MASK_CHARACTER = '*';
+
+    /**
+     * The number of leading digits that stay visible.
+     */
+    private final int visibleDigits;
+
+    /**
+     * Creates a new {@code PeselMask} constant.
+     *
+     * @param visibleDigits the number of leading digits that stay visible
+     */
+    PeselMask(int visibleDigits) {
+        this.visibleDigits = visibleDigits;
+    }
+
+    /**
+     * Masks the given raw input, which is masked entirely if it is not 11 characters long.
+     *
+     * @param pesel the PESEL number
+     * @return the masked PESEL
+     * @throws NullPointerException if the given PESEL is null
+     */
+    public String apply(CharSequence pesel) {
+        Objects.requireNonNull(pesel, "PESEL cannot be null");
+        char[] characters = new char[pesel.length()];
+        if (characters.length != 11) {
+            Arrays.fill(characters, MASK_CHARACTER);
+            return new String(characters);
+        }
+        for (int i = 0; i < 11; i++) {
+            characters[i] = i < visibleDigits ? pesel.charAt(i) : MASK_CHARACTER;
+        }
+        return new String(characters);
+    }
+
+    /**
+     * Masks the given decoded PESEL.
+     *
+     * @param pesel the decoded PESEL
+     * @return the masked PESEL
+     * @throws NullPointerException if the given PESEL is null
+     */
+    public String apply(Pesel pesel) {
+        Objects.requireNonNull(pesel, "PESEL cannot be null");
+        char[] characters = new char[11];
+        Arrays.fill(characters, MASK_CHARACTER);
+        int birthDateDigits = pesel.getBirthDateDigits();
+        for (int i = 0; i < visibleDigits; i++) {
+            characters[i] = (char) ('0' + (int) (birthDateDigits / PackedPesel.POSITION_WEIGHTS[i + 5] % 10));
+        }
+        return new String(characters);
+    }
+
+    /**
+     * Masks the PESEL at the given offset of the character array in place.
+     *
+     * @param characters the character array
+     * @param offset     the index of the first digit of the PESEL
+     * @throws IndexOutOfBoundsException if the array has fewer than 11 characters after the offset
+     */
+    public void applyTo(char[] characters, int offset) {
+        Objects.checkFromIndexSize(offset, 11, characters.length);
+        Arrays.fill(characters, offset + visibleDigits, offset + 11, MASK_CHARACTER);
+    }
+
+    /**
+     * Masks the PESEL at the given offset of the byte array of ASCII characters in place.
+     *
+     * @param bytes  the byte array
+     * @param offset the index of the first digit of the PESEL
+     * @throws IndexOutOfBoundsException if the array has fewer than 11 bytes after the offset
+     */
+    public void applyTo(byte[] bytes, int offset) {
+        Objects.checkFromIndexSize(offset, 11, bytes.length);
+        Arrays.fill(bytes, offset + visibleDigits, offset + 11, (byte) MASK_CHARACTER);
+    }
+}
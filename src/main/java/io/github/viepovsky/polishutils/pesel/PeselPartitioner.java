@@ -0,0 +1,284 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The {@code PeselPartitioner} class assigns PESEL-keyed records to partitions, e.g. shards of a database.
+ * <p>
+ * The partition is computed from a well-mixed 64-bit hash of the packed PESEL instead of {@code String.hashCode()},
+ * whose values of PESEL numbers born in the same years share most of their bits and skew the partitions.
+ * The hash is mapped to a partition with the jump consistent hash of Lamping and Veach, so when the number
+ * of partitions grows from {@code n} to {@code n + 1}, only {@code 1 / (n + 1)} of the PESEL numbers move,
+ * all of them to the new partition.
+ * <p>
+ * Optionally, the PESEL numbers can be divided into ranges of the birth date first, every range having its own
+ * group of partitions, e.g. to keep records of minors apart or to give the dominating birth years more nodes.
+ * The partition of a PESEL is then the first partition of its birth date range plus its jump hash in the group.
+ * <p>
+ * Partitioners are immutable and thread-safe. Computing a partition creates no objects and decodes the birth date
+ * with int arithmetic, without validating the PESEL.
+ * <p>
+ * Example usage of the {@code PeselPartitioner} class:
+ * <blockquote><pre>
+ *     PeselPartitioner partitioner = PeselPartitioner.builder()
+ *              .partitions(16)
+ *              .birthDateBoundaries(LocalDate.of(1970, 1, 1), LocalDate.of(2000, 1, 1))
+ *              .build();
+ *     int partition = partitioner.partition("92082683499"); // returns a partition between 16 and 31
+ *     int partitionCount = partitioner.getPartitionCount(); // returns 48
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PackedPesel
+ */
+public final class PeselPartitioner {
+
+    /**
+     * The number of partitions of every birth date range.
+     */
+    private final int partitionsPerRange;
+
+    /**
+     * The first birth dates of every birth date range but the first, as sorted {@code yyyyMMdd} numbers.
+     */
+    private final int[] boundaries;
+
+    /**
+     * Creates a new {@code PeselPartitioner} object from the given builder.
+     *
+     * @param builder the builder with the partitions and boundaries set
+     */
+    private PeselPartitioner(Builder builder) {
+        this.partitionsPerRange = builder.partitions;
+        this.boundaries = builder.boundaries;
+    }
+
+    /**
+     * Returns a new instance of the Builder class, which can be used to set and build
+     * {@code PeselPartitioner} object.
+     *
+     * @return a new instance of {@code PeselPartitioner} Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the partitioner with the given number of partitions and no birth date ranges.
+     *
+     * @param partitions the number of partitions
+     * @return the partitioner
+     * @throws IllegalArgumentException if the number of partitions is not positive
+     */
+    public static PeselPartitioner of(int partitions) {
+        return builder().partitions(partitions).build();
+    }
+
+    /**
+     * Returns the partition of the given PESEL.
+     *
+     * @param pesel the PESEL number
+     * @return the partition, between 0 and {@code getPartitionCount() - 1}
+     * @throws NullPointerException     if the given PESEL is null
+     * @throws IllegalArgumentException if the given PESEL is not a sequence of 11 digits
+     */
+    public int partition(CharSequence pesel) {
+        return partition(packChecked(pesel));
+    }
+
+    /**
+     * Returns the partition of the given packed PESEL.
+     *
+     * @param packed the packed PESEL
+     * @return the partition, between 0 and {@code getPartitionCount() - 1}
+     * @throws IllegalArgumentException if the given value is not a packed PESEL
+     */
+    public int partition(long packed) {
+        PackedPesel.assertIsPacked(packed);
+        int range = boundaries.length == 0 ? 0 : getBirthDateRange(packed);
+        return range * partitionsPerRange + jumpHash(hash(packed), partitionsPerRange);
+    }
+
+    /**
+     * Computes the partitions of all given packed PESEL numbers.
+     *
+     * @param packedPesels the packed PESEL numbers
+     * @param partitions   the array receiving the partition of every PESEL, at least as long as the PESEL numbers
+     * @throws IllegalArgumentException if the array of partitions is too short or any value is not a packed PESEL
+     */
+    public void partitionAll(long[] packedPesels, int[] partitions) {
+        if (partitions.length < packedPesels.length) {
+            throw new IllegalArgumentException("Partitions array should be at least as long as the PESEL array");
+        }
+        for (int i = 0; i < packedPesels.length; i++) {
+            partitions[i] = partition(packedPesels[i]);
+        }
+    }
+
+    /**
+     * Returns the total number of partitions, which is the number of partitions of every birth date range
+     * multiplied by the number of ranges.
+     *
+     * @return the number of partitions
+     */
+    public int getPartitionCount() {
+        return partitionsPerRange * (boundaries.length + 1);
+    }
+
+    /**
+     * Returns the well-mixed 64-bit hash of the given packed PESEL. Every bit of the packed PESEL affects every bit
+     * of the hash, so the hashes of consecutive PESEL numbers are unrelated.
+     *
+     * @param packed the packed PESEL
+     * @return the hash
+     */
+    public static long hash(long packed) {
+        long z = packed + 0x9E37_79B9_7F4A_7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the well-mixed 64-bit hash of the given PESEL, equal to the hash of its packed form.
+     *
+     * @param pesel the PESEL number
+     * @return the hash
+     * @throws NullPointerException     if the given PESEL is null
+     * @throws IllegalArgumentException if the given PESEL is not a sequence of 11 digits
+     */
+    public static long hash(CharSequence pesel) {
+        return hash(packChecked(pesel));
+    }
+
+    /**
+     * Maps the given hash to a bucket with the jump consistent hash, moving the fewest keys possible
+     * when the number of buckets changes.
+     *
+     * @param hash    the hash of the key
+     * @param buckets the number of buckets
+     * @return the bucket, between 0 and {@code buckets - 1}
+     * @throws IllegalArgumentException if the number of buckets is not positive
+     */
+    public static int jumpHash(long hash, int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("Number of buckets should be positive, but was " + buckets);
+        }
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            hash = hash * 2_862_933_555_777_941_757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((hash >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    /**
+     * Returns the index of the birth date range of the given packed PESEL.
+     *
+     * @param packed the packed PESEL
+     * @return the index of the birth date range
+     */
+    private int getBirthDateRange(long packed) {
+        int birthDateDigits = (int) (packed / 100_000);
+        int encodedMonth = birthDateDigits / 100 % 100;
+        int year = PeselCalendar.decodeCentury(encodedMonth / 10) + birthDateDigits / 10_000;
+        int birthDate = year * 10_000 + PeselCalendar.decodeMonth(encodedMonth) * 100 + birthDateDigits % 100;
+        int low = 0;
+        int high = boundaries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (boundaries[middle] <= birthDate) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Packs the given PESEL, rejecting values that are not a sequence of 11 digits.
+     *
+     * @param pesel the PESEL number
+     * @return the packed PESEL
+     * @throws NullPointerException     if the given PESEL is null
+     * @throws IllegalArgumentException if the given PESEL is not a sequence of 11 digits
+     */
+    private static long packChecked(CharSequence pesel) {
+        long packed = PackedPesel.pack(pesel);
+        if (packed == PackedPesel.INVALID) {
+            throw new IllegalArgumentException("PESEL should be a sequence of 11 digits");
+        }
+        return packed;
+    }
+
+    /**
+     * Builder class for creating instances of {@code PeselPartitioner}.
+     * Allows for setting the number of partitions and the birth date ranges.
+     */
+    public static final class Builder {
+        /**
+         * The number of partitions of every birth date range.
+         */
+        private int partitions = 1;
+        /**
+         * The first birth dates of every birth date range but the first, as sorted {@code yyyyMMdd} numbers.
+         */
+        private int[] boundaries = new int[0];
+
+        /**
+         * Sets the number of partitions, which is the number of partitions of every birth date range if the
+         * ranges are set.
+         *
+         * @param partitions the number of partitions
+         * @return this builder with the number of partitions set
+         * @throws IllegalArgumentException if the number of partitions is not positive
+         */
+        public Builder partitions(int partitions) {
+            if (partitions < 1) {
+                throw new IllegalArgumentException("Number of partitions should be positive, but was " + partitions);
+            }
+            this.partitions = partitions;
+            return (this);
+        }
+
+        /**
+         * Sets the birth dates dividing PESEL numbers into ranges, each with its own group of partitions.
+         * A PESEL born on a boundary belongs to the range starting at it, e.g. boundaries 1970-01-01 and 2000-01-01
+         * make three ranges: born before 1970, born from 1970 to 1999 and born in 2000 or later.
+         *
+         * @param boundaries the first birth dates of every range but the first, in increasing order
+         * @return this builder with the birth date ranges set
+         * @throws NullPointerException     if any of the boundaries is null
+         * @throws IllegalArgumentException if the boundaries are not in strictly increasing order
+         */
+        public Builder birthDateBoundaries(LocalDate... boundaries) {
+            int[] dates = new int[boundaries.length];
+            for (int i = 0; i < boundaries.length; i++) {
+                LocalDate boundary = Objects.requireNonNull(boundaries[i], "Birth date boundary cannot be null");
+                dates[i] = boundary.getYear() * 10_000 + boundary.getMonthValue() * 100 + boundary.getDayOfMonth();
+                if (i > 0 && dates[i] <= dates[i - 1]) {
+                    throw new IllegalArgumentException("Birth date boundaries should be in strictly increasing order");
+                }
+            }
+            this.boundaries = dates;
+            return (this);
+        }
+
+        /**
+         * Builds a new {@code PeselPartitioner} object.
+         *
+         * @return the partitioner
+         * @throws IllegalArgumentException if the total number of partitions exceeds {@code Integer.MAX_VALUE}
+         */
+        public PeselPartitioner build() {
+            if ((long) partitions * (boundaries.length + 1) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Total number of partitions should not exceed " + Integer.MAX_VALUE);
+            }
+            return new PeselPartitioner(this);
+        }
+    }
+}
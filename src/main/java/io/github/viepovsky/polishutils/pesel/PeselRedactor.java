@@ -0,0 +1,479 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import io.github.viepovsky.polishutils.validation.WeightedChecksum;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * The {@code PeselRedactor} class finds PESEL numbers in arbitrary text, e.g. log messages, and masks them
+ * with a {@link PeselMask}. A PESEL is a run of exactly 11 digits, not preceded or followed by another digit,
+ * whose control digit is valid. Optionally the birth date is checked too, which masks fewer numbers that only
+ * look like PESEL numbers, e.g. timestamps, at the risk of leaving PESEL numbers with mistyped dates visible.
+ * <p>
+ * The text is scanned in a single pass without regular expressions, and byte and character arrays are redacted
+ * in place without creating any objects. Byte arrays are scanned as ASCII-compatible text, e.g. UTF-8.
+ * The {@link #redacting(OutputStream)} stream redacts text on its way to another stream, keeping PESEL numbers
+ * split between writes whole.
+ * <p>
+ * Redactors are immutable and thread-safe.
+ * <p>
+ * Example usage of the {@code PeselRedactor} class:
+ * <blockquote><pre>
+ *     PeselRedactor redactor = PeselRedactor.of(PeselMask.BIRTH_YEAR);
+ *     String line = redactor.redact("user 92082683499 logged in"); // returns "user 92********* logged in"
+ *
+ *     OutputStream log = redactor.redacting(Files.newOutputStream(path));
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PeselMask
+ */
+public final class PeselRedactor {
+
+    /**
+     * The size of the buffer of a redacting stream in bytes.
+     */
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The mask applied to the found PESEL numbers.
+     */
+    private final PeselMask mask;
+
+    /**
+     * Whether the birth date of the found PESEL numbers is checked.
+     */
+    private final boolean checkBirthDate;
+
+    /**
+     * Creates a new {@code PeselRedactor} object from the given builder.
+     *
+     * @param builder the builder with the mask and options set
+     */
+    private PeselRedactor(Builder builder) {
+        this.mask = builder.mask;
+        this.checkBirthDate = builder.checkBirthDate;
+    }
+
+    /**
+     * Returns a new instance of the Builder class, which can be used to set and build
+     * {@code PeselRedactor} object.
+     *
+     * @return a new instance of {@code PeselRedactor} Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the redactor masking the PESEL numbers with a valid control digit with the given mask.
+     *
+     * @param mask the mask
+     * @return the redactor
+     * @throws NullPointerException if the given mask is null
+     */
+    public static PeselRedactor of(PeselMask mask) {
+        return builder().mask(mask).build();
+    }
+
+    /**
+     * Masks all PESEL numbers found in the given text.
+     *
+     * @param text the text
+     * @return the text with the PESEL numbers masked, or the given text if it has none
+     * @throws NullPointerException if the given text is null
+     */
+    public String redact(String text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        int start = findNext(text, 0);
+        if (start < 0) {
+            return text;
+        }
+        char[] characters = text.toCharArray();
+        do {
+            mask.applyTo(characters, start);
+            start = findNext(text, start + 11);
+        } while (start >= 0);
+        return new String(characters);
+    }
+
+    /**
+     * Masks all PESEL numbers found in the given range of the character array in place. The range is treated as
+     * a whole text, so digits right outside of it are ignored.
+     *
+     * @param characters the character array
+     * @param offset     the index of the first character of the range
+     * @param length     the length of the range
+     * @return the number of masked PESEL numbers
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array
+     */
+    public int redact(char[] characters, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, characters.length);
+        int end = offset + length;
+        int count = 0;
+        for (int start = findNext(characters, offset, end); start >= 0; start = findNext(characters, start + 11, end)) {
+            mask.applyTo(characters, start);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Masks all PESEL numbers found in the given range of the byte array of ASCII-compatible text in place.
+     * The range is treated as a whole text, so digits right outside of it are ignored.
+     *
+     * @param bytes  the byte array
+     * @param offset the index of the first byte of the range
+     * @param length the length of the range
+     * @return the number of masked PESEL numbers
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array
+     */
+    public int redact(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        return redact(bytes, offset, offset + length, false);
+    }
+
+    /**
+     * Returns the stream masking all PESEL numbers in the ASCII-compatible text written to it before passing it
+     * to the given stream. The text is buffered, and up to 11 trailing digits are held back even when the stream
+     * is flushed, as they may be the beginning of a PESEL completed by the next write. They are written when
+     * the stream is closed.
+     *
+     * @param output the stream receiving the redacted text
+     * @return the redacting stream
+     * @throws NullPointerException if the given stream is null
+     */
+    public OutputStream redacting(OutputStream output) {
+        return new RedactingOutputStream(this, Objects.requireNonNull(output, "Output stream cannot be null"));
+    }
+
+    /**
+     * Masks all PESEL numbers found between the given indexes of the byte array.
+     *
+     * @param bytes           the byte array
+     * @param from            the index of the first byte
+     * @param to              the index after the last byte
+     * @param precededByDigit whether the byte before the first one is a digit
+     * @return the number of masked PESEL numbers
+     */
+    private int redact(byte[] bytes, int from, int to, boolean precededByDigit) {
+        int count = 0;
+        int i = from;
+        if (precededByDigit) {
+            while (i < to && isDigit(bytes[i])) {
+                i++;
+            }
+        }
+        while (i < to) {
+            if (!isDigit(bytes[i])) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int controlSum = 0;
+            long value = 0;
+            while (i < to && isDigit(bytes[i])) {
+                int position = i - start;
+                if (position < 11) {
+                    int digit = bytes[i] - '0';
+                    controlSum += WeightedChecksum.PESEL.getWeight(position) * digit;
+                    value = value * 10 + digit;
+                }
+                i++;
+            }
+            if (i - start == 11 && isPesel(value, controlSum)) {
+                mask.applyTo(bytes, start);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the next PESEL in the given text.
+     *
+     * @param text the text
+     * @param from the index to start at, which is not preceded by a digit of the same run
+     * @return the index of the first digit of the PESEL, or -1 if there are no more PESEL numbers
+     */
+    private int findNext(String text, int from) {
+        int length = text.length();
+        int i = from;
+        while (i < length) {
+            if (!isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int controlSum = 0;
+            long value = 0;
+            while (i < length && isDigit(text.charAt(i))) {
+                int position = i - start;
+                if (position < 11) {
+                    int digit = text.charAt(i) - '0';
+                    controlSum += WeightedChecksum.PESEL.getWeight(position) * digit;
+                    value = value * 10 + digit;
+                }
+                i++;
+            }
+            if (i - start == 11 && isPesel(value, controlSum)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the next PESEL between the given indexes of the character array.
+     *
+     * @param characters the character array
+     * @param from       the index to start at, which is not preceded by a digit of the same run
+     * @param to         the index after the last character
+     * @return the index of the first digit of the PESEL, or -1 if there are no more PESEL numbers
+     */
+    private int findNext(char[] characters, int from, int to) {
+        int i = from;
+        while (i < to) {
+            if (!isDigit(characters[i])) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int controlSum = 0;
+            long value = 0;
+            while (i < to && isDigit(characters[i])) {
+                int position = i - start;
+                if (position < 11) {
+                    int digit = characters[i] - '0';
+                    controlSum += WeightedChecksum.PESEL.getWeight(position) * digit;
+                    value = value * 10 + digit;
+                }
+                i++;
+            }
+            if (i - start == 11 && isPesel(value, controlSum)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if a run of 11 digits with the given numeric value and weighted sum forms a PESEL.
+     *
+     * @param value      the numeric value of the 11 digits
+     * @param controlSum the weighted sum of the digits, see {@link WeightedChecksum#getWeight(int)}
+     * @return true if the control digit and optionally the birth date are valid, false otherwise
+     */
+    private boolean isPesel(long value, int controlSum) {
+        return WeightedChecksum.PESEL.isControlDigitValid(value, controlSum)
+                && (!checkBirthDate || PackedPesel.isBirthDateValid(value));
+    }
+
+    /**
+     * Checks if the given character is an ASCII digit.
+     *
+     * @param c the character
+     * @return true if the character is a digit, false otherwise
+     */
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Builder class for creating instances of {@code PeselRedactor}.
+     * Allows for setting the mask and whether the birth date is checked.
+     */
+    public static final class Builder {
+        /**
+         * The mask applied to the found PESEL numbers.
+         */
+        private PeselMask mask = PeselMask.FULL;
+        /**
+         * Whether the birth date of the found PESEL numbers is checked.
+         */
+        private boolean checkBirthDate;
+
+        /**
+         * Sets the mask applied to the found PESEL numbers, {@code FULL} by default.
+         *
+         * @param mask the mask
+         * @return this builder with the mask set
+         * @throws NullPointerException if the given mask is null
+         */
+        public Builder mask(PeselMask mask) {
+            this.mask = Objects.requireNonNull(mask, "Mask cannot be null");
+            return (this);
+        }
+
+        /**
+         * Makes the redactor mask only the PESEL numbers with an existing birth date.
+         *
+         * @return this builder with the birth date check set
+         */
+        public Builder checkBirthDate() {
+            this.checkBirthDate = true;
+            return (this);
+        }
+
+        /**
+         * Builds a new {@code PeselRedactor} object.
+         *
+         * @return the redactor
+         */
+        public PeselRedactor build() {
+            return new PeselRedactor(this);
+        }
+    }
+
+    /**
+     * Stream redacting the text written to it in a buffer before passing it to another stream.
+     */
+    private static final class RedactingOutputStream extends OutputStream {
+
+        /**
+         * The redactor.
+         */
+        private final PeselRedactor redactor;
+
+        /**
+         * The stream receiving the redacted text.
+         */
+        private final OutputStream output;
+
+        /**
+         * The buffer of the text not yet redacted.
+         */
+        private final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+
+        /**
+         * The number of bytes in the buffer.
+         */
+        private int count;
+
+        /**
+         * Whether the last byte passed to the output stream is a digit.
+         */
+        private boolean precededByDigit;
+
+        /**
+         * Whether the stream is closed.
+         */
+        private boolean closed;
+
+        /**
+         * Creates a new {@code RedactingOutputStream} object.
+         *
+         * @param redactor the redactor
+         * @param output   the stream receiving the redacted text
+         */
+        RedactingOutputStream(PeselRedactor redactor, OutputStream output) {
+            this.redactor = redactor;
+            this.output = output;
+        }
+
+        /**
+         * Writes a single byte.
+         *
+         * @param b the byte
+         * @throws IOException if the output stream cannot be written or the stream is closed
+         */
+        @Override
+        public void write(int b) throws IOException {
+            ensureOpen();
+            if (count == buffer.length) {
+                drain();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        /**
+         * Writes the given range of the byte array.
+         *
+         * @param bytes  the byte array
+         * @param offset the index of the first byte
+         * @param length the number of bytes
+         * @throws IOException if the output stream cannot be written or the stream is closed
+         */
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            Objects.checkFromIndexSize(offset, length, bytes.length);
+            ensureOpen();
+            while (length > 0) {
+                if (count == buffer.length) {
+                    drain();
+                }
+                int chunk = Math.min(length, buffer.length - count);
+                System.arraycopy(bytes, offset, buffer, count, chunk);
+                count += chunk;
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        /**
+         * Writes the redacted text to the output stream and flushes it, holding back the trailing digits.
+         *
+         * @throws IOException if the output stream cannot be written or the stream is closed
+         */
+        @Override
+        public void flush() throws IOException {
+            ensureOpen();
+            drain();
+            output.flush();
+        }
+
+        /**
+         * Writes all remaining text redacted to the output stream and closes it.
+         *
+         * @throws IOException if the output stream cannot be written
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try (output) {
+                redactor.redact(buffer, 0, count, precededByDigit);
+                output.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+
+        /**
+         * Redacts and writes the buffered text to the output stream, except for up to 11 trailing digits,
+         * which are moved to the beginning of the buffer.
+         *
+         * @throws IOException if the output stream cannot be written
+         */
+        private void drain() throws IOException {
+            int tailStart = count;
+            while (tailStart > 0 && count - tailStart <= 11 && isDigit(buffer[tailStart - 1])) {
+                tailStart--;
+            }
+            if (count - tailStart > 11) {
+                tailStart = count;
+            }
+            redactor.redact(buffer, 0, tailStart, precededByDigit);
+            output.write(buffer, 0, tailStart);
+            if (tailStart > 0) {
+                precededByDigit = isDigit(buffer[tailStart - 1]);
+            }
+            System.arraycopy(buffer, tailStart, buffer, 0, count - tailStart);
+            count -= tailStart;
+        }
+
+        /**
+         * Checks that the stream is not closed.
+         *
+         * @throws IOException if the stream is closed
+         */
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+        }
+    }
+}
@@ -0,0 +1,970 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The {@code PeselSets} class computes the intersection, the union and the difference of sets of packed PESEL
+ * numbers sorted in ascending order, e.g. to reconcile PESEL lists of two systems.
+ * <p>
+ * The inputs are merged instead of hashed, so no hash set of all PESEL numbers is built. Arrays are split by value
+ * into ranges merged in parallel. Streams are merged lazily, so sets bigger than the heap can be processed from
+ * files of packed PESEL numbers, which are read with {@link #readPacked(Path)}, written with
+ * {@link #writePacked(LongStream, Path)} and sorted with {@link #sortExternally(LongStream, Path, int)}.
+ * <p>
+ * Every input is treated as a set, so repeated PESEL numbers are counted and returned once. The inputs must be sorted
+ * with {@link PeselSorter#sort(long[])} or an equivalent numerical sort, otherwise an {@link IllegalArgumentException}
+ * is thrown.
+ * <p>
+ * A file of packed PESEL numbers holds every packed PESEL as 8 bytes in little-endian order, without a header.
+ * <p>
+ * Example usage of the {@code PeselSets} class:
+ * <blockquote><pre>
+ *     long[] common = PeselSets.intersect(firstPackedPesels, secondPackedPesels);
+ *     PeselSets.Counts counts = PeselSets.count(firstPackedPesels, secondPackedPesels);
+ *
+ *     PeselSets.sortExternally(Files.lines(textFile).mapToLong(PackedPesel::pack), sortedFile, 1 &lt;&lt; 24);
+ *     try (LongStream missing = PeselSets.except(PeselSets.readPacked(sortedFile), PeselSets.readPacked(otherFile))) {
+ *         PeselSets.writePacked(missing, missingFile);
+ *     }
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PeselSorter
+ */
+public final class PeselSets {
+
+    /**
+     * The value of an exhausted cursor, greater than any packed PESEL.
+     */
+    private static final long END = Long.MAX_VALUE;
+
+    /**
+     * The minimum number of elements merged by a single task.
+     */
+    private static final int MIN_CHUNK_LENGTH = 1 << 16;
+
+    /**
+     * The size of the buffers used to read and write files of packed PESEL numbers.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The largest array length supported by the virtual machine.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private PeselSets() {
+    }
+
+    /**
+     * Returns the PESEL numbers present in both given sorted arrays.
+     *
+     * @param first  the first sorted packed PESEL numbers
+     * @param second the second sorted packed PESEL numbers
+     * @return the sorted intersection, without repeated PESEL numbers
+     * @throws IllegalArgumentException if any of the arrays is not sorted or contains a value that is not a packed PESEL
+     */
+    public static long[] intersect(long[] first, long[] second) {
+        return merge(first, second, Operation.INTERSECT);
+    }
+
+    /**
+     * Returns the PESEL numbers present in any of the given sorted arrays.
+     *
+     * @param first  the first sorted packed PESEL numbers
+     * @param second the second sorted packed PESEL numbers
+     * @return the sorted union, without repeated PESEL numbers
+     * @throws IllegalArgumentException if any of the arrays is not sorted or contains a value that is not a packed PESEL
+     */
+    public static long[] union(long[] first, long[] second) {
+        return merge(first, second, Operation.UNION);
+    }
+
+    /**
+     * Returns the PESEL numbers present in the first sorted array, but not in the second one.
+     *
+     * @param first  the first sorted packed PESEL numbers
+     * @param second the second sorted packed PESEL numbers
+     * @return the sorted difference, without repeated PESEL numbers
+     * @throws IllegalArgumentException if any of the arrays is not sorted or contains a value that is not a packed PESEL
+     */
+    public static long[] except(long[] first, long[] second) {
+        return merge(first, second, Operation.EXCEPT);
+    }
+
+    /**
+     * Counts the distinct PESEL numbers of the given sorted arrays and the PESEL numbers they have in common.
+     *
+     * @param first  the first sorted packed PESEL numbers
+     * @param second the second sorted packed PESEL numbers
+     * @return the counts
+     * @throws IllegalArgumentException if any of the arrays is not sorted or contains a value that is not a packed PESEL
+     */
+    public static Counts count(long[] first, long[] second) {
+        checkSorted(first);
+        checkSorted(second);
+        int[][] bounds = split(first, second);
+        long commonCount = IntStream.range(0, bounds[0].length - 1).parallel()
+                .mapToLong(chunk -> merge(first, bounds[0][chunk], bounds[0][chunk + 1],
+                        second, bounds[1][chunk], bounds[1][chunk + 1], Operation.INTERSECT, null, 0))
+                .sum();
+        return new Counts(countDistinct(first), countDistinct(second), commonCount);
+    }
+
+    /**
+     * Returns a lazy stream of the PESEL numbers present in both given sorted streams. Closing the returned stream
+     * closes the given streams.
+     *
+     * @param first  the first sorted packed PESEL numbers
+     * @param second the second sorted packed PESEL numbers
+     * @return the sorted intersection, without repeated PESEL numbers
+     */
+    public static LongStream intersect(LongStream first, LongStream second) {
+        return merge(first, second, Operation.INTERSECT);
+    }
+
+    /**
+     * Returns a lazy stream of the PESEL numbers present in any of the given sorted streams. Closing the returned
+     * stream closes the given streams.
+     *
+     * @param first  the first sorted packed PESEL numbers
+     * @param second the second sorted packed PESEL numbers
+     * @return the sorted union, without repeated PESEL numbers
+     */
+    public static LongStream union(LongStream first, LongStream second) {
+        return merge(first, second, Operation.UNION);
+    }
+
+    /**
+     * Returns a lazy stream of the PESEL numbers present in the first sorted stream, but not in the second one.
+     * Closing the returned stream closes the given streams.
+     *
+     * @param first  the first sorted packed PESEL numbers
+     * @param second the second sorted packed PESEL numbers
+     * @return the sorted difference, without repeated PESEL numbers
+     */
+    public static LongStream except(LongStream first, LongStream second) {
+        return merge(first, second, Operation.EXCEPT);
+    }
+
+    /**
+     * Counts the distinct PESEL numbers of the given sorted streams and the PESEL numbers they have in common,
+     * consuming both streams. The streams are not closed.
+     *
+     * @param first  the first sorted packed PESEL numbers
+     * @param second the second sorted packed PESEL numbers
+     * @return the counts
+     * @throws IllegalArgumentException if any of the streams is not sorted or contains a value that is not a packed PESEL
+     */
+    public static Counts count(LongStream first, LongStream second) {
+        SortedCursor firstCursor = new SortedCursor(first.iterator());
+        SortedCursor secondCursor = new SortedCursor(second.iterator());
+        firstCursor.advance();
+        secondCursor.advance();
+        long firstCount = 0;
+        long secondCount = 0;
+        long commonCount = 0;
+        while (firstCursor.current != END || secondCursor.current != END) {
+            long firstValue = firstCursor.current;
+            long secondValue = secondCursor.current;
+            if (firstValue <= secondValue) {
+                firstCount++;
+                firstCursor.advance();
+            }
+            if (secondValue <= firstValue) {
+                secondCount++;
+                secondCursor.advance();
+            }
+            if (firstValue == secondValue) {
+                commonCount++;
+            }
+        }
+        return new Counts(firstCount, secondCount, commonCount);
+    }
+
+    /**
+     * Returns a lazy stream of the packed PESEL numbers of the given file. The returned stream must be closed to
+     * close the file, and throws {@link UncheckedIOException} if the file cannot be read.
+     *
+     * @param path the path of the file of packed PESEL numbers
+     * @return the stream of packed PESEL numbers
+     * @throws IOException if the file cannot be opened or its size is not a multiple of 8 bytes
+     */
+    public static LongStream readPacked(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size % Long.BYTES != 0) {
+                throw new IOException("File " + path + " is not a file of packed PESEL numbers");
+            }
+            Spliterator.OfLong spliterator = Spliterators.spliterator(
+                    new FileIterator(channel), size / Long.BYTES, Spliterator.ORDERED | Spliterator.NONNULL);
+            return StreamSupport.longStream(spliterator, false).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the given packed PESEL numbers to the given file, replacing its content. The stream is not closed.
+     *
+     * @param packedPesels the packed PESEL numbers
+     * @param path         the path of the file
+     * @return the number of written PESEL numbers
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if any of the values is not a packed PESEL
+     */
+    public static long writePacked(LongStream packedPesels, Path path) throws IOException {
+        Objects.requireNonNull(packedPesels, "PESEL stream cannot be null");
+        return writePacked(packedPesels.iterator(), path);
+    }
+
+    /**
+     * Sorts the given packed PESEL numbers into the given file, keeping at most the given number of them in memory.
+     * Every run of PESEL numbers is sorted with {@link PeselSorter} and written to a temporary file in the directory
+     * of the output file, and then all runs are merged into the output file. Repeated PESEL numbers are kept.
+     *
+     * @param packedPesels the packed PESEL numbers, which are consumed but not closed
+     * @param output       the path of the sorted file of packed PESEL numbers
+     * @param runLength    the number of PESEL numbers sorted in memory at once, e.g. {@code 1 << 24} for 128 MB
+     * @throws IOException              if any of the files cannot be written or read
+     * @throws IllegalArgumentException if the run length is not positive or any of the values is not a packed PESEL
+     */
+    public static void sortExternally(LongStream packedPesels, Path output, int runLength) throws IOException {
+        Objects.requireNonNull(packedPesels, "PESEL stream cannot be null");
+        if (runLength < 1) {
+            throw new IllegalArgumentException("Run length should be positive, but was " + runLength);
+        }
+        Path directory = output.toAbsolutePath().getParent();
+        List<Path> runs = new ArrayList<>();
+        List<FileChannel> runChannels = new ArrayList<>();
+        try {
+            long[] run = new long[runLength];
+            int length = 0;
+            PrimitiveIterator.OfLong iterator = packedPesels.iterator();
+            while (iterator.hasNext()) {
+                run[length++] = iterator.nextLong();
+                if (length == runLength || !iterator.hasNext()) {
+                    long[] sorted = length == runLength ? run : Arrays.copyOf(run, length);
+                    PeselSorter.sort(sorted);
+                    if (runs.isEmpty() && !iterator.hasNext()) {
+                        writePacked(Arrays.stream(sorted).iterator(), output);
+                        return;
+                    }
+                    Path runPath = Files.createTempFile(directory, "pesel-run-", ".bin");
+                    runs.add(runPath);
+                    writePacked(Arrays.stream(sorted).iterator(), runPath);
+                    length = 0;
+                }
+            }
+            if (runs.isEmpty()) {
+                writePacked(LongStream.empty().iterator(), output);
+                return;
+            }
+
+            for (Path runPath : runs) {
+                runChannels.add(FileChannel.open(runPath, StandardOpenOption.READ));
+            }
+            writePacked(new RunMerger(runChannels), output);
+        } finally {
+            for (FileChannel channel : runChannels) {
+                channel.close();
+            }
+            for (Path runPath : runs) {
+                Files.deleteIfExists(runPath);
+            }
+        }
+    }
+
+    /**
+     * Merges the given sorted arrays with the given operation, splitting them into ranges merged in parallel.
+     * Every range is merged twice, first to count its result and then to write it at its offset.
+     *
+     * @param first     the first sorted packed PESEL numbers
+     * @param second    the second sorted packed PESEL numbers
+     * @param operation the set operation
+     * @return the sorted result
+     */
+    private static long[] merge(long[] first, long[] second, Operation operation) {
+        checkSorted(first);
+        checkSorted(second);
+        int[][] bounds = split(first, second);
+        int chunks = bounds[0].length - 1;
+        long[] offsets = new long[chunks + 1];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> offsets[chunk + 1] = merge(first, bounds[0][chunk],
+                bounds[0][chunk + 1], second, bounds[1][chunk], bounds[1][chunk + 1], operation, null, 0));
+        Arrays.parallelPrefix(offsets, Long::sum);
+        if (offsets[chunks] > MAX_ARRAY_LENGTH) {
+            throw new IllegalArgumentException("The result has " + offsets[chunks] + " PESEL numbers, which is too many for an array");
+        }
+        long[] result = new long[(int) offsets[chunks]];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> merge(first, bounds[0][chunk], bounds[0][chunk + 1],
+                second, bounds[1][chunk], bounds[1][chunk + 1], operation, result, (int) offsets[chunk]));
+        return result;
+    }
+
+    /**
+     * Merges the given ranges of sorted arrays with the given operation, skipping repeated PESEL numbers.
+     *
+     * @param first       the first sorted packed PESEL numbers
+     * @param firstFrom   the start of the range of the first array, inclusive
+     * @param firstTo     the end of the range of the first array, exclusive
+     * @param second      the second sorted packed PESEL numbers
+     * @param secondFrom  the start of the range of the second array, inclusive
+     * @param secondTo    the end of the range of the second array, exclusive
+     * @param operation   the set operation
+     * @param output      the array the result is written to, or null to only count the result
+     * @param outputFrom  the index of the output array the result is written from
+     * @return the number of PESEL numbers of the result
+     */
+    private static int merge(long[] first, int firstFrom, int firstTo, long[] second, int secondFrom, int secondTo,
+                             Operation operation, long[] output, int outputFrom) {
+        int i = firstFrom;
+        int j = secondFrom;
+        int count = 0;
+        while (i < firstTo && j < secondTo) {
+            long firstValue = first[i];
+            long secondValue = second[j];
+            if (firstValue < secondValue) {
+                if (operation != Operation.INTERSECT) {
+                    count = emit(output, outputFrom, count, firstValue);
+                }
+                i = skip(first, i, firstTo);
+            } else if (firstValue > secondValue) {
+                if (operation == Operation.UNION) {
+                    count = emit(output, outputFrom, count, secondValue);
+                }
+                j = skip(second, j, secondTo);
+            } else {
+                if (operation != Operation.EXCEPT) {
+                    count = emit(output, outputFrom, count, firstValue);
+                }
+                i = skip(first, i, firstTo);
+                j = skip(second, j, secondTo);
+            }
+        }
+        if (operation != Operation.INTERSECT) {
+            for (; i < firstTo; i = skip(first, i, firstTo)) {
+                count = emit(output, outputFrom, count, first[i]);
+            }
+        }
+        if (operation == Operation.UNION) {
+            for (; j < secondTo; j = skip(second, j, secondTo)) {
+                count = emit(output, outputFrom, count, second[j]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the given value to the output array, if it is given.
+     *
+     * @param output     the output array, or null
+     * @param outputFrom the index of the output array the result is written from
+     * @param count      the number of PESEL numbers of the result so far
+     * @param value      the value
+     * @return the number of PESEL numbers of the result including the value
+     */
+    private static int emit(long[] output, int outputFrom, int count, long value) {
+        if (output != null) {
+            output[outputFrom + count] = value;
+        }
+        return count + 1;
+    }
+
+    /**
+     * Returns the index of the first value after the given index that is different from the value at the given index.
+     *
+     * @param values the sorted values
+     * @param index  the index
+     * @param to     the end of the range, exclusive
+     * @return the index of the next different value, or the end of the range
+     */
+    private static int skip(long[] values, int index, int to) {
+        long value = values[index];
+        do {
+            index++;
+        } while (index < to && values[index] == value);
+        return index;
+    }
+
+    /**
+     * Splits the given sorted arrays into ranges that can be merged independently. The ranges are split before
+     * the same values in both arrays, so a PESEL number never belongs to two ranges.
+     *
+     * @param first  the first sorted packed PESEL numbers
+     * @param second the second sorted packed PESEL numbers
+     * @return the range bounds of the first array and the range bounds of the second array
+     */
+    private static int[][] split(long[] first, long[] second) {
+        long[] larger = first.length >= second.length ? first : second;
+        int chunks = (int) Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(),
+                ((long) first.length + second.length) / MIN_CHUNK_LENGTH));
+        int[][] bounds = new int[2][chunks + 1];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            long pivot = larger[(int) ((long) larger.length * chunk / chunks)];
+            bounds[0][chunk] = lowerBound(first, pivot);
+            bounds[1][chunk] = lowerBound(second, pivot);
+        }
+        bounds[0][chunks] = first.length;
+        bounds[1][chunks] = second.length;
+        return bounds;
+    }
+
+    /**
+     * Returns the index of the first value not less than the given one.
+     *
+     * @param values the sorted values
+     * @param value  the value
+     * @return the index of the first value not less than the given one, or the array length
+     */
+    private static int lowerBound(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Counts the distinct values of the given sorted array.
+     *
+     * @param values the sorted values
+     * @return the number of distinct values
+     */
+    private static long countDistinct(long[] values) {
+        return IntStream.range(0, values.length).parallel().filter(i -> i == 0 || values[i] != values[i - 1]).count();
+    }
+
+    /**
+     * Checks if the given array is sorted and contains only packed PESEL numbers.
+     *
+     * @param packedPesels the packed PESEL numbers
+     * @throws IllegalArgumentException if the array is not sorted or contains a value that is not a packed PESEL
+     */
+    private static void checkSorted(long[] packedPesels) {
+        Objects.requireNonNull(packedPesels, "PESEL array cannot be null");
+        IntStream.range(1, packedPesels.length).parallel()
+                .filter(i -> packedPesels[i - 1] > packedPesels[i])
+                .findAny()
+                .ifPresent(i -> {
+                    throw new IllegalArgumentException("PESEL numbers should be sorted in ascending order, but are not at index " + i);
+                });
+        if (packedPesels.length > 0) {
+            PackedPesel.assertIsPacked(packedPesels[0]);
+            PackedPesel.assertIsPacked(packedPesels[packedPesels.length - 1]);
+        }
+    }
+
+    /**
+     * Merges the given sorted streams with the given operation.
+     *
+     * @param first     the first sorted packed PESEL numbers
+     * @param second    the second sorted packed PESEL numbers
+     * @param operation the set operation
+     * @return the lazy stream of the result, closing the given streams when closed
+     */
+    private static LongStream merge(LongStream first, LongStream second, Operation operation) {
+        Objects.requireNonNull(first, "PESEL stream cannot be null");
+        Objects.requireNonNull(second, "PESEL stream cannot be null");
+        MergingSpliterator spliterator = new MergingSpliterator(
+                new SortedCursor(first.iterator()), new SortedCursor(second.iterator()), operation);
+        return StreamSupport.longStream(spliterator, false).onClose(first::close).onClose(second::close);
+    }
+
+    /**
+     * Writes the packed PESEL numbers of the given iterator to the given file, replacing its content.
+     *
+     * @param iterator the iterator of the packed PESEL numbers
+     * @param path     the path of the file
+     * @return the number of written PESEL numbers
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if any of the values is not a packed PESEL
+     */
+    private static long writePacked(PrimitiveIterator.OfLong iterator, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            long count = 0;
+            for (; iterator.hasNext(); count++) {
+                long packed = iterator.nextLong();
+                PackedPesel.assertIsPacked(packed);
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer);
+                }
+                buffer.putLong(packed);
+            }
+            writeFully(channel, buffer);
+            return count;
+        }
+    }
+
+    /**
+     * Writes the content of the given buffer to the given channel and clears the buffer.
+     *
+     * @param channel the channel
+     * @param buffer  the buffer
+     * @throws IOException if the channel cannot be written
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * The counts of the PESEL numbers of two sets.
+     */
+    public static final class Counts {
+
+        /**
+         * The number of distinct PESEL numbers of the first set.
+         */
+        private final long firstCount;
+
+        /**
+         * The number of distinct PESEL numbers of the second set.
+         */
+        private final long secondCount;
+
+        /**
+         * The number of PESEL numbers present in both sets.
+         */
+        private final long commonCount;
+
+        /**
+         * Constructs a new {@code Counts} object.
+         *
+         * @param firstCount  the number of distinct PESEL numbers of the first set
+         * @param secondCount the number of distinct PESEL numbers of the second set
+         * @param commonCount the number of PESEL numbers present in both sets
+         */
+        private Counts(long firstCount, long secondCount, long commonCount) {
+            this.firstCount = firstCount;
+            this.secondCount = secondCount;
+            this.commonCount = commonCount;
+        }
+
+        /**
+         * Returns the number of distinct PESEL numbers of the first set.
+         *
+         * @return the size of the first set
+         */
+        public long getFirstCount() {
+            return firstCount;
+        }
+
+        /**
+         * Returns the number of distinct PESEL numbers of the second set.
+         *
+         * @return the size of the second set
+         */
+        public long getSecondCount() {
+            return secondCount;
+        }
+
+        /**
+         * Returns the number of PESEL numbers present in both sets.
+         *
+         * @return the size of the intersection
+         */
+        public long getCommonCount() {
+            return commonCount;
+        }
+
+        /**
+         * Returns the number of PESEL numbers present in any of the sets.
+         *
+         * @return the size of the union
+         */
+        public long getUnionCount() {
+            return firstCount + secondCount - commonCount;
+        }
+
+        /**
+         * Returns the number of PESEL numbers present in the first set, but not in the second one.
+         *
+         * @return the size of the difference of the first and the second set
+         */
+        public long getFirstOnlyCount() {
+            return firstCount - commonCount;
+        }
+
+        /**
+         * Returns the number of PESEL numbers present in the second set, but not in the first one.
+         *
+         * @return the size of the difference of the second and the first set
+         */
+        public long getSecondOnlyCount() {
+            return secondCount - commonCount;
+        }
+
+        /**
+         * Returns the counts as a String, e.g. for logging.
+         *
+         * @return the counts as a String
+         */
+        @Override
+        public String toString() {
+            return "Counts{first=" + firstCount + ", second=" + secondCount + ", common=" + commonCount + "}";
+        }
+    }
+
+    /**
+     * The set operations.
+     */
+    private enum Operation {
+        INTERSECT,
+        UNION,
+        EXCEPT
+    }
+
+    /**
+     * The cursor over the distinct values of a sorted stream, checking that the values are sorted packed PESEL numbers.
+     */
+    private static final class SortedCursor {
+
+        /**
+         * The iterator of the stream.
+         */
+        private final PrimitiveIterator.OfLong iterator;
+
+        /**
+         * The current value, -1 before the first value, or {@link #END} after the last value.
+         */
+        private long current = -1;
+
+        /**
+         * Constructs a new {@code SortedCursor} object.
+         *
+         * @param iterator the iterator of the stream
+         */
+        private SortedCursor(PrimitiveIterator.OfLong iterator) {
+            this.iterator = iterator;
+        }
+
+        /**
+         * Moves the cursor to the next distinct value.
+         *
+         * @throws IllegalArgumentException if the next value is not a packed PESEL or is less than the current value
+         */
+        private void advance() {
+            long previous = current;
+            while (iterator.hasNext()) {
+                long value = iterator.nextLong();
+                if (value != previous) {
+                    PackedPesel.assertIsPacked(value);
+                    if (value < previous) {
+                        throw new IllegalArgumentException("PESEL numbers should be sorted in ascending order, but "
+                                + value + " follows " + previous);
+                    }
+                    current = value;
+                    return;
+                }
+            }
+            current = END;
+        }
+    }
+
+    /**
+     * The spliterator merging two sorted streams with a set operation.
+     */
+    private static final class MergingSpliterator extends Spliterators.AbstractLongSpliterator {
+
+        /**
+         * The cursor of the first stream.
+         */
+        private final SortedCursor first;
+
+        /**
+         * The cursor of the second stream.
+         */
+        private final SortedCursor second;
+
+        /**
+         * The set operation.
+         */
+        private final Operation operation;
+
+        /**
+         * Whether the cursors were moved to their first values.
+         */
+        private boolean started;
+
+        /**
+         * Constructs a new {@code MergingSpliterator} object.
+         *
+         * @param first     the cursor of the first stream
+         * @param second    the cursor of the second stream
+         * @param operation the set operation
+         */
+        private MergingSpliterator(SortedCursor first, SortedCursor second, Operation operation) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+            this.first = first;
+            this.second = second;
+            this.operation = operation;
+        }
+
+        /**
+         * Passes the next value of the result to the given action.
+         *
+         * @param action the action
+         * @return false if there are no more values, true otherwise
+         */
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (!started) {
+                first.advance();
+                second.advance();
+                started = true;
+            }
+            while (true) {
+                long firstValue = first.current;
+                long secondValue = second.current;
+                if (firstValue == END && (secondValue == END || operation != Operation.UNION)
+                        || secondValue == END && operation == Operation.INTERSECT) {
+                    return false;
+                }
+                if (firstValue < secondValue) {
+                    first.advance();
+                    if (operation != Operation.INTERSECT) {
+                        action.accept(firstValue);
+                        return true;
+                    }
+                } else if (firstValue > secondValue) {
+                    second.advance();
+                    if (operation == Operation.UNION) {
+                        action.accept(secondValue);
+                        return true;
+                    }
+                } else {
+                    first.advance();
+                    second.advance();
+                    if (operation != Operation.EXCEPT) {
+                        action.accept(firstValue);
+                        return true;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns null, as the values are sorted in natural order.
+         *
+         * @return null
+         */
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+    }
+
+    /**
+     * The iterator merging sorted runs of an external sort, keeping the runs in a binary heap ordered by their
+     * current values, so every value costs a single sift of the heap.
+     */
+    private static final class RunMerger implements PrimitiveIterator.OfLong {
+
+        /**
+         * The iterators of the runs that are not exhausted, in heap order.
+         */
+        private final FileIterator[] iterators;
+
+        /**
+         * The current values of the runs, in heap order.
+         */
+        private final long[] heads;
+
+        /**
+         * The number of runs that are not exhausted.
+         */
+        private int size;
+
+        /**
+         * Constructs a new {@code RunMerger} object.
+         *
+         * @param channels the channels of the run files
+         */
+        private RunMerger(List<FileChannel> channels) {
+            iterators = new FileIterator[channels.size()];
+            heads = new long[channels.size()];
+            for (FileChannel channel : channels) {
+                FileIterator iterator = new FileIterator(channel);
+                if (iterator.hasNext()) {
+                    iterators[size] = iterator;
+                    heads[size] = iterator.nextLong();
+                    size++;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        /**
+         * Checks if any of the runs is not exhausted.
+         *
+         * @return true if there are more values, false otherwise
+         */
+        @Override
+        public boolean hasNext() {
+            return size > 0;
+        }
+
+        /**
+         * Returns the least current value of the runs and moves its run to the next value.
+         *
+         * @return the next packed PESEL
+         * @throws NoSuchElementException if all runs are exhausted
+         */
+        @Override
+        public long nextLong() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            long value = heads[0];
+            if (iterators[0].hasNext()) {
+                heads[0] = iterators[0].nextLong();
+            } else {
+                size--;
+                iterators[0] = iterators[size];
+                heads[0] = heads[size];
+            }
+            siftDown(0);
+            return value;
+        }
+
+        /**
+         * Moves the run at the given heap index down until its current value is not greater than its children's values.
+         *
+         * @param index the heap index
+         */
+        private void siftDown(int index) {
+            FileIterator iterator = iterators[index];
+            long head = heads[index];
+            int child;
+            while ((child = 2 * index + 1) < size) {
+                if (child + 1 < size && heads[child + 1] < heads[child]) {
+                    child++;
+                }
+                if (head <= heads[child]) {
+                    break;
+                }
+                iterators[index] = iterators[child];
+                heads[index] = heads[child];
+                index = child;
+            }
+            iterators[index] = iterator;
+            heads[index] = head;
+        }
+    }
+
+    /**
+     * The iterator of the packed PESEL numbers of a file, reading it in buffers.
+     */
+    private static final class FileIterator implements PrimitiveIterator.OfLong {
+
+        /**
+         * The channel of the file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The buffer of the read bytes.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN).limit(0);
+
+        /**
+         * Whether the end of the file was reached.
+         */
+        private boolean endOfFile;
+
+        /**
+         * Constructs a new {@code FileIterator} object.
+         *
+         * @param channel the channel of the file
+         */
+        private FileIterator(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Checks if there are more values, reading the next buffer if the current one is exhausted.
+         *
+         * @return true if there are more values, false otherwise
+         * @throws UncheckedIOException if the file cannot be read
+         */
+        @Override
+        public boolean hasNext() {
+            if (buffer.remaining() >= Long.BYTES) {
+                return true;
+            }
+            if (endOfFile) {
+                return false;
+            }
+            try {
+                buffer.compact();
+                while (buffer.position() < Long.BYTES || buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        endOfFile = true;
+                        break;
+                    }
+                }
+                buffer.flip();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.remaining() >= Long.BYTES;
+        }
+
+        /**
+         * Returns the next value.
+         *
+         * @return the next packed PESEL
+         * @throws NoSuchElementException if there are no more values
+         */
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.getLong();
+        }
+    }
+}
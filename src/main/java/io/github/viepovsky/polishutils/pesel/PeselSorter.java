@@ -0,0 +1,251 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code PeselSorter} class sorts large arrays of PESEL numbers, either numerically or by the date of birth.
+ * <p>
+ * PESEL numbers are sorted with a parallel least significant digit radix sort of their packed form, which takes
+ * four passes of 10 bits over the data regardless of its size, and compares no dates. Sorting by the date of birth
+ * puts the century of birth, decoded from the month digits, before the digits of the PESEL, so it costs no more
+ * than sorting numerically. Passes where all numbers have the same digit are skipped. Small arrays are sorted with a
+ * comparison sort instead.
+ * <p>
+ * The sort is stable and the orders are the same as {@link Pesel#compareTo(Pesel)} and {@link Pesel#BY_BIRTH_DATE}.
+ * <p>
+ * Example usage of the {@code PeselSorter} class:
+ * <blockquote><pre>
+ *     long[] packedPesels = ...;
+ *     PeselSorter.sortByBirthDate(packedPesels);
+ *     Pesel[] pesels = ...;
+ *     PeselSorter.sort(pesels);
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PackedPesel
+ */
+public final class PeselSorter {
+
+    /**
+     * The number of bits sorted in a single pass.
+     */
+    private static final int RADIX_BITS = 10;
+
+    /**
+     * The number of buckets of a single pass.
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * The number of passes, covering the 39 bits of the birth date order keys.
+     */
+    private static final int PASSES = 4;
+
+    /**
+     * The array length below which a comparison sort is used.
+     */
+    private static final int RADIX_THRESHOLD = 1 << 13;
+
+    /**
+     * The minimum number of elements processed by a single task.
+     */
+    private static final int MIN_CHUNK_LENGTH = 1 << 16;
+
+    private PeselSorter() {
+    }
+
+    /**
+     * Sorts the given packed PESEL numbers in ascending numerical order.
+     *
+     * @param packedPesels the packed PESEL numbers
+     * @throws IllegalArgumentException if any of the values is not a packed PESEL
+     * @throws NullPointerException     if the given array is null
+     */
+    public static void sort(long[] packedPesels) {
+        Objects.requireNonNull(packedPesels, "PESEL array cannot be null");
+        forEachIndex(packedPesels.length, i -> PackedPesel.assertIsPacked(packedPesels[i]));
+        if (packedPesels.length < RADIX_THRESHOLD) {
+            Arrays.sort(packedPesels);
+            return;
+        }
+        radixSort(packedPesels, null);
+    }
+
+    /**
+     * Sorts the given packed PESEL numbers by the date of birth, and then numerically. All values are checked
+     * before the array is modified, so it is left unchanged if any of them is not a packed PESEL.
+     *
+     * @param packedPesels the packed PESEL numbers
+     * @throws IllegalArgumentException if any of the values is not a packed PESEL
+     * @throws NullPointerException     if the given array is null
+     */
+    public static void sortByBirthDate(long[] packedPesels) {
+        Objects.requireNonNull(packedPesels, "PESEL array cannot be null");
+        forEachIndex(packedPesels.length, i -> PackedPesel.assertIsPacked(packedPesels[i]));
+        forEachIndex(packedPesels.length, i -> packedPesels[i] = PeselCalendar.birthDateOrderKey(packedPesels[i]));
+        if (packedPesels.length < RADIX_THRESHOLD) {
+            Arrays.sort(packedPesels);
+        } else {
+            radixSort(packedPesels, null);
+        }
+        forEachIndex(packedPesels.length, i -> packedPesels[i] = PeselCalendar.packedOfBirthDateOrderKey(packedPesels[i]));
+    }
+
+    /**
+     * Sorts the given PESEL numbers in ascending numerical order.
+     *
+     * @param pesels the PESEL numbers
+     * @throws NullPointerException if the given array or any of its elements is null
+     */
+    public static void sort(Pesel[] pesels) {
+        Objects.requireNonNull(pesels, "PESEL array cannot be null");
+        if (pesels.length < RADIX_THRESHOLD) {
+            Arrays.sort(pesels);
+            return;
+        }
+        long[] keys = new long[pesels.length];
+        forEachIndex(pesels.length, i -> keys[i] = Objects.requireNonNull(pesels[i], "PESEL cannot be null").toPacked());
+        sort(pesels, keys);
+    }
+
+    /**
+     * Sorts the given PESEL numbers by the date of birth, and then numerically.
+     *
+     * @param pesels the PESEL numbers
+     * @throws NullPointerException if the given array or any of its elements is null
+     */
+    public static void sortByBirthDate(Pesel[] pesels) {
+        Objects.requireNonNull(pesels, "PESEL array cannot be null");
+        if (pesels.length < RADIX_THRESHOLD) {
+            Arrays.sort(pesels, Pesel.BY_BIRTH_DATE);
+            return;
+        }
+        long[] keys = new long[pesels.length];
+        forEachIndex(pesels.length, i -> keys[i] = PeselCalendar.birthDateOrderKey(
+                Objects.requireNonNull(pesels[i], "PESEL cannot be null").toPacked()));
+        sort(pesels, keys);
+    }
+
+    /**
+     * Sorts the given PESEL numbers by their keys, moving the indices of the PESEL numbers along with the keys.
+     *
+     * @param pesels the PESEL numbers
+     * @param keys   the keys of the PESEL numbers, in the same order
+     */
+    private static void sort(Pesel[] pesels, long[] keys) {
+        int[] indices = new int[pesels.length];
+        Arrays.setAll(indices, i -> i);
+        radixSort(keys, indices);
+        Pesel[] copy = pesels.clone();
+        forEachIndex(pesels.length, i -> pesels[i] = copy[indices[i]]);
+    }
+
+    /**
+     * Sorts the given non-negative keys of at most {@code RADIX_BITS * PASSES} bits in place, moving the payload
+     * along with the keys if it is given. Every pass counts the digits of each chunk in parallel, computes where
+     * every chunk writes every digit, and then scatters the chunks in parallel.
+     *
+     * @param keys    the keys
+     * @param payload the values moved along with the keys, or null
+     */
+    private static void radixSort(long[] keys, int[] payload) {
+        int length = keys.length;
+        int chunks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), length / MIN_CHUNK_LENGTH));
+        int[][] offsets = new int[chunks][RADIX];
+        long[] source = keys;
+        long[] target = new long[length];
+        int[] sourcePayload = payload;
+        int[] targetPayload = payload == null ? null : new int[length];
+
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            long[] passSource = source;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int[] counts = offsets[chunk];
+                Arrays.fill(counts, 0);
+                for (int i = chunkStart(chunk, chunks, length), end = chunkStart(chunk + 1, chunks, length); i < end; i++) {
+                    counts[(int) (passSource[i] >>> shift) & (RADIX - 1)]++;
+                }
+            });
+            if (!computeOffsets(offsets, length)) {
+                continue;
+            }
+
+            long[] passTarget = target;
+            int[] passSourcePayload = sourcePayload;
+            int[] passTargetPayload = targetPayload;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int[] chunkOffsets = offsets[chunk];
+                for (int i = chunkStart(chunk, chunks, length), end = chunkStart(chunk + 1, chunks, length); i < end; i++) {
+                    long key = passSource[i];
+                    int position = chunkOffsets[(int) (key >>> shift) & (RADIX - 1)]++;
+                    passTarget[position] = key;
+                    if (passTargetPayload != null) {
+                        passTargetPayload[position] = passSourcePayload[i];
+                    }
+                }
+            });
+            target = source;
+            source = passTarget;
+            targetPayload = sourcePayload;
+            sourcePayload = passTargetPayload;
+        }
+
+        if (source != keys) {
+            System.arraycopy(source, 0, keys, 0, length);
+            if (payload != null) {
+                System.arraycopy(sourcePayload, 0, payload, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Replaces the digit counts of every chunk with the positions the chunk writes its first key with every digit to.
+     *
+     * @param offsets the digit counts of every chunk
+     * @param length  the number of keys
+     * @return false if all keys have the same digit and the pass can be skipped, true otherwise
+     */
+    private static boolean computeOffsets(int[][] offsets, int length) {
+        int position = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            int digitStart = position;
+            for (int[] chunkOffsets : offsets) {
+                int count = chunkOffsets[digit];
+                chunkOffsets[digit] = position;
+                position += count;
+            }
+            if (digitStart == 0 && position == length) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first element of the given chunk.
+     *
+     * @param chunk  the chunk
+     * @param chunks the number of chunks
+     * @param length the number of elements
+     * @return the index of the first element of the chunk
+     */
+    private static int chunkStart(int chunk, int chunks, int length) {
+        return (int) ((long) length * chunk / chunks);
+    }
+
+    /**
+     * Calls the given action for every index of an array of the given length, in parallel if the array is large.
+     *
+     * @param length the length of the array
+     * @param action the action
+     */
+    private static void forEachIndex(int length, IntConsumer action) {
+        IntStream indices = IntStream.range(0, length);
+        (length < RADIX_THRESHOLD ? indices : indices.parallel()).forEach(action);
+    }
+}
@@ -0,0 +1,425 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.util.Objects;
+
+/**
+ * The {@code PeselTokenizer} class replaces PESEL numbers with format-preserving tokens and restores them with
+ * the same key. Every token is a valid PESEL, so it passes {@link PeselValidator#isPeselValid(String)} and fits
+ * every column and check built for real PESEL numbers, while equal PESEL numbers get equal tokens and can still
+ * be joined and counted.
+ * <p>
+ * A PESEL is turned into its index among all valid PESEL numbers, built from the date of birth, the serial number
+ * and the gender digit, and the index is encrypted with a keyed permutation of the same range, so the token is
+ * again a valid PESEL with a correct control digit. Optionally the tokens keep the year of birth, the gender,
+ * or both, by permuting only the PESEL numbers born in the same year or of the same gender.
+ * <p>
+ * The permutation is a 10-round binary Feistel network with cycle-walking over the range of indexes, in the style
+ * of FF1, with SipHash-2-4 under the 128-bit key as the round function. It is <b>not</b> the NIST FF1 or FF3-1 mode
+ * and has no certification, use a certified FF1 implementation where one is required. The tokens are only as
+ * secret as the key: with fewer than 2 billion valid PESEL numbers, anyone holding the key can reverse every token.
+ * <p>
+ * Tokenizers are immutable and thread-safe, and tokenizing a packed PESEL creates no objects.
+ * <p>
+ * Example usage of the {@code PeselTokenizer} class:
+ * <blockquote><pre>
+ *     PeselTokenizer tokenizer = PeselTokenizer.builder()
+ *              .key(key) // 16 secret bytes
+ *              .preserveBirthYear()
+ *              .preserveGender()
+ *              .build();
+ *     String token = tokenizer.tokenize("92082683499"); // returns a valid PESEL of a male born in 1992
+ *     String pesel = tokenizer.detokenize(token); // returns "92082683499"
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see PackedPesel
+ */
+public final class PeselTokenizer {
+
+    /**
+     * The length of the key in bytes.
+     */
+    public static final int KEY_LENGTH = 16;
+
+    /**
+     * The number of rounds of the Feistel network.
+     */
+    private static final int ROUNDS = 10;
+
+    /**
+     * The earliest date of birth that can be encoded in PESEL, as an epoch day.
+     */
+    private static final long MIN_EPOCH_DAY = PeselCalendar.epochDayOf(1800, 1, 1);
+
+    /**
+     * The number of days of birth that can be encoded in PESEL.
+     */
+    private static final int TOTAL_DAYS = (int) (PeselCalendar.epochDayOf(2300, 1, 1) - MIN_EPOCH_DAY);
+
+    /**
+     * The initial SipHash state word {@code v0}, derived from the key.
+     */
+    private final long v0;
+
+    /**
+     * The initial SipHash state word {@code v1}, derived from the key.
+     */
+    private final long v1;
+
+    /**
+     * The initial SipHash state word {@code v2}, derived from the key.
+     */
+    private final long v2;
+
+    /**
+     * The initial SipHash state word {@code v3}, derived from the key.
+     */
+    private final long v3;
+
+    /**
+     * Whether the tokens keep the year of birth.
+     */
+    private final boolean preserveBirthYear;
+
+    /**
+     * Whether the tokens keep the gender.
+     */
+    private final boolean preserveGender;
+
+    /**
+     * Creates a new {@code PeselTokenizer} object from the given builder.
+     *
+     * @param builder the builder with the key and options set
+     */
+    private PeselTokenizer(Builder builder) {
+        long k0 = readLong(builder.key, 0);
+        long k1 = readLong(builder.key, 8);
+        this.v0 = k0 ^ 0x736F_6D65_7073_6575L;
+        this.v1 = k1 ^ 0x646F_7261_6E64_6F6DL;
+        this.v2 = k0 ^ 0x6C79_6765_6E65_7261L;
+        this.v3 = k1 ^ 0x7465_6462_7974_6573L;
+        this.preserveBirthYear = builder.preserveBirthYear;
+        this.preserveGender = builder.preserveGender;
+    }
+
+    /**
+     * Returns a new instance of the Builder class, which can be used to set the key and options and build
+     * {@code PeselTokenizer} object.
+     *
+     * @return a new instance of {@code PeselTokenizer} Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Replaces the given PESEL with its token.
+     *
+     * @param pesel the PESEL number
+     * @return the token, which is a valid PESEL
+     * @throws NullPointerException  if the given PESEL is null
+     * @throws InvalidPeselException if the given PESEL is invalid
+     */
+    public String tokenize(String pesel) {
+        PeselValidator.assertIsPeselValid(pesel);
+        return PackedPesel.unpack(permute(PackedPesel.pack(pesel), true));
+    }
+
+    /**
+     * Restores the PESEL replaced with the given token.
+     *
+     * @param token the token
+     * @return the PESEL number
+     * @throws NullPointerException  if the given token is null
+     * @throws InvalidPeselException if the given token is not a valid PESEL
+     */
+    public String detokenize(String token) {
+        PeselValidator.assertIsPeselValid(token);
+        return PackedPesel.unpack(permute(PackedPesel.pack(token), false));
+    }
+
+    /**
+     * Replaces the given packed PESEL with its packed token.
+     *
+     * @param packed the packed PESEL
+     * @return the packed token, which is a valid PESEL
+     * @throws IllegalArgumentException if the given value is not a packed PESEL
+     * @throws InvalidPeselException    if the given PESEL is invalid
+     */
+    public long tokenizePacked(long packed) {
+        PackedPesel.assertIsPacked(packed);
+        return permute(packed, true);
+    }
+
+    /**
+     * Restores the packed PESEL replaced with the given packed token.
+     *
+     * @param packedToken the packed token
+     * @return the packed PESEL
+     * @throws IllegalArgumentException if the given value is not a packed PESEL
+     * @throws InvalidPeselException    if the given token is not a valid PESEL
+     */
+    public long detokenizePacked(long packedToken) {
+        PackedPesel.assertIsPacked(packedToken);
+        return permute(packedToken, false);
+    }
+
+    /**
+     * Replaces all given packed PESEL numbers with their packed tokens. The arrays may be the same array.
+     *
+     * @param packedPesels the packed PESEL numbers
+     * @param packedTokens the array receiving the packed tokens, at least as long as the PESEL array
+     * @throws IllegalArgumentException if the token array is too short or any value is not a packed PESEL
+     * @throws InvalidPeselException    if any PESEL is invalid
+     */
+    public void tokenizeAll(long[] packedPesels, long[] packedTokens) {
+        permuteAll(packedPesels, packedTokens, true);
+    }
+
+    /**
+     * Restores all PESEL numbers replaced with the given packed tokens. The arrays may be the same array.
+     *
+     * @param packedTokens the packed tokens
+     * @param packedPesels the array receiving the packed PESEL numbers, at least as long as the token array
+     * @throws IllegalArgumentException if the PESEL array is too short or any value is not a packed PESEL
+     * @throws InvalidPeselException    if any token is not a valid PESEL
+     */
+    public void detokenizeAll(long[] packedTokens, long[] packedPesels) {
+        permuteAll(packedTokens, packedPesels, false);
+    }
+
+    /**
+     * Encrypts or decrypts all given packed PESEL numbers.
+     *
+     * @param input   the packed PESEL numbers
+     * @param output  the array receiving the results, at least as long as the input
+     * @param encrypt true to tokenize, false to detokenize
+     */
+    private void permuteAll(long[] input, long[] output, boolean encrypt) {
+        if (output.length < input.length) {
+            throw new IllegalArgumentException("Output array should be at least as long as the input array");
+        }
+        for (int i = 0; i < input.length; i++) {
+            long packed = input[i];
+            PackedPesel.assertIsPacked(packed);
+            output[i] = permute(packed, encrypt);
+        }
+    }
+
+    /**
+     * Maps the given packed PESEL to its index in the permuted range, encrypts or decrypts the index
+     * and encodes the result back as a packed PESEL.
+     *
+     * @param packed  the packed PESEL
+     * @param encrypt true to tokenize, false to detokenize
+     * @return the packed result
+     * @throws InvalidPeselException if the given PESEL is invalid
+     */
+    private long permute(long packed, boolean encrypt) {
+        int birthDateDigits = (int) (packed / 100_000);
+        int serial = (int) (packed / 100 % 1000);
+        int genderDigit = (int) (packed / 10 % 10);
+        int yearDigits = birthDateDigits / 10_000;
+        int encodedMonth = birthDateDigits / 100 % 100;
+        int day = birthDateDigits % 100;
+        if (!PeselCalendar.isBirthDateValid(yearDigits, encodedMonth, day)) {
+            throw new InvalidPeselException(InvalidPeselReason.INVALID_BIRTH_DATE.getMessage());
+        }
+        int year = PeselCalendar.decodeCentury(encodedMonth / 10) + yearDigits;
+        long epochDay = PeselCalendar.epochDayOf(year, PeselCalendar.decodeMonth(encodedMonth), day);
+        if (PeselEncoder.encodePackedEpochDay(epochDay, serial, genderDigit) != packed) {
+            throw new InvalidPeselException(InvalidPeselReason.INVALID_CONTROL_DIGIT.getMessage());
+        }
+        long firstDay = preserveBirthYear ? PeselCalendar.epochDayOf(year, 1, 1) : MIN_EPOCH_DAY;
+        int days = preserveBirthYear ? (PeselCalendar.isLeapYear(year) ? 366 : 365) : TOTAL_DAYS;
+        int genderValues = preserveGender ? 5 : 10;
+        int genderIndex = preserveGender ? genderDigit >>> 1 : genderDigit;
+        long size = (long) days * 1000 * genderValues;
+        long tweak = (preserveBirthYear ? year : 0) << 1 | (preserveGender ? genderDigit & 1 : 0);
+        long index = ((epochDay - firstDay) * 1000 + serial) * genderValues + genderIndex;
+        long permuted = encrypt ? encrypt(index, size, tweak) : decrypt(index, size, tweak);
+        int permutedGenderIndex = (int) (permuted % genderValues);
+        long dayAndSerial = permuted / genderValues;
+        int permutedGenderDigit = preserveGender ? permutedGenderIndex << 1 | genderDigit & 1 : permutedGenderIndex;
+        return PeselEncoder.encodePackedEpochDay(firstDay + dayAndSerial / 1000, (int) (dayAndSerial % 1000),
+                permutedGenderDigit);
+    }
+
+    /**
+     * Encrypts the given index with the Feistel network over the smallest power of two not less than the size,
+     * repeating the encryption until the result is within the size.
+     *
+     * @param index the index, less than the size
+     * @param size  the size of the permuted range
+     * @param tweak the tweak selecting the permutation of the range
+     * @return the encrypted index, less than the size
+     */
+    private long encrypt(long index, long size, long tweak) {
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(size - 1));
+        int rightBits = bits - (bits >>> 1);
+        long leftMask = (1L << (bits >>> 1)) - 1;
+        long rightMask = (1L << rightBits) - 1;
+        long roundTweak = tweak << 32 | (long) bits << 24;
+        do {
+            long left = index >>> rightBits;
+            long right = index & rightMask;
+            for (int round = 0; round < ROUNDS; round++) {
+                if ((round & 1) == 0) {
+                    left ^= roundFunction(roundTweak | (long) round << 16 | right) & leftMask;
+                } else {
+                    right ^= roundFunction(roundTweak | (long) round << 16 | left) & rightMask;
+                }
+            }
+            index = left << rightBits | right;
+        } while (index >= size);
+        return index;
+    }
+
+    /**
+     * Decrypts the given index encrypted by {@link #encrypt(long, long, long)}.
+     *
+     * @param index the encrypted index, less than the size
+     * @param size  the size of the permuted range
+     * @param tweak the tweak selecting the permutation of the range
+     * @return the decrypted index, less than the size
+     */
+    private long decrypt(long index, long size, long tweak) {
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(size - 1));
+        int rightBits = bits - (bits >>> 1);
+        long leftMask = (1L << (bits >>> 1)) - 1;
+        long rightMask = (1L << rightBits) - 1;
+        long roundTweak = tweak << 32 | (long) bits << 24;
+        do {
+            long left = index >>> rightBits;
+            long right = index & rightMask;
+            for (int round = ROUNDS - 1; round >= 0; round--) {
+                if ((round & 1) == 0) {
+                    left ^= roundFunction(roundTweak | (long) round << 16 | right) & leftMask;
+                } else {
+                    right ^= roundFunction(roundTweak | (long) round << 16 | left) & rightMask;
+                }
+            }
+            index = left << rightBits | right;
+        } while (index >= size);
+        return index;
+    }
+
+    /**
+     * Computes SipHash-2-4 under the key of a single 8-byte message: two rounds compress the message,
+     * two more compress the block holding its length and four finalize the hash.
+     *
+     * @param message the message
+     * @return the hash
+     */
+    private long roundFunction(long message) {
+        long a = v0;
+        long b = v1;
+        long c = v2;
+        long d = v3 ^ message;
+        long lengthBlock = 8L << 56;
+        for (int round = 0; round < 8; round++) {
+            if (round == 2) {
+                a ^= message;
+                d ^= lengthBlock;
+            } else if (round == 4) {
+                a ^= lengthBlock;
+                c ^= 0xFF;
+            }
+            a += b;
+            b = Long.rotateLeft(b, 13) ^ a;
+            a = Long.rotateLeft(a, 32);
+            c += d;
+            d = Long.rotateLeft(d, 16) ^ c;
+            a += d;
+            d = Long.rotateLeft(d, 21) ^ a;
+            c += b;
+            b = Long.rotateLeft(b, 17) ^ c;
+            c = Long.rotateLeft(c, 32);
+        }
+        return a ^ b ^ c ^ d;
+    }
+
+    /**
+     * Reads 8 bytes of the given array as a little-endian long.
+     *
+     * @param bytes  the array
+     * @param offset the index of the first byte
+     * @return the long
+     */
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = value << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Builder class for creating instances of {@code PeselTokenizer}.
+     * Allows for setting the key and the parts of the PESEL kept by the tokens.
+     */
+    public static final class Builder {
+        /**
+         * The key, or null if it was not set.
+         */
+        private byte[] key;
+        /**
+         * Whether the tokens keep the year of birth.
+         */
+        private boolean preserveBirthYear;
+        /**
+         * Whether the tokens keep the gender.
+         */
+        private boolean preserveGender;
+
+        /**
+         * Sets the secret key of the tokens, which is copied.
+         *
+         * @param key the key of {@code KEY_LENGTH} bytes
+         * @return this builder with the key set
+         * @throws NullPointerException     if the key is null
+         * @throws IllegalArgumentException if the key is not {@code KEY_LENGTH} bytes long
+         */
+        public Builder key(byte[] key) {
+            Objects.requireNonNull(key, "Key cannot be null");
+            if (key.length != KEY_LENGTH) {
+                throw new IllegalArgumentException("Key should be " + KEY_LENGTH + " bytes long, but was " + key.length);
+            }
+            this.key = key.clone();
+            return (this);
+        }
+
+        /**
+         * Makes the tokens keep the year of birth of the PESEL numbers.
+         *
+         * @return this builder with the year of birth kept
+         */
+        public Builder preserveBirthYear() {
+            this.preserveBirthYear = true;
+            return (this);
+        }
+
+        /**
+         * Makes the tokens keep the gender of the PESEL numbers.
+         *
+         * @return this builder with the gender kept
+         */
+        public Builder preserveGender() {
+            this.preserveGender = true;
+            return (this);
+        }
+
+        /**
+         * Builds a new {@code PeselTokenizer} object.
+         *
+         * @return the tokenizer
+         * @throws IllegalStateException if the key was not set
+         */
+        public PeselTokenizer build() {
+            if (key == null) {
+                throw new IllegalStateException("Key should be set");
+            }
+            return new PeselTokenizer(this);
+        }
+    }
+}
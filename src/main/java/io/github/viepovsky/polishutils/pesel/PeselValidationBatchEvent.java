@@ -0,0 +1,91 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@code PeselValidationBatchEvent} class is the JFR event of a bulk validation, committed by
+ * {@link PeselValidationStrategy#checkAll} and {@link PeselValidationStrategy#countValid} with the number of checked
+ * PESEL numbers and the number of invalid ones by reason. The duration and the thread are recorded by JFR.
+ * <p>
+ * The event is disabled unless enabled in a recording, e.g. by {@link PeselEventMonitor}. A disabled event is not
+ * committed and the reasons are not counted.
+ * <p>
+ * Initializing the first JFR event class of the JVM starts the Flight Recorder metadata, which takes hundreds of
+ * milliseconds of a cold start, so this class is used only once {@link jdk.jfr.FlightRecorder#isInitialized()}.
+ * <p>
+ * This class is package-private and is not intended for use outside the org.viepovsky.pesel package.
+ *
+ * @author Oskar Rajzner
+ */
+@Name(PeselEventMonitor.VALIDATION_BATCH_EVENT)
+@Label("PESEL Validation Batch")
+@Category("PESEL")
+@Description("Bulk validation of PESEL numbers")
+final class PeselValidationBatchEvent extends Event {
+
+    /**
+     * The number of checked PESEL numbers.
+     */
+    @Label("Count")
+    int count;
+
+    /**
+     * The number of valid PESEL numbers.
+     */
+    @Label("Valid")
+    int validCount;
+
+    /**
+     * The number of PESEL numbers of invalid length.
+     */
+    @Label("Invalid Length")
+    int invalidLength;
+
+    /**
+     * The number of PESEL numbers with characters other than digits.
+     */
+    @Label("Invalid Characters")
+    int invalidCharacters;
+
+    /**
+     * The number of PESEL numbers with an invalid control digit.
+     */
+    @Label("Invalid Control Digit")
+    int invalidControlDigit;
+
+    /**
+     * The number of PESEL numbers with a birth date that does not exist.
+     */
+    @Label("Invalid Birth Date")
+    int invalidBirthDate;
+
+    /**
+     * The number of PESEL numbers with a birth date out of the allowed range.
+     */
+    @Label("Birth Date Out Of Range")
+    int birthDateOutOfRange;
+
+    /**
+     * Adds the given result of a check to the counts.
+     *
+     * @param reason the reason why the PESEL is invalid, or null if it is valid
+     */
+    void add(InvalidPeselReason reason) {
+        count++;
+        if (reason == null) {
+            validCount++;
+            return;
+        }
+        switch (reason) {
+            case INVALID_LENGTH -> invalidLength++;
+            case INVALID_CHARACTERS -> invalidCharacters++;
+            case INVALID_CONTROL_DIGIT -> invalidControlDigit++;
+            case INVALID_BIRTH_DATE -> invalidBirthDate++;
+            case BIRTH_DATE_OUT_OF_RANGE -> birthDateOutOfRange++;
+        }
+    }
+}
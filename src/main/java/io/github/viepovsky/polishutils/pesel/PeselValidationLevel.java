@@ -0,0 +1,28 @@
+package io.github.viepovsky.polishutils.pesel;
+
+/**
+ * The {@code PeselValidationLevel} enumeration selects how much of a PESEL is checked by
+ * a {@link PeselValidationStrategy}. Every level includes the checks of the previous levels and is performed
+ * in a single pass over the characters of the PESEL, so the cheaper levels can be used as pre-filters before
+ * a full check later in a pipeline.
+ *
+ * @author Oskar Rajzner
+ */
+public enum PeselValidationLevel {
+
+    /**
+     * Checks only the length and that all characters are digits.
+     */
+    FORMAT,
+
+    /**
+     * Checks the format and the control digit.
+     */
+    CHECKSUM,
+
+    /**
+     * Checks the format, the control digit and that the birth date exists in the calendar,
+     * together with the birth date rules of the strategy.
+     */
+    FULL
+}
@@ -0,0 +1,341 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import jdk.jfr.FlightRecorder;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The {@code PeselValidationStrategy} interface validates Polish Personal Identification Numbers (PESEL)
+ * according to the rules it was configured with.
+ * <p>
+ * Instances are immutable and thread-safe, so they should be configured once and shared. All instances returned
+ * by the static factory methods are of the same final class, which keeps the calls of their methods monomorphic
+ * and lets the JIT compiler inline them. The following strategies are available:
+ * <ul>
+ *     <li>{@code standard()} - checks the length, characters, control digit and birth date, like {@link PeselValidator}
+ *     <li>{@code strict(Clock)} - additionally rejects birth dates after the current date of the given clock
+ *     <li>{@code builder()} - combines business rules of the birth date, like the age range or the era of issue
+ *     <li>{@code lenient()} - skips the birth date check for speed, checking only the length, characters and control digit
+ *     <li>{@code of(PeselValidationLevel)} - checks the given level, e.g. only the format as a cheap pre-filter
+ * </ul>
+ * The business rules of the birth date are compiled into the earliest and the latest allowed birth date, once per day
+ * of the clock, and PESEL numbers breaking them are rejected with {@code BIRTH_DATE_OUT_OF_RANGE}:
+ * <blockquote><pre>
+ *     PeselValidationStrategy validation = PeselValidationStrategy.builder()
+ *              .notInFuture()
+ *              .ageBetween(18, 65)
+ *              .bornBetween(LocalDate.of(1900, 1, 1), LocalDate.of(2099, 12, 31))
+ *              .build();
+ * </pre></blockquote>
+ * Every PESEL is checked in a single pass without creating any objects. Many PESEL numbers can be checked at once
+ * with {@code checkAll()} and {@code countValid()}.
+ * Example usage of the {@code PeselValidationStrategy} interface:
+ * <blockquote><pre>
+ *     PeselValidationStrategy validation = PeselValidationStrategy.strict(Clock.systemDefaultZone());
+ *     boolean isValid = validation.isValid("92082683499"); //returns true or false
+ *     InvalidPeselReason reason = validation.check("92082683498"); //returns INVALID_CONTROL_DIGIT
+ * </pre></blockquote>
+ * Passing a {@code null} argument will cause a {@link NullPointerException} to be thrown.
+ *
+ * @author Oskar Rajzner
+ * @see PeselDecodingStrategy
+ */
+public interface PeselValidationStrategy {
+
+    /**
+     * Returns the standard validation strategy, which checks the length, characters, control digit and birth date.
+     * It is the strategy used by {@link PeselValidator} and {@link Pesel}.
+     *
+     * @return the standard validation strategy
+     */
+    static PeselValidationStrategy standard() {
+        return ConfiguredPeselValidator.STANDARD;
+    }
+
+    /**
+     * Returns the strict validation strategy, which checks the same as the standard strategy and additionally
+     * rejects birth dates after the current date of the given clock with {@code BIRTH_DATE_OUT_OF_RANGE}.
+     *
+     * @param clock the clock of the current date
+     * @return the strict validation strategy
+     * @throws NullPointerException if the given clock is null
+     */
+    static PeselValidationStrategy strict(Clock clock) {
+        return builder().clock(clock).notInFuture().build();
+    }
+
+    /**
+     * Returns the lenient validation strategy, which checks only the length, characters and control digit,
+     * skipping the birth date check.
+     *
+     * @return the lenient validation strategy
+     */
+    static PeselValidationStrategy lenient() {
+        return ConfiguredPeselValidator.LENIENT;
+    }
+
+    /**
+     * Returns the validation strategy checking the given level. The {@code FULL} level is the standard strategy,
+     * the {@code CHECKSUM} level is the lenient strategy.
+     *
+     * @param level the validation level
+     * @return the validation strategy of the given level
+     * @throws NullPointerException if the given level is null
+     */
+    static PeselValidationStrategy of(PeselValidationLevel level) {
+        return switch (level) {
+            case FORMAT -> ConfiguredPeselValidator.FORMAT;
+            case CHECKSUM -> ConfiguredPeselValidator.LENIENT;
+            case FULL -> ConfiguredPeselValidator.STANDARD;
+        };
+    }
+
+    /**
+     * Returns a new instance of the Builder class, which can be used to combine the business rules of the birth date
+     * and build a validation strategy.
+     *
+     * @return a new instance of {@code PeselValidationStrategy} Builder
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks the given PESEL and returns the reason why it is invalid.
+     *
+     * @param pesel the PESEL number
+     * @return the reason why the PESEL is invalid, or null if it is valid
+     * @throws NullPointerException if the given PESEL is null
+     */
+    InvalidPeselReason check(CharSequence pesel);
+
+    /**
+     * Checks if the given PESEL is valid.
+     *
+     * @param pesel the PESEL number
+     * @return true if the given PESEL is valid, false otherwise
+     * @throws NullPointerException if the given PESEL is null
+     */
+    default boolean isValid(CharSequence pesel) {
+        return check(pesel) == null;
+    }
+
+    /**
+     * Checks if the given PESEL is valid.
+     *
+     * @param pesel the PESEL number
+     * @throws NullPointerException  if the given PESEL is null
+     * @throws InvalidPeselException if the given PESEL is invalid
+     */
+    default void assertValid(CharSequence pesel) {
+        InvalidPeselReason reason = check(pesel);
+        if (reason != null) {
+            if (FlightRecorder.isInitialized()) {
+                PeselInvalidEvent.commitSampled(reason);
+            }
+            throw new InvalidPeselException(reason.getMessage());
+        }
+    }
+
+    /**
+     * Checks all given PESEL numbers and writes the reason why every one of them is invalid to the given array,
+     * or null if it is valid. The batch is recorded as a JFR event if the event is enabled, see
+     * {@link PeselEventMonitor}.
+     *
+     * @param pesels  the PESEL numbers
+     * @param reasons the array the reasons are written to, at the indexes of the PESEL numbers
+     * @return the number of valid PESEL numbers
+     * @throws NullPointerException     if any of the PESEL numbers is null
+     * @throws IllegalArgumentException if the array of reasons is shorter than the list of PESEL numbers
+     */
+    default int checkAll(List<? extends CharSequence> pesels, InvalidPeselReason[] reasons) {
+        int size = pesels.size();
+        if (reasons.length < size) {
+            throw new IllegalArgumentException("Array of reasons should have at least " + size + " elements");
+        }
+        PeselValidationBatchEvent event = FlightRecorder.isInitialized() ? new PeselValidationBatchEvent() : null;
+        boolean recorded = event != null && event.isEnabled();
+        if (recorded) {
+            event.begin();
+        }
+        int valid = 0;
+        for (int i = 0; i < size; i++) {
+            InvalidPeselReason reason = check(pesels.get(i));
+            reasons[i] = reason;
+            if (reason == null) {
+                valid++;
+            }
+            if (recorded) {
+                event.add(reason);
+            }
+        }
+        if (recorded) {
+            event.commit();
+        }
+        return valid;
+    }
+
+    /**
+     * Counts the valid PESEL numbers. The batch is recorded as a JFR event if the event is enabled, see
+     * {@link PeselEventMonitor}.
+     *
+     * @param pesels the PESEL numbers
+     * @return the number of valid PESEL numbers
+     * @throws NullPointerException if any of the PESEL numbers is null
+     */
+    default int countValid(List<? extends CharSequence> pesels) {
+        PeselValidationBatchEvent event = FlightRecorder.isInitialized() ? new PeselValidationBatchEvent() : null;
+        boolean recorded = event != null && event.isEnabled();
+        if (recorded) {
+            event.begin();
+        }
+        int valid = 0;
+        for (int i = 0, size = pesels.size(); i < size; i++) {
+            InvalidPeselReason reason = check(pesels.get(i));
+            if (reason == null) {
+                valid++;
+            }
+            if (recorded) {
+                event.add(reason);
+            }
+        }
+        if (recorded) {
+            event.commit();
+        }
+        return valid;
+    }
+
+    /**
+     * Builder class for creating validation strategies with business rules of the birth date. All rules have to be
+     * met, and the rules relative to the current date are resolved against the clock of the builder.
+     */
+    final class Builder {
+        /**
+         * The greatest age that can be set, as PESEL numbers cover 500 years of birth dates.
+         */
+        private static final int MAX_AGE_POSSIBLE = 499;
+        /**
+         * The validation level.
+         */
+        private PeselValidationLevel level = PeselValidationLevel.FULL;
+        /**
+         * The clock of the current date.
+         */
+        private Clock clock = Clock.systemDefaultZone();
+        /**
+         * Whether birth dates after the current date are rejected.
+         */
+        private boolean notInFuture;
+        /**
+         * The minimal age as of the current date, or -1 if there is no age rule.
+         */
+        private int minAge = -1;
+        /**
+         * The maximal age as of the current date, or -1 if there is no age rule.
+         */
+        private int maxAge = -1;
+        /**
+         * The earliest allowed birth date, or null.
+         */
+        private LocalDate minDate;
+        /**
+         * The latest allowed birth date, or null.
+         */
+        private LocalDate maxDate;
+
+        /**
+         * Creates a new {@code Builder} object without rules.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the validation level. The business rules of the birth date require the {@code FULL} level,
+         * which is the default.
+         *
+         * @param level the validation level
+         * @return this builder with the level set
+         * @throws NullPointerException if the given level is null
+         */
+        public Builder level(PeselValidationLevel level) {
+            this.level = Objects.requireNonNull(level, "Validation level cannot be null");
+            return (this);
+        }
+
+        /**
+         * Sets the clock of the current date. By default, the system clock in the default time-zone is used.
+         *
+         * @param clock the clock as a {@code Clock} object
+         * @return this builder with the clock set
+         * @throws NullPointerException if the given clock is null
+         */
+        public Builder clock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+            return (this);
+        }
+
+        /**
+         * Rejects birth dates after the current date of the clock.
+         *
+         * @return this builder with the rule set
+         */
+        public Builder notInFuture() {
+            this.notInFuture = true;
+            return (this);
+        }
+
+        /**
+         * Accepts only persons whose age as of the current date of the clock is in the given range, including both ages.
+         *
+         * @param minAge the minimal age in years
+         * @param maxAge the maximal age in years
+         * @return this builder with the rule set
+         * @throws IllegalArgumentException if any of the ages is negative or greater than 499
+         */
+        public Builder ageBetween(int minAge, int maxAge) {
+            if (minAge < 0 || maxAge < 0 || minAge > MAX_AGE_POSSIBLE || maxAge > MAX_AGE_POSSIBLE) {
+                throw new IllegalArgumentException("Min and max ages should be between: 0 and " + MAX_AGE_POSSIBLE);
+            }
+            this.minAge = Math.min(minAge, maxAge);
+            this.maxAge = Math.max(minAge, maxAge);
+            return (this);
+        }
+
+        /**
+         * Accepts only birth dates in the given range, including both dates, e.g. the era in which
+         * the PESEL numbers were issued.
+         *
+         * @param minDate the earliest allowed birth date
+         * @param maxDate the latest allowed birth date
+         * @return this builder with the rule set
+         * @throws NullPointerException if any of the dates is null
+         */
+        public Builder bornBetween(LocalDate minDate, LocalDate maxDate) {
+            Objects.requireNonNull(minDate, "Min date cannot be null");
+            Objects.requireNonNull(maxDate, "Max date cannot be null");
+            this.minDate = minDate.isAfter(maxDate) ? maxDate : minDate;
+            this.maxDate = minDate.isAfter(maxDate) ? minDate : maxDate;
+            return (this);
+        }
+
+        /**
+         * Builds a new validation strategy with the set level and rules.
+         *
+         * @return a new validation strategy
+         * @throws IllegalArgumentException if rules of the birth date were set with a level other than {@code FULL}
+         */
+        public PeselValidationStrategy build() {
+            boolean hasRules = notInFuture || minAge >= 0 || minDate != null;
+            if (hasRules && level != PeselValidationLevel.FULL) {
+                throw new IllegalArgumentException("Birth date rules require the FULL validation level");
+            }
+            if (!hasRules) {
+                return of(level);
+            }
+            return new ConfiguredPeselValidator(level, clock, notInFuture, minAge, maxAge, minDate, maxDate);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package io.github.viepovsky.polishutils.pesel;
 
-import java.time.DateTimeException;
+import io.github.viepovsky.polishutils.validation.WeightedChecksum;
 
 /**
  * The {@code PeselValidator} class validates Polish Personal Identification Number (PESEL).
@@ -11,6 +11,9 @@ import java.time.DateTimeException;
  *     or
  *     PeselValidator.isValid("92082683499"); //returns true or false
  * </pre></blockquote>
+ * The static methods use the shared standard {@link PeselValidationStrategy}. To reject future birth dates
+ * or to skip the birth date check, use the other strategies of that interface.
+ * <p>
  * Passing a {@code null} argument will cause a {@link NullPointerException} to be thrown.
  * Passing an invalid PESEL to assertIsValid method will cause
  * an {@link InvalidPeselException} to be thrown.
@@ -20,14 +23,10 @@ import java.time.DateTimeException;
 public abstract class PeselValidator {
 
     /**
-     * Digits weight for checking the validity of the PESEL
-     */
-    private static final int[] CONTROL_WEIGHTS = new int[]{1, 3, 7, 9, 1, 3, 7, 9, 1, 3, 1};
-
-    /**
-     * An instance of the {@code PeselDecoder} class.
+     * Digits weight of {@link WeightedChecksum#PESEL} for computing control digits, with the weight 1 of the control
+     * digit itself, so the weighted sum of a valid PESEL is a multiple of 10.
      */
-    private static final PeselDecoder PESEL_DECODER = new PeselDecoder();
+    static final int[] CONTROL_WEIGHTS = controlWeights();
 
     /**
      * Checks if given PESEL is valid.
@@ -36,12 +35,7 @@ public abstract class PeselValidator {
      * @return true if the given PESEL is valid, false otherwise
      */
     public static boolean isPeselValid(String pesel) {
-        try {
-            assertIsPeselValid(pesel);
-            return true;
-        } catch (InvalidPeselException e) {
-            return false;
-        }
+        return ConfiguredPeselValidator.STANDARD.isValid(pesel);
     }
 
     /**
@@ -51,11 +45,7 @@ public abstract class PeselValidator {
      * @throws InvalidPeselException if the given PESEL is invalid
      */
     public static void assertIsPeselValid(String pesel) {
-        assertIsNotNull(pesel);
-        assertIsLengthValid(pesel);
-        assertIsOnlyDigits(pesel);
-        assertIsControlDigitValid(pesel);
-        assertIsBirthDateValid(pesel);
+        ConfiguredPeselValidator.STANDARD.assertValid(pesel);
     }
 
     /**
@@ -78,7 +68,7 @@ public abstract class PeselValidator {
      */
     protected static void assertIsLengthValid(String pesel) {
         if (pesel.length() != 11) {
-            throw new InvalidPeselException("PESEL length is invalid, should be 11 numbers");
+            throw new InvalidPeselException(InvalidPeselReason.INVALID_LENGTH.getMessage());
         }
     }
 
@@ -89,8 +79,11 @@ public abstract class PeselValidator {
      * @throws InvalidPeselException if given PESEL has other characters than digits
      */
     protected static void assertIsOnlyDigits(String pesel) {
-        if (!pesel.matches("[0-9]*")) {
-            throw new InvalidPeselException("PESEL contains invalid characters, should contain only digits 0-9");
+        for (int i = 0; i < pesel.length(); i++) {
+            char character = pesel.charAt(i);
+            if (character < '0' || character > '9') {
+                throw new InvalidPeselException(InvalidPeselReason.INVALID_CHARACTERS.getMessage());
+            }
         }
     }
 
@@ -102,7 +95,7 @@ public abstract class PeselValidator {
      */
     protected static void assertIsControlDigitValid(String pesel) {
         if (!isControlDigitValid(pesel)) {
-            throw new InvalidPeselException("PESEL control sum number is invalid");
+            throw new InvalidPeselException(InvalidPeselReason.INVALID_CONTROL_DIGIT.getMessage());
         }
     }
 
@@ -113,14 +106,7 @@ public abstract class PeselValidator {
      * @return true if the given PESEL control digit is valid, false otherwise
      */
     protected static boolean isControlDigitValid(String pesel) {
-        int sum = 0;
-        for (int i = 0; i <= 10; i++) {
-            int multipliedNumber = CONTROL_WEIGHTS[i] * Character.getNumericValue(pesel.charAt(i));
-            sum += multipliedNumber;
-        }
-        String controlSum = String.valueOf(sum);
-        int lastDigit = Integer.parseInt(controlSum.substring(controlSum.length() - 1));
-        return lastDigit == 0;
+        return WeightedChecksum.PESEL.scan(pesel) >= 0;
     }
 
     /**
@@ -131,7 +117,7 @@ public abstract class PeselValidator {
      */
     protected static void assertIsBirthDateValid(String pesel) {
         if (!isBirthDateValid(pesel)) {
-            throw new InvalidPeselException("PESEL birth date is invalid");
+            throw new InvalidPeselException(InvalidPeselReason.INVALID_BIRTH_DATE.getMessage());
         }
     }
 
@@ -142,11 +128,23 @@ public abstract class PeselValidator {
      * @return true if the given PESEL date of birth is valid, false otherwise
      */
     protected static boolean isBirthDateValid(String pesel) {
-        try {
-            PESEL_DECODER.decodeBirthDate(pesel);
-            return true;
-        } catch (DateTimeException e) {
-            return false;
+        int yearDigits = (pesel.charAt(0) - '0') * 10 + pesel.charAt(1) - '0';
+        int encodedMonth = (pesel.charAt(2) - '0') * 10 + pesel.charAt(3) - '0';
+        int day = (pesel.charAt(4) - '0') * 10 + pesel.charAt(5) - '0';
+        return PeselCalendar.isBirthDateValid(yearDigits, encodedMonth, day);
+    }
+
+    /**
+     * Copies the digits weight of {@link WeightedChecksum#PESEL} and sets the weight of the control digit to 1.
+     *
+     * @return the digits weight including the control digit
+     */
+    private static int[] controlWeights() {
+        int[] weights = new int[WeightedChecksum.PESEL.getLength()];
+        for (int i = 0; i < weights.length - 1; i++) {
+            weights[i] = WeightedChecksum.PESEL.getWeight(i);
         }
+        weights[weights.length - 1] = 1;
+        return weights;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,253 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import io.github.viepovsky.polishutils.validation.WeightedChecksum;
+
+import java.util.Objects;
+
+/**
+ * The {@code PeselView} class is a mutable view of a single PESEL number, which can be pointed at another PESEL
+ * without creating any objects. It is meant for loops over many records that read only a few fields of every PESEL,
+ * where creating a {@link Pesel} and a {@code LocalDate} per record would dominate the cost.
+ * <p>
+ * Pointing the view at a String, a region of ASCII bytes or a packed PESEL validates the control digit and the birth
+ * date in a single pass over the digits with {@link WeightedChecksum#PESEL}, like
+ * {@link PeselValidator#isPeselValid(String)}, and returns the result
+ * instead of throwing an exception. The getters derive the fields from the packed PESEL with int arithmetic and throw
+ * {@link IllegalStateException} if the view does not point at a valid PESEL.
+ * <p>
+ * A view is not thread-safe. Every thread can reuse its own view returned by {@link #forCurrentThread()}, which must
+ * not be passed to other threads or kept across calls that may use it too.
+ * <p>
+ * Example usage of the {@code PeselView} class:
+ * <blockquote><pre>
+ *     PeselView view = PeselView.forCurrentThread();
+ *     for (String record : records) {
+ *         if (view.pointTo(record) &amp;&amp; view.getBirthYear() &gt;= 2000) {
+ *             count++;
+ *         }
+ *     }
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ * @see Pesel
+ */
+public final class PeselView {
+
+    /**
+     * The views of the threads.
+     */
+    private static final ThreadLocal<PeselView> VIEWS = ThreadLocal.withInitial(PeselView::new);
+
+    /**
+     * The packed PESEL the view points at, or {@link PackedPesel#INVALID} if it does not point at a valid PESEL.
+     */
+    private long packed = PackedPesel.INVALID;
+
+    /**
+     * Creates a new {@code PeselView} object that does not point at any PESEL.
+     */
+    public PeselView() {
+    }
+
+    /**
+     * Returns the view of the current thread, creating it on the first call.
+     *
+     * @return the view of the current thread
+     */
+    public static PeselView forCurrentThread() {
+        return VIEWS.get();
+    }
+
+    /**
+     * Points the view at the given PESEL number.
+     *
+     * @param pesel the PESEL number
+     * @return true if the PESEL is valid, false otherwise
+     * @throws NullPointerException if the given PESEL is null
+     */
+    public boolean pointTo(CharSequence pesel) {
+        Objects.requireNonNull(pesel, "PESEL cannot be null");
+        return point(WeightedChecksum.PESEL.scan(pesel));
+    }
+
+    /**
+     * Points the view at the PESEL number of 11 ASCII digits at the given offset of the byte array.
+     *
+     * @param bytes  the byte array
+     * @param offset the index of the first digit of the PESEL
+     * @return true if the PESEL is valid, false otherwise
+     * @throws IndexOutOfBoundsException if the array has fewer than 11 bytes after the offset
+     */
+    public boolean pointTo(byte[] bytes, int offset) {
+        return point(WeightedChecksum.PESEL.scan(bytes, offset));
+    }
+
+    /**
+     * Points the view at the given packed PESEL.
+     *
+     * @param packed the packed PESEL
+     * @return true if the PESEL is valid, false otherwise
+     * @throws IllegalArgumentException if the given value is not a packed PESEL
+     */
+    public boolean pointTo(long packed) {
+        PackedPesel.assertIsPacked(packed);
+        return point(WeightedChecksum.PESEL.isControlDigitValid(packed) ? packed : WeightedChecksum.INVALID_CONTROL_DIGIT);
+    }
+
+    /**
+     * Checks if the view points at a valid PESEL.
+     *
+     * @return true if the last PESEL the view was pointed at is valid, false otherwise
+     */
+    public boolean isValid() {
+        return packed != PackedPesel.INVALID;
+    }
+
+    /**
+     * Returns the packed PESEL the view points at.
+     *
+     * @return the packed PESEL
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     */
+    public long toPacked() {
+        if (packed == PackedPesel.INVALID) {
+            throw new IllegalStateException("PESEL view does not point at a valid PESEL");
+        }
+        return packed;
+    }
+
+    /**
+     * Creates a {@code Pesel} object of the PESEL the view points at, e.g. to keep it after the view is pointed
+     * at another PESEL.
+     *
+     * @return the new {@code Pesel} object
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     */
+    public Pesel toPesel() {
+        return new Pesel(PackedPesel.unpack(toPacked()));
+    }
+
+    /**
+     * Returns the year, month, and day digits of the PESEL number as an integer in the form of YYMMDD.
+     *
+     * @return an integer representing the year, month, and day digits of the PESEL number
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     * @see PeselDigits#getBirthDateDigits()
+     */
+    public int getBirthDateDigits() {
+        return (int) (toPacked() / 100_000);
+    }
+
+    /**
+     * Returns the unique serial digits of the PESEL as an integer in the form of ZZZ.
+     *
+     * @return an integer representing the unique serial digits of the PESEL
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     * @see PeselDigits#getSerialDigits()
+     */
+    public int getSerialDigits() {
+        return (int) (toPacked() / 100 % 1000);
+    }
+
+    /**
+     * Returns the single digit representing the gender of the person associated with the PESEL as an integer.
+     *
+     * @return an integer representing the gender digit of the PESEL
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     * @see PeselDigits#getGenderDigit()
+     */
+    public int getGenderDigit() {
+        return (int) (toPacked() / 10 % 10);
+    }
+
+    /**
+     * Returns the single digit representing the control sum of the PESEL as an integer.
+     *
+     * @return an integer representing the control sum of the PESEL
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     * @see PeselDigits#getControlDigit()
+     */
+    public int getControlDigit() {
+        return (int) (toPacked() % 10);
+    }
+
+    /**
+     * Returns the decoded year of birth, e.g. 2004 for {@code "04242625931"}.
+     *
+     * @return the year of birth
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     */
+    public int getBirthYear() {
+        int birthDateDigits = getBirthDateDigits();
+        return PeselCalendar.decodeCentury(birthDateDigits / 1000 % 10) + birthDateDigits / 10_000;
+    }
+
+    /**
+     * Returns the decoded month of birth, from 1 to 12.
+     *
+     * @return the month of birth
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     */
+    public int getBirthMonth() {
+        return PeselCalendar.decodeMonth(getBirthDateDigits() / 100 % 100);
+    }
+
+    /**
+     * Returns the day of the month of birth, from 1 to 31.
+     *
+     * @return the day of the month of birth
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     */
+    public int getBirthDay() {
+        return getBirthDateDigits() % 100;
+    }
+
+    /**
+     * Returns the date of birth as the number of days since January 1, 1970, like {@code LocalDate.toEpochDay()}.
+     *
+     * @return the epoch day of the date of birth
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     */
+    public long getBirthEpochDay() {
+        return PeselCalendar.epochDayOf(getBirthYear(), getBirthMonth(), getBirthDay());
+    }
+
+    /**
+     * Returns the decoded gender of the PESEL number, the same as {@link Pesel#getGender()}.
+     *
+     * @return the gender as a String
+     * @throws IllegalStateException if the view does not point at a valid PESEL
+     */
+    public String getGender() {
+        return getGenderDigit() % 2 == 1 ? Pesel.Gender.MALE.name() : Pesel.Gender.FEMALE.name();
+    }
+
+    /**
+     * Points the view at the given packed PESEL if its birth date is valid.
+     *
+     * @param value the result of a scan by {@link WeightedChecksum#PESEL}, the packed PESEL if its checksum is valid
+     * @return true if the PESEL is valid, false otherwise
+     */
+    private boolean point(long value) {
+        if (value < 0) {
+            return invalidate();
+        }
+        int birthDateDigits = (int) (value / 100_000);
+        if (!PeselCalendar.isBirthDateValid(
+                birthDateDigits / 10_000, birthDateDigits / 100 % 100, birthDateDigits % 100)) {
+            return invalidate();
+        }
+        packed = value;
+        return true;
+    }
+
+    /**
+     * Makes the view point at no PESEL.
+     *
+     * @return false
+     */
+    private boolean invalidate() {
+        packed = PackedPesel.INVALID;
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.viepovsky.polishutils.validation;
+
+/**
+ * The {@code ValidationSummary} class holds the counts of valid values and of invalid ones by reason, collected
+ * e.g. from a stream of identifiers. The counts are kept in a single {@code long} array, with the number of valid
+ * values followed by the numbers of invalid ones indexed by the ordinals of the reasons increased by one.
+ * The collectors of PESEL numbers and other identifiers return their own subclasses of it.
+ *
+ * @param <R> the type of the reasons why values are invalid
+ * @author Oskar Rajzner
+ */
+public abstract class ValidationSummary<R extends Enum<R>> {
+
+    /**
+     * The reasons why values are invalid, indexed by their ordinals.
+     */
+    private final R[] reasons;
+
+    /**
+     * The number of valid values, followed by the numbers of invalid ones indexed by the ordinals
+     * of the reasons increased by one.
+     */
+    private final long[] counts;
+
+    /**
+     * Constructs a new {@code ValidationSummary} object.
+     *
+     * @param reasons all reasons why values are invalid, indexed by their ordinals
+     * @param counts  the counts
+     * @throws IllegalArgumentException if the number of counts is not the number of reasons increased by one
+     */
+    protected ValidationSummary(R[] reasons, long[] counts) {
+        if (counts.length != reasons.length + 1) {
+            throw new IllegalArgumentException("Counts should have " + (reasons.length + 1) + " elements");
+        }
+        this.reasons = reasons;
+        this.counts = counts;
+    }
+
+    /**
+     * Returns the number of valid values.
+     *
+     * @return the number of valid values
+     */
+    public long getValidCount() {
+        return counts[0];
+    }
+
+    /**
+     * Returns the number of invalid values.
+     *
+     * @return the number of invalid values
+     */
+    public long getInvalidCount() {
+        long count = 0;
+        for (int i = 1; i < counts.length; i++) {
+            count += counts[i];
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of values invalid for the given reason.
+     *
+     * @param reason the reason
+     * @return the number of values invalid for the reason
+     * @throws NullPointerException if the given reason is null
+     */
+    public long getInvalidCount(R reason) {
+        return counts[reason.ordinal() + 1];
+    }
+
+    /**
+     * Returns the number of all values.
+     *
+     * @return the number of all values
+     */
+    public long getCount() {
+        return getValidCount() + getInvalidCount();
+    }
+
+    /**
+     * Returns the counts as a String, e.g. for logging.
+     *
+     * @return the counts as a String
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Summary{valid=").append(counts[0]);
+        for (R reason : reasons) {
+            builder.append(", ").append(reason).append('=').append(counts[reason.ordinal() + 1]);
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,253 @@
+package io.github.viepovsky.polishutils.validation;
+
+import java.util.Objects;
+
+/**
+ * The {@code WeightedChecksum} class checks numbers protected by a weighted control digit, the scheme shared
+ * by the Polish identifiers PESEL, NIP and REGON.
+ * <p>
+ * A checksum is described by a table: the weights of the digits before the control digit, the modulus of the
+ * weighted sum, and the control digit expected for every remainder of the sum, or -1 if no control digit is valid
+ * for it. A number is checked in a single pass over its digits, which computes the weighted sum and the numeric
+ * value at once and creates no objects. Rules beyond the control digit, like the birth date of a PESEL, are left
+ * to the callers, which check them on the numeric value.
+ * <ul>
+ *     <li>{@code PESEL} - 11 digits, weights 1, 3, 7, 9, 1, 3, 7, 9, 1, 3, the control digit completes the sum
+ *     to a multiple of 10
+ *     <li>{@code NIP} - 10 digits, weights 6, 5, 7, 2, 3, 4, 5, 6, 7, the control digit is the sum modulo 11,
+ *     and no NIP has a sum with the remainder of 10
+ *     <li>{@code REGON9} - 9 digits, weights 8, 9, 2, 3, 4, 5, 6, 7, the control digit is the sum modulo 11,
+ *     or 0 if the remainder is 10
+ *     <li>{@code REGON14} - 14 digits, weights 2, 4, 8, 5, 0, 9, 7, 3, 6, 1, 2, 4, 8, the same control digit as
+ *     {@code REGON9}
+ * </ul>
+ * Instances are immutable and thread-safe. Example usage of the {@code WeightedChecksum} class:
+ * <blockquote><pre>
+ *     long value = WeightedChecksum.NIP.scan("5260250274"); //returns 5260250274L
+ *     boolean isValid = WeightedChecksum.REGON9.scan("123456786") &gt;= 0; //returns false
+ * </pre></blockquote>
+ *
+ * @author Oskar Rajzner
+ */
+public final class WeightedChecksum {
+
+    /**
+     * The result of a scan of a number with a length other than the length of the checksum.
+     */
+    public static final long INVALID_LENGTH = -1L;
+
+    /**
+     * The result of a scan of a number with characters other than digits.
+     */
+    public static final long INVALID_CHARACTERS = -2L;
+
+    /**
+     * The result of a scan of a number with an invalid control digit.
+     */
+    public static final long INVALID_CONTROL_DIGIT = -3L;
+
+    /**
+     * The greatest number of digits of a checksum, so the numeric value fits in a {@code long}.
+     */
+    public static final int MAX_LENGTH = 18;
+
+    /**
+     * The checksum of the Polish Personal Identification Number.
+     */
+    public static final WeightedChecksum PESEL = of(
+            new int[]{1, 3, 7, 9, 1, 3, 7, 9, 1, 3}, 10, new int[]{0, 9, 8, 7, 6, 5, 4, 3, 2, 1});
+
+    /**
+     * The checksum of the Polish Tax Identification Number.
+     */
+    public static final WeightedChecksum NIP = of(
+            new int[]{6, 5, 7, 2, 3, 4, 5, 6, 7}, 11, new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, -1});
+
+    /**
+     * The checksum of the Polish Business Registry Number of 9 digits.
+     */
+    public static final WeightedChecksum REGON9 = of(
+            new int[]{8, 9, 2, 3, 4, 5, 6, 7}, 11, new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 0});
+
+    /**
+     * The checksum of the Polish Business Registry Number of 14 digits.
+     */
+    public static final WeightedChecksum REGON14 = of(
+            new int[]{2, 4, 8, 5, 0, 9, 7, 3, 6, 1, 2, 4, 8}, 11, new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 0});
+
+    /**
+     * The number of digits, including the control digit.
+     */
+    private final int length;
+
+    /**
+     * The weights of the digits, indexed by their positions, with 0 for the control digit.
+     */
+    private final int[] weights;
+
+    /**
+     * The modulus of the weighted sum.
+     */
+    private final int modulus;
+
+    /**
+     * The expected control digits, indexed by the remainders of the weighted sum, or -1 if no control digit is valid.
+     */
+    private final int[] controlDigits;
+
+    /**
+     * Creates a new {@code WeightedChecksum} object with the given table.
+     *
+     * @param weights       the weights of the digits, with 0 for the control digit
+     * @param modulus       the modulus of the weighted sum
+     * @param controlDigits the expected control digits, indexed by the remainders of the weighted sum
+     */
+    private WeightedChecksum(int[] weights, int modulus, int[] controlDigits) {
+        this.length = weights.length;
+        this.weights = weights;
+        this.modulus = modulus;
+        this.controlDigits = controlDigits;
+    }
+
+    /**
+     * Returns a checksum with the given table.
+     *
+     * @param weights       the weights of the digits before the control digit
+     * @param modulus       the modulus of the weighted sum
+     * @param controlDigits the expected control digits, indexed by the remainders of the weighted sum,
+     *                      or -1 if no control digit is valid for a remainder
+     * @return the checksum
+     * @throws NullPointerException     if any of the arrays is null
+     * @throws IllegalArgumentException if there are no weights or more than 17, any weight is negative, the modulus
+     *                                  is less than 2, or the control digits are not given for every remainder
+     *                                  or are not between -1 and 9
+     */
+    public static WeightedChecksum of(int[] weights, int modulus, int[] controlDigits) {
+        Objects.requireNonNull(weights, "Weights cannot be null");
+        Objects.requireNonNull(controlDigits, "Control digits cannot be null");
+        if (weights.length == 0 || weights.length >= MAX_LENGTH) {
+            throw new IllegalArgumentException("Number of weights should be between: 1 and " + (MAX_LENGTH - 1));
+        }
+        if (modulus < 2) {
+            throw new IllegalArgumentException("Modulus should be at least 2");
+        }
+        if (controlDigits.length != modulus) {
+            throw new IllegalArgumentException("Control digits should be given for all " + modulus + " remainders");
+        }
+        int[] allWeights = new int[weights.length + 1];
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Weights should not be negative");
+            }
+            allWeights[i] = weights[i];
+        }
+        for (int controlDigit : controlDigits) {
+            if (controlDigit < -1 || controlDigit > 9) {
+                throw new IllegalArgumentException("Control digits should be between: -1 and 9");
+            }
+        }
+        return new WeightedChecksum(allWeights, modulus, controlDigits.clone());
+    }
+
+    /**
+     * Returns the number of digits, including the control digit.
+     *
+     * @return the number of digits
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the weight of the digit at the given position, which is 0 for the control digit.
+     *
+     * @param position the position of the digit, counting from 0
+     * @return the weight of the digit
+     * @throws IndexOutOfBoundsException if the position is negative or not less than the length
+     */
+    public int getWeight(int position) {
+        return weights[position];
+    }
+
+    /**
+     * Checks the control digit of the given numeric value, whose weighted sum was already computed, e.g. by a caller
+     * passing the digits while splitting a record.
+     *
+     * @param value the numeric value of all digits
+     * @param sum   the weighted sum of the digits, see {@link #getWeight(int)}, reduced modulo the modulus also when
+     *              it is negative
+     * @return true if the last digit of the value is the control digit expected for the sum, false otherwise
+     */
+    public boolean isControlDigitValid(long value, int sum) {
+        return controlDigits[Math.floorMod(sum, modulus)] == value % 10;
+    }
+
+    /**
+     * Checks the control digit of the given numeric value, e.g. of a number stored as a {@code long}.
+     *
+     * @param value the numeric value of all digits
+     * @return true if the control digit is valid, false otherwise
+     * @throws IllegalArgumentException if the value is negative or has more digits than the length
+     */
+    public boolean isControlDigitValid(long value) {
+        long rest = value;
+        int sum = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            sum += weights[i] * (int) (rest % 10);
+            rest /= 10;
+        }
+        if (value < 0 || rest != 0) {
+            throw new IllegalArgumentException("Value should have at most " + length + " digits, but was " + value);
+        }
+        return isControlDigitValid(value, sum);
+    }
+
+    /**
+     * Checks the given number in a single pass over its digits and returns its numeric value.
+     *
+     * @param digits the number
+     * @return the numeric value if the number is valid, or {@link #INVALID_LENGTH}, {@link #INVALID_CHARACTERS}
+     * or {@link #INVALID_CONTROL_DIGIT}
+     * @throws NullPointerException if the given number is null
+     */
+    public long scan(CharSequence digits) {
+        if (digits.length() != length) {
+            return INVALID_LENGTH;
+        }
+        long value = 0;
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = digits.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID_CHARACTERS;
+            }
+            value = value * 10 + digit;
+            sum += weights[i] * digit;
+        }
+        return isControlDigitValid(value, sum) ? value : INVALID_CONTROL_DIGIT;
+    }
+
+    /**
+     * Checks the number of ASCII digits at the given offset of the byte array in a single pass over its digits
+     * and returns its numeric value.
+     *
+     * @param bytes  the byte array
+     * @param offset the index of the first digit of the number
+     * @return the numeric value if the number is valid, or {@link #INVALID_CHARACTERS} or {@link #INVALID_CONTROL_DIGIT}
+     * @throws IndexOutOfBoundsException if the array has fewer bytes after the offset than the length
+     */
+    public long scan(byte[] bytes, int offset) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        long value = 0;
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = bytes[offset + i] - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID_CHARACTERS;
+            }
+            value = value * 10 + digit;
+            sum += weights[i] * digit;
+        }
+        return isControlDigitValid(value, sum) ? value : INVALID_CONTROL_DIGIT;
+    }
+}
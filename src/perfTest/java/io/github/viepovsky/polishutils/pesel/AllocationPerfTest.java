@@ -0,0 +1,84 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import io.github.viepovsky.polishutils.identifier.IdentifierRecordScanner;
+import io.github.viepovsky.polishutils.identifier.PolishIdentifier;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.github.viepovsky.polishutils.pesel.PerfTestSupport.assertNoAllocation;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class AllocationPerfTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"92082683499", "92082683498", "9208268349", "92082683a99", "20130100001"})
+    void should_not_allocate_when_validating(String pesel) {
+        var strategy = PeselValidationStrategy.standard();
+
+        assertNoAllocation("isPeselValid", i -> PeselValidator.isPeselValid(pesel) ? 1 : 0);
+        assertNoAllocation("PeselValidationStrategy.check", i -> strategy.check(pesel) == null ? 1 : 0);
+        assertNoAllocation("PackedPesel.pack", i -> PackedPesel.pack(pesel));
+    }
+
+    @Test
+    void should_not_allocate_when_reading_pesel_view() {
+        var pesels = new String[]{"92082683499", "04242625931", "92082683498"};
+        var bytes = "92082683499".getBytes(StandardCharsets.US_ASCII);
+        var view = PeselView.forCurrentThread();
+
+        assertNoAllocation("PeselView.pointTo(CharSequence)", i -> view.pointTo(pesels[i % 3]) ? view.getBirthYear() + view.getGenderDigit() : 0);
+        assertNoAllocation("PeselView.pointTo(byte[], int)", i -> view.pointTo(bytes, 0) ? view.getBirthEpochDay() : 0);
+        assertNoAllocation("PeselView.pointTo(long)", i -> view.pointTo(92082683499L) ? view.getBirthMonth() : 0);
+    }
+
+    @Test
+    void should_not_allocate_in_bulk_operations() {
+        var redactor = PeselRedactor.of(PeselMask.FULL);
+        var text = "user 92082683499 logged in from 10.0.0.1\n".getBytes(StandardCharsets.US_ASCII);
+        var partitioner = PeselPartitioner.of(16);
+        var filter = PeselBloomFilter.of(PeselEnumerator.enumerate(LocalDate.of(1992, 8, 26), LocalDate.of(1992, 8, 26), null), 0.01);
+        var tokenizer = PeselTokenizer.builder().key(new byte[16]).build();
+        var epochDays = new long[]{LocalDate.of(1992, 8, 26).toEpochDay()};
+        var serials = new int[]{834};
+        var genderDigits = new int[]{9};
+        var packedPesels = new long[1];
+        var batch = List.of("92082683499", "92082683498", "9208268349");
+        var reasons = new InvalidPeselReason[batch.size()];
+        var strategy = PeselValidationStrategy.standard();
+
+        assertNoAllocation("PeselRedactor.redact(byte[], int, int)", i -> redactor.redact(text, 0, text.length));
+        assertNoAllocation("PeselPartitioner.partition", i -> partitioner.partition("92082683499"));
+        assertNoAllocation("PeselBloomFilter.mightContain", i -> filter.mightContain("92082683499") ? 1 : 0);
+        assertNoAllocation("PeselTokenizer.tokenizePacked", i -> tokenizer.tokenizePacked(92082683499L));
+        assertNoAllocation("PeselEncoder.encodeAll", i -> {
+            PeselEncoder.encodeAll(epochDays, serials, genderDigits, packedPesels);
+            return packedPesels[0];
+        });
+        assertNoAllocation("PeselValidationStrategy.countValid", i -> strategy.countValid(batch));
+        assertNoAllocation("PeselValidationStrategy.checkAll", i -> strategy.checkAll(batch, reasons));
+    }
+
+    @Test
+    void should_not_allocate_when_validating_other_identifiers() {
+        var scanner = IdentifierRecordScanner.builder()
+                .delimiter(';')
+                .column(0, PolishIdentifier.PESEL)
+                .column(2, PolishIdentifier.NIP)
+                .column(3, PolishIdentifier.REGON14)
+                .build();
+        var record = "92082683499;Jan Kowalski;5260250274;12345678512347";
+        var bytes = record.getBytes(StandardCharsets.US_ASCII);
+
+        assertNoAllocation("PolishIdentifier.check", i -> PolishIdentifier.NIP.check("5260250274") == null ? 1 : 0);
+        assertNoAllocation("PolishIdentifier.packValid", i -> PolishIdentifier.REGON14.packValid("12345678512347"));
+        assertNoAllocation("IdentifierRecordScanner.scan(CharSequence)", i -> scanner.scan(record));
+        assertNoAllocation("IdentifierRecordScanner.scan(byte[], int, int)", i -> scanner.scan(bytes, 0, bytes.length));
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PerfTestSupport {
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static final int MEASUREMENT_ROUNDS = 7;
+
+    private static final int ALLOCATION_OPERATIONS = 200_000;
+
+    private static final long MAX_ALLOCATED_BYTES = 1024;
+
+    private static final int MEASUREMENT_ATTEMPTS = 3;
+
+    static volatile long sink;
+
+    private PerfTestSupport() {
+    }
+
+    static void assertNoAllocation(String description, IntToLongFunction operation) {
+        long bytes = allocatedBytes(ALLOCATION_OPERATIONS, operation);
+        assertTrue(bytes < MAX_ALLOCATED_BYTES, String.format("Expected no allocation by %s, but %d bytes were allocated in %d calls",
+                description, bytes, ALLOCATION_OPERATIONS));
+    }
+
+    static long allocatedBytes(int operations, IntToLongFunction operation) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocated memory should be supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        var threadId = Thread.currentThread().getId();
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(operations, operation);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        run(operations, operation);
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    static double nanosPerOperation(int operations, IntToLongFunction operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(operations, operation);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASUREMENT_ROUNDS; round++) {
+            long start = System.nanoTime();
+            run(operations, operation);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / operations;
+    }
+
+    static void assertFasterAtLeast(double minRatio, double nanosPerOperation, double referenceNanosPerOperation) {
+        double ratio = referenceNanosPerOperation / nanosPerOperation;
+        assertTrue(ratio >= minRatio, String.format("Expected at least %.1fx speed of the reference, but was %.2fx (%.1f ns vs %.1f ns)",
+                minRatio, ratio, nanosPerOperation, referenceNanosPerOperation));
+    }
+
+    static void withRetries(Runnable measurement) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                measurement.run();
+                return;
+            } catch (AssertionError e) {
+                if (attempt == MEASUREMENT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static void run(int operations, IntToLongFunction operation) {
+        long result = 0;
+        for (int i = 0; i < operations; i++) {
+            result += operation.applyAsLong(i);
+        }
+        sink = result;
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.github.viepovsky.polishutils.pesel.PerfTestSupport.assertFasterAtLeast;
+import static io.github.viepovsky.polishutils.pesel.PerfTestSupport.nanosPerOperation;
+import static io.github.viepovsky.polishutils.pesel.PerfTestSupport.withRetries;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ThroughputPerfTest {
+
+    private static final int OPERATIONS = 200_000;
+
+    private static final int[] WEIGHTS = new int[]{1, 3, 7, 9, 1, 3, 7, 9, 1, 3, 1};
+
+    private static final String[] VALID_PESELS = createValidPesels();
+
+    private static final String[] PESELS = createPesels();
+
+    private static String[] createValidPesels() {
+        var random = new Random(47);
+        var pesels = new String[4096];
+        for (int i = 0; i < pesels.length; i++) {
+            var birthDate = LocalDate.of(1940, 1, 1).plusDays(random.nextInt(80 * 365));
+            pesels[i] = PeselEncoder.encode(birthDate, random.nextInt(1000), random.nextInt(10));
+        }
+        return pesels;
+    }
+
+    private static String[] createPesels() {
+        var random = new Random(48);
+        var pesels = new String[4096];
+        for (int i = 0; i < pesels.length; i++) {
+            var pesel = VALID_PESELS[random.nextInt(VALID_PESELS.length)];
+            pesels[i] = switch (i % 8) {
+                case 5 -> pesel.substring(0, 10) + (char) ('0' + (pesel.charAt(10) - '0' + 1) % 10);
+                case 6 -> pesel.substring(0, 10);
+                case 7 -> "9213" + pesel.substring(4);
+                default -> pesel;
+            };
+        }
+        return pesels;
+    }
+
+    @Test
+    void should_validate_faster_than_regex_and_exceptions() {
+        var strategy = PeselValidationStrategy.standard();
+
+        withRetries(() -> {
+            double nanos = nanosPerOperation(OPERATIONS, i -> PeselValidator.isPeselValid(PESELS[i & 4095]) ? 1 : 0);
+            double strategyNanos = nanosPerOperation(OPERATIONS, i -> strategy.check(PESELS[i & 4095]) == null ? 1 : 0);
+            double referenceNanos = nanosPerOperation(OPERATIONS, i -> isValidWithRegex(PESELS[i & 4095]) ? 1 : 0);
+
+            assertFasterAtLeast(10, nanos, referenceNanos);
+            assertFasterAtLeast(10, strategyNanos, referenceNanos);
+        });
+    }
+
+    @Test
+    void should_decode_valid_pesels_faster_than_substrings_and_date_parsing() {
+        var decoding = PeselDecodingStrategy.standard();
+        var view = PeselView.forCurrentThread();
+
+        withRetries(() -> {
+            double nanos = nanosPerOperation(OPERATIONS, i -> decoding.decode(VALID_PESELS[i & 4095]).getBirthDate().toEpochDay());
+            double viewNanos = nanosPerOperation(OPERATIONS, i -> view.pointTo(VALID_PESELS[i & 4095]) ? view.getBirthEpochDay() : 0);
+            double referenceNanos = nanosPerOperation(OPERATIONS, i -> decodeWithParsing(VALID_PESELS[i & 4095]));
+
+            assertFasterAtLeast(4, nanos, referenceNanos);
+            assertFasterAtLeast(10, viewNanos, referenceNanos);
+        });
+    }
+
+    @Test
+    void should_generate_faster_than_string_formatting() {
+        var packedPesels = new long[1024];
+        var epochDays = new long[1024];
+        var serials = new int[1024];
+        var genderDigits = new int[1024];
+
+        withRetries(() -> {
+            double nanos = nanosPerOperation(OPERATIONS, i -> PeselGenerator.generatePeselStatic().length());
+            double bulkNanos = nanosPerOperation(OPERATIONS / 1024, i -> {
+                PeselEncoder.encodeAll(epochDays, serials, genderDigits, packedPesels);
+                return packedPesels[i & 1023];
+            }) / 1024;
+            double referenceNanos = nanosPerOperation(OPERATIONS, i -> generateWithFormatting().length());
+
+            assertFasterAtLeast(3, nanos, referenceNanos);
+            assertFasterAtLeast(8, bulkNanos, referenceNanos);
+        });
+    }
+
+    private static boolean isValidWithRegex(String pesel) {
+        if (!pesel.matches("\\d{11}")) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < 11; i++) {
+            sum += WEIGHTS[i] * Character.getNumericValue(pesel.charAt(i));
+        }
+        if (sum % 10 != 0) {
+            return false;
+        }
+        try {
+            decodeBirthDate(pesel);
+            return true;
+        } catch (DateTimeException e) {
+            return false;
+        }
+    }
+
+    private static long decodeWithParsing(String pesel) {
+        if (!isValidWithRegex(pesel)) {
+            return 0;
+        }
+        return decodeBirthDate(pesel).toEpochDay();
+    }
+
+    private static LocalDate decodeBirthDate(String pesel) {
+        int year = Integer.parseInt(pesel.substring(0, 2));
+        int month = Integer.parseInt(pesel.substring(2, 4));
+        int century = switch (month / 20) {
+            case 4 -> 1800;
+            case 1 -> 2000;
+            case 2 -> 2100;
+            case 3 -> 2200;
+            default -> 1900;
+        };
+        String date = (century + year) + "-" + String.format("%02d", month % 20) + "-" + pesel.substring(4, 6);
+        return LocalDate.parse(date);
+    }
+
+    private static String generateWithFormatting() {
+        var random = ThreadLocalRandom.current();
+        var date = LocalDate.now().minusDays(random.nextInt(36_500));
+        int month = date.getMonthValue() + (date.getYear() >= 2000 ? 20 : 0);
+        String prefix = String.format("%02d%02d%02d%04d", date.getYear() % 100, month, date.getDayOfMonth(), random.nextInt(10_000));
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            sum += WEIGHTS[i] * Character.getNumericValue(prefix.charAt(i));
+        }
+        return prefix + (10 - sum % 10) % 10;
+    }
+}
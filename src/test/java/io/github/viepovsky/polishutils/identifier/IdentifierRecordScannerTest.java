@@ -0,0 +1,89 @@
+package io.github.viepovsky.polishutils.identifier;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class IdentifierRecordScannerTest {
+
+    private final IdentifierRecordScanner scanner = IdentifierRecordScanner.builder()
+            .delimiter(';')
+            .column(0, PolishIdentifier.PESEL)
+            .column(2, PolishIdentifier.NIP)
+            .column(3, PolishIdentifier.REGON9)
+            .column(4, PolishIdentifier.REGON14)
+            .build();
+
+    @Test
+    void should_return_mask_of_valid_columns() {
+        assertEquals(0b11101, scanner.getColumnsMask());
+        assertEquals(0b11101, scanner.scan("92082683499;Jan Kowalski;5260250274;123456785;12345678512347"));
+        assertEquals(0b11001, scanner.scan("92082683499;Jan Kowalski;5260250275;123456785;12345678512347"));
+        assertEquals(0b10100, scanner.scan("92023012344;123;5260250274;12345678;12345678512347;extra"));
+        assertEquals(0b00001, scanner.scan("92082683499;;5260250274x"));
+        assertEquals(0b00000, scanner.scan(""));
+    }
+
+    @Test
+    void should_reject_too_long_identifiers_and_other_characters() {
+        assertEquals(0b11100, scanner.scan("920826834990;;5260250274;123456785;12345678512347"));
+        assertEquals(0b11100, scanner.scan(" 92082683499;;5260250274;123456785;12345678512347"));
+    }
+
+    @Test
+    void should_scan_ascii_bytes_the_same_as_strings() {
+        var records = List.of(
+                "92082683499;Jan Kowalski;5260250274;123456785;12345678512347",
+                "92082683498;Anna Nowak;7680002466;123456786;1234567851234",
+                "04242625931;;1234567890;000000030;12345678512347");
+        var buffer = ("header\n" + String.join("\n", records)).getBytes(StandardCharsets.US_ASCII);
+
+        var from = "header\n".length();
+        for (var record : records) {
+            assertEquals(scanner.scan(record), scanner.scan(buffer, from, from + record.length()), record);
+            from += record.length() + 1;
+        }
+    }
+
+    @Test
+    void should_scan_all_records_in_bulk() {
+        var records = List.of(
+                "92082683499;Jan Kowalski;5260250274;123456785;12345678512347",
+                "92082683498;Anna Nowak;7680002466;123456786;1234567851234",
+                "04242625931;;7680002466;000000030;12345678512347");
+        var masks = new int[records.size()];
+
+        assertEquals(2, scanner.scanAll(records, masks));
+        assertArrayEquals(new int[]{0b11101, 0b00100, 0b11101}, masks);
+        assertEquals(2, scanner.countValid(records));
+        assertTrue(scanner.isValid(records.get(0)));
+        assertFalse(scanner.isValid(records.get(1)));
+    }
+
+    @Test
+    void should_throw_exception_when_configuration_is_invalid() {
+        var builder = IdentifierRecordScanner.builder().column(0, PolishIdentifier.NIP);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.column(0, PolishIdentifier.REGON9));
+        assertThrows(IllegalArgumentException.class, () -> builder.column(32, PolishIdentifier.REGON9));
+        assertThrows(IllegalArgumentException.class, () -> builder.column(-1, PolishIdentifier.REGON9));
+        assertThrows(IllegalArgumentException.class, () -> builder.delimiter('5'));
+        assertThrows(IllegalArgumentException.class, () -> IdentifierRecordScanner.builder().build());
+        assertThrows(NullPointerException.class, () -> builder.column(1, null));
+    }
+
+    @Test
+    void should_use_last_column_bit_as_sign_bit() {
+        var lastColumnScanner = IdentifierRecordScanner.builder().column(31, PolishIdentifier.NIP).build();
+        var record = ",".repeat(31) + "5260250274";
+
+        assertEquals(Integer.MIN_VALUE, lastColumnScanner.scan(record));
+        assertTrue(lastColumnScanner.isValid(record));
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.viepovsky.polishutils.identifier;
+
+import io.github.viepovsky.polishutils.pesel.PeselValidator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PolishIdentifierTest {
+
+    @Test
+    void should_accept_valid_identifiers() {
+        assertNull(PolishIdentifier.PESEL.check("92082683499"));
+        assertNull(PolishIdentifier.PESEL.check("04242625931"));
+        assertNull(PolishIdentifier.NIP.check("5260250274"));
+        assertNull(PolishIdentifier.NIP.check("7680002466"));
+        assertNull(PolishIdentifier.REGON9.check("123456785"));
+        assertNull(PolishIdentifier.REGON14.check("12345678512347"));
+    }
+
+    @Test
+    void should_return_reason_of_invalid_identifiers() {
+        assertEquals(InvalidIdentifierReason.INVALID_LENGTH, PolishIdentifier.NIP.check("526025027"));
+        assertEquals(InvalidIdentifierReason.INVALID_CHARACTERS, PolishIdentifier.NIP.check("526-025-02"));
+        assertEquals(InvalidIdentifierReason.INVALID_CONTROL_DIGIT, PolishIdentifier.NIP.check("5260250275"));
+        assertEquals(InvalidIdentifierReason.INVALID_CONTROL_DIGIT, PolishIdentifier.REGON9.check("123456786"));
+        assertEquals(InvalidIdentifierReason.INVALID_CONTROL_DIGIT, PolishIdentifier.REGON14.check("12345678512348"));
+        assertEquals(InvalidIdentifierReason.INVALID_CONTROL_DIGIT, PolishIdentifier.PESEL.check("92082683498"));
+        assertEquals(InvalidIdentifierReason.INVALID_CONTENT, PolishIdentifier.PESEL.check("92023012344"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1234567890", "1234567891", "1234567899"})
+    void should_reject_every_nip_with_sum_remainder_of_ten(String givenNip) {
+        assertEquals(InvalidIdentifierReason.INVALID_CONTROL_DIGIT, PolishIdentifier.NIP.check(givenNip));
+    }
+
+    @Test
+    void should_accept_regon_with_control_digit_zero_for_sum_remainder_of_ten() {
+        assertTrue(PolishIdentifier.REGON9.isValid("000000030"));
+        assertNull(PolishIdentifier.REGON9.check("000000030".getBytes(StandardCharsets.US_ASCII), 0));
+        assertEquals(InvalidIdentifierReason.INVALID_CONTROL_DIGIT, PolishIdentifier.REGON9.check("000000031"));
+    }
+
+    @Test
+    void should_validate_pesel_the_same_as_pesel_validator() {
+        for (long value = 92082600000L; value < 92082700000L; value += 7) {
+            var pesel = PolishIdentifier.PESEL.unpack(value);
+
+            assertEquals(PeselValidator.isPeselValid(pesel), PolishIdentifier.PESEL.isValid(pesel), pesel);
+        }
+    }
+
+    @Test
+    void should_pack_valid_identifiers_and_unpack_them_with_leading_zeros() {
+        assertEquals(5260250274L, PolishIdentifier.NIP.packValid("5260250274"));
+        assertEquals(PolishIdentifier.INVALID, PolishIdentifier.NIP.packValid("5260250275"));
+        assertEquals(4242625931L, PolishIdentifier.PESEL.packValid("04242625931"));
+        assertEquals("04242625931", PolishIdentifier.PESEL.unpack(4242625931L));
+        assertThrows(IllegalArgumentException.class, () -> PolishIdentifier.REGON9.unpack(1_000_000_000L));
+        assertThrows(IllegalArgumentException.class, () -> PolishIdentifier.REGON9.unpack(-1));
+    }
+
+    @Test
+    void should_check_all_identifiers_in_bulk() {
+        var nips = List.of("5260250274", "5260250275", "526025027", "7680002466");
+        var reasons = new InvalidIdentifierReason[nips.size()];
+
+        assertEquals(2, PolishIdentifier.NIP.checkAll(nips, reasons));
+        assertArrayEquals(new InvalidIdentifierReason[]{null, InvalidIdentifierReason.INVALID_CONTROL_DIGIT, InvalidIdentifierReason.INVALID_LENGTH, null}, reasons);
+        assertEquals(2, PolishIdentifier.NIP.countValid(nips));
+        assertThrows(IllegalArgumentException.class, () -> PolishIdentifier.NIP.checkAll(nips, new InvalidIdentifierReason[3]));
+    }
+
+    @Test
+    void should_summarize_and_pack_identifiers_in_streams() {
+        var nips = List.of("5260250274", "5260250275", "526025027", "7680002466", "1234567890");
+
+        var summary = nips.parallelStream().collect(IdentifierCollectors.summarizing(PolishIdentifier.NIP));
+        var packed = nips.stream().mapMultiToLong(IdentifierCollectors.packingValid(PolishIdentifier.NIP)).toArray();
+
+        assertEquals(2, summary.getValidCount());
+        assertEquals(3, summary.getInvalidCount());
+        assertEquals(2, summary.getInvalidCount(InvalidIdentifierReason.INVALID_CONTROL_DIGIT));
+        assertEquals(5, summary.getCount());
+        assertArrayEquals(new long[]{5260250274L, 7680002466L}, packed);
+    }
+
+    @Test
+    void should_throw_exception_when_identifier_is_null() {
+        assertThrows(NullPointerException.class, () -> PolishIdentifier.NIP.check((CharSequence) null));
+        assertThrows(NullPointerException.class, () -> IdentifierCollectors.summarizing(null));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class AliasTableTest {
+
+    @Test
+    void should_sample_indexes_proportionally_to_weights() {
+        var table = new AliasTable(new double[]{1, 0, 3, 6});
+        var random = new Random(42);
+        var counts = new int[4];
+
+        for (int i = 0; i < 100_000; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        assertEquals(0, counts[1]);
+        assertEquals(10_000, counts[0], 600);
+        assertEquals(30_000, counts[2], 900);
+        assertEquals(60_000, counts[3], 900);
+    }
+
+    @Test
+    void should_always_sample_single_index() {
+        var table = new AliasTable(new double[]{0, 0, 5});
+        var random = new Random(7);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(2, table.sample(random));
+        }
+    }
+}
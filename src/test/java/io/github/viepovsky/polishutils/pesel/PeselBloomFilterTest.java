@@ -0,0 +1,100 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselBloomFilterTest {
+
+    private static final LocalDate DATE = LocalDate.of(1992, 8, 26);
+
+    @Test
+    void should_contain_every_pesel_and_keep_false_positive_rate() {
+        var filter = PeselBloomFilter.ofPacked(PeselEnumerator.enumeratePacked(DATE, DATE.plusDays(9), null), 0.01);
+
+        PeselEnumerator.enumeratePacked(DATE, DATE.plusDays(9), null).forEach(packed -> assertTrue(filter.mightContain(packed)));
+        long falsePositives = PeselEnumerator.enumeratePacked(DATE.plusDays(10), DATE.plusDays(19), null)
+                .filter(filter::mightContain)
+                .count();
+
+        assertEquals(100_000, filter.getCount());
+        assertTrue(falsePositives < 1_300, "false positives " + falsePositives);
+        assertTrue(filter.mightContain("92082683499"));
+        assertFalse(filter.mightContain("9208268349"));
+    }
+
+    @Test
+    void should_skip_invalid_pesels() {
+        var filter = PeselBloomFilter.of(Stream.of("92082683499", "92082683498", "abc"), 0.001);
+
+        assertEquals(1, filter.getCount());
+        assertTrue(filter.mightContain("92082683499"));
+    }
+
+    @Test
+    void should_read_and_map_written_filter() throws IOException {
+        var filter = PeselBloomFilter.ofPacked(PeselEnumerator.enumeratePacked(DATE, DATE, null), 0.001);
+        var output = new ByteArrayOutputStream();
+        filter.writeTo(output);
+        var path = Files.createTempFile("pesels", ".pbf");
+        try {
+            filter.writeTo(path);
+
+            var read = PeselBloomFilter.readFrom(new ByteArrayInputStream(output.toByteArray()));
+            var mapped = PeselBloomFilter.map(path);
+
+            assertEquals(32 + filter.getSizeInBytes(), Files.size(path));
+            assertEquals(filter.getCount(), mapped.getCount());
+            assertEquals(0.001, mapped.getFalsePositiveRate());
+            LongStream.range(92_000_000_000L, 92_000_100_000L).forEach(packed -> {
+                assertEquals(filter.mightContain(packed), read.mightContain(packed));
+                assertEquals(filter.mightContain(packed), mapped.mightContain(packed));
+            });
+            Files.write(path, new byte[]{1, 2, 3});
+            assertThrows(IOException.class, () -> PeselBloomFilter.map(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void should_reject_corrupted_header() throws IOException {
+        var output = new ByteArrayOutputStream();
+        PeselBloomFilter.ofPacked(PeselEnumerator.enumeratePacked(DATE, DATE, null), 0.01).writeTo(output);
+        var path = Files.createTempFile("pesels", ".pbf");
+        try {
+            for (var corruption : new int[][]{{4, 0}, {4, -1}, {4, 64}, {31, 0x7F}, {31, 0}}) {
+                var bytes = output.toByteArray();
+                bytes[corruption[0]] = (byte) corruption[1];
+                if (corruption[0] == 4) {
+                    bytes[5] = bytes[6] = bytes[7] = (byte) (corruption[1] < 0 ? -1 : 0);
+                }
+                Files.write(path, bytes);
+
+                assertThrows(IOException.class, () -> PeselBloomFilter.readFrom(new ByteArrayInputStream(bytes)));
+                assertThrows(IOException.class, () -> PeselBloomFilter.map(path));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void should_throw_on_invalid_arguments() {
+        assertThrows(IllegalArgumentException.class, () -> PeselBloomFilter.of(Stream.empty(), 0));
+        assertThrows(IllegalArgumentException.class, () -> PeselBloomFilter.of(Stream.empty(), 0.6));
+        assertThrows(IllegalArgumentException.class, () -> PeselBloomFilter.ofPacked(LongStream.of(-1L), 0.01));
+        assertThrows(NullPointerException.class, () -> PeselBloomFilter.of(Stream.empty(), 0.01).mightContain(null));
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselCollectorsTest {
+
+    private static final List<String> PESELS = List.of(
+            "92082683499", "92082683498", "9208268349", "92082683a99", "04242625931", "20130100001");
+
+    @Test
+    void should_count_valid_and_invalid_pesels_by_reason() {
+        var summary = PESELS.stream().collect(PeselCollectors.summarizing());
+
+        assertEquals(2, summary.getValidCount());
+        assertEquals(4, summary.getInvalidCount());
+        assertEquals(6, summary.getCount());
+        assertEquals(1, summary.getInvalidCount(InvalidPeselReason.INVALID_CONTROL_DIGIT));
+        assertEquals(1, summary.getInvalidCount(InvalidPeselReason.INVALID_LENGTH));
+        assertEquals(1, summary.getInvalidCount(InvalidPeselReason.INVALID_CHARACTERS));
+        assertEquals(1, summary.getInvalidCount(InvalidPeselReason.INVALID_BIRTH_DATE));
+    }
+
+    @Test
+    void should_partition_and_decode_pesels() {
+        var partition = PESELS.stream().collect(PeselCollectors.partitioning(PeselValidationStrategy.lenient()));
+        var decoded = PESELS.stream().mapMulti(PeselCollectors.decodingValid()).collect(Collectors.toList());
+        var packed = PESELS.stream().mapMultiToLong(PeselCollectors.packingValid()).toArray();
+
+        assertEquals(List.of(new Pesel("92082683499"), new Pesel("04242625931")), partition.getValid());
+        assertEquals(List.of("92082683498", "9208268349", "92082683a99", "20130100001"), partition.getInvalid());
+        assertEquals(1, partition.getSummary().getInvalidCount(InvalidPeselReason.INVALID_BIRTH_DATE));
+        assertEquals(partition.getValid(), decoded);
+        assertArrayEquals(new long[]{92082683499L, 4242625931L}, packed);
+    }
+
+    @Test
+    void should_give_the_same_results_for_parallel_streams() {
+        var date = LocalDate.of(2000, 2, 29);
+        var pesels = Stream.concat(PeselEnumerator.enumerate(date, date, null), PESELS.stream().limit(4))
+                .flatMap(pesel -> Stream.of(pesel, pesel.substring(0, 10) + "x"))
+                .collect(Collectors.toList());
+
+        var partition = pesels.stream().collect(PeselCollectors.partitioning());
+        var parallelPartition = pesels.parallelStream().collect(PeselCollectors.partitioning());
+        var parallelSummary = pesels.parallelStream().collect(PeselCollectors.summarizing());
+
+        assertEquals(10_001, partition.getValid().size());
+        assertEquals(partition.getValid(), parallelPartition.getValid());
+        assertEquals(partition.getInvalid(), parallelPartition.getInvalid());
+        assertEquals(partition.getSummary().toString(), parallelSummary.toString());
+    }
+
+    @Test
+    void should_apply_the_same_birth_date_rule_in_every_collector() {
+        for (var validation : List.of(PeselValidationStrategy.lenient(), PeselValidationStrategy.of(PeselValidationLevel.FORMAT))) {
+            var summary = PESELS.stream().collect(PeselCollectors.summarizing(validation));
+            var partition = PESELS.stream().collect(PeselCollectors.partitioning(validation));
+            var packed = PESELS.stream().mapMultiToLong(PeselCollectors.packingValid(validation)).toArray();
+
+            assertEquals(summary.toString(), partition.getSummary().toString());
+            assertEquals(1, summary.getInvalidCount(InvalidPeselReason.INVALID_BIRTH_DATE));
+            assertEquals(partition.getValid().size(), packed.length);
+            assertFalse(partition.getValid().isEmpty());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselCorrectorTest {
+    @Test
+    void should_suggest_pesel_with_corrected_control_digit() {
+        var candidates = new PeselCorrector().suggest("78010469225");
+
+        assertTrue(candidates.stream().anyMatch(candidate -> candidate.getPesel().equals("78010469227")
+                && candidate.getType() == PeselCorrector.CorrectionType.SUBSTITUTION
+                && candidate.getPosition() == 10));
+    }
+
+    @Test
+    void should_suggest_pesel_with_swapped_digits() {
+        var candidates = new PeselCorrector().suggest("78010496227");
+
+        assertTrue(candidates.stream().anyMatch(candidate -> candidate.getPesel().equals("78010469227")
+                && candidate.getType() == PeselCorrector.CorrectionType.TRANSPOSITION
+                && candidate.getPosition() == 6));
+    }
+
+    @Test
+    void should_rank_known_pesel_first() {
+        var corrector = new PeselCorrector(Set.of("78010469227")::contains);
+
+        var candidates = corrector.suggest("78010469225");
+
+        assertEquals("78010469227", candidates.get(0).getPesel());
+        assertTrue(candidates.get(0).isKnown());
+        assertTrue(candidates.stream().skip(1).noneMatch(PeselCorrector.Candidate::isKnown));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"78010469227", "7801046922", "7801046922a"})
+    void should_not_suggest_anything_for_valid_or_malformed_pesel(String givenPesel) {
+        assertTrue(new PeselCorrector().suggest(givenPesel).isEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"78010469225", "78010496227", "87010469227", "78013069227", "00000000000", "92082683490"})
+    void should_suggest_the_same_pesels_as_brute_force_search(String givenPesel) {
+        Set<String> expected = new HashSet<>();
+        char[] digits = givenPesel.toCharArray();
+        for (int i = 0; i < 11; i++) {
+            char original = digits[i];
+            for (char digit = '0'; digit <= '9'; digit++) {
+                digits[i] = digit;
+                addIfValid(expected, new String(digits));
+            }
+            digits[i] = original;
+        }
+        for (int i = 0; i < 10; i++) {
+            char first = digits[i];
+            digits[i] = digits[i + 1];
+            digits[i + 1] = first;
+            addIfValid(expected, new String(digits));
+            digits[i + 1] = digits[i];
+            digits[i] = first;
+        }
+
+        var candidates = new PeselCorrector().suggest(givenPesel);
+
+        assertEquals(expected, candidates.stream().map(PeselCorrector.Candidate::getPesel).collect(Collectors.toSet()));
+        assertEquals(expected.size(), candidates.size());
+    }
+
+    private static void addIfValid(Set<String> pesels, String pesel) {
+        if (PeselValidator.isPeselValid(pesel)) {
+            pesels.add(pesel);
+        }
+    }
+
+    @Test
+    void should_throw_exception_if_given_pesel_is_null() {
+        assertThrows(NullPointerException.class, () -> new PeselCorrector().suggest(null));
+    }
+}
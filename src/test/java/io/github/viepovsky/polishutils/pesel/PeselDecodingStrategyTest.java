@@ -0,0 +1,102 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselDecodingStrategyTest {
+
+    @Test
+    void should_decode_pesel_with_standard_strategy() {
+        var pesel = PeselDecodingStrategy.standard().decode("92082683499");
+
+        assertEquals(LocalDate.of(1992, 8, 26), pesel.getBirthDate());
+        assertEquals("MALE", pesel.getGender());
+        assertThrows(InvalidPeselException.class, () -> PeselDecodingStrategy.standard().decode("92082683498"));
+        assertThrows(NullPointerException.class, () -> PeselDecodingStrategy.standard().decode(null));
+    }
+
+    @Test
+    void should_reuse_cached_pesel() {
+        var decoding = PeselDecodingStrategy.caching(PeselValidationStrategy.standard(), 16);
+
+        var first = decoding.decode("92082683499");
+        var second = decoding.decode(new String("92082683499".toCharArray()));
+
+        assertSame(first, second);
+        assertThrows(InvalidPeselException.class, () -> decoding.decode("92082683498"));
+        assertThrows(NullPointerException.class, () -> decoding.decode(null));
+    }
+
+    @Test
+    void should_validate_cached_pesel_again_when_day_changes() {
+        var clock = new MutableClock(LocalDate.of(2000, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC));
+        var validation = PeselValidationStrategy.builder().clock(clock).ageBetween(0, 9).build();
+        var decoding = PeselDecodingStrategy.caching(validation, 16);
+        var pesel = PeselEncoder.encode(LocalDate.of(1990, 6, 16), 123, 4);
+
+        var first = decoding.decode(pesel);
+        assertSame(first, decoding.decode(pesel));
+
+        clock.instant = clock.instant.plusSeconds(24 * 60 * 60);
+
+        assertThrows(InvalidPeselException.class, () -> decoding.decode(pesel));
+    }
+
+    @Test
+    void should_decode_different_pesels_with_single_entry_cache() {
+        var decoding = PeselDecodingStrategy.caching(PeselValidationStrategy.standard(), 1);
+
+        for (int serial = 0; serial < 100; serial++) {
+            String pesel = PeselEncoder.encode(LocalDate.of(1990, 1, 1), serial, serial % 10);
+            assertEquals(serial, decoding.decode(pesel).getSerialDigits());
+        }
+    }
+
+    @Test
+    void should_check_birth_date_when_decoding_with_lenient_strategy() {
+        var decoding = PeselDecodingStrategy.of(PeselValidationStrategy.lenient());
+
+        var exception = assertThrows(InvalidPeselException.class, () -> decoding.decode("90023012340"));
+        assertEquals(InvalidPeselReason.INVALID_BIRTH_DATE.getMessage(), exception.getMessage());
+        assertEquals(LocalDate.of(1992, 8, 26), decoding.decode("92082683499").getBirthDate());
+    }
+
+    @Test
+    void should_throw_exception_if_cache_size_is_invalid() {
+        assertThrows(IllegalArgumentException.class, () -> PeselDecodingStrategy.caching(PeselValidationStrategy.standard(), 0));
+        assertThrows(NullPointerException.class, () -> PeselDecodingStrategy.caching(null, 16));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselDuplicateFinderTest {
+    @Test
+    void should_find_pesels_differing_by_single_digit() {
+        var pairs = PeselDuplicateFinder.findAll(List.of("78010469227", "92082683499", "78010469225"));
+
+        assertEquals(1, pairs.size());
+        var pair = pairs.get(0);
+        assertEquals(0, pair.getFirstIndex());
+        assertEquals(2, pair.getSecondIndex());
+        assertEquals("78010469227", pair.getFirstPesel());
+        assertEquals("78010469225", pair.getSecondPesel());
+        assertEquals(PeselCorrector.CorrectionType.SUBSTITUTION, pair.getType());
+        assertEquals(10, pair.getPosition());
+        assertEquals(PeselDuplicateFinder.Validity.ONE, pair.getValidity());
+    }
+
+    @Test
+    void should_find_pesels_differing_by_swapped_digits() {
+        var pairs = PeselDuplicateFinder.findAll(List.of("78010496227", "78010469227"));
+
+        assertEquals(1, pairs.size());
+        assertEquals(PeselCorrector.CorrectionType.TRANSPOSITION, pairs.get(0).getType());
+        assertEquals(6, pairs.get(0).getPosition());
+    }
+
+    @Test
+    void should_skip_exact_duplicates_and_malformed_pesels() {
+        var pairs = PeselDuplicateFinder.findAll(Arrays.asList("78010469227", "78010469227", "7801046922a", null, "7801046922"));
+
+        assertTrue(pairs.isEmpty());
+    }
+
+    @Test
+    void should_find_the_same_pairs_as_comparing_all_pairs() {
+        var random = new Random(42);
+        List<String> pesels = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            char[] digits = PeselGenerator.generatePeselStatic().toCharArray();
+            pesels.add(new String(digits));
+            if (random.nextBoolean()) {
+                int position = random.nextInt(10);
+                char digit = digits[position];
+                digits[position] = digits[position + 1];
+                digits[position + 1] = digit;
+            } else {
+                digits[random.nextInt(11)] = (char) ('0' + random.nextInt(10));
+            }
+            pesels.add(new String(digits));
+        }
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < pesels.size(); i++) {
+            for (int j = i + 1; j < pesels.size(); j++) {
+                if (isSingleTypo(pesels.get(i), pesels.get(j))) {
+                    expected.add(i + ":" + j);
+                }
+            }
+        }
+
+        Set<String> found = new HashSet<>();
+        PeselDuplicateFinder.find(pesels, pair -> {
+            assertTrue(pair.getFirstIndex() < pair.getSecondIndex());
+            assertTrue(found.add(pair.getFirstIndex() + ":" + pair.getSecondIndex()));
+        });
+
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void should_report_pair_for_every_record_of_repeated_pesel() {
+        var pesels = new ArrayList<>(Collections.nCopies(40_000, "92082683499"));
+        pesels.add(20_000, "92082683498");
+
+        var pairs = PeselDuplicateFinder.findAll(pesels);
+
+        assertEquals(40_000, pairs.size());
+        for (var pair : pairs) {
+            var typoFirst = pair.getFirstIndex() == 20_000;
+            assertEquals(typoFirst ? "92082683498" : "92082683499", pair.getFirstPesel());
+            assertEquals(typoFirst ? "92082683499" : "92082683498", pair.getSecondPesel());
+            assertTrue(typoFirst || pair.getSecondIndex() == 20_000);
+            assertEquals(PeselDuplicateFinder.Validity.ONE, pair.getValidity());
+        }
+    }
+
+    @Test
+    void should_find_planted_pairs_when_joining_in_parallel_chunks() {
+        var random = new Random(7);
+        List<String> pesels = new ArrayList<>(new PeselGenerator(PeselGeneratorParams.builder().build()).generatePesels(200_000));
+        Set<String> planted = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            int original = random.nextInt(200_000);
+            char[] digits = pesels.get(original).toCharArray();
+            int position = random.nextInt(11);
+            digits[position] = (char) ('0' + (digits[position] - '0' + 1 + random.nextInt(9)) % 10);
+            planted.add(original + ":" + pesels.size());
+            pesels.add(new String(digits));
+        }
+
+        Set<String> found = new HashSet<>();
+        PeselDuplicateFinder.find(pesels, pair -> {
+            assertTrue(isSingleTypo(pesels.get(pair.getFirstIndex()), pesels.get(pair.getSecondIndex())));
+            assertTrue(found.add(pair.getFirstIndex() + ":" + pair.getSecondIndex()));
+        });
+
+        assertTrue(found.containsAll(planted));
+    }
+
+    private static boolean isSingleTypo(String first, String second) {
+        int firstDifference = -1;
+        int differences = 0;
+        for (int i = 0; i < 11; i++) {
+            if (first.charAt(i) != second.charAt(i)) {
+                differences++;
+                firstDifference = firstDifference < 0 ? i : firstDifference;
+            }
+        }
+        if (differences == 1) {
+            return true;
+        }
+        return differences == 2 && firstDifference < 10
+                && first.charAt(firstDifference) == second.charAt(firstDifference + 1)
+                && first.charAt(firstDifference + 1) == second.charAt(firstDifference);
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselEncoderTest {
+
+    @ParameterizedTest
+    @MethodSource("provideComponents")
+    void should_encode_pesel_from_components(LocalDate birthDate, int serial, int genderDigit, String expectedPrefix) {
+        String pesel = PeselEncoder.encode(birthDate, serial, genderDigit);
+
+        assertEquals(expectedPrefix, pesel.substring(0, 10));
+        assertTrue(PeselValidator.isPeselValid(pesel));
+        assertEquals(birthDate, new Pesel(pesel).getBirthDate());
+    }
+
+    private static Stream<Arguments> provideComponents() {
+        return Stream.of(
+                Arguments.of(LocalDate.of(1800, 1, 1), 0, 0, "0081010000"),
+                Arguments.of(LocalDate.of(1999, 12, 31), 7, 2, "9912310072"),
+                Arguments.of(LocalDate.of(2000, 2, 29), 123, 4, "0022291234"),
+                Arguments.of(LocalDate.of(2150, 6, 5), 50, 5, "5046050505"),
+                Arguments.of(LocalDate.of(2299, 12, 31), 999, 9, "9972319999")
+        );
+    }
+
+    @Test
+    void should_encode_known_pesel() {
+        assertEquals("92082683499", PeselEncoder.encode(LocalDate.of(1992, 8, 26), 834, 9));
+    }
+
+    @Test
+    void should_encode_every_day_of_pesel_range_like_local_date() {
+        long minEpochDay = LocalDate.of(1800, 1, 1).toEpochDay();
+        long maxEpochDay = LocalDate.of(2299, 12, 31).toEpochDay();
+
+        for (long epochDay = minEpochDay; epochDay <= maxEpochDay; epochDay++) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            int expectedDate = date.getYear() * 10_000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+            assertEquals(expectedDate, PeselCalendar.dateOfEpochDay(epochDay));
+        }
+        assertEquals(PeselEncoder.encode(LocalDate.of(1950, 3, 1), 5, 1), PeselEncoder.encodeEpochDay(LocalDate.of(1950, 3, 1).toEpochDay(), 5, 1));
+    }
+
+    @Test
+    void should_throw_exception_if_components_are_invalid() {
+        var date = LocalDate.of(1990, 1, 1);
+
+        assertThrows(NullPointerException.class, () -> PeselEncoder.encode(null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.encode(LocalDate.of(1799, 12, 31), 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.encode(LocalDate.of(2300, 1, 1), 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.encode(date, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.encode(date, 1000, 0));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.encode(date, 0, 10));
+    }
+
+    @Test
+    void should_build_pesel_from_components() {
+        var builder = PeselEncoder.builder()
+                .birthDate(LocalDate.of(1992, 8, 26))
+                .serialDigits(834)
+                .genderDigit(9);
+
+        assertEquals("92082683499", builder.build());
+        assertEquals(92082683499L, builder.buildPacked());
+    }
+
+    @Test
+    void should_throw_exception_if_builder_components_are_invalid_or_missing() {
+        assertThrows(NullPointerException.class, () -> PeselEncoder.builder().birthDate(null));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.builder().birthDate(LocalDate.of(2300, 1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.builder().serialDigits(1000));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.builder().genderDigit(-1));
+        assertThrows(IllegalStateException.class, () -> PeselEncoder.builder().serialDigits(1).genderDigit(1).build());
+        assertThrows(IllegalStateException.class, () -> PeselEncoder.builder().birthDate(LocalDate.of(1990, 1, 1)).buildPacked());
+    }
+
+    @Test
+    void should_encode_all_components_to_packed_pesels() {
+        long minEpochDay = LocalDate.of(1800, 1, 1).toEpochDay();
+        int count = (int) (LocalDate.of(2299, 12, 31).toEpochDay() - minEpochDay + 1);
+        var birthEpochDays = new long[count];
+        var serials = new int[count];
+        var genderDigits = new int[count];
+        for (int i = 0; i < count; i++) {
+            birthEpochDays[i] = minEpochDay + i;
+            serials[i] = i % 1000;
+            genderDigits[i] = i % 10;
+        }
+        var packedPesels = new long[count];
+
+        PeselEncoder.encodeAll(birthEpochDays, serials, genderDigits, packedPesels);
+
+        for (int i = 0; i < count; i++) {
+            String expectedPesel = PeselEncoder.encode(LocalDate.ofEpochDay(birthEpochDays[i]), serials[i], genderDigits[i]);
+            assertEquals(expectedPesel, PackedPesel.unpack(packedPesels[i]));
+        }
+    }
+
+    @Test
+    void should_throw_exception_if_batch_components_are_invalid() {
+        var birthEpochDays = new long[]{LocalDate.of(1990, 1, 1).toEpochDay(), LocalDate.of(1990, 1, 2).toEpochDay()};
+
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.encodeAll(birthEpochDays, new int[2], new int[1], new long[2]));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.encodeAll(birthEpochDays, new int[]{0, 1000}, new int[2], new long[2]));
+        assertThrows(IllegalArgumentException.class, () -> PeselEncoder.encodeAll(new long[]{LocalDate.of(1799, 12, 31).toEpochDay()}, new int[1], new int[1], new long[1]));
+    }
+}
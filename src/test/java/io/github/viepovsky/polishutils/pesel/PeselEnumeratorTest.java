@@ -0,0 +1,78 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselEnumeratorTest {
+
+    @Test
+    void should_enumerate_all_valid_pesels_of_a_day() {
+        var date = LocalDate.of(1992, 8, 26);
+
+        var pesels = PeselEnumerator.enumerate(date, date, null).collect(Collectors.toList());
+
+        assertEquals(10_000, pesels.size());
+        assertEquals(10_000, new HashSet<>(pesels).size());
+        assertTrue(pesels.contains("92082683499"));
+        for (String pesel : pesels) {
+            assertTrue(PeselValidator.isPeselValid(pesel), pesel);
+            assertEquals(date, new Pesel(pesel).getBirthDate());
+        }
+    }
+
+    @Test
+    void should_enumerate_only_pesels_of_given_gender() {
+        var minDate = LocalDate.of(1899, 12, 31);
+        var maxDate = LocalDate.of(1900, 1, 1);
+
+        var females = PeselEnumerator.enumerate(minDate, maxDate, PeselGeneratorParams.Gender.FEMALE).collect(Collectors.toList());
+        var males = PeselEnumerator.enumerate(maxDate, minDate, PeselGeneratorParams.Gender.MALE).collect(Collectors.toList());
+
+        assertEquals(10_000, females.size());
+        assertEquals(10_000, males.size());
+        assertEquals("99923100007", females.get(0));
+        females.forEach(pesel -> assertEquals("FEMALE", new Pesel(pesel).getGender()));
+        males.forEach(pesel -> assertEquals("MALE", new Pesel(pesel).getGender()));
+        assertTrue(PeselValidator.isPeselValid(males.get(males.size() - 1)));
+    }
+
+    @Test
+    void should_enumerate_same_pesels_in_parallel() {
+        var minDate = LocalDate.of(2000, 2, 27);
+        var maxDate = LocalDate.of(2000, 3, 2);
+
+        var sequential = PeselEnumerator.enumeratePacked(minDate, maxDate, null).toArray();
+        var parallel = PeselEnumerator.enumeratePacked(minDate, maxDate, null).parallel().toArray();
+
+        assertEquals(PeselEnumerator.count(minDate, maxDate, null), sequential.length);
+        assertEquals(50_000, sequential.length);
+        assertArrayEquals(sequential, parallel);
+        for (long packed : sequential) {
+            assertTrue(PeselValidator.isPeselValid(PackedPesel.unpack(packed)));
+        }
+    }
+
+    @Test
+    void should_count_pesels_of_whole_range() {
+        var count = PeselEnumerator.count(LocalDate.of(1800, 1, 1), LocalDate.of(2299, 12, 31), PeselGeneratorParams.Gender.MALE);
+
+        assertEquals((LocalDate.of(2300, 1, 1).toEpochDay() - LocalDate.of(1800, 1, 1).toEpochDay()) * 5_000, count);
+    }
+
+    @Test
+    void should_throw_exception_if_dates_are_invalid() {
+        var date = LocalDate.of(1990, 1, 1);
+
+        assertThrows(NullPointerException.class, () -> PeselEnumerator.enumerate(null, date, null));
+        assertThrows(IllegalArgumentException.class, () -> PeselEnumerator.enumerate(LocalDate.of(1799, 12, 31), date, null));
+        assertThrows(IllegalArgumentException.class, () -> PeselEnumerator.count(date, LocalDate.of(2300, 1, 1), null));
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselEventMonitorTest {
+
+    @Test
+    void should_aggregate_recorded_validations_rejections_and_generations() throws InterruptedException {
+        var pesels = List.of("92082683499", "04242625931", "92082683498", "9208268349", "92023012344");
+        var generator = new PeselGenerator(PeselGeneratorParams.builder().build());
+        var deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+
+        try (var monitor = PeselEventMonitor.start()) {
+            var snapshot = monitor.snapshot();
+            while (snapshot.getBatchCount() == 0 || snapshot.getEstimatedRejectionCount() == 0
+                    || snapshot.getEstimatedGeneratedCount() == 0) {
+                assertTrue(System.nanoTime() < deadline, "Events were not delivered: " + snapshot);
+                assertEquals(2, PeselValidationStrategy.standard().countValid(pesels));
+                assertEquals(2, PeselValidationStrategy.standard().checkAll(pesels, new InvalidPeselReason[pesels.size()]));
+                for (int i = 0; i < 1000; i++) {
+                    assertThrows(InvalidPeselException.class, () -> PeselValidationStrategy.standard().assertValid("92082683498"));
+                }
+                generator.generatePesels(10);
+                Thread.sleep(100);
+                snapshot = monitor.snapshot();
+            }
+
+            assertTrue(snapshot.getValidatedCount() >= 5 * snapshot.getBatchCount());
+            assertTrue(snapshot.getValidCount() >= 2 * snapshot.getBatchCount());
+            assertTrue(snapshot.getInvalidCount(InvalidPeselReason.INVALID_CONTROL_DIGIT) >= snapshot.getBatchCount());
+            assertTrue(snapshot.getInvalidCount(InvalidPeselReason.INVALID_LENGTH) >= snapshot.getBatchCount());
+            assertTrue(snapshot.getInvalidCount(InvalidPeselReason.INVALID_BIRTH_DATE) >= snapshot.getBatchCount());
+            assertEquals(snapshot.getInvalidCount(), Arrays.stream(InvalidPeselReason.values()).mapToLong(snapshot::getInvalidCount).sum());
+            assertEquals(0, snapshot.getEstimatedRejectionCount() % PeselInvalidEvent.SAMPLE_RATE);
+            assertTrue(snapshot.getEstimatedRejectionCount(InvalidPeselReason.INVALID_CONTROL_DIGIT) > 0);
+            assertTrue(snapshot.getEstimatedGeneratedCount() >= 10);
+            assertTrue(snapshot.getMaxBatchDuration().compareTo(snapshot.getTotalBatchDuration()) <= 0);
+            assertNotNull(snapshot.getSlowestBatchThread());
+        }
+    }
+
+    @Test
+    void should_not_count_reasons_when_events_are_disabled() {
+        var event = new PeselValidationBatchEvent();
+
+        assertFalse(event.isEnabled());
+        assertEquals(1, PeselValidationStrategy.standard().countValid(List.of("92082683499", "92082683498")));
+    }
+
+    @Test
+    void should_throw_exception_when_threshold_is_negative() {
+        assertThrows(IllegalArgumentException.class, () -> PeselEventMonitor.start(Duration.ofMillis(-1)));
+        assertThrows(NullPointerException.class, () -> PeselEventMonitor.start(null));
+    }
+}
@@ -6,7 +6,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -171,4 +175,173 @@ public class PeselGeneratorTest {
 
         assertTrue(PeselValidator.isPeselValid(generatedPesel));
     }
+
+    @RepeatedTest(100)
+    void should_generate_pesel_with_default_params_resolved_against_given_clock() {
+        var clock = Clock.fixed(LocalDate.of(2000, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        var params = PeselGeneratorParams.builder()
+                .clock(clock)
+                .build();
+        var generator = new PeselGenerator(params);
+        String generatedPesel = generator.generatePesel();
+
+        var pesel = new Pesel(generatedPesel);
+        assertEquals(LocalDate.of(1900, 6, 15), params.getMinDate());
+        assertEquals(LocalDate.of(2000, 6, 15), params.getMaxDate());
+        assertFalse(pesel.getBirthDate().isBefore(LocalDate.of(1900, 6, 15)));
+        assertFalse(pesel.getBirthDate().isAfter(LocalDate.of(2000, 6, 15)));
+    }
+
+    @RepeatedTest(100)
+    void should_generate_pesel_within_given_age_range() {
+        var clock = Clock.fixed(LocalDate.of(2000, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        var params = PeselGeneratorParams.builder()
+                .clock(clock)
+                .ageRange(65, 18)
+                .build();
+        var generator = new PeselGenerator(params);
+        String generatedPesel = generator.generatePesel();
+
+        var pesel = new Pesel(generatedPesel);
+        assertEquals(LocalDate.of(1934, 6, 16), params.getMinDate());
+        assertEquals(LocalDate.of(1982, 6, 15), params.getMaxDate());
+        assertFalse(pesel.getBirthDate().isBefore(LocalDate.of(1934, 6, 16)));
+        assertFalse(pesel.getBirthDate().isAfter(LocalDate.of(1982, 6, 15)));
+    }
+
+    @Test
+    void should_throw_exception_if_age_range_is_combined_with_dates() {
+        var builder = PeselGeneratorParams.builder()
+                .ageRange(18, 65)
+                .minDate(LocalDate.of(1990, 1, 1));
+
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void should_throw_exception_if_given_age_is_invalid() {
+        var builder = PeselGeneratorParams.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.ageRange(-1, 65));
+        assertThrows(IllegalArgumentException.class, () -> builder.ageRange(18, 500));
+    }
+
+    @Test
+    void should_resolve_date_range_again_when_clock_day_changes() {
+        var clock = new MutableClock(LocalDate.of(2000, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC));
+        var params = PeselGeneratorParams.builder()
+                .clock(clock)
+                .ageRange(0, 0)
+                .build();
+        var generator = new PeselGenerator(params);
+
+        LocalDate firstBirthDate = new Pesel(generator.generatePesel()).getBirthDate();
+        assertFalse(firstBirthDate.isBefore(LocalDate.of(1999, 6, 16)));
+        assertFalse(firstBirthDate.isAfter(LocalDate.of(2000, 6, 15)));
+        clock.instant = LocalDate.of(2010, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        for (String generatedPesel : generator.generatePesels(100)) {
+            LocalDate birthDate = new Pesel(generatedPesel).getBirthDate();
+            assertFalse(birthDate.isBefore(LocalDate.of(2009, 1, 2)));
+            assertFalse(birthDate.isAfter(LocalDate.of(2010, 1, 1)));
+        }
+    }
+
+    @Test
+    void should_generate_given_number_of_pesels() {
+        var params = PeselGeneratorParams.builder()
+                .gender(PeselGeneratorParams.Gender.FEMALE)
+                .build();
+        var generator = new PeselGenerator(params);
+
+        var generatedPesels = generator.generatePesels(1000);
+
+        assertEquals(1000, generatedPesels.size());
+        generatedPesels.forEach(generatedPesel -> assertEquals("FEMALE", new Pesel(generatedPesel).getGender()));
+        assertTrue(generator.generatePesels(0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> generator.generatePesels(-1));
+    }
+
+    @Test
+    void should_generate_pesel_with_given_birth_year_weights() {
+        var params = PeselGeneratorParams.builder()
+                .birthYearWeights(1990, 1, 0, 3)
+                .build();
+        var generator = new PeselGenerator(params);
+        var counts = new int[3];
+
+        for (String generatedPesel : generator.generatePesels(10_000)) {
+            counts[new Pesel(generatedPesel).getBirthDate().getYear() - 1990]++;
+        }
+
+        assertEquals(0, counts[1]);
+        assertEquals(2500, counts[0], 300);
+        assertEquals(7500, counts[2], 300);
+    }
+
+    @Test
+    void should_generate_pesel_with_given_age_weights_and_male_shares() {
+        var clock = Clock.fixed(LocalDate.of(2000, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        var params = PeselGeneratorParams.builder()
+                .clock(clock)
+                .ageWeights(0, 1, 1)
+                .maleShares(0, 1, 0)
+                .build();
+        var generator = new PeselGenerator(params);
+
+        for (String generatedPesel : generator.generatePesels(1000)) {
+            var pesel = new Pesel(generatedPesel);
+            assertFalse(pesel.getBirthDate().isBefore(LocalDate.of(1997, 6, 16)));
+            assertFalse(pesel.getBirthDate().isAfter(LocalDate.of(1999, 6, 15)));
+            var expectedGender = pesel.getBirthDate().isAfter(LocalDate.of(1998, 6, 15)) ? "MALE" : "FEMALE";
+            assertEquals(expectedGender, pesel.getGender());
+        }
+    }
+
+    @Test
+    void should_throw_exception_if_weights_are_invalid() {
+        assertThrows(IllegalArgumentException.class, () -> PeselGeneratorParams.builder().birthYearWeights(1799, 1));
+        assertThrows(IllegalArgumentException.class, () -> PeselGeneratorParams.builder().birthYearWeights(2299, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> PeselGeneratorParams.builder().birthYearWeights(1990));
+        assertThrows(IllegalArgumentException.class, () -> PeselGeneratorParams.builder().ageWeights(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> PeselGeneratorParams.builder().ageWeights(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PeselGeneratorParams.builder().maleShares(1.5));
+    }
+
+    @Test
+    void should_throw_exception_if_weights_are_combined_with_other_params() {
+        var withDates = PeselGeneratorParams.builder().ageWeights(1, 2).minDate(LocalDate.of(1990, 1, 1));
+        var withAgeRange = PeselGeneratorParams.builder().birthYearWeights(1990, 1, 2).ageRange(18, 65);
+        var withBothWeights = PeselGeneratorParams.builder().birthYearWeights(1990, 1, 2).ageWeights(1, 2);
+        var withGender = PeselGeneratorParams.builder().ageWeights(1, 2).maleShares(0.5, 0.5).gender(PeselGeneratorParams.Gender.MALE);
+        var withWrongShares = PeselGeneratorParams.builder().ageWeights(1, 2).maleShares(0.5);
+
+        assertThrows(IllegalArgumentException.class, withDates::build);
+        assertThrows(IllegalArgumentException.class, withAgeRange::build);
+        assertThrows(IllegalArgumentException.class, withBothWeights::build);
+        assertThrows(IllegalArgumentException.class, withGender::build);
+        assertThrows(IllegalArgumentException.class, withWrongShares::build);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselIncrementalValidatorTest {
+    @ParameterizedTest
+    @ValueSource(strings = {"78010469227", "73673198930", "58883175997", "04242625931", "92082683499"})
+    void should_report_incomplete_until_valid_pesel_is_typed(String givenPesel) {
+        var validator = new PeselIncrementalValidator();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(PeselIncrementalValidator.Status.INCOMPLETE, validator.accept(givenPesel.charAt(i)));
+        }
+
+        assertEquals(PeselIncrementalValidator.Status.VALID, validator.accept(givenPesel.charAt(10)));
+        assertNull(validator.getReason());
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideInvalidInputs")
+    void should_report_invalid_at_first_wrong_character(String givenInput, int expectedLength, InvalidPeselReason expectedReason) {
+        var validator = new PeselIncrementalValidator();
+
+        for (int i = 0; i < givenInput.length(); i++) {
+            var status = validator.accept(givenInput.charAt(i));
+            assertEquals(i + 1 >= expectedLength, status == PeselIncrementalValidator.Status.INVALID);
+        }
+
+        assertEquals(expectedReason, validator.getReason());
+    }
+
+    private static Stream<Arguments> provideInvalidInputs() {
+        return Stream.of(
+                Arguments.of("85a", 3, InvalidPeselReason.INVALID_CHARACTERS),
+                Arguments.of("8513", 4, InvalidPeselReason.INVALID_BIRTH_DATE),
+                Arguments.of("85004", 4, InvalidPeselReason.INVALID_BIRTH_DATE),
+                Arguments.of("85024", 5, InvalidPeselReason.INVALID_BIRTH_DATE),
+                Arguments.of("850229", 6, InvalidPeselReason.INVALID_BIRTH_DATE),
+                Arguments.of("010229", 6, InvalidPeselReason.INVALID_BIRTH_DATE),
+                Arguments.of("78010469225", 11, InvalidPeselReason.INVALID_CONTROL_DIGIT),
+                Arguments.of("780104692270", 12, InvalidPeselReason.INVALID_LENGTH)
+        );
+    }
+
+    @Test
+    void should_accept_leap_day_only_in_leap_year() {
+        var validator = new PeselIncrementalValidator();
+
+        assertEquals(PeselIncrementalValidator.Status.INCOMPLETE, validator.acceptAll("002229"));
+        validator.reset();
+        assertEquals(PeselIncrementalValidator.Status.INVALID, validator.acceptAll("008229"));
+    }
+
+    @Test
+    void should_recover_after_deleting_wrong_character() {
+        var validator = new PeselIncrementalValidator();
+
+        assertEquals(PeselIncrementalValidator.Status.INVALID, validator.acceptAll("7801046922x"));
+        assertEquals(PeselIncrementalValidator.Status.INCOMPLETE, validator.deleteLast());
+        assertEquals(PeselIncrementalValidator.Status.VALID, validator.accept('7'));
+        assertEquals(11, validator.length());
+    }
+
+    @Test
+    void should_stay_invalid_while_deleting_characters_after_wrong_one() {
+        var validator = new PeselIncrementalValidator();
+
+        validator.acceptAll("78x1046");
+
+        assertEquals(PeselIncrementalValidator.Status.INVALID, validator.deleteLast());
+        assertEquals(PeselIncrementalValidator.Status.INVALID, validator.deleteLast());
+        assertEquals(PeselIncrementalValidator.Status.INVALID, validator.deleteLast());
+        assertEquals(PeselIncrementalValidator.Status.INVALID, validator.deleteLast());
+        assertEquals(PeselIncrementalValidator.Status.INCOMPLETE, validator.deleteLast());
+        assertNull(validator.getReason());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"78010469227", "78010469225", "00000000000", "01016000019", "85022900009"})
+    void should_agree_with_pesel_validator(String givenPesel) {
+        var validator = new PeselIncrementalValidator();
+
+        var status = validator.acceptAll(givenPesel);
+
+        assertEquals(PeselValidator.isPeselValid(givenPesel), status == PeselIncrementalValidator.Status.VALID);
+    }
+}
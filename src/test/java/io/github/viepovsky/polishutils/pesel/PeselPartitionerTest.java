@@ -0,0 +1,87 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselPartitionerTest {
+
+    @Test
+    void should_spread_pesels_of_a_single_day_evenly() {
+        var date = LocalDate.of(1992, 8, 26);
+        var partitioner = PeselPartitioner.of(16);
+        var counts = new int[16];
+
+        PeselEnumerator.enumeratePacked(date, date, null).forEach(packed -> counts[partitioner.partition(packed)]++);
+
+        for (int count : counts) {
+            assertTrue(count > 500 && count < 750, "count " + count);
+        }
+    }
+
+    @Test
+    void should_move_only_keys_to_the_new_bucket_when_buckets_grow() {
+        var date = LocalDate.of(2004, 2, 29);
+        var moved = new int[1];
+
+        PeselEnumerator.enumeratePacked(date, date, null).forEach(packed -> {
+            long hash = PeselPartitioner.hash(packed);
+            int before = PeselPartitioner.jumpHash(hash, 10);
+            int after = PeselPartitioner.jumpHash(hash, 11);
+            if (before != after) {
+                assertEquals(10, after);
+                moved[0]++;
+            }
+        });
+
+        assertTrue(moved[0] > 700 && moved[0] < 1100, "moved " + moved[0]);
+    }
+
+    @Test
+    void should_assign_partitions_of_birth_date_range() {
+        var partitioner = PeselPartitioner.builder()
+                .partitions(16)
+                .birthDateBoundaries(LocalDate.of(1970, 1, 1), LocalDate.of(2000, 1, 1))
+                .build();
+
+        assertEquals(48, partitioner.getPartitionCount());
+        assertTrue(partitioner.partition("92082683499") >= 16 && partitioner.partition("92082683499") < 32);
+        assertTrue(partitioner.partition("69123100000") < 16);
+        assertTrue(partitioner.partition("70010100000") >= 16 && partitioner.partition("70010100000") < 32);
+        assertTrue(partitioner.partition("00210100000") >= 32);
+        assertTrue(partitioner.partition("00810100000") < 16);
+    }
+
+    @Test
+    void should_partition_packed_and_string_pesel_equally() {
+        var partitioner = PeselPartitioner.of(7);
+        var packedPesels = new long[]{92082683499L, 4242625931L, 0L, PackedPesel.MAX_VALUE};
+        var partitions = new int[4];
+
+        partitioner.partitionAll(packedPesels, partitions);
+
+        assertEquals(partitioner.partition("92082683499"), partitions[0]);
+        assertEquals(partitioner.partition("04242625931"), partitions[1]);
+        assertEquals(PeselPartitioner.hash(4242625931L), PeselPartitioner.hash("04242625931"));
+    }
+
+    @Test
+    void should_throw_on_invalid_arguments() {
+        var partitioner = PeselPartitioner.of(4);
+
+        assertThrows(IllegalArgumentException.class, () -> partitioner.partition("9208268349a"));
+        assertThrows(IllegalArgumentException.class, () -> partitioner.partition(-1L));
+        assertThrows(NullPointerException.class, () -> partitioner.partition((String) null));
+        assertThrows(IllegalArgumentException.class, () -> PeselPartitioner.of(0));
+        assertThrows(IllegalArgumentException.class, () -> PeselPartitioner.jumpHash(1L, 0));
+        assertThrows(IllegalArgumentException.class, () -> PeselPartitioner.builder()
+                .birthDateBoundaries(LocalDate.of(2000, 1, 1), LocalDate.of(1970, 1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> PeselPartitioner.builder()
+                .partitions(Integer.MAX_VALUE).birthDateBoundaries(LocalDate.of(2000, 1, 1)).build());
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselRedactorTest {
+
+    private static Stream<Arguments> texts() {
+        return Stream.of(
+                Arguments.of("user 92082683499 logged in", "user *********** logged in"),
+                Arguments.of("92082683499,04242625931", "***********,***********"),
+                Arguments.of("invalid 92082683498 control digit", "invalid 92082683498 control digit"),
+                Arguments.of("longer run 920826834990", "longer run 920826834990"),
+                Arguments.of("longer run 192082683499", "longer run 192082683499"),
+                Arguments.of("x92082683499y", "x***********y"),
+                Arguments.of("", "")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("texts")
+    void should_redact_pesels_in_text(String text, String expected) {
+        var redactor = PeselRedactor.of(PeselMask.FULL);
+        var bytes = text.getBytes(StandardCharsets.US_ASCII);
+        var characters = text.toCharArray();
+
+        redactor.redact(bytes, 0, bytes.length);
+        redactor.redact(characters, 0, characters.length);
+
+        assertEquals(expected, redactor.redact(text));
+        assertEquals(expected, new String(bytes, StandardCharsets.US_ASCII));
+        assertEquals(expected, new String(characters));
+    }
+
+    @Test
+    void should_mask_with_given_mask_and_check_birth_date() {
+        var redactor = PeselRedactor.builder().mask(PeselMask.BIRTH_YEAR).checkBirthDate().build();
+
+        assertEquals("id 92********* time 20130100001", redactor.redact("id 92082683499 time 20130100001"));
+        assertEquals("id *********** time ***********", PeselRedactor.of(PeselMask.FULL).redact("id 92082683499 time 20130100001"));
+        assertEquals("920826*****", PeselMask.BIRTH_DATE.apply(new Pesel("92082683499")));
+        assertEquals("92*********", PeselMask.BIRTH_YEAR.apply("92082683499"));
+        assertEquals("*****", PeselMask.BIRTH_DATE.apply("92082"));
+    }
+
+    @Test
+    void should_redact_pesels_split_between_writes() throws IOException {
+        var redactor = PeselRedactor.of(PeselMask.BIRTH_DATE);
+        var text = "a 92082683499 b 04242625931\n".repeat(5000) + "long 9208268349904242625931 end 92082683499";
+        var bytes = text.getBytes(StandardCharsets.US_ASCII);
+        var output = new ByteArrayOutputStream();
+
+        try (var stream = redactor.redacting(output)) {
+            for (int offset = 0; offset < bytes.length; offset += 7) {
+                stream.write(bytes, offset, Math.min(7, bytes.length - offset));
+                if (offset % 1001 == 0) {
+                    stream.flush();
+                }
+            }
+        }
+
+        assertEquals(redactor.redact(text), output.toString(StandardCharsets.US_ASCII));
+        assertTrue(output.toString(StandardCharsets.US_ASCII).endsWith(" end 920826*****"));
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselSetsTest {
+
+    private static long[] randomSortedPackedPesels(Random random, int length) {
+        var packedPesels = random.longs(length, 0, length * 2L + 1).map(value -> value * 100_003L).toArray();
+        PeselSorter.sort(packedPesels);
+        return packedPesels;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 10, 1_000, 400_000})
+    void should_compute_set_operations_like_tree_sets(int length) {
+        var random = new Random(length);
+        var first = randomSortedPackedPesels(random, length);
+        var second = randomSortedPackedPesels(random, length / 2);
+        var firstSet = new TreeSet<Long>();
+        var secondSet = new TreeSet<Long>();
+        Arrays.stream(first).forEach(firstSet::add);
+        Arrays.stream(second).forEach(secondSet::add);
+        var common = new TreeSet<>(firstSet);
+        common.retainAll(secondSet);
+        var all = new TreeSet<>(firstSet);
+        all.addAll(secondSet);
+        var firstOnly = new TreeSet<>(firstSet);
+        firstOnly.removeAll(secondSet);
+
+        var counts = PeselSets.count(first, second);
+
+        assertArrayEquals(toArray(common), PeselSets.intersect(first, second));
+        assertArrayEquals(toArray(all), PeselSets.union(first, second));
+        assertArrayEquals(toArray(firstOnly), PeselSets.except(first, second));
+        assertArrayEquals(toArray(common), PeselSets.intersect(Arrays.stream(first), Arrays.stream(second)).toArray());
+        assertArrayEquals(toArray(all), PeselSets.union(Arrays.stream(first), Arrays.stream(second)).toArray());
+        assertArrayEquals(toArray(firstOnly), PeselSets.except(Arrays.stream(first), Arrays.stream(second)).toArray());
+        assertEquals(common.size(), counts.getCommonCount());
+        assertEquals(all.size(), counts.getUnionCount());
+        assertEquals(firstOnly.size(), counts.getFirstOnlyCount());
+        assertEquals(counts.toString(), PeselSets.count(Arrays.stream(first), Arrays.stream(second)).toString());
+    }
+
+    @Test
+    void should_sort_externally_and_merge_files() throws IOException {
+        var random = new Random(7);
+        var values = random.longs(100_000, 0, PackedPesel.MAX_VALUE + 1).toArray();
+        var sorted = values.clone();
+        Arrays.sort(sorted);
+        var sortedFile = Files.createTempFile("pesels", ".bin");
+        var otherFile = Files.createTempFile("pesels", ".bin");
+        try {
+            PeselSets.sortExternally(Arrays.stream(values), sortedFile, 30_000);
+            PeselSets.writePacked(Arrays.stream(sorted, 0, 50_000), otherFile);
+
+            assertEquals(100_000 * 8, Files.size(sortedFile));
+            try (var read = PeselSets.readPacked(sortedFile)) {
+                assertArrayEquals(sorted, read.toArray());
+            }
+            try (var missing = PeselSets.except(PeselSets.readPacked(sortedFile), PeselSets.readPacked(otherFile))) {
+                assertArrayEquals(Arrays.stream(sorted, 50_000, 100_000).distinct().toArray(), missing.toArray());
+            }
+        } finally {
+            Files.deleteIfExists(sortedFile);
+            Files.deleteIfExists(otherFile);
+        }
+    }
+
+    @Test
+    void should_throw_on_unsorted_or_invalid_input() {
+        assertThrows(IllegalArgumentException.class, () -> PeselSets.intersect(new long[]{3, 2}, new long[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> PeselSets.union(new long[]{-1, 2}, new long[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> PeselSets.except(LongStream.of(1, 5, 4), LongStream.of(2)).toArray());
+        assertThrows(IllegalArgumentException.class, () -> PeselSets.sortExternally(LongStream.of(1), Files.createTempFile("pesels", ".bin"), 0));
+    }
+
+    private static long[] toArray(TreeSet<Long> set) {
+        return set.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselSorterTest {
+
+    private static long[] randomPackedPesels(int length) {
+        var random = new Random(length);
+        var minDay = LocalDate.of(1800, 1, 1).toEpochDay();
+        var maxDay = LocalDate.of(2299, 12, 31).toEpochDay();
+        var packedPesels = new long[length];
+        for (int i = 0; i < length; i++) {
+            var epochDay = minDay + random.nextInt((int) (maxDay - minDay + 1));
+            packedPesels[i] = PeselEncoder.encodePackedEpochDay(epochDay, random.nextInt(1000), random.nextInt(10));
+        }
+        return packedPesels;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 100, 10_000, 300_000})
+    void should_sort_packed_pesels_numerically_and_by_birth_date(int length) {
+        var packedPesels = randomPackedPesels(length);
+        var expected = packedPesels.clone();
+        Arrays.sort(expected);
+        var expectedByBirthDate = Arrays.stream(packedPesels).boxed()
+                .sorted(Comparator.comparing((Long packed) -> new Pesel(PackedPesel.unpack(packed)).getBirthDate())
+                        .thenComparing(Comparator.naturalOrder()))
+                .mapToLong(Long::longValue)
+                .toArray();
+        var byBirthDate = packedPesels.clone();
+
+        PeselSorter.sort(packedPesels);
+        PeselSorter.sortByBirthDate(byBirthDate);
+
+        assertArrayEquals(expected, packedPesels);
+        assertArrayEquals(expectedByBirthDate, byBirthDate);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 50_000})
+    void should_sort_pesels_like_comparators(int length) {
+        var pesels = Arrays.stream(randomPackedPesels(length))
+                .mapToObj(packed -> new Pesel(PackedPesel.unpack(packed)))
+                .toArray(Pesel[]::new);
+        var expected = pesels.clone();
+        var expectedByBirthDate = pesels.clone();
+        Arrays.sort(expected);
+        Arrays.sort(expectedByBirthDate, Comparator.comparing(Pesel::getBirthDate).thenComparing(Comparator.naturalOrder()));
+        var byBirthDate = pesels.clone();
+
+        PeselSorter.sort(pesels);
+        PeselSorter.sortByBirthDate(byBirthDate);
+
+        assertArrayEquals(expected, pesels);
+        assertArrayEquals(expectedByBirthDate, byBirthDate);
+    }
+
+    @Test
+    void should_throw_on_invalid_packed_pesels() {
+        assertThrows(IllegalArgumentException.class, () -> PeselSorter.sort(new long[]{4242625931L, -1L}));
+        assertThrows(IllegalArgumentException.class, () -> PeselSorter.sortByBirthDate(new long[]{100_000_000_000L}));
+        assertThrows(NullPointerException.class, () -> PeselSorter.sort((Pesel[]) null));
+    }
+
+    @Test
+    void should_leave_array_unchanged_when_sorting_by_birth_date_fails() {
+        var packedPesels = randomPackedPesels(20_000);
+        packedPesels[packedPesels.length - 1] = -1L;
+        var expected = packedPesels.clone();
+
+        assertThrows(IllegalArgumentException.class, () -> PeselSorter.sortByBirthDate(packedPesels));
+        assertArrayEquals(expected, packedPesels);
+    }
+}
@@ -119,4 +119,18 @@ class PeselTest {
     void should_throw_exception_if_pesel_is_invalid() {
         assertThrows(InvalidPeselException.class, () -> PeselValidator.assertIsPeselValid("78010469225"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_compare_pesels_by_digits_and_by_birth_date() {
+        var older = new Pesel("92082683499");
+        var younger = new Pesel("04242625931");
+
+        assertEquals(older, new Pesel("92082683499"));
+        assertEquals(older.hashCode(), new Pesel("92082683499").hashCode());
+        assertNotEquals(older, younger);
+        assertTrue(older.compareTo(younger) > 0);
+        assertTrue(Pesel.BY_BIRTH_DATE.compare(older, younger) < 0);
+        assertTrue(Pesel.BY_BIRTH_DATE.compare(new Pesel("58883175997"), new Pesel("58083175993")) < 0);
+        assertEquals(0, Pesel.BY_BIRTH_DATE.compare(older, new Pesel("92082683499")));
+    }
+}
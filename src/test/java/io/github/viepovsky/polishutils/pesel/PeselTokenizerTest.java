@@ -0,0 +1,73 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselTokenizerTest {
+
+    private static final byte[] KEY = new byte[]{3, 10, 17, 24, 31, 38, 45, 52, 59, 66, 73, 80, 87, 94, 101, 108};
+
+    @Test
+    void should_tokenize_to_valid_pesels_and_restore_them() {
+        var tokenizer = PeselTokenizer.builder().key(KEY).build();
+        var date = LocalDate.of(2004, 2, 29);
+        var pesels = PeselEnumerator.enumeratePacked(date, date, null).toArray();
+        var tokens = new long[pesels.length];
+        var restored = new long[pesels.length];
+
+        tokenizer.tokenizeAll(pesels, tokens);
+        tokenizer.detokenizeAll(tokens, restored);
+
+        assertArrayEquals(pesels, restored);
+        assertEquals(pesels.length, Arrays.stream(tokens).distinct().count());
+        for (long token : tokens) {
+            assertTrue(PeselValidator.isPeselValid(PackedPesel.unpack(token)));
+        }
+        assertEquals("84032821042", PeselTokenizer.builder().key(KEY).build().tokenize("50010100003"));
+        assertEquals("50010100003", tokenizer.detokenize("84032821042"));
+    }
+
+    @Test
+    void should_preserve_birth_year_and_gender() {
+        var tokenizer = PeselTokenizer.builder().key(KEY).preserveBirthYear().preserveGender().build();
+        var date = LocalDate.of(1899, 12, 31);
+
+        PeselEnumerator.enumerate(date, date, null).forEach(pesel -> {
+            var token = tokenizer.tokenize(pesel);
+            assertEquals(1899, new Pesel(token).getBirthDate().getYear());
+            assertEquals(new Pesel(pesel).getGender(), new Pesel(token).getGender());
+            assertEquals(pesel, tokenizer.detokenize(token));
+        });
+    }
+
+    @Test
+    void should_give_different_tokens_for_different_keys() {
+        var otherKey = KEY.clone();
+        otherKey[0]++;
+
+        var token = PeselTokenizer.builder().key(KEY).build().tokenize("92082683499");
+        var otherToken = PeselTokenizer.builder().key(otherKey).build().tokenize("92082683499");
+
+        assertNotEquals(token, otherToken);
+    }
+
+    @Test
+    void should_throw_on_invalid_arguments() {
+        var tokenizer = PeselTokenizer.builder().key(KEY).build();
+
+        assertThrows(InvalidPeselException.class, () -> tokenizer.tokenize("92082683498"));
+        assertThrows(InvalidPeselException.class, () -> tokenizer.tokenizePacked(92083283490L));
+        assertThrows(InvalidPeselException.class, () -> tokenizer.detokenizePacked(92082683498L));
+        assertThrows(IllegalArgumentException.class, () -> tokenizer.tokenizePacked(-1L));
+        assertThrows(NullPointerException.class, () -> tokenizer.tokenize(null));
+        assertThrows(IllegalArgumentException.class, () -> PeselTokenizer.builder().key(new byte[8]));
+        assertThrows(IllegalStateException.class, () -> PeselTokenizer.builder().preserveGender().build());
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselValidationStrategyTest {
+
+    @Test
+    void should_check_pesel_with_standard_strategy() {
+        var validation = PeselValidationStrategy.standard();
+
+        assertNull(validation.check("92082683499"));
+        assertEquals(InvalidPeselReason.INVALID_LENGTH, validation.check("9208268349"));
+        assertEquals(InvalidPeselReason.INVALID_CHARACTERS, validation.check("9208268349a"));
+        assertEquals(InvalidPeselReason.INVALID_CONTROL_DIGIT, validation.check("92082683498"));
+        assertEquals(InvalidPeselReason.INVALID_BIRTH_DATE, validation.check("90023012340"));
+        assertTrue(validation.isValid(new StringBuilder("92082683499")));
+        assertThrows(NullPointerException.class, () -> validation.check(null));
+    }
+
+    @Test
+    void should_throw_exception_with_reason_message() {
+        var exception = assertThrows(InvalidPeselException.class, () -> PeselValidationStrategy.standard().assertValid("92082683498"));
+
+        assertEquals(InvalidPeselReason.INVALID_CONTROL_DIGIT.getMessage(), exception.getMessage());
+    }
+
+    @Test
+    void should_reject_future_birth_date_with_strict_strategy() {
+        var clock = Clock.fixed(LocalDate.of(2000, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        var validation = PeselValidationStrategy.strict(clock);
+
+        assertNull(validation.check(PeselEncoder.encode(LocalDate.of(2000, 6, 15), 123, 4)));
+        assertEquals(InvalidPeselReason.BIRTH_DATE_OUT_OF_RANGE, validation.check("00261612343"));
+        assertNull(PeselValidationStrategy.standard().check("00261612343"));
+        assertThrows(NullPointerException.class, () -> PeselValidationStrategy.strict(null));
+    }
+
+    @Test
+    void should_skip_birth_date_check_with_lenient_strategy() {
+        var validation = PeselValidationStrategy.lenient();
+
+        assertNull(validation.check("90023012340"));
+        assertEquals(InvalidPeselReason.INVALID_CONTROL_DIGIT, validation.check("92082683498"));
+    }
+
+    @Test
+    void should_check_only_given_level() {
+        var format = PeselValidationStrategy.of(PeselValidationLevel.FORMAT);
+        var checksum = PeselValidationStrategy.of(PeselValidationLevel.CHECKSUM);
+        var full = PeselValidationStrategy.of(PeselValidationLevel.FULL);
+
+        assertNull(format.check("92082683498"));
+        assertEquals(InvalidPeselReason.INVALID_CHARACTERS, format.check("9208268349a"));
+        assertEquals(InvalidPeselReason.INVALID_LENGTH, format.check("920826834"));
+        assertEquals(InvalidPeselReason.INVALID_CONTROL_DIGIT, checksum.check("92082683498"));
+        assertNull(checksum.check("90023012340"));
+        assertEquals(InvalidPeselReason.INVALID_BIRTH_DATE, full.check("90023012340"));
+        assertSame(PeselValidationStrategy.standard(), full);
+        assertSame(PeselValidationStrategy.lenient(), checksum);
+    }
+
+    @Test
+    void should_check_all_pesels_in_bulk() {
+        var pesels = List.of("92082683499", "92082683498", "90023012340", "920826834");
+        var reasons = new InvalidPeselReason[pesels.size()];
+
+        int valid = PeselValidationStrategy.standard().checkAll(pesels, reasons);
+
+        assertEquals(1, valid);
+        assertArrayEquals(new InvalidPeselReason[]{null, InvalidPeselReason.INVALID_CONTROL_DIGIT,
+                InvalidPeselReason.INVALID_BIRTH_DATE, InvalidPeselReason.INVALID_LENGTH}, reasons);
+        assertEquals(2, PeselValidationStrategy.lenient().countValid(pesels));
+        assertThrows(IllegalArgumentException.class, () -> PeselValidationStrategy.standard().checkAll(pesels, new InvalidPeselReason[3]));
+    }
+
+    @Test
+    void should_accept_only_given_age_range() {
+        var clock = Clock.fixed(LocalDate.of(2000, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        var validation = PeselValidationStrategy.builder()
+                .clock(clock)
+                .ageBetween(65, 18)
+                .build();
+
+        assertNull(validation.check(PeselEncoder.encode(LocalDate.of(1934, 6, 16), 1, 1)));
+        assertNull(validation.check(PeselEncoder.encode(LocalDate.of(1982, 6, 15), 1, 1)));
+        assertEquals(InvalidPeselReason.BIRTH_DATE_OUT_OF_RANGE, validation.check(PeselEncoder.encode(LocalDate.of(1934, 6, 15), 1, 1)));
+        assertEquals(InvalidPeselReason.BIRTH_DATE_OUT_OF_RANGE, validation.check(PeselEncoder.encode(LocalDate.of(1982, 6, 16), 1, 1)));
+        assertEquals(InvalidPeselReason.INVALID_BIRTH_DATE, validation.check("90023012340"));
+    }
+
+    @Test
+    void should_combine_issued_era_with_not_in_future_rule() {
+        var clock = Clock.fixed(LocalDate.of(2000, 6, 15).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        var validation = PeselValidationStrategy.builder()
+                .clock(clock)
+                .notInFuture()
+                .bornBetween(LocalDate.of(2099, 12, 31), LocalDate.of(1900, 1, 1))
+                .build();
+
+        assertNull(validation.check(PeselEncoder.encode(LocalDate.of(1900, 1, 1), 1, 1)));
+        assertNull(validation.check(PeselEncoder.encode(LocalDate.of(2000, 6, 15), 1, 1)));
+        assertEquals(InvalidPeselReason.BIRTH_DATE_OUT_OF_RANGE, validation.check(PeselEncoder.encode(LocalDate.of(1899, 12, 31), 1, 1)));
+        assertEquals(InvalidPeselReason.BIRTH_DATE_OUT_OF_RANGE, validation.check(PeselEncoder.encode(LocalDate.of(2000, 6, 16), 1, 1)));
+        assertThrows(InvalidPeselException.class, () -> PeselDecodingStrategy.of(validation).decode(PeselEncoder.encode(LocalDate.of(2150, 1, 1), 1, 1)));
+    }
+
+    @Test
+    void should_throw_exception_if_rules_are_invalid() {
+        assertThrows(IllegalArgumentException.class, () -> PeselValidationStrategy.builder().ageBetween(-1, 18));
+        assertThrows(IllegalArgumentException.class, () -> PeselValidationStrategy.builder().level(PeselValidationLevel.CHECKSUM).notInFuture().build());
+        assertThrows(NullPointerException.class, () -> PeselValidationStrategy.builder().bornBetween(null, LocalDate.of(2000, 1, 1)));
+        assertSame(PeselValidationStrategy.lenient(), PeselValidationStrategy.builder().level(PeselValidationLevel.CHECKSUM).build());
+    }
+}
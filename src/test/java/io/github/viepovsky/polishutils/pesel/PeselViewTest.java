@@ -0,0 +1,68 @@
+package io.github.viepovsky.polishutils.pesel;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeselViewTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"92082683499", "04242625931", "58883175997", "58683175991", "78010469227"})
+    void should_read_the_same_fields_as_pesel(String givenPesel) {
+        var pesel = new Pesel(givenPesel);
+        var view = new PeselView();
+        var bytes = ("x" + givenPesel).getBytes(StandardCharsets.US_ASCII);
+
+        for (int source = 0; source < 3; source++) {
+            var valid = switch (source) {
+                case 0 -> view.pointTo(givenPesel);
+                case 1 -> view.pointTo(bytes, 1);
+                default -> view.pointTo(PackedPesel.pack(givenPesel));
+            };
+
+            assertTrue(valid);
+            assertEquals(pesel.getBirthDateDigits(), view.getBirthDateDigits());
+            assertEquals(pesel.getSerialDigits(), view.getSerialDigits());
+            assertEquals(pesel.getGenderDigit(), view.getGenderDigit());
+            assertEquals(pesel.getControlDigit(), view.getControlDigit());
+            assertEquals(pesel.getGender(), view.getGender());
+            assertEquals(pesel.getBirthDate(), LocalDate.of(view.getBirthYear(), view.getBirthMonth(), view.getBirthDay()));
+            assertEquals(pesel.getBirthDate().toEpochDay(), view.getBirthEpochDay());
+            assertEquals(pesel, view.toPesel());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"92082683498", "20130100001", "9208268349", "920826834990", "9208268349a", ""})
+    void should_not_point_at_invalid_pesel(String givenPesel) {
+        var view = new PeselView();
+        view.pointTo("92082683499");
+
+        assertFalse(view.pointTo(givenPesel));
+        assertFalse(view.isValid());
+        assertThrows(IllegalStateException.class, view::getBirthYear);
+    }
+
+    @Test
+    void should_reuse_the_view_of_the_current_thread() throws InterruptedException {
+        var view = PeselView.forCurrentThread();
+        var otherThreadView = new PeselView[1];
+        var thread = new Thread(() -> otherThreadView[0] = PeselView.forCurrentThread());
+        thread.start();
+        thread.join();
+
+        assertSame(view, PeselView.forCurrentThread());
+        assertNotEquals(view, otherThreadView[0]);
+        assertThrows(IllegalArgumentException.class, () -> view.pointTo(-1L));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.pointTo(new byte[11], 1));
+        assertThrows(NullPointerException.class, () -> view.pointTo((CharSequence) null));
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.viepovsky.polishutils.validation;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class WeightedChecksumTest {
+
+    @Test
+    void should_return_numeric_value_of_valid_numbers() {
+        assertEquals(92082683499L, WeightedChecksum.PESEL.scan("92082683499"));
+        assertEquals(5260250274L, WeightedChecksum.NIP.scan("5260250274"));
+        assertEquals(123456785L, WeightedChecksum.REGON9.scan("123456785"));
+        assertEquals(12345678512347L, WeightedChecksum.REGON14.scan("12345678512347"));
+        assertEquals(30L, WeightedChecksum.REGON9.scan("000000030"));
+    }
+
+    @Test
+    void should_return_result_of_invalid_numbers() {
+        assertEquals(WeightedChecksum.INVALID_LENGTH, WeightedChecksum.PESEL.scan("9208268349"));
+        assertEquals(WeightedChecksum.INVALID_CHARACTERS, WeightedChecksum.PESEL.scan("9208268349a"));
+        assertEquals(WeightedChecksum.INVALID_CONTROL_DIGIT, WeightedChecksum.PESEL.scan("92082683498"));
+        assertEquals(WeightedChecksum.INVALID_CONTROL_DIGIT, WeightedChecksum.NIP.scan("1234567890"));
+    }
+
+    @Test
+    void should_scan_bytes_at_offset() {
+        var bytes = "x;5260250274;526025027x".getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(5260250274L, WeightedChecksum.NIP.scan(bytes, 2));
+        assertEquals(WeightedChecksum.INVALID_CHARACTERS, WeightedChecksum.NIP.scan(bytes, 13));
+        assertThrows(IndexOutOfBoundsException.class, () -> WeightedChecksum.NIP.scan(bytes, 14));
+    }
+
+    @Test
+    void should_check_control_digit_of_numeric_value() {
+        assertTrue(WeightedChecksum.PESEL.isControlDigitValid(92082683499L));
+        assertFalse(WeightedChecksum.PESEL.isControlDigitValid(92082683498L));
+        assertTrue(WeightedChecksum.REGON9.isControlDigitValid(30L));
+        assertThrows(IllegalArgumentException.class, () -> WeightedChecksum.REGON9.isControlDigitValid(1_000_000_000L));
+        assertThrows(IllegalArgumentException.class, () -> WeightedChecksum.REGON9.isControlDigitValid(-1L));
+    }
+
+    @Test
+    void should_check_control_digit_of_sum_computed_by_caller() {
+        var digits = "5260250274";
+        long value = 0;
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int digit = digits.charAt(i) - '0';
+            value = value * 10 + digit;
+            sum += WeightedChecksum.NIP.getWeight(i) * digit;
+        }
+
+        assertEquals(0, WeightedChecksum.NIP.getWeight(9));
+        assertTrue(WeightedChecksum.NIP.isControlDigitValid(value, sum));
+        assertFalse(WeightedChecksum.NIP.isControlDigitValid(value + 1, sum));
+    }
+
+    @Test
+    void should_reduce_negative_sum_like_positive_one() {
+        long value = 92082683499L;
+        int sum = 9 + 3 * 2 + 7 * 0 + 9 * 8 + 2 + 3 * 6 + 7 * 8 + 9 * 3 + 4 + 3 * 9;
+
+        assertTrue(WeightedChecksum.PESEL.isControlDigitValid(value, sum - 1000));
+        assertFalse(WeightedChecksum.PESEL.isControlDigitValid(value, sum - 1001));
+        assertTrue(WeightedChecksum.NIP.isControlDigitValid(5260250274L, 169 - 11 * 20));
+    }
+
+    @Test
+    void should_build_custom_checksum() {
+        var checksum = WeightedChecksum.of(new int[]{1, 2}, 3, new int[]{0, 2, -1});
+
+        assertEquals(3, checksum.getLength());
+        assertEquals(WeightedChecksum.INVALID_CONTROL_DIGIT, checksum.scan("101"));
+        assertEquals(102L, checksum.scan("102"));
+        assertEquals(110L, checksum.scan("110"));
+        assertEquals(WeightedChecksum.INVALID_CONTROL_DIGIT, checksum.scan("111"));
+        assertEquals(WeightedChecksum.INVALID_CONTROL_DIGIT, checksum.scan("200"));
+        assertEquals(WeightedChecksum.INVALID_CONTROL_DIGIT, checksum.scan("209"));
+    }
+
+    @Test
+    void should_reject_invalid_table() {
+        assertThrows(IllegalArgumentException.class, () -> WeightedChecksum.of(new int[0], 10, new int[10]));
+        assertThrows(IllegalArgumentException.class, () -> WeightedChecksum.of(new int[18], 10, new int[10]));
+        assertThrows(IllegalArgumentException.class, () -> WeightedChecksum.of(new int[]{-1}, 10, new int[10]));
+        assertThrows(IllegalArgumentException.class, () -> WeightedChecksum.of(new int[]{1}, 1, new int[1]));
+        assertThrows(IllegalArgumentException.class, () -> WeightedChecksum.of(new int[]{1}, 10, new int[9]));
+        assertThrows(IllegalArgumentException.class, () -> WeightedChecksum.of(new int[]{1}, 2, new int[]{0, 10}));
+        assertThrows(NullPointerException.class, () -> WeightedChecksum.of(null, 10, new int[10]));
+    }
+}